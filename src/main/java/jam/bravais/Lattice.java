@@ -5,6 +5,7 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import jam.app.JamProperties;
 import jam.lang.JamException;
@@ -211,13 +212,11 @@ public final class Lattice {
      * lattice.
      */
     public List<Point> listPoints() {
-        var indexes = period.enumerate();
-        var points  = new ArrayList<Point>(indexes.size());
-
-        for (UnitIndex index : indexes)
-            points.add(unitCell.pointAt(index));
-
-        return points;
+        //
+        // Computing the points is stateless, and the ordered collector
+        // preserves the enumeration order of the period...
+        //
+        return period.parallelStream().map(unitCell::pointAt).collect(Collectors.toList());
     }
 
     /**
@@ -251,18 +250,16 @@ public final class Lattice {
      * to a list of its nearest neighbors.
      */
     public Map<UnitIndex, List<UnitIndex>> mapIndexNeighbors(CoordType coordType) {
-        List<UnitIndex> indexes = period.enumerate();
-
         Map<UnitIndex, List<UnitIndex>> neighborMap =
-            new LinkedHashMap<UnitIndex, List<UnitIndex>>(indexes.size());
+            new LinkedHashMap<UnitIndex, List<UnitIndex>>((int) Math.min(Integer.MAX_VALUE, period.countSites()));
 
         switch (coordType) {
         case ABSOLUTE:
-            mapAbsoluteIndexNeighbors(indexes, neighborMap);
+            mapAbsoluteIndexNeighbors(neighborMap);
             break;
 
         case IMAGE:
-            mapIndexNeighborImages(indexes, neighborMap);
+            mapIndexNeighborImages(neighborMap);
             break;
 
         default:
@@ -272,14 +269,12 @@ public final class Lattice {
         return neighborMap;
     }
 
-    private void mapAbsoluteIndexNeighbors(List<UnitIndex> indexes, Map<UnitIndex, List<UnitIndex>> neighborMap) {
-        for (UnitIndex index : indexes)
-            neighborMap.put(index, unitCell.getNeighbors(index));
+    private void mapAbsoluteIndexNeighbors(Map<UnitIndex, List<UnitIndex>> neighborMap) {
+        period.stream().forEach(index -> neighborMap.put(index, unitCell.getNeighbors(index)));
     }
 
-    private void mapIndexNeighborImages(List<UnitIndex> indexes, Map<UnitIndex, List<UnitIndex>> neighborMap) {
-        for (UnitIndex index : indexes)
-            neighborMap.put(index, listNeighborImages(index));
+    private void mapIndexNeighborImages(Map<UnitIndex, List<UnitIndex>> neighborMap) {
+        period.stream().forEach(index -> neighborMap.put(index, listNeighborImages(index)));
     }
 
     private List<UnitIndex> listNeighborImages(UnitIndex index) {
@@ -0,0 +1,402 @@
+
+package jam.bravais;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+import jam.lang.JamException;
+
+/**
+ * Stores the occupancy of every site on a Bravais lattice in a
+ * compact binary file that is accessed through memory mapping.
+ *
+ * <p><b>File format.</b> A snapshot file contains a fixed-length
+ * header followed by a flat array of {@code int} values (in native
+ * Java big-endian byte order), one for each site in the periodic
+ * box, in the ordinal order defined by {@link Period#ordinalOf}.
+ * The header records the unit cell type and the lattice period.
+ * Each site value is an integer code for the occupant of that site,
+ * or {@link #EMPTY} if the site is unoccupied.
+ *
+ * <p><b>Lazy, shared access.</b> Snapshots opened for reading are
+ * mapped read-only: no data is copied onto the Java heap, pages are
+ * loaded by the operating system only when they are accessed, and
+ * any number of processes may map the same file and share a single
+ * copy in the page cache.
+ *
+ * <p><b>Size.</b> A single memory mapping is limited to two gigabytes,
+ * so large snapshots are mapped in consecutive chunks; lattices with
+ * billions of sites are supported.
+ */
+public final class LatticeSnapshot {
+    private final Period period;
+    private final UnitCellType cellType;
+    private final boolean readOnly;
+
+    private final MappedByteBuffer[] mapped;
+    private final IntBuffer[] chunks;
+
+    private LatticeSnapshot(UnitCellType cellType, Period period, boolean readOnly, MappedByteBuffer[] mapped) {
+        this.period = period;
+        this.cellType = cellType;
+        this.readOnly = readOnly;
+        this.mapped = mapped;
+        this.chunks = new IntBuffer[mapped.length];
+
+        for (int index = 0; index < mapped.length; ++index)
+            chunks[index] = mapped[index].asIntBuffer();
+    }
+
+    /**
+     * The site value that indicates an unoccupied site.
+     */
+    public static final int EMPTY = -1;
+
+    /**
+     * The conventional suffix for snapshot files.
+     */
+    public static final String SUFFIX = ".lsnap";
+
+    private static final int MAGIC   = 0x4A4C534E; // "JLSN"
+    private static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 64;
+    private static final int TYPE_OFFSET = 24;
+    private static final int TYPE_LENGTH = 16;
+
+    // Each chunk holds 2^28 sites (one gigabyte)...
+    private static final int  CHUNK_SHIFT = 28;
+    private static final long CHUNK_SITES = 1L << CHUNK_SHIFT;
+    private static final long CHUNK_MASK  = CHUNK_SITES - 1;
+
+    /**
+     * Creates a new snapshot file with every site unoccupied and maps
+     * it for reading and writing.
+     *
+     * <p>Any existing file with the same name is overwritten.
+     *
+     * @param file the file to create.
+     *
+     * @param cellType the unit cell type of the lattice.
+     *
+     * @param period the periodic dimensions of the lattice.
+     *
+     * @return a writable snapshot with every site unoccupied.
+     *
+     * @throws RuntimeException if any I/O errors occur.
+     */
+    public static LatticeSnapshot create(File file, UnitCellType cellType, Period period) {
+        long fileSize = HEADER_SIZE + 4L * period.countSites();
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            raf.setLength(0);
+            raf.setLength(fileSize);
+
+            FileChannel channel = raf.getChannel();
+            writeHeader(channel, cellType, period);
+
+            LatticeSnapshot snapshot =
+                new LatticeSnapshot(cellType, period, false, mapChunks(channel, FileChannel.MapMode.READ_WRITE, period.countSites()));
+
+            snapshot.fill(EMPTY);
+            return snapshot;
+        }
+        catch (IOException ioex) {
+            throw JamException.runtime(ioex);
+        }
+    }
+
+    /**
+     * Opens an existing snapshot file for reading.  The file is mapped
+     * read-only, so the site values are loaded lazily by the operating
+     * system and may be shared with other processes.
+     *
+     * @param file the snapshot file to open.
+     *
+     * @return a read-only snapshot backed by the specified file.
+     *
+     * @throws RuntimeException if any I/O errors occur or the file is
+     * not a valid snapshot file.
+     */
+    public static LatticeSnapshot open(File file) {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            FileChannel channel = raf.getChannel();
+            ByteBuffer  header  = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+
+            if (header.getInt(0) != MAGIC)
+                throw JamException.runtime("File [%s] is not a lattice snapshot.", file);
+
+            if (header.getInt(4) != VERSION)
+                throw JamException.runtime("Unsupported snapshot version: [%d].", header.getInt(4));
+
+            UnitCellType cellType = readCellType(header);
+            Period       period   = readPeriod(header);
+
+            if (channel.size() != HEADER_SIZE + 4L * period.countSites())
+                throw JamException.runtime("Snapshot file [%s] is truncated.", file);
+
+            return new LatticeSnapshot(cellType, period, true, mapChunks(channel, FileChannel.MapMode.READ_ONLY, period.countSites()));
+        }
+        catch (IOException ioex) {
+            throw JamException.runtime(ioex);
+        }
+    }
+
+    /**
+     * Writes the occupancy of a population to a new snapshot file.
+     *
+     * @param <T> the run-time type of the lattice occupants.
+     *
+     * @param file the file to create.
+     *
+     * @param cellType the unit cell type of the population lattice.
+     *
+     * @param population the population to write.
+     *
+     * @param encoder a function that assigns a non-negative integer
+     * code to each occupant (for example, its serial number).
+     *
+     * @return a writable snapshot containing the population occupancy.
+     *
+     * @throws RuntimeException if any I/O errors occur.
+     */
+    public static <T> LatticeSnapshot write(File file,
+                                            UnitCellType cellType,
+                                            Population<T> population,
+                                            ToIntFunction<? super T> encoder) {
+        Period period = population.lattice().period();
+        LatticeSnapshot snapshot = create(file, cellType, period);
+
+        for (Map.Entry<UnitIndex, T> entry : population.viewImages().entrySet())
+            snapshot.set(period.ordinalOf(entry.getKey()), encoder.applyAsInt(entry.getValue()));
+
+        snapshot.force();
+        return snapshot;
+    }
+
+    private static void writeHeader(FileChannel channel, UnitCellType cellType, Period period) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+
+        header.putInt(0, MAGIC);
+        header.putInt(4, VERSION);
+        header.putInt(8, period.dimensionality());
+
+        for (int dim = 0; dim < 3; ++dim)
+            header.putInt(12 + 4 * dim, dim < period.dimensionality() ? period.period(dim) : 1);
+
+        byte[] typeName = cellType.name().getBytes(StandardCharsets.US_ASCII);
+
+        if (typeName.length > TYPE_LENGTH)
+            throw JamException.runtime("Unit cell type name [%s] is too long.", cellType);
+
+        for (int index = 0; index < typeName.length; ++index)
+            header.put(TYPE_OFFSET + index, typeName[index]);
+
+        channel.write(header, 0);
+    }
+
+    private static UnitCellType readCellType(ByteBuffer header) {
+        StringBuilder builder = new StringBuilder();
+
+        for (int index = 0; index < TYPE_LENGTH; ++index) {
+            byte b = header.get(TYPE_OFFSET + index);
+
+            if (b == 0)
+                break;
+
+            builder.append((char) b);
+        }
+
+        return UnitCellType.valueOf(builder.toString());
+    }
+
+    private static Period readPeriod(ByteBuffer header) {
+        int   dimensionality = header.getInt(8);
+        int[] periodLengths  = new int[dimensionality];
+
+        for (int dim = 0; dim < dimensionality; ++dim)
+            periodLengths[dim] = header.getInt(12 + 4 * dim);
+
+        return Period.box(periodLengths);
+    }
+
+    private static MappedByteBuffer[] mapChunks(FileChannel channel, FileChannel.MapMode mode, long siteCount) throws IOException {
+        int chunkCount = (int) ((siteCount + CHUNK_SITES - 1) >>> CHUNK_SHIFT);
+        MappedByteBuffer[] chunks = new MappedByteBuffer[chunkCount];
+
+        for (int index = 0; index < chunkCount; ++index) {
+            long firstSite  = index * CHUNK_SITES;
+            long chunkSites = Math.min(CHUNK_SITES, siteCount - firstSite);
+
+            chunks[index] = channel.map(mode, HEADER_SIZE + 4L * firstSite, 4L * chunkSites);
+        }
+
+        return chunks;
+    }
+
+    private void fill(int value) {
+        for (IntBuffer chunk : chunks)
+            for (int index = 0; index < chunk.limit(); ++index)
+                chunk.put(index, value);
+    }
+
+    private void validateWritable() {
+        if (readOnly)
+            throw new IllegalStateException("Snapshot is read-only.");
+    }
+
+    /**
+     * Returns the unit cell type of the lattice.
+     *
+     * @return the unit cell type of the lattice.
+     */
+    public UnitCellType cellType() {
+        return cellType;
+    }
+
+    /**
+     * Returns the periodic dimensions of the lattice.
+     *
+     * @return the periodic dimensions of the lattice.
+     */
+    public Period period() {
+        return period;
+    }
+
+    /**
+     * Counts the number of occupied sites by scanning the entire
+     * snapshot.
+     *
+     * @return the number of occupied sites.
+     */
+    public long countOccupied() {
+        long count = 0;
+
+        for (IntBuffer chunk : chunks)
+            for (int index = 0; index < chunk.limit(); ++index)
+                if (chunk.get(index) != EMPTY)
+                    ++count;
+
+        return count;
+    }
+
+    /**
+     * Returns the number of sites in the snapshot.
+     *
+     * @return the number of sites in the snapshot.
+     */
+    public long countSites() {
+        return period.countSites();
+    }
+
+    /**
+     * Flushes any changes to the underlying file.
+     */
+    public void force() {
+        if (!readOnly)
+            for (MappedByteBuffer chunk : mapped)
+                chunk.force();
+    }
+
+    /**
+     * Returns the value stored at a site.
+     *
+     * @param ordinal the ordinal position of the site.
+     *
+     * @return the occupant code stored at the specified site (or
+     * {@code EMPTY} if the site is unoccupied).
+     *
+     * @throws IndexOutOfBoundsException unless the ordinal lies in
+     * the range {@code [0, countSites())}.
+     */
+    public int get(long ordinal) {
+        validateOrdinal(ordinal);
+        return chunks[(int) (ordinal >>> CHUNK_SHIFT)].get((int) (ordinal & CHUNK_MASK));
+    }
+
+    /**
+     * Returns the value stored at a site.
+     *
+     * @param index the unit index of the site (an absolute index or a
+     * periodic image).
+     *
+     * @return the occupant code stored at the specified site (or
+     * {@code EMPTY} if the site is unoccupied).
+     */
+    public int get(UnitIndex index) {
+        return get(period.ordinalOf(index));
+    }
+
+    /**
+     * Identifies occupied sites.
+     *
+     * @param index the unit index of the site (an absolute index or a
+     * periodic image).
+     *
+     * @return {@code true} iff the specified site is occupied.
+     */
+    public boolean isOccupied(UnitIndex index) {
+        return get(index) != EMPTY;
+    }
+
+    /**
+     * Identifies read-only snapshots.
+     *
+     * @return {@code true} iff this snapshot was opened for reading
+     * only.
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Assigns the value stored at a site.
+     *
+     * @param ordinal the ordinal position of the site.
+     *
+     * @param value the occupant code for the site (or {@code EMPTY}
+     * to mark the site unoccupied).
+     *
+     * @throws IllegalStateException if this snapshot is read-only.
+     *
+     * @throws IndexOutOfBoundsException unless the ordinal lies in
+     * the range {@code [0, countSites())}.
+     */
+    public void set(long ordinal, int value) {
+        validateWritable();
+        validateOrdinal(ordinal);
+        chunks[(int) (ordinal >>> CHUNK_SHIFT)].put((int) (ordinal & CHUNK_MASK), value);
+    }
+
+    /**
+     * Assigns the value stored at a site.
+     *
+     * @param index the unit index of the site (an absolute index or a
+     * periodic image).
+     *
+     * @param value the occupant code for the site (or {@code EMPTY}
+     * to mark the site unoccupied).
+     *
+     * @throws IllegalStateException if this snapshot is read-only.
+     */
+    public void set(UnitIndex index, int value) {
+        set(period.ordinalOf(index), value);
+    }
+
+    private void validateOrdinal(long ordinal) {
+        if (ordinal < 0 || ordinal >= countSites())
+            throw new IndexOutOfBoundsException("Invalid site ordinal.");
+    }
+
+    @Override public String toString() {
+        return String.format("LatticeSnapshot(%s, %s)", cellType, period);
+    }
+}
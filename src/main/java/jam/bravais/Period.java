@@ -2,6 +2,10 @@
 package jam.bravais;
 
 import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Defines the dimensions of a periodic lattice and translates
@@ -183,11 +187,113 @@ public interface Period {
      */
     public abstract long countSites();
 
+    /**
+     * Returns the periodic image at a given ordinal position in the
+     * enumeration order of this period (the inverse of {@code
+     * ordinalOf}).
+     *
+     * @param ordinal the ordinal position of the image.
+     *
+     * @return the periodic image at the specified position.
+     *
+     * @throws IndexOutOfBoundsException unless the ordinal lies in
+     * the range {@code [0, countSites())}.
+     */
+    public default UnitIndex indexAt(long ordinal) {
+        if (ordinal < 0 || ordinal >= countSites())
+            throw new IndexOutOfBoundsException("Invalid site ordinal.");
+
+        int[] coords = new int[dimensionality()];
+
+        for (int dim = 0; dim < coords.length; ++dim) {
+            coords[dim] = (int) (ordinal % period(dim));
+            ordinal /= period(dim);
+        }
+
+        return UnitIndex.at(coords);
+    }
+
+    /**
+     * Returns the ordinal position of the periodic image of a unit
+     * index in the enumeration order of this period: the index
+     * coordinate along the first dimension varies fastest, followed
+     * by the second and third.
+     *
+     * @param index an absolute unit index.
+     *
+     * @return the ordinal position of the periodic image of the
+     * specified index, in the range {@code [0, countSites())}.
+     *
+     * @throws IllegalArgumentException unless the dimensionality of
+     * the index matches the dimensionality of this period.
+     */
+    public default long ordinalOf(UnitIndex index) {
+        if (index.dimensionality() != dimensionality())
+            throw new IllegalArgumentException("Inconsistent index dimensionality.");
+
+        long ordinal = 0;
+
+        for (int dim = dimensionality() - 1; dim >= 0; --dim)
+            ordinal = ordinal * period(dim) + imageOf(index.coord(dim), period(dim));
+
+        return ordinal;
+    }
+
     /**
      * Enumerates all images in the box defined by this period.
      *
+     * <p>The list holds every image in memory at once; use {@code
+     * stream()} or {@code spliterator()} to traverse large boxes.
+     *
      * @return a list containing all images in the box defined
      * by this period.
      */
     public abstract List<UnitIndex> enumerate();
+
+    /**
+     * Returns a stream of the ordinal positions of all images in the
+     * box defined by this period (without creating any unit indexes).
+     *
+     * @return a stream of the ordinal positions of all images in the
+     * box defined by this period.
+     */
+    public default LongStream ordinals() {
+        return LongStream.range(0, countSites());
+    }
+
+    /**
+     * Returns a parallel stream of all images in the box defined by
+     * this period.  The images are decoded on demand and are never
+     * stored as a collection.
+     *
+     * @return a parallel stream of all images in the box defined by
+     * this period.
+     */
+    public default Stream<UnitIndex> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * Returns a spliterator that traverses all images in the box
+     * defined by this period in the same order as {@code enumerate()},
+     * decoding the images on demand.
+     *
+     * @return a spliterator over all images in the box defined by
+     * this period.
+     */
+    public default Spliterator<UnitIndex> spliterator() {
+        return new PeriodSpliterator(this);
+    }
+
+    /**
+     * Returns a sequential stream of all images in the box defined by
+     * this period in the same order as {@code enumerate()}.  The images
+     * are decoded on demand and are never stored as a collection.
+     *
+     * @return a sequential stream of all images in the box defined by
+     * this period.
+     */
+    public default Stream<UnitIndex> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
 }
@@ -0,0 +1,108 @@
+
+package jam.bravais;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Traverses the periodic images in the box defined by a period in
+ * ordinal order, decoding each unit index on the fly so that the
+ * images never need to be stored.
+ *
+ * <p>Each spliterator covers a contiguous range of ordinal positions
+ * and splits by halving the range, so a traversal of the entire box
+ * divides evenly among the threads of a parallel stream.
+ */
+final class PeriodSpliterator implements Spliterator<UnitIndex> {
+    private final int[] periods;
+
+    private long origin;
+    private final long fence;
+
+    // Spliterators covering fewer sites are not split further...
+    private static final long MIN_SPLIT_SIZE = 1024;
+
+    PeriodSpliterator(Period period) {
+        this(periodsOf(period), 0, period.countSites());
+    }
+
+    private PeriodSpliterator(int[] periods, long origin, long fence) {
+        this.periods = periods;
+        this.origin = origin;
+        this.fence = fence;
+    }
+
+    private static int[] periodsOf(Period period) {
+        int[] periods = new int[period.dimensionality()];
+
+        for (int dim = 0; dim < periods.length; ++dim)
+            periods[dim] = period.period(dim);
+
+        return periods;
+    }
+
+    private void decode(long ordinal, int[] coords) {
+        for (int dim = 0; dim < periods.length; ++dim) {
+            coords[dim] = (int) (ordinal % periods[dim]);
+            ordinal /= periods[dim];
+        }
+    }
+
+    @Override public int characteristics() {
+        return DISTINCT | IMMUTABLE | NONNULL | ORDERED | SIZED | SUBSIZED;
+    }
+
+    @Override public long estimateSize() {
+        return fence - origin;
+    }
+
+    @Override public void forEachRemaining(Consumer<? super UnitIndex> action) {
+        if (origin >= fence)
+            return;
+
+        //
+        // Decode the first index and then advance the coordinates like
+        // an odometer, which avoids a division for every image...
+        //
+        int[] coords = new int[periods.length];
+        decode(origin, coords);
+
+        while (origin < fence) {
+            action.accept(UnitIndex.at(coords));
+            ++origin;
+
+            for (int dim = 0; dim < coords.length; ++dim) {
+                if (++coords[dim] < periods[dim])
+                    break;
+
+                coords[dim] = 0;
+            }
+        }
+    }
+
+    @Override public boolean tryAdvance(Consumer<? super UnitIndex> action) {
+        if (origin >= fence)
+            return false;
+
+        int[] coords = new int[periods.length];
+        decode(origin, coords);
+
+        action.accept(UnitIndex.at(coords));
+        ++origin;
+
+        return true;
+    }
+
+    @Override public Spliterator<UnitIndex> trySplit() {
+        long size = fence - origin;
+
+        if (size < 2 * MIN_SPLIT_SIZE)
+            return null;
+
+        long middle = origin + size / 2;
+        Spliterator<UnitIndex> prefix = new PeriodSpliterator(periods, origin, middle);
+
+        origin = middle;
+        return prefix;
+    }
+}
@@ -3,7 +3,9 @@ package jam.bravais;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
@@ -88,10 +90,7 @@ public final class Population<T> {
      * @param factory the source of new occupants.
      */
     public void fill(ObjectFactory<? extends T> factory) {
-        List<UnitIndex> images = lattice.period().enumerate();
-
-        for (UnitIndex image : images)
-            place(factory.newInstance(), image);
+        lattice.period().stream().forEach(image -> place(factory.newInstance(), image));
     }
 
     /**
@@ -108,15 +107,10 @@ public final class Population<T> {
         if (occupants.size() != lattice.period().countSites())
             throw new IllegalArgumentException("Occupants do not exactly fill the lattice.");
 
-        List<UnitIndex> images = lattice.period().enumerate();
-        assert occupants.size() == images.size();
-
-        int imageOrdinal = 0;
+        Iterator<UnitIndex> images = lattice.period().stream().iterator();
 
-        for (T occupant : occupants) {
-            place(occupant, images.get(imageOrdinal));
-            ++imageOrdinal;
-        }
+        for (T occupant : occupants)
+            place(occupant, images.next());
     }
 
     /**
@@ -133,6 +127,17 @@ public final class Population<T> {
         return indexMap.get(occupant);
     }
 
+    /**
+     * Returns a read-only view of the occupants keyed by the periodic
+     * images of their unit cell indexes.
+     *
+     * @return a read-only view of the occupants keyed by the periodic
+     * images of their unit cell indexes.
+     */
+    Map<UnitIndex, T> viewImages() {
+        return Collections.unmodifiableMap(imageBiMap);
+    }
+
     /**
      * Identifies empty lattices.
      *
@@ -4,6 +4,9 @@ package jam.data;
 import java.util.List;
 import java.util.Set;
 
+import jam.vector.FilterPipeline;
+import jam.vector.VectorFilter;
+
 /**
  * Represents a numeric matrix where elements are accessed by row and
  * column keys (fixed at the time of creation) in addition to integer
@@ -114,6 +117,58 @@ public interface DataMatrix<R,C> {
         return rowIndex(rowKey) != KEY_MISSING;
     }
 
+    /**
+     * Applies a filter to every column of this matrix, which is
+     * modified in place.
+     *
+     * <p>The filter is compiled into a {@link FilterPipeline} and
+     * applied to the columns in parallel, so it must be stateless.
+     *
+     * @param filter the filter to apply.
+     *
+     * @throws UnsupportedOperationException if this matrix is
+     * immutable.
+     */
+    public default void filterColumns(VectorFilter filter) {
+        double[][] columns = new double[ncol()][nrow()];
+
+        for (int colIndex = 0; colIndex < ncol(); ++colIndex)
+            for (int rowIndex = 0; rowIndex < nrow(); ++rowIndex)
+                columns[colIndex][rowIndex] = get(rowIndex, colIndex);
+
+        FilterPipeline.of(filter).applyAll(columns);
+
+        for (int colIndex = 0; colIndex < ncol(); ++colIndex)
+            for (int rowIndex = 0; rowIndex < nrow(); ++rowIndex)
+                set(rowIndex, colIndex, columns[colIndex][rowIndex]);
+    }
+
+    /**
+     * Applies a filter to every row of this matrix, which is modified
+     * in place.
+     *
+     * <p>The filter is compiled into a {@link FilterPipeline} and
+     * applied to the rows in parallel, so it must be stateless.
+     *
+     * @param filter the filter to apply.
+     *
+     * @throws UnsupportedOperationException if this matrix is
+     * immutable.
+     */
+    public default void filterRows(VectorFilter filter) {
+        double[][] rows = new double[nrow()][ncol()];
+
+        for (int rowIndex = 0; rowIndex < nrow(); ++rowIndex)
+            for (int colIndex = 0; colIndex < ncol(); ++colIndex)
+                rows[rowIndex][colIndex] = get(rowIndex, colIndex);
+
+        FilterPipeline.of(filter).applyAll(rows);
+
+        for (int rowIndex = 0; rowIndex < nrow(); ++rowIndex)
+            for (int colIndex = 0; colIndex < ncol(); ++colIndex)
+                set(rowIndex, colIndex, rows[rowIndex][colIndex]);
+    }
+
     /**
      * Returns the value of an element indexed by row and column key.
      *
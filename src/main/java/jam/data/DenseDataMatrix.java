@@ -4,6 +4,9 @@ package jam.data;
 import java.util.List;
 
 import jam.matrix.JamMatrix;
+import jam.vector.FilterPipeline;
+import jam.vector.VectorFilter;
+import jam.vector.VectorView;
 
 /**
  * Implements the {@code DataMatrix} interface with dense matrix
@@ -115,6 +118,22 @@ public class DenseDataMatrix<R, C> extends AbstractDataMatrix<R, C> {
         return new DenseDataMatrix<K, K>(keys, keys);
     }
 
+    @Override public void filterColumns(VectorFilter filter) {
+        double[][] columns = elements.transpose().toNumeric();
+        FilterPipeline.of(filter).applyAll(columns);
+
+        for (int colIndex = 0; colIndex < columns.length; ++colIndex)
+            elements.setColumn(colIndex, VectorView.wrap(columns[colIndex]));
+    }
+
+    @Override public void filterRows(VectorFilter filter) {
+        double[][] rows = elements.toNumeric();
+        FilterPipeline.of(filter).applyAll(rows);
+
+        for (int rowIndex = 0; rowIndex < rows.length; ++rowIndex)
+            elements.setRow(rowIndex, VectorView.wrap(rows[rowIndex]));
+    }
+
     @Override public double get(int rowIndex, int colIndex) {
         return elements.get(rowIndex, colIndex);
     }
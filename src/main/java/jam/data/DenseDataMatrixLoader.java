@@ -6,10 +6,8 @@ import java.util.ArrayList;
 import java.util.List;
 
 import jam.app.JamLogger;
-import jam.io.TableReader;
-import jam.lang.JamException;
+import jam.app.JamProperties;
 import jam.matrix.JamMatrix;
-import jam.vector.JamVector;
 
 /**
  * Loads a data matrix from an input file in <em>dense matrix</em>
@@ -20,10 +18,11 @@ import jam.vector.JamVector;
  * @param <C> the runtime type of the column keys.
  */
 public abstract class DenseDataMatrixLoader<R, C> extends DataMatrixLoader<R, C> {
-    private TableReader reader;
-    private List<R> rowKeys;
-    private List<C> colKeys;
-    private List<JamVector> rowData;
+    /**
+     * Name of the system property that specifies the maximum number of
+     * threads used to parse input files.
+     */
+    public static final String LOADER_THREADS_PROPERTY = "jam.data.loaderThreads";
 
     /**
      * Creates a new data matrix reader for a given file.
@@ -64,51 +63,55 @@ public abstract class DenseDataMatrixLoader<R, C> extends DataMatrixLoader<R, C>
         return new DenseDataMatrix<R, C>(rowKeys, colKeys, elements, false, false);
     }
 
-    @Override public DenseDataMatrix<R, C> load() {
-        reader = TableReader.open(file);
-
-        try {
-            parseColKeys();
-            parseRowData();
+    /**
+     * Returns the maximum number of threads used to parse the input
+     * file.
+     *
+     * <p>This default implementation returns the value of the system
+     * property {@code jam.data.loaderThreads}, or the number of
+     * available processors if the property is not set.  Compressed
+     * files and small files are always parsed by a single thread.
+     *
+     * @return the maximum number of threads used to parse the input
+     * file.
+     */
+    protected int threadCount() {
+        return JamProperties.getOptionalInt(LOADER_THREADS_PROPERTY, Runtime.getRuntime().availableProcessors());
+    }
 
-            JamLogger.info("DenseDataMatrixLoader: Loaded [%d] rows.", rowKeys.size());
-            JamLogger.info("DenseDataMatrixLoader: Loaded [%d] columns.", colKeys.size());
+    /**
+     * Loads the data matrix in a single pass over the input file.
+     *
+     * <p>The numeric fields are parsed directly from the file bytes
+     * into one flat array that becomes the storage for the matrix; no
+     * intermediate strings, vectors, or row lists are created.  Large
+     * uncompressed files are divided into line-aligned sections that
+     * are parsed in parallel.
+     *
+     * @return the data matrix stored in the input file.
+     *
+     * @throws RuntimeException if any I/O errors occur or the file
+     * does not contain a valid dense data matrix.
+     */
+    @Override public DenseDataMatrix<R, C> load() {
+        NumericTableParser parser = NumericTableParser.parse(file, Math.max(1, threadCount()));
 
-            return newMatrix(rowKeys, colKeys, JamMatrix.rbind(rowData));
-        }
-        finally {
-            reader.close();
-        }
-    }
+        List<R> rowKeys = new ArrayList<R>(parser.nrow());
+        List<C> colKeys = new ArrayList<C>(parser.ncol());
 
-    private void parseColKeys() {
         //
-        // The first key in the header line describes the rows and is
-        // ignored...
+        // The first key in the header line describes the rows and has
+        // already been removed by the parser...
         //
-        if (reader.ncol() < 2)
-            throw JamException.runtime("Input file must contain at least two columns.");
+        for (String colKey : parser.colKeys())
+            colKeys.add(parseColKey(colKey));
 
-        colKeys = new ArrayList<C>(reader.ncol() - 1);
+        for (String rowKey : parser.rowKeys())
+            rowKeys.add(parseRowKey(rowKey));
 
-        for (int readerIndex = 1; readerIndex < reader.ncol(); ++readerIndex)
-            colKeys.add(parseColKey(reader.columnKeys().get(readerIndex)));
-    }
+        JamLogger.info("DenseDataMatrixLoader: Loaded [%d] rows.", rowKeys.size());
+        JamLogger.info("DenseDataMatrixLoader: Loaded [%d] columns.", colKeys.size());
 
-    private void parseRowData() {
-        rowKeys = new ArrayList<R>();
-        rowData = new ArrayList<JamVector>();
-
-        for (List<String> line : reader)
-            parseRowData(line);
-    }
-
-    private void parseRowData(List<String> line) {
-        //
-        // The first column is the row key, the remaining columns are
-        // the row elements...
-        //
-        rowKeys.add(parseRowKey(line.get(0)));
-        rowData.add(JamVector.parse(line.subList(1, line.size())));
+        return newMatrix(rowKeys, colKeys, JamMatrix.wrap(parser.nrow(), parser.ncol(), parser.values()));
     }
 }
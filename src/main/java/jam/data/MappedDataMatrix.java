@@ -0,0 +1,509 @@
+
+package jam.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import jam.lang.JamException;
+import jam.vector.FilterPipeline;
+import jam.vector.VectorFilter;
+
+/**
+ * Implements the {@code DataMatrix} interface with element storage
+ * in a memory-mapped file, so the matrix may be much larger than the
+ * Java heap.
+ *
+ * <p><b>File format.</b> A matrix file contains a fixed-length header
+ * followed by the matrix elements as {@code double} values (in native
+ * Java big-endian byte order) in row-major order.  The header records
+ * the matrix dimensions.  The row and column keys are not stored in
+ * the file: they are supplied when the matrix is created or opened
+ * and are held on the heap in the same key structures as every other
+ * {@code DataMatrix} (see {@link AbstractDataMatrix}).
+ *
+ * <p><b>Lazy, shared access.</b> No elements are copied onto the Java
+ * heap: pages are loaded by the operating system only when they are
+ * accessed and are evicted under memory pressure, and any number of
+ * processes may map the same file and share a single copy in the page
+ * cache.  Rows are contiguous in the file, so row-wise traversal reads
+ * each page exactly once; the bulk column operations read blocks of
+ * columns in a single sequential pass over the file.
+ *
+ * <p><b>Size.</b> A single memory mapping is limited to two gigabytes,
+ * so large matrices are mapped in consecutive chunks.  Concurrent
+ * reads are safe; concurrent writes to distinct elements are safe,
+ * but writes are not otherwise synchronized.
+ *
+ * <p><b>Lifetime.</b> The file is closed as soon as the matrix has
+ * been created or opened, but the mapped chunks remain valid until
+ * the matrix is garbage collected: the Java platform provides no
+ * supported way to unmap a buffer explicitly.  Call {@link #force()}
+ * to write changes to the file at a known point; until the matrix is
+ * collected, some operating systems will not allow the file to be
+ * deleted or truncated.
+ */
+public final class MappedDataMatrix<R, C> extends AbstractDataMatrix<R, C> {
+    private final int nrow;
+    private final int ncol;
+    private final boolean readOnly;
+
+    private final MappedByteBuffer[] mapped;
+    private final DoubleBuffer[] chunks;
+
+    private MappedDataMatrix(List<R> rowKeys, List<C> colKeys, boolean readOnly, MappedByteBuffer[] mapped) {
+        super(rowKeys, colKeys, true);
+
+        this.nrow = rowKeys.size();
+        this.ncol = colKeys.size();
+        this.readOnly = readOnly;
+        this.mapped = mapped;
+        this.chunks = new DoubleBuffer[mapped.length];
+
+        for (int index = 0; index < mapped.length; ++index)
+            chunks[index] = mapped[index].asDoubleBuffer();
+    }
+
+    /**
+     * The conventional suffix for matrix files.
+     */
+    public static final String SUFFIX = ".jdm";
+
+    private static final int MAGIC   = 0x4A44414D; // "JDAM"
+    private static final int VERSION = 1;
+
+    private static final int HEADER_SIZE = 32;
+
+    // Each chunk holds 2^27 elements (one gigabyte)...
+    private static final int  CHUNK_SHIFT = 27;
+    private static final long CHUNK_ELEMENTS = 1L << CHUNK_SHIFT;
+    private static final long CHUNK_MASK = CHUNK_ELEMENTS - 1;
+
+    // The chunk index must fit in an int...
+    private static final long MAX_ELEMENTS = Integer.MAX_VALUE * CHUNK_ELEMENTS;
+
+    // Approximate number of bytes to buffer on the heap for the bulk
+    // column operations...
+    private static final long COLUMN_BLOCK_BYTES = 1L << 26;
+
+    /**
+     * Creates a new matrix file with every element equal to zero and
+     * maps it for reading and writing.
+     *
+     * <p>Any existing file with the same name is overwritten.
+     *
+     * @param <R> the runtime type of the row keys.
+     *
+     * @param <C> the runtime type of the column keys.
+     *
+     * @param file the file to create.
+     *
+     * @param rowKeys the row keys.
+     *
+     * @param colKeys the column keys.
+     *
+     * @return a writable matrix with every element equal to zero.
+     *
+     * @throws IllegalArgumentException if either key list is empty or
+     * contains duplicates, or if the matrix is too large to map.  The
+     * keys are validated before the file is opened, so an invalid call
+     * leaves any existing file untouched.
+     *
+     * @throws RuntimeException if any I/O errors occur.
+     */
+    public static <R, C> MappedDataMatrix<R, C> create(File file, List<R> rowKeys, List<C> colKeys) {
+        validateKeys(rowKeys);
+        validateKeys(colKeys);
+
+        long elementCount = validateElementCount(rowKeys.size(), colKeys.size());
+        long fileSize = HEADER_SIZE + 8L * elementCount;
+
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            //
+            // Extending the file length creates a sparse file filled
+            // with zero bytes, which are zero-valued doubles...
+            //
+            raf.setLength(0);
+            raf.setLength(fileSize);
+
+            FileChannel channel = raf.getChannel();
+            writeHeader(channel, rowKeys.size(), colKeys.size());
+
+            return new MappedDataMatrix<R, C>(rowKeys, colKeys, false,
+                                              mapChunks(channel, FileChannel.MapMode.READ_WRITE, elementCount));
+        }
+        catch (IOException ioex) {
+            throw JamException.runtime(ioex);
+        }
+    }
+
+    /**
+     * Copies the elements of an existing data matrix into a new matrix
+     * file, one row at a time.
+     *
+     * @param <R> the runtime type of the row keys.
+     *
+     * @param <C> the runtime type of the column keys.
+     *
+     * @param file the file to create.
+     *
+     * @param source the matrix to copy.
+     *
+     * @return a writable matrix with the same keys and elements as the
+     * source matrix.
+     *
+     * @throws RuntimeException if any I/O errors occur.
+     */
+    public static <R, C> MappedDataMatrix<R, C> copyOf(File file, DataMatrix<R, C> source) {
+        MappedDataMatrix<R, C> result = create(file, source.rowKeyList(), source.colKeyList());
+        double[] row = new double[result.ncol];
+
+        for (int rowIndex = 0; rowIndex < result.nrow; ++rowIndex) {
+            for (int colIndex = 0; colIndex < result.ncol; ++colIndex)
+                row[colIndex] = source.get(rowIndex, colIndex);
+
+            result.setRow(rowIndex, row);
+        }
+
+        result.force();
+        return result;
+    }
+
+    /**
+     * Opens an existing matrix file.
+     *
+     * @param <R> the runtime type of the row keys.
+     *
+     * @param <C> the runtime type of the column keys.
+     *
+     * @param file the matrix file to open.
+     *
+     * @param rowKeys the row keys, which must match the number of rows
+     * recorded in the file.
+     *
+     * @param colKeys the column keys, which must match the number of
+     * columns recorded in the file.
+     *
+     * @param readOnly whether to map the file for reading only (which
+     * allows the pages to be shared with other processes).
+     *
+     * @return a matrix backed by the specified file.
+     *
+     * @throws IllegalArgumentException if either key list is empty,
+     * contains duplicates, or does not match the file dimensions.
+     *
+     * @throws RuntimeException if any I/O errors occur or the file is
+     * not a valid matrix file.
+     */
+    public static <R, C> MappedDataMatrix<R, C> open(File file, List<R> rowKeys, List<C> colKeys, boolean readOnly) {
+        try (RandomAccessFile raf = new RandomAccessFile(file, readOnly ? "r" : "rw")) {
+            FileChannel channel = raf.getChannel();
+            ByteBuffer  header  = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+
+            if (header.getInt(0) != MAGIC)
+                throw JamException.runtime("File [%s] is not a data matrix file.", file);
+
+            if (header.getInt(4) != VERSION)
+                throw JamException.runtime("Unsupported data matrix version: [%d].", header.getInt(4));
+
+            int nrow = header.getInt(8);
+            int ncol = header.getInt(12);
+
+            if (rowKeys.size() != nrow)
+                throw new IllegalArgumentException("Row keys are incompatible with the matrix file.");
+
+            if (colKeys.size() != ncol)
+                throw new IllegalArgumentException("Column keys are incompatible with the matrix file.");
+
+            long elementCount = validateElementCount(nrow, ncol);
+
+            if (channel.size() != HEADER_SIZE + 8L * elementCount)
+                throw JamException.runtime("Data matrix file [%s] is truncated.", file);
+
+            FileChannel.MapMode mode =
+                readOnly ? FileChannel.MapMode.READ_ONLY : FileChannel.MapMode.READ_WRITE;
+
+            return new MappedDataMatrix<R, C>(rowKeys, colKeys, readOnly, mapChunks(channel, mode, elementCount));
+        }
+        catch (IOException ioex) {
+            throw JamException.runtime(ioex);
+        }
+    }
+
+    private static void validateKeys(List<?> keys) {
+        if (keys.isEmpty())
+            throw new IllegalArgumentException("Empty key list.");
+
+        if (new HashSet<Object>(keys).size() != keys.size())
+            throw new IllegalArgumentException("Duplicate keys.");
+    }
+
+    private static long validateElementCount(int nrow, int ncol) {
+        long elementCount = (long) nrow * (long) ncol;
+
+        if (elementCount > MAX_ELEMENTS)
+            throw new IllegalArgumentException(String.format("Matrix with [%d x %d] elements is too large to map.", nrow, ncol));
+
+        return elementCount;
+    }
+
+    private static void writeHeader(FileChannel channel, int nrow, int ncol) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+
+        header.putInt(0, MAGIC);
+        header.putInt(4, VERSION);
+        header.putInt(8, nrow);
+        header.putInt(12, ncol);
+
+        channel.write(header, 0);
+    }
+
+    private static MappedByteBuffer[] mapChunks(FileChannel channel, FileChannel.MapMode mode, long elementCount) throws IOException {
+        int chunkCount = (int) ((elementCount + CHUNK_ELEMENTS - 1) >>> CHUNK_SHIFT);
+        MappedByteBuffer[] chunks = new MappedByteBuffer[chunkCount];
+
+        for (int index = 0; index < chunkCount; ++index) {
+            long firstElement  = index * CHUNK_ELEMENTS;
+            long chunkElements = Math.min(CHUNK_ELEMENTS, elementCount - firstElement);
+
+            chunks[index] = channel.map(mode, HEADER_SIZE + 8L * firstElement, 8L * chunkElements);
+        }
+
+        return chunks;
+    }
+
+    private long ordinal(int rowIndex, int colIndex) {
+        return (long) rowIndex * (long) ncol + colIndex;
+    }
+
+    private double getOrdinal(long ordinal) {
+        return chunks[(int) (ordinal >>> CHUNK_SHIFT)].get((int) (ordinal & CHUNK_MASK));
+    }
+
+    private void setOrdinal(long ordinal, double value) {
+        chunks[(int) (ordinal >>> CHUNK_SHIFT)].put((int) (ordinal & CHUNK_MASK), value);
+    }
+
+    private void validateIndex(int rowIndex, int colIndex) {
+        validateRow(rowIndex);
+        validateColumn(colIndex);
+    }
+
+    private void validateRow(int rowIndex) {
+        if (rowIndex < 0 || rowIndex >= nrow)
+            throw new IndexOutOfBoundsException(String.format("Row index [%d] out of bounds: [0, %d).", rowIndex, nrow));
+    }
+
+    private void validateColumn(int colIndex) {
+        if (colIndex < 0 || colIndex >= ncol)
+            throw new IndexOutOfBoundsException(String.format("Column index [%d] out of bounds: [0, %d).", colIndex, ncol));
+    }
+
+    private void validateWritable() {
+        if (readOnly)
+            throw new UnsupportedOperationException("Data matrix is read-only.");
+    }
+
+    /**
+     * Flushes any changes to the underlying file.
+     */
+    public void force() {
+        if (!readOnly)
+            for (MappedByteBuffer chunk : mapped)
+                chunk.force();
+    }
+
+    /**
+     * Returns the elements in one column of this matrix.
+     *
+     * @param colIndex the index of the column to return.
+     *
+     * @return a new array containing the elements of the specified
+     * column.
+     *
+     * @throws IndexOutOfBoundsException unless the column index is
+     * valid.
+     */
+    public double[] getColumn(int colIndex) {
+        validateColumn(colIndex);
+
+        double[] column = new double[nrow];
+
+        for (int rowIndex = 0; rowIndex < nrow; ++rowIndex)
+            column[rowIndex] = getOrdinal(ordinal(rowIndex, colIndex));
+
+        return column;
+    }
+
+    /**
+     * Returns the elements in one row of this matrix, which are read
+     * sequentially from the underlying file.
+     *
+     * @param rowIndex the index of the row to return.
+     *
+     * @return a new array containing the elements of the specified row.
+     *
+     * @throws IndexOutOfBoundsException unless the row index is valid.
+     */
+    public double[] getRow(int rowIndex) {
+        validateRow(rowIndex);
+
+        double[] row = new double[ncol];
+        long offset = ordinal(rowIndex, 0);
+
+        for (int colIndex = 0; colIndex < ncol; ++colIndex)
+            row[colIndex] = getOrdinal(offset + colIndex);
+
+        return row;
+    }
+
+    /**
+     * Identifies read-only matrices.
+     *
+     * @return {@code true} iff this matrix was opened for reading only.
+     */
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Assigns the elements in one column of this matrix.
+     *
+     * @param colIndex the index of the column to assign.
+     *
+     * @param values the values to assign.
+     *
+     * @throws IndexOutOfBoundsException unless the column index is
+     * valid.
+     *
+     * @throws IllegalArgumentException unless the length of the value
+     * array matches the number of rows.
+     *
+     * @throws UnsupportedOperationException if this matrix is
+     * read-only.
+     */
+    public void setColumn(int colIndex, double[] values) {
+        validateWritable();
+        validateColumn(colIndex);
+
+        if (values.length != nrow)
+            throw new IllegalArgumentException("Column length mismatch.");
+
+        for (int rowIndex = 0; rowIndex < nrow; ++rowIndex)
+            setOrdinal(ordinal(rowIndex, colIndex), values[rowIndex]);
+    }
+
+    /**
+     * Assigns the elements in one row of this matrix, which are
+     * written sequentially to the underlying file.
+     *
+     * @param rowIndex the index of the row to assign.
+     *
+     * @param values the values to assign.
+     *
+     * @throws IndexOutOfBoundsException unless the row index is valid.
+     *
+     * @throws IllegalArgumentException unless the length of the value
+     * array matches the number of columns.
+     *
+     * @throws UnsupportedOperationException if this matrix is
+     * read-only.
+     */
+    public void setRow(int rowIndex, double[] values) {
+        validateWritable();
+        validateRow(rowIndex);
+
+        if (values.length != ncol)
+            throw new IllegalArgumentException("Row length mismatch.");
+
+        long offset = ordinal(rowIndex, 0);
+
+        for (int colIndex = 0; colIndex < ncol; ++colIndex)
+            setOrdinal(offset + colIndex, values[colIndex]);
+    }
+
+    /**
+     * Applies a filter to every column of this matrix, which is
+     * modified in place.
+     *
+     * <p>The columns are processed in blocks small enough to buffer on
+     * the heap; each block is read in one sequential pass over the
+     * file, filtered in parallel, and written back.
+     *
+     * @param filter the filter to apply.
+     *
+     * @throws UnsupportedOperationException if this matrix is
+     * read-only.
+     */
+    @Override public void filterColumns(VectorFilter filter) {
+        validateWritable();
+
+        FilterPipeline pipeline = FilterPipeline.of(filter);
+        int blockSize = (int) Math.max(1, Math.min(ncol, COLUMN_BLOCK_BYTES / (8L * nrow)));
+
+        for (int blockStart = 0; blockStart < ncol; blockStart += blockSize) {
+            int blockEnd = Math.min(ncol, blockStart + blockSize);
+            double[][] columns = new double[blockEnd - blockStart][nrow];
+
+            for (int rowIndex = 0; rowIndex < nrow; ++rowIndex)
+                for (int colIndex = blockStart; colIndex < blockEnd; ++colIndex)
+                    columns[colIndex - blockStart][rowIndex] = getOrdinal(ordinal(rowIndex, colIndex));
+
+            pipeline.applyAll(columns);
+
+            for (int rowIndex = 0; rowIndex < nrow; ++rowIndex)
+                for (int colIndex = blockStart; colIndex < blockEnd; ++colIndex)
+                    setOrdinal(ordinal(rowIndex, colIndex), columns[colIndex - blockStart][rowIndex]);
+        }
+    }
+
+    /**
+     * Applies a filter to every row of this matrix, which is modified
+     * in place.
+     *
+     * <p>The rows are processed in parallel, one row at a time, so
+     * only a few rows are held on the heap at once.
+     *
+     * @param filter the filter to apply.
+     *
+     * @throws UnsupportedOperationException if this matrix is
+     * read-only.
+     */
+    @Override public void filterRows(VectorFilter filter) {
+        validateWritable();
+
+        FilterPipeline pipeline = FilterPipeline.of(filter);
+
+        IntStream.range(0, nrow).parallel().forEach(rowIndex -> {
+                double[] row = getRow(rowIndex);
+                pipeline.apply(row);
+                setRow(rowIndex, row);
+            });
+    }
+
+    @Override public double get(int rowIndex, int colIndex) {
+        validateIndex(rowIndex, colIndex);
+        return getOrdinal(ordinal(rowIndex, colIndex));
+    }
+
+    @Override public int ncol() {
+        return ncol;
+    }
+
+    @Override public int nrow() {
+        return nrow;
+    }
+
+    @Override public void set(int rowIndex, int colIndex, double value) {
+        validateWritable();
+        validateIndex(rowIndex, colIndex);
+        setOrdinal(ordinal(rowIndex, colIndex), value);
+    }
+}
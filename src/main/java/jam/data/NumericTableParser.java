@@ -0,0 +1,608 @@
+
+package jam.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import jam.io.Delimiter;
+import jam.io.IOUtil;
+import jam.io.ZipUtil;
+import jam.lang.JamException;
+
+// Package-scope single-pass parser for numeric tables: a header line
+// of column keys followed by lines containing a row key and numeric
+// fields, separated by commas, tabs, pipes, or white space (resolved
+// from the header line, as in TableReader). Comma and pipe delimiters
+// preceded by a backslash are escaped and do not separate fields, as
+// in Delimiter.split; blank data lines are rejected, as they were by
+// TableReader.
+//
+// Numeric fields are parsed directly from the raw bytes into a flat
+// row-major array, without creating a String or boxed value for each
+// field. Uncompressed files are split into line-aligned byte ranges
+// that are parsed in parallel: a fast first pass counts the rows in
+// each range, so the element array is allocated once at its final
+// size and every range writes its rows directly into place. GZIP
+// files are parsed sequentially into a growable array.
+//
+final class NumericTableParser {
+    private final List<String> colKeys;
+    private final String[] rowKeys;
+    private final double[] values;
+
+    private static final int BUFFER_SIZE = 1 << 20;
+
+    // Files are split into ranges of at least this many bytes...
+    private static final long MIN_RANGE_SIZE = 1L << 22;
+
+    // Powers of ten that are exactly representable as doubles...
+    private static final double[] POW10 = new double[23];
+
+    // The largest integer mantissa that is exactly representable...
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    static {
+        POW10[0] = 1.0;
+
+        for (int k = 1; k < POW10.length; ++k)
+            POW10[k] = 10.0 * POW10[k - 1];
+    }
+
+    private NumericTableParser(List<String> colKeys, String[] rowKeys, double[] values) {
+        this.colKeys = colKeys;
+        this.rowKeys = rowKeys;
+        this.values = values;
+    }
+
+    // Parses a table file, using up to the specified number of threads
+    // for uncompressed files.
+    static NumericTableParser parse(File file, int threadCount) {
+        if (ZipUtil.isGZipFile(file))
+            return parseStream(file);
+        else
+            return parseRanges(file, threadCount);
+    }
+
+    // Returns the column keys (excluding the first header field, which
+    // describes the rows).
+    List<String> colKeys() {
+        return colKeys;
+    }
+
+    // Returns the row keys in file order.
+    String[] rowKeys() {
+        return rowKeys;
+    }
+
+    // Returns the elements in row-major order.
+    double[] values() {
+        return values;
+    }
+
+    int ncol() {
+        return colKeys.size();
+    }
+
+    int nrow() {
+        return rowKeys.length;
+    }
+
+    // ------------------------------------------------------------------
+    // Header processing
+    // ------------------------------------------------------------------
+
+    private static final class Header {
+        final Delimiter delimiter;
+        final List<String> colKeys;
+
+        Header(String line) {
+            this.delimiter = resolveDelimiter(line);
+
+            String[] fields = delimiter.split(line);
+
+            if (fields.length < 2)
+                throw JamException.runtime("Input file must contain at least two columns.");
+
+            this.colKeys = List.of(Arrays.copyOfRange(fields, 1, fields.length));
+        }
+
+        // The delimiter character, or zero for white space...
+        byte delimByte() {
+            if (delimiter == Delimiter.COMMA)
+                return ',';
+            else if (delimiter == Delimiter.TAB)
+                return '\t';
+            else if (delimiter == Delimiter.PIPE)
+                return '|';
+            else
+                return 0;
+        }
+
+        // Whether a backslash escapes the delimiter character...
+        boolean escapable() {
+            return delimiter == Delimiter.COMMA || delimiter == Delimiter.PIPE;
+        }
+    }
+
+    private static Delimiter resolveDelimiter(String header) {
+        int count = 0;
+        Delimiter delimiter = Delimiter.WHITE_SPACE;
+
+        if (header.contains(",")) {
+            ++count;
+            delimiter = Delimiter.COMMA;
+        }
+
+        if (header.contains("\t")) {
+            ++count;
+            delimiter = Delimiter.TAB;
+        }
+
+        if (header.contains("|")) {
+            ++count;
+            delimiter = Delimiter.PIPE;
+        }
+
+        if (count > 1)
+            throw JamException.runtime("Multiple delimiters are present in the header line.");
+
+        return delimiter;
+    }
+
+    private static String decode(byte[] buffer, int start, int end) {
+        return new String(buffer, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    // ------------------------------------------------------------------
+    // Line iteration
+    // ------------------------------------------------------------------
+
+    private interface ByteSource {
+        int read(byte[] buffer, int offset, int length) throws IOException;
+    }
+
+    private interface LineConsumer {
+        // Processes the line in buffer[start, end), excluding the
+        // terminating newline...
+        void accept(byte[] buffer, int start, int end);
+    }
+
+    private static void forEachLine(ByteSource source, LineConsumer consumer) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+
+        int length = 0;
+        int scanned = 0;
+
+        while (true) {
+            // A single line longer than the buffer...
+            if (length == buffer.length)
+                buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+
+            int count = source.read(buffer, length, buffer.length - length);
+
+            if (count < 0)
+                break;
+
+            length += count;
+
+            int lineStart = 0;
+
+            for (int index = scanned; index < length; ++index) {
+                if (buffer[index] == '\n') {
+                    consumer.accept(buffer, lineStart, index);
+                    lineStart = index + 1;
+                }
+            }
+
+            // Move the incomplete final line to the front...
+            length -= lineStart;
+            System.arraycopy(buffer, lineStart, buffer, 0, length);
+            scanned = length;
+        }
+
+        if (length > 0)
+            consumer.accept(buffer, 0, length);
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    private static boolean isBlank(byte[] buffer, int start, int end) {
+        for (int index = start; index < end; ++index)
+            if (!isSpace(buffer[index]))
+                return false;
+
+        return true;
+    }
+
+    // ------------------------------------------------------------------
+    // Row parsing
+    // ------------------------------------------------------------------
+
+    // Parses data lines into row keys and a row-major element array
+    // starting at a fixed row; the arrays grow as needed when the row
+    // count is not known in advance.
+    private static final class RowSink implements LineConsumer {
+        private final int ncol;
+        private final byte delim;
+        private final boolean escapable;
+        private final Delimiter delimiter;
+
+        private String[] keys;
+        private double[] values;
+        private int row;
+
+        RowSink(Header header, String[] keys, double[] values, int firstRow) {
+            this.ncol = header.colKeys.size();
+            this.delim = header.delimByte();
+            this.escapable = header.escapable();
+            this.delimiter = header.delimiter;
+            this.keys = keys;
+            this.values = values;
+            this.row = firstRow;
+        }
+
+        @Override public void accept(byte[] buffer, int start, int end) {
+            if (isBlank(buffer, start, end))
+                throw JamException.runtime("Blank data line in tabular file.");
+
+            if (row == keys.length)
+                grow();
+
+            int   col = -1;
+            int   pos = start;
+            int[] field = new int[2];
+
+            while (pos <= end) {
+                pos = nextField(buffer, pos, end, field);
+
+                if (pos < 0)
+                    break;
+
+                if (col < 0)
+                    keys[row] = delimiter.unescape(decode(buffer, field[0], field[1]));
+                else if (col < ncol)
+                    values[row * ncol + col] = parseField(buffer, field[0], field[1], keys[row]);
+
+                ++col;
+            }
+
+            if (col != ncol)
+                throw JamException.runtime("Row [%s] contains [%d] numeric fields; expected [%d].", keys[row], col, ncol);
+
+            ++row;
+        }
+
+        // Locates the next field at or after pos, stores its trimmed
+        // bounds in field[0] and field[1], and returns the position
+        // following the field and its delimiter (or -1 if there are
+        // no more fields)...
+        private int nextField(byte[] buffer, int pos, int end, int[] field) {
+            if (delim == 0) {
+                while (pos < end && isSpace(buffer[pos]))
+                    ++pos;
+
+                if (pos >= end)
+                    return -1;
+
+                int fieldStart = pos;
+
+                while (pos < end && !isSpace(buffer[pos]))
+                    ++pos;
+
+                field[0] = fieldStart;
+                field[1] = pos;
+
+                return pos;
+            }
+            else {
+                if (pos > end)
+                    return -1;
+
+                int fieldEnd = pos;
+
+                while (fieldEnd < end && !isDelimiter(buffer, pos, fieldEnd))
+                    ++fieldEnd;
+
+                int s = pos;
+                int e = fieldEnd;
+
+                while (s < e && isSpace(buffer[s]))
+                    ++s;
+
+                while (e > s && isSpace(buffer[e - 1]))
+                    --e;
+
+                field[0] = s;
+                field[1] = e;
+
+                return fieldEnd + 1;
+            }
+        }
+
+        // A delimiter byte preceded by a backslash within the same field
+        // is escaped...
+        private boolean isDelimiter(byte[] buffer, int fieldStart, int index) {
+            return buffer[index] == delim && !(escapable && index > fieldStart && buffer[index - 1] == '\\');
+        }
+
+        private void grow() {
+            int capacity = Math.max(16, keys.length + (keys.length >> 1));
+
+            keys = Arrays.copyOf(keys, capacity);
+            values = Arrays.copyOf(values, Math.multiplyExact(capacity, ncol));
+        }
+    }
+
+    // Parses a decimal number directly from ASCII bytes.
+    //
+    // Numbers whose integer mantissa is no larger than 2^53 and whose
+    // decimal exponent is no larger than 22 in magnitude are converted
+    // with a single correctly rounded multiplication or division
+    // (because both the mantissa and the power of ten are exact doubles),
+    // which yields the same result as Double.parseDouble; everything
+    // else (including NaN, Infinity, and malformed fields) falls back
+    // to Double.parseDouble.
+    static double parseDouble(byte[] buffer, int start, int end) {
+        int pos = start;
+        boolean negative = false;
+
+        if (pos < end && (buffer[pos] == '-' || buffer[pos] == '+'))
+            negative = (buffer[pos++] == '-');
+
+        long mantissa = 0;
+        int  digits   = 0;
+        int  exponent = 0;
+        boolean any   = false;
+
+        while (pos < end && isDigit(buffer[pos])) {
+            any = true;
+            mantissa = 10 * mantissa + (buffer[pos++] - '0');
+
+            if (mantissa != 0)
+                ++digits;
+        }
+
+        if (pos < end && buffer[pos] == '.') {
+            ++pos;
+
+            while (pos < end && isDigit(buffer[pos])) {
+                any = true;
+                mantissa = 10 * mantissa + (buffer[pos++] - '0');
+                --exponent;
+
+                if (mantissa != 0)
+                    ++digits;
+            }
+        }
+
+        if (any && pos < end && (buffer[pos] == 'e' || buffer[pos] == 'E')) {
+            ++pos;
+
+            boolean negExp = false;
+
+            if (pos < end && (buffer[pos] == '-' || buffer[pos] == '+'))
+                negExp = (buffer[pos++] == '-');
+
+            int expValue  = 0;
+            int expDigits = 0;
+
+            while (pos < end && isDigit(buffer[pos]) && expDigits < 4) {
+                expValue = 10 * expValue + (buffer[pos++] - '0');
+                ++expDigits;
+            }
+
+            if (expDigits == 0)
+                any = false;
+
+            exponent += negExp ? -expValue : expValue;
+        }
+
+        if (!any || pos != end || digits > 18 || mantissa > MAX_EXACT_MANTISSA)
+            return Double.parseDouble(decode(buffer, start, end));
+
+        double value;
+
+        if (mantissa == 0)
+            value = 0.0;
+        else if (exponent == 0)
+            value = mantissa;
+        else if (exponent > 0 && exponent < POW10.length)
+            value = mantissa * POW10[exponent];
+        else if (exponent < 0 && -exponent < POW10.length)
+            value = mantissa / POW10[-exponent];
+        else
+            return Double.parseDouble(decode(buffer, start, end));
+
+        return negative ? -value : value;
+    }
+
+    private static boolean isDigit(byte b) {
+        return '0' <= b && b <= '9';
+    }
+
+    private static double parseField(byte[] buffer, int start, int end, String rowKey) {
+        try {
+            return parseDouble(buffer, start, end);
+        }
+        catch (NumberFormatException ex) {
+            throw JamException.runtime("Invalid numeric field [%s] in row [%s].", decode(buffer, start, end), rowKey);
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Sequential stream parsing
+    // ------------------------------------------------------------------
+
+    private static NumericTableParser parseStream(File file) {
+        try (InputStream stream = IOUtil.openInputStream(file)) {
+            StreamConsumer consumer = new StreamConsumer();
+            forEachLine(stream::read, consumer);
+
+            if (consumer.header == null)
+                throw JamException.runtime("Empty tabular file.");
+
+            int nrow = consumer.sink.row;
+            int ncol = consumer.header.colKeys.size();
+
+            return new NumericTableParser(consumer.header.colKeys,
+                                          Arrays.copyOf(consumer.sink.keys, nrow),
+                                          Arrays.copyOf(consumer.sink.values, nrow * ncol));
+        }
+        catch (IOException ioex) {
+            throw JamException.runtime(ioex);
+        }
+    }
+
+    private static final class StreamConsumer implements LineConsumer {
+        private Header header = null;
+        private RowSink sink = null;
+
+        @Override public void accept(byte[] buffer, int start, int end) {
+            if (header == null) {
+                header = new Header(decode(buffer, start, end));
+                sink = new RowSink(header, new String[0], new double[0], 0);
+            }
+            else {
+                sink.accept(buffer, start, end);
+            }
+        }
+    }
+
+    // ------------------------------------------------------------------
+    // Parallel range parsing
+    // ------------------------------------------------------------------
+
+    private static NumericTableParser parseRanges(File file, int threadCount) {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            FileChannel channel = raf.getChannel();
+
+            long   headerEnd = findLineEnd(channel, 0);
+            Header header    = new Header(readHeader(channel, headerEnd));
+
+            long[] bounds = splitRanges(channel, Math.min(headerEnd + 1, channel.size()), threadCount);
+            int rangeCount = bounds.length - 1;
+
+            // First pass: count the data lines in each range (blank
+            // lines are rejected in the second pass)...
+            int[] rowCounts = new int[rangeCount];
+
+            IntStream.range(0, rangeCount).parallel().forEach(range -> {
+                    int[] count = new int[1];
+                    forEachRangeLine(channel, bounds[range], bounds[range + 1],
+                                     (buffer, start, end) -> ++count[0]);
+                    rowCounts[range] = count[0];
+                });
+
+            int[] firstRows = new int[rangeCount + 1];
+
+            for (int range = 0; range < rangeCount; ++range)
+                firstRows[range + 1] = Math.addExact(firstRows[range], rowCounts[range]);
+
+            int nrow = firstRows[rangeCount];
+            int ncol = header.colKeys.size();
+
+            String[] rowKeys = new String[nrow];
+            double[] values  = new double[Math.multiplyExact(nrow, ncol)];
+
+            // Second pass: parse each range directly into place...
+            IntStream.range(0, rangeCount).parallel().forEach(range ->
+                forEachRangeLine(channel, bounds[range], bounds[range + 1],
+                                 new RowSink(header, rowKeys, values, firstRows[range])));
+
+            return new NumericTableParser(header.colKeys, rowKeys, values);
+        }
+        catch (IOException ioex) {
+            throw JamException.runtime(ioex);
+        }
+    }
+
+    private static String readHeader(FileChannel channel, long headerEnd) throws IOException {
+        if (headerEnd == 0 && channel.size() == 0)
+            throw JamException.runtime("Empty tabular file.");
+
+        byte[] bytes = new byte[Math.toIntExact(headerEnd)];
+        channel.read(ByteBuffer.wrap(bytes), 0);
+
+        int end = bytes.length;
+
+        if (end > 0 && bytes[end - 1] == '\r')
+            --end;
+
+        return decode(bytes, 0, end);
+    }
+
+    // Returns the position of the first newline at or after the
+    // specified position, or the file size if there is none.
+    private static long findLineEnd(FileChannel channel, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        long size = channel.size();
+
+        while (position < size) {
+            buffer.clear();
+            int count = channel.read(buffer, position);
+
+            for (int index = 0; index < count; ++index)
+                if (buffer.get(index) == '\n')
+                    return position + index;
+
+            position += count;
+        }
+
+        return size;
+    }
+
+    // Divides the data section into line-aligned byte ranges; returns
+    // the range boundaries.
+    private static long[] splitRanges(FileChannel channel, long dataStart, int threadCount) throws IOException {
+        long size = channel.size();
+        long dataSize = size - dataStart;
+
+        int rangeCount = (int) Math.max(1, Math.min(threadCount, dataSize / MIN_RANGE_SIZE));
+        long[] bounds = new long[rangeCount + 1];
+
+        bounds[0] = dataStart;
+        bounds[rangeCount] = size;
+
+        for (int range = 1; range < rangeCount; ++range) {
+            long nominal = dataStart + range * (dataSize / rangeCount);
+            bounds[range] = Math.min(size, Math.max(bounds[range - 1], findLineEnd(channel, nominal - 1) + 1));
+        }
+
+        return bounds;
+    }
+
+    private static void forEachRangeLine(FileChannel channel, long start, long end, LineConsumer consumer) {
+        long[] position = new long[] { start };
+
+        ByteSource source = (buffer, offset, length) -> {
+            if (position[0] >= end)
+                return -1;
+
+            int count = channel.read(ByteBuffer.wrap(buffer, offset, (int) Math.min(length, end - position[0])), position[0]);
+
+            if (count < 0)
+                return -1;
+
+            position[0] += count;
+            return count;
+        };
+
+        try {
+            forEachLine(source, consumer);
+        }
+        catch (IOException ioex) {
+            throw JamException.runtime(ioex);
+        }
+    }
+}
@@ -5,20 +5,20 @@ import com.google.common.collect.HashMultiset;
 import com.google.common.collect.Multiset;
 
 import jam.math.IntRange;
-import jam.math.IntUtil;
 import jam.math.JamRandom;
-import jam.math.StatSummary;
 
 /**
  * Provides a skeleton implementation of the {@code DiscreteDistribution}
  * interface.
+ *
+ * <p>Unless overridden with closed-form expressions, the mean, median,
+ * and variance are computed (once, on demand) by summing the density
+ * over the range of support, truncating an infinite tail once the
+ * remaining probability mass is negligible.
  */
 public abstract class AbstractDiscreteDistribution implements DiscreteDistribution {
-    // Summary derived from random sampling, created on demand...
-    private StatSummary summary = null;
-
-    // Number of samples used to compute the statistical summary...
-    private static final int SAMPLE_COUNT = 1000000;
+    // Moments summed over the support, computed on demand...
+    private Moments moments = null;
 
     @Override public double cdf(int k) {
         int lower = effectiveRange().lower();
@@ -48,11 +48,11 @@ public abstract class AbstractDiscreteDistribution implements DiscreteDistributi
     }
 
     @Override public double mean() {
-	return sampleSummary().getMean();
+	return moments().mean;
     }
 
     @Override public double median() {
-	return sampleSummary().getMedian();
+	return moments().median;
     }
 
     @Override public double stdev() {
@@ -60,14 +60,14 @@ public abstract class AbstractDiscreteDistribution implements DiscreteDistributi
     }
 
     @Override public double variance() {
-	return sampleSummary().getVariance();
+	return moments().variance;
     }
 
-    private StatSummary sampleSummary() {
-        if (summary == null)
-            summary = StatSummary.compute(IntUtil.toDouble(sample(SAMPLE_COUNT)));
+    private Moments moments() {
+        if (moments == null)
+            moments = Moments.compute(this);
 
-        return summary;
+        return moments;
     }
 
     @Override public int sample() {
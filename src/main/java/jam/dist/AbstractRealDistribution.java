@@ -3,18 +3,19 @@ package jam.dist;
 
 import jam.math.DoubleRange;
 import jam.math.JamRandom;
-import jam.math.StatSummary;
 
 /**
  * Provides a skeleton implementation of the {@code RealDistribution}
  * interface.
+ *
+ * <p>Unless overridden with closed-form expressions, the mean and
+ * variance are computed (once, on demand) by numerical integration of
+ * the quantile function, and the median is the quantile at one-half.
  */
 public abstract class AbstractRealDistribution implements RealDistribution {
-    //
-    // Number of samples used to compute mean, median, or variance
-    // when analytical values are not available.
-    //
-    private static final int SAMPLE_COUNT = 1000000;
+    // Moments computed by numerical integration when analytical values
+    // are not available, computed on demand...
+    private Moments moments = null;
 
     /**
      * Computes a standard Z-score.
@@ -51,11 +52,11 @@ public abstract class AbstractRealDistribution implements RealDistribution {
     }
 
     @Override public double mean() {
-	return sampleSummary().getMean();
+	return moments().mean;
     }
 
     @Override public double median() {
-	return sampleSummary().getMedian();
+	return moments().median;
     }
 
     @Override public double stdev() {
@@ -63,11 +64,14 @@ public abstract class AbstractRealDistribution implements RealDistribution {
     }
 
     @Override public double variance() {
-	return sampleSummary().getVariance();
+	return moments().variance;
     }
 
-    private StatSummary sampleSummary() {
-	return StatSummary.compute(sample(SAMPLE_COUNT));
+    private Moments moments() {
+        if (moments == null)
+            moments = Moments.compute(this);
+
+        return moments;
     }
 
     @Override public double sample(JamRandom source) {
@@ -54,31 +54,7 @@ public abstract class BinomialDistribution extends AbstractDiscreteDistribution
      * negative.
      */
     public static BinomialDistribution create(int trialCount, Probability successProb) {
-        if (useApprox(trialCount, successProb))
-            return new BinomialDistributionApprox(trialCount, successProb);
-        else
-            return new BinomialDistributionExact(trialCount, successProb);
-    }
-
-    private static boolean useApprox(int trialCount, Probability successProb) {
-        //
-        // Always use the exact implementation for fewer than ten
-        // trials...
-        //
-        if (trialCount < 10)
-            return false;
-
-        // The normal approximation is sufficiently accurate if the
-        // entire range of support [0, N] lies within four standard
-        // deviations of the mean...
-        double mean  = mean(trialCount, successProb);
-        double stdev = Math.sqrt(variance(trialCount, successProb));
-
-        double lower = mean - 4.0 * stdev;
-        double upper = mean + 4.0 * stdev;
-
-        IntRange range = support(trialCount);
-        return range.containsDouble(lower) && range.containsDouble(upper);
+        return new BinomialDistributionBTRS(trialCount, successProb);
     }
 
     /**
@@ -251,47 +227,15 @@ public abstract class BinomialDistribution extends AbstractDiscreteDistribution
     }
 }
 
-final class BinomialDistributionApprox extends BinomialDistribution {
-    private final NormalDistribution normal;
+final class BinomialDistributionBTRS extends BinomialDistribution {
+    private final BinomialSampler sampler;
 
-    BinomialDistributionApprox(int trialCount, Probability successProb) {
+    BinomialDistributionBTRS(int trialCount, Probability successProb) {
         super(trialCount, successProb);
-
-        double mean  = mean(trialCount, successProb);
-        double stdev = Math.sqrt(variance(trialCount, successProb));
-
-        this.normal = new NormalDistribution(mean, stdev);
-    }
-
-    @Override public double median() {
-        return mean();
+        this.sampler = BinomialSampler.create(trialCount, successProb.doubleValue());
     }
 
     @Override public int sample(JamRandom source) {
-        int result = (int) Math.round(normal.sample(source));
-
-        result = Math.max(result, 0);
-        result = Math.min(result, getTrialCount());
-
-        return result;
-    }
-}
-
-final class BinomialDistributionExact extends BinomialDistribution {
-    BinomialDistributionExact(int trialCount, Probability successProb) {
-        super(trialCount, successProb);
-    }
-
-    @Override public int sample(JamRandom source) {
-        //
-        // Brute force explicit sampling...
-        //
-        int result = 0;
-
-        for (int trial = 0; trial < getTrialCount(); ++trial)
-            if (getSuccessProb().accept(source))
-                ++result;
-
-        return result;
+        return (int) sampler.sample(source);
     }
 }
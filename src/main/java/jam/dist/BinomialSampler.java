@@ -0,0 +1,206 @@
+
+package jam.dist;
+
+import jam.math.JamRandom;
+
+/**
+ * Samples binomial deviates in constant expected time for a fixed
+ * number of trials and success probability.
+ *
+ * <p>When the smaller of the expected numbers of successes and
+ * failures is at least ten, deviates are generated by the transformed
+ * rejection method with squeeze of Hormann (The Generation of Binomial
+ * Random Variates, Journal of Statistical Computation and Simulation
+ * 46, 101-110, 1993), which requires about 1.15 pairs of uniform
+ * deviates per sample, independent of the number of trials.
+ * Otherwise, deviates are generated by sequential inversion of the
+ * cumulative distribution, which requires a single uniform deviate and
+ * fewer than ten steps on average.
+ *
+ * <p>Success probabilities above one-half are sampled by symmetry
+ * (as the number of trials minus the number of failures).  The
+ * constants of the rejection method depend only on the distribution
+ * parameters, so they are computed once when the sampler is created;
+ * samplers are immutable and may be shared between threads (provided
+ * that each thread uses its own random number source).
+ */
+public final class BinomialSampler {
+    private final long trials;
+    private final double prob;
+
+    // Sample the number of failures rather than successes...
+    private final boolean flip;
+
+    // The success probability that is actually sampled (no greater
+    // than one-half) and its complement...
+    private final double p;
+    private final double q;
+
+    // Inversion: the probability of zero successes, and the ratio
+    // terms for the recurrence P(k) = P(k - 1) * (A / k - S)...
+    private final double zeroProb;
+    private final double ratioA;
+    private final double ratioS;
+
+    // Transformed rejection: constants from Hormann (1993)...
+    private final double a;
+    private final double b;
+    private final double c;
+    private final double vr;
+    private final double alpha;
+    private final double logRatio;
+    private final double mode;
+    private final double modeBound;
+
+    /**
+     * Distributions whose smaller expected count (of successes or
+     * failures) is at least this limit are sampled by transformed
+     * rejection; others are sampled by inversion.
+     */
+    public static final double REJECTION_MEAN_LIMIT = 10.0;
+
+    private BinomialSampler(long trials, double prob) {
+        this.trials = trials;
+        this.prob = prob;
+        this.flip = prob > 0.5;
+
+        this.p = flip ? 1.0 - prob : prob;
+        this.q = 1.0 - p;
+
+        double n = trials;
+
+        this.zeroProb = Math.exp(n * Math.log1p(-p));
+        this.ratioS = p / q;
+        this.ratioA = (n + 1.0) * ratioS;
+
+        double stdev = Math.sqrt(n * p * q);
+
+        this.b = 1.15 + 2.53 * stdev;
+        this.a = -0.0873 + 0.0248 * b + 0.01 * p;
+        this.c = n * p + 0.5;
+        this.vr = 0.92 - 4.2 / b;
+        this.alpha = (2.83 + 5.1 / b) * stdev;
+        this.logRatio = Math.log(p / q);
+        this.mode = Math.floor((n + 1.0) * p);
+
+        this.modeBound =
+            (mode + 0.5) * Math.log((mode + 1.0) / (ratioS * (n - mode + 1.0)))
+            + SaddlePoint.stirlerr(mode + 1.0)
+            + SaddlePoint.stirlerr(n - mode + 1.0);
+    }
+
+    /**
+     * Creates a new sampler for a fixed number of trials and success
+     * probability.
+     *
+     * @param trials the number of trials.
+     *
+     * @param prob the success probability for each trial.
+     *
+     * @return a sampler for the specified distribution.
+     *
+     * @throws IllegalArgumentException if the number of trials is
+     * negative or the probability is outside the range {@code [0, 1]}.
+     */
+    public static BinomialSampler create(long trials, double prob) {
+        if (trials < 0)
+            throw new IllegalArgumentException("Trial count cannot be negative.");
+
+        if (!(0.0 <= prob && prob <= 1.0))
+            throw new IllegalArgumentException("Success probability must lie in the range [0, 1].");
+
+        return new BinomialSampler(trials, prob);
+    }
+
+    /**
+     * Returns the number of trials.
+     *
+     * @return the number of trials.
+     */
+    public long getTrialCount() {
+        return trials;
+    }
+
+    /**
+     * Returns the success probability for each trial.
+     *
+     * @return the success probability for each trial.
+     */
+    public double getSuccessProb() {
+        return prob;
+    }
+
+    /**
+     * Samples the next binomial deviate.
+     *
+     * @param source the source of uniform random deviates.
+     *
+     * @return the number of successes in the next series of trials.
+     */
+    public long sample(JamRandom source) {
+        long successes;
+
+        if (trials == 0 || p == 0.0)
+            successes = 0;
+        else if (trials * p < REJECTION_MEAN_LIMIT)
+            successes = sampleInversion(source);
+        else
+            successes = sampleRejection(source);
+
+        return flip ? trials - successes : successes;
+    }
+
+    private long sampleInversion(JamRandom source) {
+        while (true) {
+            double draw = source.nextDouble();
+            double pk   = zeroProb;
+            long   k    = 0;
+
+            while (draw > pk && k < trials) {
+                draw -= pk;
+                ++k;
+                pk *= (ratioA / k - ratioS);
+            }
+
+            //
+            // Round-off error in the cumulative sum may leave the draw
+            // unexhausted at the upper end of the support; the residual
+            // mass is negligible, so start again...
+            //
+            if (draw <= pk)
+                return k;
+        }
+    }
+
+    private long sampleRejection(JamRandom source) {
+        double n = trials;
+
+        while (true) {
+            double U  = source.nextDouble() - 0.5;
+            double V  = source.nextDouble();
+            double us = 0.5 - Math.abs(U);
+
+            double k = Math.floor((2.0 * a / us + b) * U + c);
+
+            //
+            // The squeeze accepts most candidates immediately...
+            //
+            if (us >= 0.07 && V <= vr)
+                return (long) k;
+
+            if (k < 0.0 || k > n)
+                continue;
+
+            double lhs = Math.log(V * alpha / (a / (us * us) + b));
+            double rhs =
+                modeBound
+                + (n + 1.0) * Math.log((n - mode + 1.0) / (n - k + 1.0))
+                + (k + 0.5) * (Math.log((n - k + 1.0) / (k + 1.0)) + logRatio)
+                - SaddlePoint.stirlerr(k + 1.0)
+                - SaddlePoint.stirlerr(n - k + 1.0);
+
+            if (lhs <= rhs)
+                return (long) k;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 
 package jam.dist;
 
+import jam.math.AliasTable;
 import jam.math.IntRange;
 import jam.math.JamRandom;
 
@@ -8,10 +9,14 @@ import jam.math.JamRandom;
  * Represents a univariate probability distribution taking integer
  * values over a compact (finite) range with prescribed (explicitly
  * pre-calculated) probabilities.
+ *
+ * <p>Samples are drawn from an {@link AliasTable}, in constant time
+ * regardless of the size of the support.
  */
 public class CompactDiscreteDistribution extends AbstractDiscreteDistribution {
     private final DiscretePDF pdf;
     private final DiscreteCDF cdf;
+    private final AliasTable alias;
 
     /**
      * Creates a new discrete distribution with a pre-computed density
@@ -22,6 +27,7 @@ public class CompactDiscreteDistribution extends AbstractDiscreteDistribution {
     public CompactDiscreteDistribution(DiscretePDF pdf) {
         this.pdf = pdf;
         this.cdf = DiscreteCDF.compute(pdf);
+        this.alias = AliasTable.create(pdf.values);
     }
 
     /**
@@ -76,7 +82,7 @@ public class CompactDiscreteDistribution extends AbstractDiscreteDistribution {
     }
 
     @Override public int sample(JamRandom source) {
-        return cdf.sample(source);
+        return pdf.support().lower() + alias.sample(source);
     }
 
     @Override public IntRange support() {
@@ -5,6 +5,7 @@ import com.google.common.collect.HashMultiset;
 import com.google.common.collect.Multiset;
 
 import jam.math.DoubleComparator;
+import jam.math.GuideTable;
 import jam.math.IntRange;
 import jam.math.JamRandom;
 import jam.math.Probability;
@@ -12,8 +13,15 @@ import jam.vector.VectorUtil;
 
 /**
  * Represents a discrete cumulative probability distribution function (CDF).
+ *
+ * <p>The inverse is computed by binary search, and samples are drawn
+ * by indexed search through a {@link GuideTable}, so the sampling
+ * cost is independent of the size of the support.
  */
 public final class DiscreteCDF extends DiscreteDistributionFunction {
+    // Guide table for constant-time sampling, created on demand...
+    private GuideTable guideTable = null;
+
     private DiscreteCDF(IntRange support, double[] values) {
         super(support, values);
         validate(values);
@@ -119,16 +127,22 @@ public final class DiscreteCDF extends DiscreteDistributionFunction {
     public int inverse(double cdf) {
         Probability.validate(cdf);
 
-        // A binary search would be more efficient since the CDF
-        // values are sorted in increasing order, but the corner 
-        // cases are not as transparent.  Instead, move forward 
-        // while 
-        for (int observation : support())
-            if (DoubleComparator.DEFAULT.LE(cdf, evaluate(observation)))
-                return observation;
+        // The CDF values are non-decreasing, so a binary search finds
+        // the first observation whose cumulative probability is not
+        // less than the target (within the default tolerance)...
+        int lower = 0;
+        int upper = values.length - 1;
+
+        while (lower < upper) {
+            int middle = (lower + upper) >>> 1;
+
+            if (DoubleComparator.DEFAULT.LE(cdf, values[middle]))
+                upper = middle;
+            else
+                lower = middle + 1;
+        }
 
-        // Cannot happen for a valid CDF...
-        throw new IllegalStateException("Invalid CDF.");
+        return support().lower() + lower;
     }
 
     /**
@@ -171,7 +185,23 @@ public final class DiscreteCDF extends DiscreteDistributionFunction {
      * @return the next value from this distribution.
      */
     public int sample(JamRandom source) {
-        return inverse(source.nextDouble());
+        return support().lower() + guideTable().sample(source);
+    }
+
+    private GuideTable guideTable() {
+        //
+        // Created on demand, since most distribution functions are
+        // never sampled; the table is immutable, so a race between
+        // threads only wastes the effort of creating a duplicate...
+        //
+        GuideTable table = guideTable;
+
+        if (table == null) {
+            table = GuideTable.create(values);
+            guideTable = table;
+        }
+
+        return table;
     }
 
     /**
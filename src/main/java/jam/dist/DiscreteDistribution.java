@@ -154,6 +154,55 @@ public interface DiscreteDistribution {
      */
     public abstract Multiset<Integer> sample(JamRandom source, int count);
 
+    /**
+     * Samples the number of times that each value in the effective
+     * range of this distribution occurs in a series of independent
+     * draws.
+     *
+     * <p>The counts are sampled directly from the multinomial
+     * distribution (see {@link Multinomial}), at a cost proportional
+     * to the width of the effective range, independent of the number
+     * of draws.  Values outside the effective range (which carries
+     * all but one-billionth of the probability mass) are never
+     * counted.
+     *
+     * @param source the source of uniform random deviates.
+     *
+     * @param count the number of draws.
+     *
+     * @return an array whose element {@code k} contains the number
+     * of occurrences of the value {@code effectiveRange().lower() + k}.
+     */
+    public default long[] sampleCounts(JamRandom source, long count) {
+        return sampleCounts(source, count, effectiveRange());
+    }
+
+    /**
+     * Samples the number of times that each value in a finite range
+     * occurs in a series of independent draws from this distribution,
+     * conditioned on every draw falling within the range.
+     *
+     * @param source the source of uniform random deviates.
+     *
+     * @param count the number of draws.
+     *
+     * @param range the range of values to count.
+     *
+     * @return an array whose element {@code k} contains the number
+     * of occurrences of the value {@code range.lower() + k}.
+     *
+     * @throws IllegalArgumentException if the range has zero
+     * probability mass.
+     */
+    public default long[] sampleCounts(JamRandom source, long count, IntRange range) {
+        double[] weights = new double[range.size()];
+
+        for (int k = 0; k < weights.length; ++k)
+            weights[k] = pdf(range.lower() + k);
+
+        return Multinomial.sample(source, count, weights);
+    }
+
     /**
      * Returns the single closed contiguous range of integers with
      * non-zero probability mass.
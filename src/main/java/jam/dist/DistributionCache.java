@@ -0,0 +1,150 @@
+package jam.dist;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import jam.math.Probability;
+
+/**
+ * Maintains pre-computed distributions keyed by their parameter sets,
+ * so that applications evaluating the same distribution repeatedly
+ * (such as likelihood calculations in fitting loops) pay the cost of
+ * tabulation only once per parameter set.
+ *
+ * <p>Discrete distributions are cached through {@link
+ * DiscreteDistribution#cache()}, which pre-computes the PDF and CDF
+ * over the effective range; real distributions are cached through
+ * {@link RealDistribution#cache()}, which tabulates the CDF and PDF
+ * for interpolation.
+ *
+ * <p>The cache holds at most {@link #CAPACITY} distributions and
+ * discards the least-recently used distribution when full.  All
+ * methods are thread-safe.  The lock guards only the map itself;
+ * distributions are computed outside the lock, so threads missing the
+ * cache for different parameters tabulate concurrently.  Threads that
+ * miss on the same parameters at the same time may each compute the
+ * distribution, but only the first result is stored and returned.
+ */
+public final class DistributionCache {
+    private DistributionCache() {}
+
+    /**
+     * The maximum number of distributions held in the cache.
+     */
+    public static final int CAPACITY = 1024;
+
+    // Keys are lists containing the distribution type followed by
+    // the parameters, ordered by access for least-recently used
+    // eviction...
+    private static final Map<List<Object>, Object> cache =
+        new LinkedHashMap<List<Object>, Object>(16, 0.75F, true) {
+            @Override protected boolean removeEldestEntry(Map.Entry<List<Object>, Object> eldest) {
+                return size() > CAPACITY;
+            }
+        };
+
+    /**
+     * Returns a cached binomial distribution.
+     *
+     * @param trialCount the number of trials for the distribution.
+     *
+     * @param successProb the probability of success in a single
+     * trial.
+     *
+     * @return a pre-computed binomial distribution with the specified
+     * parameters.
+     *
+     * @throws IllegalArgumentException if the trial count is
+     * negative.
+     */
+    public static DiscreteDistribution binomial(int trialCount, Probability successProb) {
+        return lookup(Arrays.asList(DiscreteDistributionType.BINOMIAL, trialCount, successProb.doubleValue()),
+                      () -> BinomialDistribution.create(trialCount, successProb).cache());
+    }
+
+    /**
+     * Returns a cached Poisson distribution.
+     *
+     * @param mean the mean of the distribution.
+     *
+     * @return a pre-computed Poisson distribution with the specified
+     * mean.
+     *
+     * @throws IllegalArgumentException unless the mean is positive.
+     */
+    public static DiscreteDistribution poisson(double mean) {
+        return lookup(Arrays.asList(DiscreteDistributionType.POISSON, mean),
+                      () -> PoissonDistribution.create(mean).cache());
+    }
+
+    /**
+     * Returns a cached real distribution.
+     *
+     * @param type the enumerated distribution type.
+     *
+     * @param param the parameters required to define a distribution
+     * of the specified type, in the order expected by {@link
+     * RealDistributionType#create(double...)}.
+     *
+     * @return a tabulated real distribution with the specified type
+     * and parameters.
+     *
+     * @throws IllegalArgumentException unless the parameters define
+     * a valid distribution with a finite effective range.
+     *
+     * @throws UnsupportedOperationException if the distribution does
+     * not implement its quantile function.
+     */
+    public static RealDistribution real(RealDistributionType type, double... param) {
+        Object[] fields = new Object[param.length + 1];
+        fields[0] = type;
+
+        for (int k = 0; k < param.length; ++k)
+            fields[k + 1] = param[k];
+
+        double[] copy = param.clone();
+        return lookup(Arrays.asList(fields), () -> type.create(copy).cache());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <D> D lookup(List<Object> key, Supplier<D> factory) {
+        synchronized (cache) {
+            Object dist = cache.get(key);
+
+            if (dist != null)
+                return (D) dist;
+        }
+
+        // Compute the distribution without holding the lock, then
+        // store it unless another thread got there first...
+        D dist = factory.get();
+
+        synchronized (cache) {
+            Object existing = cache.putIfAbsent(key, dist);
+            return (existing != null) ? (D) existing : dist;
+        }
+    }
+
+    /**
+     * Removes all distributions from the cache.
+     */
+    public static void clear() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * Returns the number of distributions in the cache.
+     *
+     * @return the number of distributions in the cache.
+     */
+    public static int size() {
+        synchronized (cache) {
+            return cache.size();
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package jam.dist;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.stream.DoubleStream;
+
+import jam.math.DoubleRange;
+import jam.math.JamRandom;
+import jam.math.Probability;
+
+/**
+ * Represents a univariate probability distribution taking real
+ * values derived from an empirical data set.
+ *
+ * <p>The observations are stored in a sorted primitive array, so the
+ * empirical cumulative distribution function (ECDF) is evaluated by
+ * binary search in {@code O(log n)} time, and at a sorted array of
+ * {@code m} query points in {@code O(n + m)} time by a single merge
+ * pass.  The two-sample Kolmogorov-Smirnov statistic is computed by
+ * the same kind of merge.
+ *
+ * <p>The empirical distribution is discrete, with mass {@code 1 / n}
+ * at each observation.  The {@code pdf} method instead returns a
+ * smoothed density: the Gaussian {@link KernelDensity} estimate with
+ * the default bandwidth, which is computed on the first call.
+ */
+public final class EmpiricalRealDistribution extends AbstractRealDistribution {
+    private final double[] sorted;
+    private final double mean;
+    private final double variance;
+    private final DoubleRange support;
+
+    // Smoothed density estimate, computed on demand...
+    private KernelDensity density = null;
+
+    private EmpiricalRealDistribution(double[] sorted) {
+        validateObservations(sorted);
+        Arrays.sort(sorted);
+
+        this.sorted   = sorted;
+        this.mean     = computeMean(sorted);
+        this.variance = computeVariance(sorted, mean);
+        this.support  = DoubleRange.closed(sorted[0], sorted[sorted.length - 1]);
+    }
+
+    private static void validateObservations(double[] observations) {
+        if (observations.length < 1)
+            throw new IllegalArgumentException("At least one observation is required.");
+
+        for (double obs : observations)
+            if (!Double.isFinite(obs))
+                throw new IllegalArgumentException("Observations must be finite.");
+    }
+
+    private static double computeMean(double[] sorted) {
+        double sum = 0.0;
+
+        for (double obs : sorted)
+            sum += obs;
+
+        return sum / sorted.length;
+    }
+
+    private static double computeVariance(double[] sorted, double mean) {
+        if (sorted.length < 2)
+            return 0.0;
+
+        double sum = 0.0;
+
+        for (double obs : sorted)
+            sum += (obs - mean) * (obs - mean);
+
+        return sum / (sorted.length - 1);
+    }
+
+    /**
+     * Creates a new real distribution describing a set of empirical
+     * observations.
+     *
+     * @param observations the observations to describe (the array is
+     * copied and not modified).
+     *
+     * @return a real distribution describing the given data.
+     *
+     * @throws IllegalArgumentException unless there is at least one
+     * observation and all observations are finite.
+     */
+    public static EmpiricalRealDistribution compute(double... observations) {
+        return new EmpiricalRealDistribution(observations.clone());
+    }
+
+    /**
+     * Creates a new real distribution describing a set of empirical
+     * observations.
+     *
+     * @param observations the observations to describe.
+     *
+     * @return a real distribution describing the given data.
+     *
+     * @throws IllegalArgumentException unless there is at least one
+     * observation and all observations are finite.
+     */
+    public static EmpiricalRealDistribution compute(Collection<Double> observations) {
+        return compute(observations.stream().mapToDouble(Double::doubleValue));
+    }
+
+    /**
+     * Creates a new real distribution describing a set of empirical
+     * observations.
+     *
+     * @param observations the observations to describe.
+     *
+     * @return a real distribution describing the given data.
+     *
+     * @throws IllegalArgumentException unless there is at least one
+     * observation and all observations are finite.
+     */
+    public static EmpiricalRealDistribution compute(DoubleStream observations) {
+        return new EmpiricalRealDistribution(observations.toArray());
+    }
+
+    private static void validateSorted(double[] points) {
+        for (int k = 1; k < points.length; ++k)
+            if (!(points[k - 1] <= points[k]))
+                throw new IllegalArgumentException("Query points must be sorted in ascending order.");
+    }
+
+    /**
+     * Computes the two-sample Kolmogorov-Smirnov statistic: the
+     * maximum absolute difference between two empirical cumulative
+     * distribution functions.
+     *
+     * <p>The statistic is computed in a single merge pass over the
+     * sorted observations, in {@code O(n1 + n2)} time.
+     *
+     * @param dist1 the first empirical distribution.
+     *
+     * @param dist2 the second empirical distribution.
+     *
+     * @return the Kolmogorov-Smirnov statistic {@code D = sup_x |F1(x)
+     * - F2(x)|}.
+     */
+    public static double ksStatistic(EmpiricalRealDistribution dist1, EmpiricalRealDistribution dist2) {
+        double[] x1 = dist1.sorted;
+        double[] x2 = dist2.sorted;
+
+        int n1 = x1.length;
+        int n2 = x2.length;
+        int i1 = 0;
+        int i2 = 0;
+
+        double result = 0.0;
+
+        while (i1 < n1 && i2 < n2) {
+            // Advance past all observations equal to the smallest
+            // remaining value in either sample, so that ties are
+            // compared only after both ECDFs have stepped...
+            double x = Math.min(x1[i1], x2[i2]);
+
+            while (i1 < n1 && x1[i1] == x)
+                ++i1;
+
+            while (i2 < n2 && x2[i2] == x)
+                ++i2;
+
+            result = Math.max(result, Math.abs((double) i1 / n1 - (double) i2 / n2));
+        }
+
+        return result;
+    }
+
+    /**
+     * Computes the Kolmogorov-Smirnov distance between this empirical
+     * distribution and another empirical distribution.
+     *
+     * @param that the other empirical distribution.
+     *
+     * @return the two-sample Kolmogorov-Smirnov statistic.
+     */
+    public double ksDistance(EmpiricalRealDistribution that) {
+        return ksStatistic(this, that);
+    }
+
+    /**
+     * Computes the Kolmogorov-Smirnov distance between this empirical
+     * distribution and a reference distribution, in {@code O(n)}
+     * evaluations of the reference CDF.
+     *
+     * @param reference the reference distribution.
+     *
+     * @return the one-sample Kolmogorov-Smirnov statistic {@code D =
+     * sup_x |Fn(x) - F(x)|}.
+     */
+    public double ksDistance(RealDistribution reference) {
+        int n = sorted.length;
+        double result = 0.0;
+
+        for (int k = 0; k < n; ++k) {
+            double F = reference.cdf(sorted[k]);
+
+            result = Math.max(result, (k + 1.0) / n - F);
+            result = Math.max(result, F - ((double) k) / n);
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the number of observations used to estimate this
+     * distribution.
+     *
+     * @return the number of observations used to estimate this
+     * distribution.
+     */
+    public int countObservations() {
+        return sorted.length;
+    }
+
+    /**
+     * Returns an order statistic.
+     *
+     * @param index the (zero-based) rank of the order statistic.
+     *
+     * @return the observation with the specified rank.
+     *
+     * @throws IndexOutOfBoundsException unless the rank is valid.
+     */
+    public double getOrderStatistic(int index) {
+        return sorted[index];
+    }
+
+    /**
+     * Returns the observations in ascending order.
+     *
+     * @return a new array containing the observations in ascending
+     * order.
+     */
+    public double[] getObservations() {
+        return sorted.clone();
+    }
+
+    /**
+     * Streams the observations in ascending order without copying.
+     *
+     * @return a stream over the observations in ascending order.
+     */
+    public DoubleStream streamObservations() {
+        return Arrays.stream(sorted);
+    }
+
+    /**
+     * Evaluates the empirical cumulative distribution function at
+     * many points in one merge pass.
+     *
+     * @param points the points at which to evaluate the ECDF, sorted
+     * in ascending order.
+     *
+     * @return an array containing the ECDF at each query point.
+     *
+     * @throws IllegalArgumentException unless the query points are
+     * sorted in ascending order.
+     */
+    public double[] cdf(double[] points) {
+        validateSorted(points);
+
+        double[] result = new double[points.length];
+        int count = 0;
+
+        for (int k = 0; k < points.length; ++k) {
+            while (count < sorted.length && sorted[count] <= points[k])
+                ++count;
+
+            result[k] = ((double) count) / sorted.length;
+        }
+
+        return result;
+    }
+
+    /**
+     * Returns the Gaussian kernel density estimate with the default
+     * bandwidth, which is computed on the first call.
+     *
+     * @return the Gaussian kernel density estimate for this data.
+     */
+    public KernelDensity density() {
+        if (density == null)
+            density = KernelDensity.compute(this);
+
+        return density;
+    }
+
+    @Override public double cdf(double x) {
+        return ((double) countAtMost(x)) / sorted.length;
+    }
+
+    private int countAtMost(double x) {
+        // Find the number of observations less than or equal to x:
+        // the insertion point after any run of equal values...
+        int lo = 0;
+        int hi = sorted.length;
+
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+
+            if (sorted[mid] <= x)
+                lo = mid + 1;
+            else
+                hi = mid;
+        }
+
+        return lo;
+    }
+
+    @Override public double pdf(double x) {
+        return density().evaluate(x);
+    }
+
+    @Override public double quantile(double F) {
+        Probability.validate(F);
+
+        // The inverse ECDF: the smallest observation x for which
+        // Fn(x) >= F...
+        int index = (int) Math.ceil(F * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))];
+    }
+
+    @Override public double mean() {
+        return mean;
+    }
+
+    @Override public double median() {
+        int n = sorted.length;
+
+        if (n % 2 == 1)
+            return sorted[n / 2];
+        else
+            return 0.5 * (sorted[n / 2 - 1] + sorted[n / 2]);
+    }
+
+    @Override public double variance() {
+        return variance;
+    }
+
+    @Override public double sample(JamRandom source) {
+        return sorted[source.nextInt(sorted.length)];
+    }
+
+    @Override public DoubleRange support() {
+        return support;
+    }
+}
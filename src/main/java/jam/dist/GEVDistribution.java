@@ -1,8 +1,11 @@
 
 package jam.dist;
 
+import org.apache.commons.math3.special.Gamma;
+
 import jam.math.DoubleComparator;
 import jam.math.DoubleRange;
+import jam.math.DoubleUtil;
 import jam.math.JamRandom;
 
 /**
@@ -142,6 +145,40 @@ public abstract class GEVDistribution extends AbstractRealDistribution {
         return location - scale * (1.0 - Math.pow(-Math.log(F), -shape)) / shape;
     }
 
+    @Override public double mean() {
+        //
+        // Valid for Frechet and reverse Weibull only: the mean is
+        // infinite unless the shape parameter is less than one...
+        //
+        if (shape >= 1.0)
+            return Double.POSITIVE_INFINITY;
+
+        return location + scale * (gamma(1.0 - shape) - 1.0) / shape;
+    }
+
+    @Override public double median() {
+        return location + scale * (Math.pow(DoubleUtil.LOG2, -shape) - 1.0) / shape;
+    }
+
+    @Override public double variance() {
+        //
+        // The variance is infinite unless the shape parameter is less
+        // than one-half...
+        //
+        if (shape >= 0.5)
+            return Double.POSITIVE_INFINITY;
+
+        double g1 = gamma(1.0 - shape);
+        double g2 = gamma(1.0 - 2.0 * shape);
+
+        return scale * scale * (g2 - g1 * g1) / (shape * shape);
+    }
+
+    // The gamma function for the positive arguments required above...
+    private static double gamma(double x) {
+        return Math.exp(Gamma.logGamma(x));
+    }
+
     @Override public DoubleRange support() {
         return range;
     }
@@ -3,6 +3,7 @@ package jam.dist;
 
 import jam.math.DoubleComparator;
 import jam.math.JamRandom;
+import jam.math.RandomDirection;
 import jam.math.StatUtil;
 import jam.matrix.JamMatrix;
 import jam.matrix.MatrixView;
@@ -14,6 +15,11 @@ import jam.vector.VectorView;
  * hypersphere.
  *
  * <p>The algorithm is described <a href="http://mathworld.wolfram.com/HyperspherePointPicking.html">here</a>.
+ * Large samples should be generated in bulk with {@link
+ * #sample(JamRandom, double[], int, int)} or {@link
+ * #sampleFlat(JamRandom, int)}, which write coordinates into flat
+ * arrays using the methods in {@link RandomDirection} rather than
+ * allocating a vector for each point.
  */
 public final class HypersphericalDistribution extends AbstractMultivariateDistribution {
     private final double radius;
@@ -150,4 +156,57 @@ public final class HypersphericalDistribution extends AbstractMultivariateDistri
 
         return result;
     }
+
+    /**
+     * Generates random points on this hypersphere in bulk.
+     *
+     * @param source the random number source.
+     *
+     * @param count the number of points to generate.
+     *
+     * @return a new array of length {@code dim() * count} containing
+     * the coordinates of the points, with the coordinates of each
+     * point stored contiguously.
+     *
+     * @throws IllegalArgumentException if the count is negative.
+     */
+    public double[] sampleFlat(JamRandom source, int count) {
+        double[] buffer = RandomDirection.sphere(source, dim(), count);
+        scaleAndShift(buffer, 0, count);
+        return buffer;
+    }
+
+    /**
+     * Generates random points on this hypersphere in bulk and stores
+     * them in an existing buffer.
+     *
+     * @param source the random number source.
+     *
+     * @param buffer the buffer to hold the coordinates; point {@code
+     * k} occupies elements {@code [offset + k * dim(), offset + (k +
+     * 1) * dim())}.
+     *
+     * @param offset the index in the buffer of the first coordinate
+     * of the first point.
+     *
+     * @param count the number of points to generate.
+     *
+     * @throws IllegalArgumentException if the count is negative.
+     *
+     * @throws IndexOutOfBoundsException unless the buffer has room
+     * for all points.
+     */
+    public void sample(JamRandom source, double[] buffer, int offset, int count) {
+        RandomDirection.sphere(source, dim(), buffer, offset, count);
+        scaleAndShift(buffer, offset, count);
+    }
+
+    private void scaleAndShift(double[] buffer, int offset, int count) {
+        int dim = dim();
+        double[] shift = center.toNumeric();
+
+        for (int point = 0, index = offset; point < count; ++point)
+            for (int coord = 0; coord < dim; ++coord, ++index)
+                buffer[index] = radius * buffer[index] + shift[coord];
+    }
 }
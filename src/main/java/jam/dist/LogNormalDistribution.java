@@ -39,7 +39,7 @@ public final class LogNormalDistribution extends LogDerivedDistribution {
 	double stdevLog = getStDevLog();
 	double varLog   = stdevLog * stdevLog;
 
-	return Math.exp(varLog - 1.0) * Math.exp(2.0 * meanLog + varLog);
+	return Math.expm1(varLog) * Math.exp(2.0 * meanLog + varLog);
     }
 
     /**
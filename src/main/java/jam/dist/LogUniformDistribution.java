@@ -44,6 +44,24 @@ public final class LogUniformDistribution extends LogDerivedDistribution {
         return uniform.getUpper();
     }
 
+    @Override public double mean() {
+        double a = getLowerLog();
+        double b = getUpperLog();
+
+        return (Math.exp(b) - Math.exp(a)) / (b - a);
+    }
+
+    @Override public double variance() {
+        //
+        // E[X^2] - E[X]^2, with E[X^2] = (e^{2b} - e^{2a}) / 2(b - a)...
+        //
+        double a = getLowerLog();
+        double b = getUpperLog();
+        double m = mean();
+
+        return (Math.exp(2.0 * b) - Math.exp(2.0 * a)) / (2.0 * (b - a)) - m * m;
+    }
+
     @Override protected RealDistribution getLogDistribution() {
         return uniform;
     }
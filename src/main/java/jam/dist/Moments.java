@@ -0,0 +1,221 @@
+
+package jam.dist;
+
+import jam.math.DoubleComparator;
+import jam.math.IntRange;
+import jam.math.IntUtil;
+import jam.math.StatSummary;
+
+// Computes the mean, median, and variance of a probability
+// distribution for which closed-form expressions are not available.
+//
+// Discrete distributions are summed exactly over their support,
+// moving outward from the finite end of the support and truncating
+// an infinite tail once the remaining probability mass is negligible.
+// Continuous distributions are integrated over their quantile function
+// with Gauss-Legendre quadrature on panels that shrink geometrically
+// toward zero and one.  Random sampling is used only as a last resort:
+// for discrete distributions that are unbounded in both directions or
+// that spread their mass over too many points to sum, and for
+// continuous distributions whose quantile function is unavailable.
+final class Moments {
+    final double mean;
+    final double median;
+    final double variance;
+
+    // Summation stops when the unvisited mass falls below this...
+    private static final double TAIL_TOLERANCE = 1.0E-14;
+
+    // Or when the accumulated mass is nearly complete and the current
+    // probability is smaller than this (to tolerate round-off error in
+    // the normalization of the density)...
+    private static final double NEAR_COMPLETE = 1.0E-09;
+    private static final double NEGLIGIBLE_PDF = 1.0E-20;
+
+    // The maximum number of points to sum before resorting to
+    // sampling...
+    private static final int MAX_SUMMATION_POINTS = 1 << 24;
+
+    // The number of samples drawn as a last resort...
+    private static final int SAMPLE_COUNT = 1000000;
+
+    // Gauss-Legendre nodes and weights on [-1, +1]...
+    private static final double[] GL_NODES = new double[] {
+        -0.9061798459386640, -0.5384693101056831, 0.0, 0.5384693101056831, 0.9061798459386640
+    };
+
+    private static final double[] GL_WEIGHTS = new double[] {
+        0.2369268850561891, 0.4786286704993665, 0.5688888888888889, 0.4786286704993665, 0.2369268850561891
+    };
+
+    // The number of panels [2^(-j - 1), 2^(-j)] toward zero (and the
+    // mirror images toward one) used to integrate the quantile
+    // function, ending near the resolution of double precision...
+    private static final int PANEL_COUNT = 52;
+
+    // Subdivisions of each panel...
+    private static final int PANEL_DIVISIONS = 4;
+
+    private Moments(double mean, double median, double variance) {
+        this.mean = mean;
+        this.median = median;
+        this.variance = variance;
+    }
+
+    static Moments compute(DiscreteDistribution dist) {
+        IntRange support = dist.support();
+
+        Moments moments = null;
+
+        if (support.lower() > Integer.MIN_VALUE)
+            moments = sum(dist, support.lower(), support.upper(), +1);
+        else if (support.upper() < Integer.MAX_VALUE)
+            moments = sum(dist, support.upper(), support.lower(), -1);
+
+        if (moments != null)
+            return moments;
+        else
+            return sample(StatSummary.compute(IntUtil.toDouble(dist.sample(SAMPLE_COUNT))));
+    }
+
+    // Sums the density from "start" toward "end" (inclusive) in the
+    // direction "step", returning null if the summation is too long...
+    private static Moments sum(DiscreteDistribution dist, int start, int end, int step) {
+        double total = 0.0;
+        double mean  = 0.0;
+        double M2    = 0.0;
+
+        // The median is the first point at which the cumulative mass
+        // exceeds one-half; if the mass is exactly one-half at point
+        // "tieLower", the median lies halfway between that point and
+        // the next point with non-zero probability...
+        double  median = Double.NaN;
+        boolean tie = false;
+        int     tieLower = 0;
+
+        long count = 0;
+        long limit = Math.abs((long) end - (long) start) + 1;
+
+        for (int k = start; count < limit; k += step, ++count) {
+            if (count >= MAX_SUMMATION_POINTS)
+                return null;
+
+            double pdf = dist.pdf(k);
+
+            if (pdf > 0.0) {
+                //
+                // Weighted Welford update...
+                //
+                double newTotal = total + pdf;
+                double delta = k - mean;
+
+                mean  += delta * pdf / newTotal;
+                M2    += pdf * delta * (k - mean);
+                total  = newTotal;
+
+                if (Double.isNaN(median)) {
+                    if (tie) {
+                        median = 0.5 * (tieLower + k);
+                    }
+                    else if (DoubleComparator.DEFAULT.EQ(total, 0.5)) {
+                        tie = true;
+                        tieLower = k;
+                    }
+                    else if (total > 0.5) {
+                        median = k;
+                    }
+                }
+            }
+
+            if (Double.isNaN(median))
+                continue;
+
+            double tail = 1.0 - total;
+
+            if (tail < TAIL_TOLERANCE)
+                break;
+
+            if (tail < NEAR_COMPLETE && pdf < NEGLIGIBLE_PDF)
+                break;
+        }
+
+        if (total <= 0.0 || Double.isNaN(median))
+            return null;
+
+        return new Moments(mean, median, M2 / total);
+    }
+
+    static Moments compute(RealDistribution dist) {
+        double median;
+        double mean;
+        double variance;
+
+        try {
+            median = dist.quantile(0.5);
+
+            double[] sums = integrateQuantile(dist);
+
+            mean = sums[0];
+            variance = sums[1];
+        }
+        catch (UnsupportedOperationException | IllegalStateException ex) {
+            return sample(StatSummary.compute(dist.sample(SAMPLE_COUNT)));
+        }
+
+        return new Moments(mean, median, variance);
+    }
+
+    // Returns the mean and variance: E[X] = int Q(u) du over [0, 1].
+    private static double[] integrateQuantile(RealDistribution dist) {
+        //
+        // First pass for the mean, second for the variance about the
+        // mean (which avoids cancellation)...
+        //
+        double mean = integrate(dist, Double.NaN);
+        double variance = integrate(dist, mean);
+
+        return new double[] { mean, variance };
+    }
+
+    // Integrates Q(u) if "center" is NaN; otherwise (Q(u) - center)^2.
+    private static double integrate(RealDistribution dist, double center) {
+        double result = 0.0;
+
+        for (int j = 1; j <= PANEL_COUNT; ++j) {
+            double outer = Math.scalb(1.0, -j - 1);
+            double inner = 2.0 * outer;
+
+            result += integratePanel(dist, center, outer, inner);
+            result += integratePanel(dist, center, 1.0 - inner, 1.0 - outer);
+        }
+
+        return result;
+    }
+
+    private static double integratePanel(RealDistribution dist, double center, double lower, double upper) {
+        double result = 0.0;
+        double width = (upper - lower) / PANEL_DIVISIONS;
+
+        for (int division = 0; division < PANEL_DIVISIONS; ++division) {
+            double mid  = lower + (division + 0.5) * width;
+            double half = 0.5 * width;
+
+            for (int node = 0; node < GL_NODES.length; ++node) {
+                double q = dist.quantile(mid + half * GL_NODES[node]);
+
+                if (!Double.isNaN(center)) {
+                    q -= center;
+                    q *= q;
+                }
+
+                result += half * GL_WEIGHTS[node] * q;
+            }
+        }
+
+        return result;
+    }
+
+    private static Moments sample(StatSummary summary) {
+        return new Moments(summary.getMean(), summary.getMedian(), summary.getVariance());
+    }
+}
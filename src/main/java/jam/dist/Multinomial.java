@@ -0,0 +1,169 @@
+
+package jam.dist;
+
+import java.util.stream.IntStream;
+
+import jam.math.JamRandom;
+
+/**
+ * Samples outcome counts from the multinomial distribution: the
+ * number of times that each of {@code K} mutually exclusive outcomes
+ * occurs in {@code N} independent trials.
+ *
+ * <p>Rather than performing {@code N} individual draws, the counts are
+ * generated directly as a sequence of conditional binomial deviates:
+ * the count for outcome {@code k} is binomial with the trials not yet
+ * assigned to outcomes {@code 0, ..., k - 1} and the probability of
+ * outcome {@code k} conditioned on not being one of those outcomes.
+ * Each binomial deviate is generated in constant expected time by a
+ * {@link BinomialSampler}, so the cost depends on the number of
+ * outcomes, not on the number of trials, and the counts are returned
+ * in a primitive array rather than a boxed multiset.
+ *
+ * <p>For distributions with very many outcomes, the
+ * {@link Multinomial#sampleParallel(JamRandom, long, double[])} method
+ * first samples the total counts for contiguous blocks of outcomes and
+ * then samples the counts within each block in parallel.
+ */
+public final class Multinomial {
+    private Multinomial() {}
+
+    // The minimum number of outcomes assigned to one parallel block...
+    private static final int MIN_BLOCK_SIZE = 4096;
+
+    /**
+     * Samples the outcome counts for a fixed number of trials.
+     *
+     * @param source the source of uniform random deviates.
+     *
+     * @param count the number of trials.
+     *
+     * @param weights the relative weights of the outcomes, which need
+     * not be normalized ({@code weights[k]} is proportional to the
+     * probability of outcome {@code k}).
+     *
+     * @return an array whose element {@code k} contains the number of
+     * times that outcome {@code k} occurred; the elements sum to the
+     * number of trials.
+     *
+     * @throws IllegalArgumentException if the trial count is negative,
+     * any weight is negative or not finite, or all weights are zero.
+     */
+    public static long[] sample(JamRandom source, long count, double... weights) {
+        validate(count, weights);
+
+        long[] counts = new long[weights.length];
+        sample(source, count, weights, 0, weights.length, counts);
+
+        return counts;
+    }
+
+    /**
+     * Samples the outcome counts for a fixed number of trials, using
+     * all available processors when there are very many outcomes.
+     *
+     * <p>The results are statistically equivalent to (but not
+     * identical with) those of
+     * {@link Multinomial#sample(JamRandom, long, double...)} with the
+     * same random source: each parallel block uses an independent
+     * generator seeded from the source.
+     *
+     * @param source the source of uniform random deviates.
+     *
+     * @param count the number of trials.
+     *
+     * @param weights the relative weights of the outcomes.
+     *
+     * @return an array whose element {@code k} contains the number of
+     * times that outcome {@code k} occurred.
+     *
+     * @throws IllegalArgumentException if the trial count is negative,
+     * any weight is negative or not finite, or all weights are zero.
+     */
+    public static long[] sampleParallel(JamRandom source, long count, double[] weights) {
+        validate(count, weights);
+
+        int outcomes   = weights.length;
+        int processors = Runtime.getRuntime().availableProcessors();
+        int blockSize  = Math.max(MIN_BLOCK_SIZE, (outcomes + 4 * processors - 1) / (4 * processors));
+        int blockCount = (outcomes + blockSize - 1) / blockSize;
+
+        long[] counts = new long[outcomes];
+
+        if (blockCount < 2) {
+            sample(source, count, weights, 0, outcomes, counts);
+            return counts;
+        }
+
+        double[] blockWeights = new double[blockCount];
+
+        for (int k = 0; k < outcomes; ++k)
+            blockWeights[k / blockSize] += weights[k];
+
+        long[] blockCounts = new long[blockCount];
+        sample(source, count, blockWeights, 0, blockCount, blockCounts);
+
+        long[] seeds = new long[blockCount];
+
+        for (int block = 0; block < blockCount; ++block)
+            seeds[block] = source.nextLong();
+
+        IntStream.range(0, blockCount).parallel().forEach(block -> {
+                int start = block * blockSize;
+                int end = Math.min(start + blockSize, outcomes);
+
+                sample(JamRandom.generator(seeds[block]), blockCounts[block], weights, start, end, counts);
+            });
+
+        return counts;
+    }
+
+    private static void validate(long count, double[] weights) {
+        if (count < 0)
+            throw new IllegalArgumentException("Trial count cannot be negative.");
+
+        if (weights.length == 0)
+            throw new IllegalArgumentException("At least one outcome is required.");
+
+        double total = 0.0;
+
+        for (double weight : weights) {
+            if (weight < 0.0 || !Double.isFinite(weight))
+                throw new IllegalArgumentException("Outcome weights must be finite and non-negative.");
+
+            total += weight;
+        }
+
+        if (total <= 0.0)
+            throw new IllegalArgumentException("At least one outcome weight must be positive.");
+    }
+
+    // Samples the counts for outcomes [start, end) into the result
+    // array, conditioned on a total of "count" trials in the range...
+    private static void sample(JamRandom source, long count, double[] weights, int start, int end, long[] counts) {
+        //
+        // Tail sums, accumulated from the largest index down, so that
+        // the conditional probability of the last outcome with a
+        // positive weight is exactly one...
+        //
+        double[] tail = new double[end - start + 1];
+
+        for (int k = end - 1; k >= start; --k)
+            tail[k - start] = tail[k - start + 1] + weights[k];
+
+        long remaining = count;
+
+        for (int k = start; k < end && remaining > 0; ++k) {
+            double remainingWeight = tail[k - start];
+
+            if (weights[k] <= 0.0 || remainingWeight <= 0.0)
+                continue;
+
+            double prob = Math.min(1.0, weights[k] / remainingWeight);
+            long   draw = BinomialSampler.create(remaining, prob).sample(source);
+
+            counts[k] = draw;
+            remaining -= draw;
+        }
+    }
+}
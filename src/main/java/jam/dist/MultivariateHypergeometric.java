@@ -0,0 +1,169 @@
+
+package jam.dist;
+
+import jam.math.JamRandom;
+
+/**
+ * Samples outcome counts from the multivariate hypergeometric
+ * distribution: the number of items of each of {@code K} types
+ * obtained in {@code n} draws <em>without replacement</em> from an
+ * urn containing a fixed number of items of each type.
+ *
+ * <p>This is the counterpart of the {@link Multinomial} distribution
+ * for sampling without replacement.  The counts are generated
+ * directly as a sequence of conditional (univariate) hypergeometric
+ * deviates, so the cost depends on the number of types rather than
+ * the number of draws.
+ *
+ * <p>Each univariate deviate is generated by inversion of the
+ * cumulative distribution starting from the mode and moving
+ * alternately down and up, so the expected number of steps is
+ * proportional to its standard deviation.  The probability at the
+ * mode is computed by a saddle point expansion, which retains full
+ * precision for populations too large for factorial tables.
+ */
+public final class MultivariateHypergeometric {
+    private MultivariateHypergeometric() {}
+
+    /**
+     * Samples the number of items of each type obtained in a fixed
+     * number of draws without replacement.
+     *
+     * @param source the source of uniform random deviates.
+     *
+     * @param draws the number of items drawn.
+     *
+     * @param population the number of items of each type in the urn.
+     *
+     * @return an array whose element {@code k} contains the number of
+     * items of type {@code k} drawn; the elements sum to the number of
+     * draws.
+     *
+     * @throws IllegalArgumentException if any population count is
+     * negative or the number of draws is negative or exceeds the
+     * total population.
+     */
+    public static long[] sample(JamRandom source, long draws, long[] population) {
+        long total = 0;
+
+        for (long count : population) {
+            if (count < 0)
+                throw new IllegalArgumentException("Population counts cannot be negative.");
+
+            total = Math.addExact(total, count);
+        }
+
+        validateDraws(draws, total);
+
+        long[] result = new long[population.length];
+        long remainingDraws = draws;
+        long remainingTotal = total;
+
+        for (int k = 0; k < population.length && remainingDraws > 0; ++k) {
+            result[k] = hypergeometric(source, remainingTotal, population[k], remainingDraws);
+
+            remainingDraws -= result[k];
+            remainingTotal -= population[k];
+        }
+
+        return result;
+    }
+
+    /**
+     * Samples the number of successes obtained in a fixed number of
+     * draws without replacement (the univariate hypergeometric
+     * distribution).
+     *
+     * @param source the source of uniform random deviates.
+     *
+     * @param population the number of items in the urn.
+     *
+     * @param successes the number of successes in the urn.
+     *
+     * @param draws the number of items drawn.
+     *
+     * @return the number of successes drawn.
+     *
+     * @throws IllegalArgumentException unless
+     * {@code 0 <= successes <= population} and
+     * {@code 0 <= draws <= population}.
+     */
+    public static long sample(JamRandom source, long population, long successes, long draws) {
+        if (successes < 0 || successes > population)
+            throw new IllegalArgumentException("Invalid success count.");
+
+        validateDraws(draws, population);
+        return hypergeometric(source, population, successes, draws);
+    }
+
+    private static void validateDraws(long draws, long population) {
+        if (draws < 0 || draws > population)
+            throw new IllegalArgumentException("Number of draws must lie in the range [0, population].");
+    }
+
+    // Samples the number of successes in a fixed number of draws
+    // without replacement from a population...
+    private static long hypergeometric(JamRandom source, long population, long successes, long draws) {
+        long lower = Math.max(0, draws - (population - successes));
+        long upper = Math.min(draws, successes);
+
+        if (lower == upper)
+            return lower;
+
+        double N = population;
+        double K = successes;
+        double n = draws;
+
+        long mode = (long) Math.floor((n + 1.0) * (K + 1.0) / (N + 2.0));
+        mode = Math.max(lower, Math.min(upper, mode));
+
+        double modePDF = SaddlePoint.hypergeometricPDF(mode, N, K, n);
+
+        while (true) {
+            double draw = source.nextDouble() - modePDF;
+
+            if (draw < 0.0)
+                return mode;
+
+            long   lo = mode;
+            long   hi = mode;
+            double loPDF = modePDF;
+            double hiPDF = modePDF;
+
+            //
+            // Walk outward until the draw is exhausted, updating the
+            // probabilities by the ratios P(k - 1) / P(k) and
+            // P(k + 1) / P(k); if both tails underflow first (the
+            // residual is round-off error in the total probability),
+            // start again with a new draw...
+            //
+            while (loPDF > 0.0 || hiPDF > 0.0) {
+                if (lo > lower && loPDF > 0.0) {
+                    double k = lo;
+                    loPDF *= (k * (N - K - n + k)) / ((K - k + 1.0) * (n - k + 1.0));
+                    --lo;
+                    draw -= loPDF;
+
+                    if (draw < 0.0)
+                        return lo;
+                }
+                else {
+                    loPDF = 0.0;
+                }
+
+                if (hi < upper && hiPDF > 0.0) {
+                    double k = hi;
+                    hiPDF *= ((K - k) * (n - k)) / ((k + 1.0) * (N - K - n + k + 1.0));
+                    ++hi;
+                    draw -= hiPDF;
+
+                    if (draw < 0.0)
+                        return hi;
+                }
+                else {
+                    hiPDF = 0.0;
+                }
+            }
+        }
+    }
+}
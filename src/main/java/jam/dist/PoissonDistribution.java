@@ -6,6 +6,7 @@ import java.util.Arrays;
 import org.apache.commons.math3.special.Gamma;
 
 import jam.math.DoubleRange;
+import jam.math.GuideTable;
 import jam.math.IntRange;
 import jam.math.JamRandom;
 
@@ -19,8 +20,9 @@ public abstract class PoissonDistribution extends AbstractDiscreteDistribution {
     // limit...
     private static final double KNUTH_MEAN_LIMIT = 1.0;
 
-    // Use a normal approximation for mean values above this limit...
-    private static final double NORMAL_MEAN_LIMIT = 50.0;
+    // Use transformed rejection (PTRS) for mean values above this
+    // limit...
+    private static final double PTRS_MEAN_LIMIT = PoissonSampler.REJECTION_MEAN_LIMIT;
 
     /**
      * The range of valid mean values.
@@ -56,10 +58,10 @@ public abstract class PoissonDistribution extends AbstractDiscreteDistribution {
     public static PoissonDistribution create(double mean) {
         if (mean < KNUTH_MEAN_LIMIT)
             return new PoissonDistributionExact(mean);
-        else if (mean < NORMAL_MEAN_LIMIT)
+        else if (mean < PTRS_MEAN_LIMIT)
             return new PoissonDistributionKnuth(mean);
         else
-            return new PoissonDistributionNormal(mean);
+            return new PoissonDistributionPTRS(mean);
     }
 
     /**
@@ -152,16 +154,16 @@ public abstract class PoissonDistribution extends AbstractDiscreteDistribution {
     }
 }
 
-final class PoissonDistributionNormal extends PoissonDistribution {
-    private final NormalDistribution normal;
+final class PoissonDistributionPTRS extends PoissonDistribution {
+    private final PoissonSampler sampler;
 
-    PoissonDistributionNormal(double mean) {
+    PoissonDistributionPTRS(double mean) {
         super(mean);
-        this.normal = new NormalDistribution(mean, Math.sqrt(mean));
+        this.sampler = PoissonSampler.create(mean);
     }
 
     @Override public int sample(JamRandom source) {
-        return (int) Math.round(normal.sample(source));
+        return sampler.sample(source);
     }
 }
 
@@ -196,11 +198,11 @@ final class PoissonDistributionKnuth extends PoissonDistribution {
 }
 
 final class PoissonDistributionExact extends PoissonDistribution {
-    private final double[] sampleCDF;
+    private final GuideTable sampleTable;
 
     PoissonDistributionExact(double mean) {
         super(mean);
-        this.sampleCDF = computeSampleCDF(mean);
+        this.sampleTable = GuideTable.create(computeSampleCDF(mean));
     }
 
     private static double[] computeSampleCDF(double mean) {
@@ -217,7 +219,7 @@ final class PoissonDistributionExact extends PoissonDistribution {
             CDF[k] = CDF[k - 1] + pdf(k, mean);
 
             if (1.0 - CDF[k] < 1.0E-15) {
-                CDF[k + 1] = 1.0;
+                CDF[k + 1] = Math.max(1.0, CDF[k]);
                 return Arrays.copyOf(CDF, k + 2);
             }
         }
@@ -226,6 +228,6 @@ final class PoissonDistributionExact extends PoissonDistribution {
     }
 
     @Override public int sample(JamRandom source) {
-        return source.selectCDF(sampleCDF);
+        return sampleTable.sample(source);
     }
 }
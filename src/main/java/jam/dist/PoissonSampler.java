@@ -0,0 +1,153 @@
+
+package jam.dist;
+
+import jam.math.JamRandom;
+
+/**
+ * Samples Poisson deviates in constant expected time for a fixed mean.
+ *
+ * <p>For means of at least ten, deviates are generated by the
+ * transformed rejection method with squeeze (PTRS) of Hormann (The
+ * Transformed Rejection Method for Generating Poisson Random
+ * Variables, Insurance: Mathematics and Economics 12, 39-45, 1993),
+ * which requires about 1.2 pairs of uniform deviates per sample,
+ * independent of the mean.  For smaller means, deviates are generated
+ * by sequential inversion of the cumulative distribution, which
+ * requires a single uniform deviate and an expected number of steps
+ * proportional to the mean.
+ *
+ * <p>The constants of the rejection method depend only on the mean,
+ * so they are computed once when the sampler is created; samplers are
+ * immutable and may be shared between threads (provided that each
+ * thread uses its own random number source).
+ */
+public final class PoissonSampler {
+    private final double mean;
+
+    // Inversion: the probability of zero events...
+    private final double zeroProb;
+
+    // Transformed rejection: constants from Hormann (1993)...
+    private final double logMean;
+    private final double a;
+    private final double b;
+    private final double logInvAlpha;
+    private final double vr;
+
+    private static final double LOG_SQRT_2PI = 0.5 * Math.log(2.0 * Math.PI);
+
+    /**
+     * Mean values at or above this limit are sampled by transformed
+     * rejection; smaller mean values are sampled by inversion.
+     */
+    public static final double REJECTION_MEAN_LIMIT = 10.0;
+
+    private PoissonSampler(double mean) {
+        this.mean = mean;
+        this.zeroProb = Math.exp(-mean);
+
+        double sqrtMean = Math.sqrt(mean);
+
+        this.logMean = Math.log(mean);
+        this.b = 0.931 + 2.53 * sqrtMean;
+        this.a = -0.059 + 0.02483 * b;
+        this.logInvAlpha = Math.log(1.1239 + 1.1328 / (b - 3.4));
+        this.vr = 0.9277 - 3.6224 / (b - 2.0);
+    }
+
+    /**
+     * Creates a new sampler for a fixed mean.
+     *
+     * @param mean the mean of the Poisson distribution.
+     *
+     * @return a sampler for the specified mean.
+     *
+     * @throws IllegalArgumentException unless the mean is positive
+     * and finite.
+     */
+    public static PoissonSampler create(double mean) {
+        if (!(mean > 0.0) || Double.isInfinite(mean))
+            throw new IllegalArgumentException("Mean must be positive and finite.");
+
+        if (mean >= Integer.MAX_VALUE / 2)
+            throw new IllegalArgumentException("Mean is too large for integer deviates.");
+
+        return new PoissonSampler(mean);
+    }
+
+    /**
+     * Returns the mean of the sampled distribution.
+     *
+     * @return the mean of the sampled distribution.
+     */
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Samples the next Poisson deviate.
+     *
+     * @param source the source of uniform random deviates.
+     *
+     * @return the next Poisson deviate.
+     */
+    public int sample(JamRandom source) {
+        if (mean < REJECTION_MEAN_LIMIT)
+            return sampleInversion(source);
+        else
+            return sampleRejection(source);
+    }
+
+    private int sampleInversion(JamRandom source) {
+        while (true) {
+            double draw = source.nextDouble();
+            double prob = zeroProb;
+            int    k    = 0;
+
+            while (draw > prob && prob > 0.0) {
+                draw -= prob;
+                ++k;
+                prob *= mean / k;
+            }
+
+            //
+            // If the probabilities underflow before the draw is
+            // exhausted, the draw fell in the (negligible) mass lost
+            // to round-off error; start again...
+            //
+            if (prob > 0.0)
+                return k;
+        }
+    }
+
+    private int sampleRejection(JamRandom source) {
+        while (true) {
+            double U  = source.nextDouble() - 0.5;
+            double V  = source.nextDouble();
+            double us = 0.5 - Math.abs(U);
+
+            long k = (long) Math.floor((2.0 * a / us + b) * U + mean + 0.43);
+
+            //
+            // The squeeze accepts most candidates immediately...
+            //
+            if (us >= 0.07 && V <= vr)
+                return (int) k;
+
+            if (k < 0 || (us < 0.013 && V > us))
+                continue;
+
+            double lhs = Math.log(V) + logInvAlpha - Math.log(a / (us * us) + b);
+            double rhs = -mean + k * logMean - logFactorial(k);
+
+            if (lhs <= rhs)
+                return (int) k;
+        }
+    }
+
+    // log(k!) = (k + 1/2) log(k + 1) - (k + 1) + log(sqrt(2 pi)) + stirlerr(k + 1)
+    static double logFactorial(double k) {
+        double k1 = k + 1.0;
+        return (k + 0.5) * Math.log(k1) - k1 + LOG_SQRT_2PI + SaddlePoint.stirlerr(k1);
+    }
+}
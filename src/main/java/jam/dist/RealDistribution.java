@@ -10,6 +10,23 @@ import jam.math.JamRandom;
  * numbers.
  */
 public interface RealDistribution {
+    /**
+     * Creates a <em>nearly equivalent</em> tabulated probability
+     * distribution over the effective range of this distribution.
+     *
+     * <p>The CDF of the tabulated distribution may differ from that
+     * of the true distribution by one part per billion.
+     *
+     * @return a new real distribution with the PDF and CDF tabulated
+     * over the effective range of this distribution.
+     *
+     * @throws UnsupportedOperationException if this distribution does
+     * not implement its quantile function.
+     */
+    public default RealDistribution cache() {
+        return TabulatedRealDistribution.create(this);
+    }
+
     /**
      * Computes the cumulative distribution function at a point.  For
      * a random variable {@code X} drawn from this distribution, this
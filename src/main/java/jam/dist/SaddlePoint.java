@@ -0,0 +1,118 @@
+
+package jam.dist;
+
+import org.apache.commons.math3.special.Gamma;
+
+// Evaluates binomial and hypergeometric probabilities for very large
+// arguments by the saddle point expansion of Loader (Fast and Accurate
+// Computation of Binomial Probabilities, 2000), which retains full
+// relative precision where the difference of log-factorials does not.
+final class SaddlePoint {
+    private SaddlePoint() {}
+
+    private static final double LOG_2PI = Math.log(2.0 * Math.PI);
+    private static final double LOG_SQRT_2PI = 0.5 * LOG_2PI;
+
+    private static final double S0 = 1.0 / 12.0;
+    private static final double S1 = 1.0 / 360.0;
+    private static final double S2 = 1.0 / 1260.0;
+    private static final double S3 = 1.0 / 1680.0;
+    private static final double S4 = 1.0 / 1188.0;
+
+    // The error in Stirling's approximation to log(n!)...
+    static double stirlerr(double n) {
+        if (n <= 15.0)
+            return Gamma.logGamma(n + 1.0) - (n + 0.5) * Math.log(n) + n - LOG_SQRT_2PI;
+
+        double nn = n * n;
+
+        if (n > 500.0)
+            return (S0 - S1 / nn) / n;
+        else if (n > 80.0)
+            return (S0 - (S1 - S2 / nn) / nn) / n;
+        else if (n > 35.0)
+            return (S0 - (S1 - (S2 - S3 / nn) / nn) / nn) / n;
+        else
+            return (S0 - (S1 - (S2 - (S3 - S4 / nn) / nn) / nn) / nn) / n;
+    }
+
+    // The deviance term x log(x / np) + np - x, computed without
+    // cancellation when x is close to np...
+    static double bd0(double x, double np) {
+        if (Math.abs(x - np) < 0.1 * (x + np)) {
+            double v  = (x - np) / (x + np);
+            double s  = (x - np) * v;
+            double ej = 2.0 * x * v;
+
+            v = v * v;
+
+            for (int j = 1; j < 1000; ++j) {
+                ej *= v;
+                double s1 = s + ej / (2 * j + 1);
+
+                if (s1 == s)
+                    return s1;
+
+                s = s1;
+            }
+
+            return s;
+        }
+
+        return x * Math.log(x / np) + np - x;
+    }
+
+    // The binomial probability of x successes in n trials with
+    // success probability p (and failure probability q = 1 - p)...
+    static double binomialPDF(double x, double n, double p, double q) {
+        if (p == 0.0)
+            return (x == 0.0) ? 1.0 : 0.0;
+
+        if (q == 0.0)
+            return (x == n) ? 1.0 : 0.0;
+
+        if (x < 0.0 || x > n)
+            return 0.0;
+
+        if (x == 0.0) {
+            if (n == 0.0)
+                return 1.0;
+            else if (p < 0.1)
+                return Math.exp(-bd0(n, n * q) - n * p);
+            else
+                return Math.exp(n * Math.log(q));
+        }
+
+        if (x == n) {
+            if (q < 0.1)
+                return Math.exp(-bd0(n, n * p) - n * q);
+            else
+                return Math.exp(n * Math.log(p));
+        }
+
+        double lc = stirlerr(n) - stirlerr(x) - stirlerr(n - x) - bd0(x, n * p) - bd0(n - x, n * q);
+        double lf = LOG_2PI + Math.log(x) + Math.log1p(-x / n);
+
+        return Math.exp(lc - 0.5 * lf);
+    }
+
+    // The probability of drawing x successes in n draws (without
+    // replacement) from a population of N items containing K
+    // successes...
+    static double hypergeometricPDF(double x, double N, double K, double n) {
+        if (x < 0.0 || x > K || n - x < 0.0 || n - x > N - K)
+            return 0.0;
+
+        if (n == 0.0)
+            return (x == 0.0) ? 1.0 : 0.0;
+
+        double p = n / N;
+        double q = (N - n) / N;
+
+        double p1 = binomialPDF(x, K, p, q);
+        double p2 = binomialPDF(n - x, N - K, p, q);
+        double p3 = binomialPDF(n, N, p, q);
+
+        return p1 * p2 / p3;
+    }
+}
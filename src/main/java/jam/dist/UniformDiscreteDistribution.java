@@ -80,6 +80,11 @@ public final class UniformDiscreteDistribution extends AbstractDiscreteDistribut
         return mean();
     }
 
+    @Override public double variance() {
+        double n = ((double) upper) - ((double) lower);
+        return (n * n - 1.0) / 12.0;
+    }
+
     @Override public IntRange medianRange() {
         return IntRange.instance((int) Math.floor(mean()), (int) Math.ceil(mean()));
     }
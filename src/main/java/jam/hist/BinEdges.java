@@ -0,0 +1,291 @@
+package jam.hist;
+
+import java.util.Arrays;
+
+import jam.math.DoubleComparator;
+import jam.math.DoubleRange;
+import jam.vector.VectorUtil;
+
+/**
+ * Defines the breakpoints for a sequence of contiguous histogram bins
+ * and locates the bin containing an observation.
+ *
+ * <p>The first bin is fully closed and all other bins are left open,
+ * corresponding to the definition of the cumulative distribution
+ * function: bin {@code 0} covers {@code [e[0], e[1]]} and bin {@code
+ * k > 0} covers {@code (e[k], e[k + 1]]}.
+ *
+ * <p>Bins that are equally spaced (in linear or logarithmic space)
+ * are located by direct arithmetic in constant time; bins with
+ * arbitrary breakpoints are located by binary search.  In either
+ * case, observations are compared with the breakpoints using the
+ * default {@link DoubleComparator} tolerance, consistent with the
+ * ranges returned by {@link #getRange(int)}.
+ */
+public abstract class BinEdges {
+    /**
+     * The ascending breakpoints.
+     */
+    protected final double[] edges;
+
+    /**
+     * The bin index returned for observations that lie outside all
+     * bins.
+     */
+    public static final int OUTSIDE = -1;
+
+    private BinEdges(double[] edges) {
+        validate(edges);
+        this.edges = edges;
+    }
+
+    private static void validate(double[] edges) {
+        if (edges.length < 2)
+            throw new IllegalArgumentException("At least one bin is required.");
+
+        for (int k = 1; k < edges.length; ++k)
+            if (!(edges[k - 1] <= edges[k]))
+                throw new IllegalArgumentException("Bin breakpoints must be finite and ascending.");
+
+        if (!Double.isFinite(edges[0]) || !Double.isFinite(edges[edges.length - 1]))
+            throw new IllegalArgumentException("Bin breakpoints must be finite and ascending.");
+    }
+
+    /**
+     * Creates bins defined by arbitrary (ascending) breakpoints.
+     *
+     * @param brkpts the breakpoints for the bins, in ascending order.
+     *
+     * @return bins with the specified breakpoints.
+     *
+     * @throws IllegalArgumentException unless there are at least two
+     * finite breakpoints in ascending order.
+     */
+    public static BinEdges create(double... brkpts) {
+        return new ArbitraryEdges(VectorUtil.copy(brkpts));
+    }
+
+    /**
+     * Creates equally-sized bins that span a floating-point range.
+     *
+     * @param lower the lower bound of the range to span.
+     *
+     * @param upper the upper bound of the range to span.
+     *
+     * @param nbin the number of equally-sized bins to create.
+     *
+     * @return the equally-sized bins.
+     *
+     * @throws IllegalArgumentException unless the input range has
+     * finite size and the number of bins is positive.
+     */
+    public static BinEdges linear(double lower, double upper, int nbin) {
+        return new LinearEdges(VectorUtil.sequence(lower, upper, nbin + 1));
+    }
+
+    /**
+     * Creates bins that span a floating-point range uniformly <em>in
+     * logarithmic space</em>.
+     *
+     * @param lower the lower bound of the range to span.
+     *
+     * @param upper the upper bound of the range to span.
+     *
+     * @param nbin the number of bins to create.
+     *
+     * @return the logarithmically spaced bins.
+     *
+     * @throws IllegalArgumentException unless the input range has
+     * finite size, is strictly positive, and the number of bins is
+     * positive.
+     */
+    public static BinEdges log(double lower, double upper, int nbin) {
+        return new LogEdges(VectorUtil.sequenceLog(lower, upper, nbin + 1));
+    }
+
+    /**
+     * Returns the number of bins.
+     *
+     * @return the number of bins.
+     */
+    public int countBins() {
+        return edges.length - 1;
+    }
+
+    /**
+     * Finds the bin containing an observation.
+     *
+     * @param obs the observation to locate.
+     *
+     * @return the index of the bin containing the observation, or
+     * {@link #OUTSIDE} if the observation lies outside all bins (or
+     * is {@code NaN}).
+     */
+    public int find(double obs) {
+        //
+        // Observations are compared with the breakpoints using the
+        // default tolerance, exactly as in DoubleRange.contains(), so
+        // that breakpoints carrying round-off error (e.g., from the
+        // logarithmic sequence) still capture observations at their
+        // nominal values...
+        //
+        DoubleComparator comparator = DoubleComparator.DEFAULT;
+
+        if (Double.isNaN(obs)
+            || comparator.LT(obs, edges[0])
+            || comparator.GT(obs, edges[edges.length - 1]))
+            return OUTSIDE;
+
+        // Correct the estimate for round-off error: the observation
+        // belongs to the lowest bin whose upper breakpoint is not
+        // less than the observation...
+        int bin = Math.max(0, Math.min(countBins() - 1, estimate(obs)));
+
+        while (bin > 0 && comparator.LE(obs, edges[bin]))
+            --bin;
+
+        while (bin < countBins() - 1 && comparator.GT(obs, edges[bin + 1]))
+            ++bin;
+
+        return bin;
+    }
+
+    /**
+     * Estimates the index of the bin containing an observation that
+     * lies within the span of the bins.
+     *
+     * @param obs the observation to locate.
+     *
+     * @return the index of the bin containing the observation,
+     * possibly in error by one bin due to floating-point round-off.
+     */
+    protected abstract int estimate(double obs);
+
+    /**
+     * Returns the lower breakpoint of a bin.
+     *
+     * @param bin the index of the bin.
+     *
+     * @return the lower breakpoint of the specified bin.
+     *
+     * @throws IndexOutOfBoundsException unless the index is valid.
+     */
+    public double getLower(int bin) {
+        checkBin(bin);
+        return edges[bin];
+    }
+
+    /**
+     * Returns the upper breakpoint of a bin.
+     *
+     * @param bin the index of the bin.
+     *
+     * @return the upper breakpoint of the specified bin.
+     *
+     * @throws IndexOutOfBoundsException unless the index is valid.
+     */
+    public double getUpper(int bin) {
+        checkBin(bin);
+        return edges[bin + 1];
+    }
+
+    /**
+     * Returns the range covered by a bin.
+     *
+     * @param bin the index of the bin.
+     *
+     * @return the range covered by the specified bin.
+     *
+     * @throws IndexOutOfBoundsException unless the index is valid.
+     */
+    public DoubleRange getRange(int bin) {
+        if (bin == 0)
+            return DoubleRange.closed(getLower(bin), getUpper(bin));
+        else
+            return DoubleRange.leftOpen(getLower(bin), getUpper(bin));
+    }
+
+    private void checkBin(int bin) {
+        if (bin < 0 || bin >= countBins())
+            throw new IndexOutOfBoundsException("Invalid bin index: " + bin);
+    }
+
+    /**
+     * Returns a copy of the breakpoints.
+     *
+     * @return a copy of the breakpoints.
+     */
+    public double[] toArray() {
+        return VectorUtil.copy(edges);
+    }
+
+    @Override public boolean equals(Object that) {
+        return (that instanceof BinEdges) && equalsEdges((BinEdges) that);
+    }
+
+    private boolean equalsEdges(BinEdges that) {
+        return Arrays.equals(this.edges, that.edges);
+    }
+
+    @Override public int hashCode() {
+        return Arrays.hashCode(edges);
+    }
+
+    private static final class ArbitraryEdges extends BinEdges {
+        private ArbitraryEdges(double[] edges) {
+            super(edges);
+        }
+
+        @Override protected int estimate(double obs) {
+            //
+            // Binary search for the first breakpoint not less than
+            // the observation, which is the upper bound of its bin...
+            //
+            int lo = 1;
+            int hi = edges.length - 1;
+
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+
+                if (edges[mid] < obs)
+                    lo = mid + 1;
+                else
+                    hi = mid;
+            }
+
+            return lo - 1;
+        }
+    }
+
+    private static final class LinearEdges extends BinEdges {
+        private final double origin;
+        private final double scale;
+
+        private LinearEdges(double[] edges) {
+            super(edges);
+
+            this.origin = edges[0];
+            this.scale  = countBins() / (edges[edges.length - 1] - edges[0]);
+        }
+
+        @Override protected int estimate(double obs) {
+            return (int) ((obs - origin) * scale);
+        }
+    }
+
+    private static final class LogEdges extends BinEdges {
+        private final double origin;
+        private final double scale;
+
+        private LogEdges(double[] edges) {
+            super(edges);
+
+            this.origin = Math.log(edges[0]);
+            this.scale  = countBins() / (Math.log(edges[edges.length - 1]) - origin);
+        }
+
+        @Override protected int estimate(double obs) {
+            return (int) ((Math.log(obs) - origin) * scale);
+        }
+    }
+}
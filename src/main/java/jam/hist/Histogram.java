@@ -7,12 +7,10 @@ import java.util.Collections;
 import java.util.List;
 import java.util.function.Function;
 
-import jam.math.DoubleRange;
 import jam.math.Point2D;
 import jam.math.JamUnivariateFunction;
 import jam.math.SplineFunction;
 import jam.util.ListUtil;
-import jam.vector.VectorUtil;
 
 public final class Histogram {
     private final List<Bin> bins;
@@ -29,86 +27,78 @@ public final class Histogram {
         this.total = Bin.computeTotalCount(bins);
     }
 
-    // Use a linear rather than binary search when there are fewer
-    // than this number of bins...
-    private static final int LINEAR_SEARCH_LIMIT = 32;
-
     /**
-     * Generates a histogram with contiguous bins defined by arbitrary
-     * (ascending) breakpoints.
+     * Creates a histogram with fixed bin counts.
      *
-     * @param brkpts the breakpoints for the bins, in ascending order.
+     * @param edges the bin breakpoints.
      *
-     * @param data the data to bin.
+     * @param counts the number of observations in each bin.
      *
-     * @return the histogram of binned observations.
+     * @return the histogram with the specified bin counts.
      *
-     * @throws IllegalArgumentException if there are fewer than two
-     * breakpoints.
+     * @throws IllegalArgumentException unless there is one
+     * non-negative count for each bin.
      */
-    public static Histogram compute(double[] brkpts, double[] data) {
-        List<Bin> bins = createBins(brkpts);
-
-        for (double obs : data)
-            binObservation(bins, obs);
-        
-        return new Histogram(bins);
-    }
-
-    private static List<Bin> createBins(double[] brkpts) {
-        int nbin = brkpts.length - 1;
-
-        if (nbin < 1)
-            throw new IllegalArgumentException("At least one bin is required.");
+    public static Histogram create(BinEdges edges, long[] counts) {
+        if (counts.length != edges.countBins())
+            throw new IllegalArgumentException("Bin count mismatch.");
 
-        List<Bin> bins = new ArrayList<Bin>(nbin);
+        List<Bin> bins = new ArrayList<Bin>(counts.length);
 
-        // The first range is fully closed...
-        bins.add(Bin.empty(DoubleRange.closed(brkpts[0], brkpts[1])));
+        for (int k = 0; k < counts.length; ++k)
+            bins.add(new Bin(edges.getRange(k), counts[k], true));
 
-        // All other bins are left open to correspond with the
-        // definition of the cumulative distribution function...
-        for (int k = 1; k < nbin; ++k)
-            bins.add(Bin.empty(DoubleRange.leftOpen(brkpts[k], brkpts[k + 1])));
-
-        return bins;
+        return new Histogram(bins);
     }
 
-    private static void binObservation(List<Bin> bins, double obs) {
-        Bin bin = findBin(bins, obs);
-
-        if (bin != null)
-            bin.increment();
+    /**
+     * Generates a histogram with bins defined by pre-computed
+     * breakpoints.
+     *
+     * @param edges the bin breakpoints.
+     *
+     * @param data the data to bin.
+     *
+     * @return the histogram of binned observations.
+     */
+    public static Histogram compute(BinEdges edges, double[] data) {
+        return HistogramAccumulator.compute(edges, data).toHistogram();
     }
 
-    private static Bin findBin(List<Bin> bins, double obs) {
-        int nbin = bins.size();
-
-        if (nbin <= LINEAR_SEARCH_LIMIT)
-            return findBinLinear(bins, obs);
-
-        int ind = nbin / 2;
-        Bin bin = bins.get(ind);
-        int cmp = bin.compare(obs);
-
-        if (cmp == 0)
-            return bin;
+    /**
+     * Generates a histogram with bins defined by pre-computed
+     * breakpoints.
+     *
+     * @param edges the bin breakpoints.
+     *
+     * @param data the data to bin.
+     *
+     * @return the histogram of binned observations.
+     */
+    public static Histogram compute(BinEdges edges, Collection<Double> data) {
+        HistogramAccumulator accumulator = HistogramAccumulator.create(edges);
 
-        if (cmp < 0)
-            return findBin(bins.subList(0, ind), obs);
+        for (double obs : data)
+            accumulator.add(obs);
 
-        return findBin(bins.subList(ind + 1, nbin), obs);
+        return accumulator.toHistogram();
     }
 
-    private static Bin findBinLinear(List<Bin> bins, double obs) {
-        //
-        // Linear search for short lists...
-        //
-        for (Bin bin : bins)
-            if (bin.contains(obs))
-                return bin;
-
-        return null;
+    /**
+     * Generates a histogram with contiguous bins defined by arbitrary
+     * (ascending) breakpoints.
+     *
+     * @param brkpts the breakpoints for the bins, in ascending order.
+     *
+     * @param data the data to bin.
+     *
+     * @return the histogram of binned observations.
+     *
+     * @throws IllegalArgumentException if there are fewer than two
+     * breakpoints.
+     */
+    public static Histogram compute(double[] brkpts, double[] data) {
+        return compute(BinEdges.create(brkpts), data);
     }
 
     /**
@@ -129,7 +119,7 @@ public final class Histogram {
      * finite size and the number of bins is positive.
      */
     public static Histogram compute(double lower, double upper, int nbin, double[] data) {
-        return compute(VectorUtil.sequence(lower, upper, nbin + 1), data);
+        return compute(BinEdges.linear(lower, upper, nbin), data);
     }
 
     /**
@@ -151,7 +141,7 @@ public final class Histogram {
      * positive.
      */
     public static Histogram computeLog(double lower, double upper, int nbin, double[] data) {
-        return compute(VectorUtil.sequenceLog(lower, upper, nbin + 1), data);
+        return compute(BinEdges.log(lower, upper, nbin), data);
     }
 
     /**
@@ -168,12 +158,7 @@ public final class Histogram {
      * finite size and the number of bins is positive.
      */
     public static Histogram compute(double[] brkpts, Collection<Double> data) {
-        List<Bin> bins = createBins(brkpts);
-
-        for (double obs : data)
-            binObservation(bins, obs);
-        
-        return new Histogram(bins);
+        return compute(BinEdges.create(brkpts), data);
     }
 
     /**
@@ -194,7 +179,7 @@ public final class Histogram {
      * finite size and the number of bins is positive.
      */
     public static Histogram compute(double lower, double upper, int nbin, Collection<Double> data) {
-        return compute(VectorUtil.sequence(lower, upper, nbin + 1), data);
+        return compute(BinEdges.linear(lower, upper, nbin), data);
     }
 
     /**
@@ -216,7 +201,7 @@ public final class Histogram {
      * positive.
      */
     public static Histogram computeLog(double lower, double upper, int nbin, Collection<Double> data) {
-        return compute(VectorUtil.sequenceLog(lower, upper, nbin + 1), data);
+        return compute(BinEdges.log(lower, upper, nbin), data);
     }
 
     /**
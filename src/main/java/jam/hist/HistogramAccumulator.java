@@ -0,0 +1,252 @@
+package jam.hist;
+
+import java.util.function.DoubleConsumer;
+import java.util.stream.DoubleStream;
+
+/**
+ * Accumulates binned counts of observations one at a time or in
+ * primitive batches, without retaining the observations themselves.
+ *
+ * <p>Counts are stored in a {@code long[]} array, so the number of
+ * observations is effectively unlimited.  Observations that fall
+ * below the first bin or above the last bin are counted separately
+ * (as underflow and overflow); {@code NaN} observations are counted
+ * as missing.
+ *
+ * <p>Accumulators are mergeable: separate portions of a data set may
+ * be binned independently (e.g., in parallel) and then combined.
+ * Instances are not thread-safe; each thread must accumulate its own
+ * partial counts.
+ */
+public final class HistogramAccumulator implements DoubleConsumer {
+    private final BinEdges edges;
+    private final long[] counts;
+
+    private long underflow = 0;
+    private long overflow = 0;
+    private long missing = 0;
+
+    // Arrays at least this large are binned in parallel...
+    private static final int PARALLEL_LIMIT = 1000000;
+
+    private HistogramAccumulator(BinEdges edges) {
+        this.edges  = edges;
+        this.counts = new long[edges.countBins()];
+    }
+
+    /**
+     * Creates a new empty accumulator.
+     *
+     * @param edges the bin breakpoints.
+     *
+     * @return a new empty accumulator with the specified bins.
+     */
+    public static HistogramAccumulator create(BinEdges edges) {
+        return new HistogramAccumulator(edges);
+    }
+
+    /**
+     * Bins the observations in an array, in parallel if the array is
+     * large.
+     *
+     * @param edges the bin breakpoints.
+     *
+     * @param data the observations to bin.
+     *
+     * @return an accumulator containing the binned observations.
+     */
+    public static HistogramAccumulator compute(BinEdges edges, double[] data) {
+        if (data.length < PARALLEL_LIMIT) {
+            HistogramAccumulator result = create(edges);
+            result.addAll(data);
+            return result;
+        }
+        else {
+            return compute(edges, DoubleStream.of(data).parallel());
+        }
+    }
+
+    /**
+     * Bins the observations in a stream, which may be parallel.
+     *
+     * @param edges the bin breakpoints.
+     *
+     * @param data the observations to bin.
+     *
+     * @return an accumulator containing the binned observations.
+     */
+    public static HistogramAccumulator compute(BinEdges edges, DoubleStream data) {
+        return data.collect(() -> create(edges), HistogramAccumulator::add, HistogramAccumulator::combine);
+    }
+
+    /**
+     * Adds one observation.
+     *
+     * @param obs the observation to add.
+     */
+    public void add(double obs) {
+        int bin = edges.find(obs);
+
+        if (bin != BinEdges.OUTSIDE)
+            ++counts[bin];
+        else if (Double.isNaN(obs))
+            ++missing;
+        else if (obs < edges.edges[0])
+            ++underflow;
+        else
+            ++overflow;
+    }
+
+    /**
+     * Adds one observation.
+     *
+     * @param obs the observation to add.
+     */
+    @Override public void accept(double obs) {
+        add(obs);
+    }
+
+    /**
+     * Adds an array of observations.
+     *
+     * @param data the observations to add.
+     */
+    public void addAll(double... data) {
+        addAll(data, 0, data.length);
+    }
+
+    /**
+     * Adds a contiguous portion of an array of observations.
+     *
+     * @param data the observations to add.
+     *
+     * @param fromIndex the index of the first observation to add
+     * (inclusive).
+     *
+     * @param toIndex the index of the last observation to add
+     * (exclusive).
+     *
+     * @throws IndexOutOfBoundsException unless the indexes define a
+     * valid portion of the array.
+     */
+    public void addAll(double[] data, int fromIndex, int toIndex) {
+        if (fromIndex < 0 || toIndex > data.length || fromIndex > toIndex)
+            throw new IndexOutOfBoundsException("Invalid array range.");
+
+        for (int index = fromIndex; index < toIndex; ++index)
+            add(data[index]);
+    }
+
+    /**
+     * Merges the counts from another accumulator into this
+     * accumulator; the other accumulator is unchanged.
+     *
+     * @param that the accumulator to merge.
+     *
+     * @return this accumulator, containing the combined counts.
+     *
+     * @throws IllegalArgumentException unless the accumulators have
+     * identical bins.
+     */
+    public HistogramAccumulator combine(HistogramAccumulator that) {
+        if (!this.edges.equals(that.edges))
+            throw new IllegalArgumentException("Bin breakpoints do not match.");
+
+        for (int bin = 0; bin < counts.length; ++bin)
+            this.counts[bin] += that.counts[bin];
+
+        this.underflow += that.underflow;
+        this.overflow  += that.overflow;
+        this.missing   += that.missing;
+
+        return this;
+    }
+
+    /**
+     * Returns the bin breakpoints.
+     *
+     * @return the bin breakpoints.
+     */
+    public BinEdges getEdges() {
+        return edges;
+    }
+
+    /**
+     * Returns the number of observations in a bin.
+     *
+     * @param bin the index of the bin.
+     *
+     * @return the number of observations in the specified bin.
+     *
+     * @throws IndexOutOfBoundsException unless the index is valid.
+     */
+    public long getCount(int bin) {
+        return counts[bin];
+    }
+
+    /**
+     * Returns a copy of the bin counts.
+     *
+     * @return a copy of the bin counts.
+     */
+    public long[] getCounts() {
+        return counts.clone();
+    }
+
+    /**
+     * Returns the number of observations that fell below the first
+     * bin.
+     *
+     * @return the number of observations that fell below the first
+     * bin.
+     */
+    public long getUnderflow() {
+        return underflow;
+    }
+
+    /**
+     * Returns the number of observations that fell above the last
+     * bin.
+     *
+     * @return the number of observations that fell above the last
+     * bin.
+     */
+    public long getOverflow() {
+        return overflow;
+    }
+
+    /**
+     * Returns the number of {@code NaN} observations.
+     *
+     * @return the number of {@code NaN} observations.
+     */
+    public long getMissing() {
+        return missing;
+    }
+
+    /**
+     * Returns the total number of observations that fell within a
+     * bin.
+     *
+     * @return the total number of observations that fell within a
+     * bin.
+     */
+    public long getTotalCount() {
+        long total = 0;
+
+        for (long count : counts)
+            total += count;
+
+        return total;
+    }
+
+    /**
+     * Creates a histogram containing the current bin counts; the
+     * histogram is unaffected by subsequent additions.
+     *
+     * @return a histogram containing the current bin counts.
+     */
+    public Histogram toHistogram() {
+        return Histogram.create(edges, counts);
+    }
+}
@@ -0,0 +1,18 @@
+
+package jam.lattice;
+
+/**
+ * Receives discrete lattice coordinates as raw integer components,
+ * which allows neighborhoods to be traversed without creating any
+ * intermediate {@code Coord} objects.
+ */
+public interface CoordVisitor {
+    /**
+     * Visits one lattice coordinate.
+     *
+     * @param x the discrete x-coordinate.
+     * @param y the discrete y-coordinate.
+     * @param z the discrete z-coordinate.
+     */
+    public abstract void visit(int x, int y, int z);
+}
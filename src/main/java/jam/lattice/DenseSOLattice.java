@@ -32,6 +32,14 @@ public final class DenseSOLattice<T> extends SOLattice<T> {
         return sites[image.x][image.y][image.z];
     }
 
+    @Override public int countOccupants(int x, int y, int z) {
+        return sites[x][y][z] == null ? 0 : 1;
+    }
+
+    @Override public boolean isAvailable(int x, int y, int z) {
+        return sites[x][y][z] == null;
+    }
+
     @Override public void assignOccupant(T occupant, Image image) {
         sites[image.x][image.y][image.z] = occupant;
     }
@@ -173,6 +173,10 @@ public class Lattice<T> extends LatticeView<T> {
         return impl.countOccupants(imageOf(coord));
     }
 
+    @Override public int countOccupants(int x, int y, int z) {
+        return impl.countOccupants(imageX(x), imageY(y), imageZ(z));
+    }
+
     @Override public Period getPeriod() {
         return period;
     }
@@ -181,6 +185,22 @@ public class Lattice<T> extends LatticeView<T> {
         return impl.isAvailable(imageOf(coord));
     }
 
+    @Override public boolean isAvailable(int x, int y, int z) {
+        return impl.isAvailable(imageX(x), imageY(y), imageZ(z));
+    }
+
+    private int imageX(int x) {
+        return Period.computeImage(x, period.getPeriodX());
+    }
+
+    private int imageY(int y) {
+        return Period.computeImage(y, period.getPeriodY());
+    }
+
+    private int imageZ(int z) {
+        return Period.computeImage(z, period.getPeriodZ());
+    }
+
     @Override public Coord locate(T occupant) {
         return locations.get(occupant);
     }
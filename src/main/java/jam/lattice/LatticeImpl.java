@@ -34,6 +34,22 @@ public abstract class LatticeImpl<T> {
      */
     public abstract int countOccupants(Image image);
 
+    /**
+     * Counts the number of occupants at a specific location.
+     *
+     * <p>Subclasses with direct access to their site storage should
+     * override this method to avoid creating an {@code Image} object.
+     *
+     * @param x the x-coordinate of the periodic image.
+     * @param y the y-coordinate of the periodic image.
+     * @param z the z-coordinate of the periodic image.
+     *
+     * @return the number of occupants at the specified location.
+     */
+    public int countOccupants(int x, int y, int z) {
+        return countOccupants(Image.at(x, y, z));
+    }
+
     /**
      * Identifies lattice sites that can accommodate new occupants.
      *
@@ -46,6 +62,20 @@ public abstract class LatticeImpl<T> {
         return countOccupants(image) < siteCapacity();
     }
 
+    /**
+     * Identifies lattice sites that can accommodate new occupants.
+     *
+     * @param x the x-coordinate of the periodic image.
+     * @param y the y-coordinate of the periodic image.
+     * @param z the z-coordinate of the periodic image.
+     *
+     * @return {@code true} iff the specified site contains fewer
+     * occupants than its capacity.
+     */
+    public boolean isAvailable(int x, int y, int z) {
+        return countOccupants(x, y, z) < siteCapacity();
+    }
+
     /**
      * Identifies empty lattice sites.
      *
@@ -62,6 +62,89 @@ public abstract class LatticeView<T> {
         return occupants;
     }
 
+    /**
+     * Counts the number of occupants at a specific lattice site
+     * (without creating any intermediate coordinate objects).
+     *
+     * <p>This default implementation delegates to {@code
+     * countOccupants(Coord)}; subclasses should override it to
+     * avoid the coordinate allocation.
+     *
+     * @param x the absolute x-coordinate of the site to examine.
+     * @param y the absolute y-coordinate of the site to examine.
+     * @param z the absolute z-coordinate of the site to examine.
+     *
+     * @return the number of occupants at the specified coordinate
+     * <em>and all of its periodic images</em>.
+     */
+    public int countOccupants(int x, int y, int z) {
+        return countOccupants(Coord.at(x, y, z));
+    }
+
+    /**
+     * Counts the number of occupants at each site in the neighborhood
+     * of a specific lattice site and stores the counts in a caller
+     * supplied array.
+     *
+     * @param center the absolute coordinate of the center of the
+     * neighborhood.
+     *
+     * @param neighborhood the neighborhood (around the central site)
+     * to search.
+     *
+     * @param counts an array with length at least equal to the size
+     * of the neighborhood; on return, element {@code k} contains the
+     * number of occupants at the site displaced from the center by
+     * basis vector {@code k}.
+     *
+     * @return the total number of occupants in the neighborhood.
+     *
+     * @throws IndexOutOfBoundsException if the count array is too
+     * short.
+     */
+    public int countOccupants(Coord center, Neighborhood neighborhood, int[] counts) {
+        return countOccupants(center.x, center.y, center.z, neighborhood, counts);
+    }
+
+    /**
+     * Counts the number of occupants at each site in the neighborhood
+     * of a specific lattice site and stores the counts in a caller
+     * supplied array (without creating any intermediate objects).
+     *
+     * @param x the absolute x-coordinate of the central site.
+     * @param y the absolute y-coordinate of the central site.
+     * @param z the absolute z-coordinate of the central site.
+     *
+     * @param neighborhood the neighborhood (around the central site)
+     * to search.
+     *
+     * @param counts an array with length at least equal to the size
+     * of the neighborhood; on return, element {@code k} contains the
+     * number of occupants at the site displaced from the center by
+     * basis vector {@code k}.
+     *
+     * @return the total number of occupants in the neighborhood.
+     *
+     * @throws IndexOutOfBoundsException if the count array is too
+     * short.
+     */
+    public int countOccupants(int x, int y, int z, Neighborhood neighborhood, int[] counts) {
+        if (counts.length < neighborhood.size())
+            throw new IndexOutOfBoundsException("Count array is too short.");
+
+        int[] basis = neighborhood.basisArray();
+        int total = 0;
+
+        for (int index = 0; index < basis.length; index += 3) {
+            int count = countOccupants(x + basis[index], y + basis[index + 1], z + basis[index + 2]);
+
+            counts[index / 3] = count;
+            total += count;
+        }
+
+        return total;
+    }
+
     /**
      * Counts the number of neighboring lattice sites that can
      * accommodate new occupants.
@@ -75,10 +158,30 @@ public abstract class LatticeView<T> {
      * accommodate new occupants.
      */
     public int countAvailable(Coord center, Neighborhood neighborhood) {
+        return countAvailable(center.x, center.y, center.z, neighborhood);
+    }
+
+    /**
+     * Counts the number of neighboring lattice sites that can
+     * accommodate new occupants (without creating any intermediate
+     * coordinate objects).
+     *
+     * @param x the absolute x-coordinate of the central site.
+     * @param y the absolute y-coordinate of the central site.
+     * @param z the absolute z-coordinate of the central site.
+     *
+     * @param neighborhood the neighborhood (around the central site)
+     * to search.
+     *
+     * @return the number of neighboring lattice sites that can
+     * accommodate new occupants.
+     */
+    public int countAvailable(int x, int y, int z, Neighborhood neighborhood) {
+        int[] basis = neighborhood.basisArray();
         int available = 0;
 
-        for (Coord neighbor : neighborhood.getNeighbors(center))
-            if (isAvailable(neighbor))
+        for (int index = 0; index < basis.length; index += 3)
+            if (isAvailable(x + basis[index], y + basis[index + 1], z + basis[index + 2]))
                 ++available;
 
         return available;
@@ -128,6 +231,51 @@ public abstract class LatticeView<T> {
         return available;
     }
 
+    /**
+     * Finds all neighboring lattice sites that can accommodate new
+     * occupants and stores them in a caller-supplied array (without
+     * creating any intermediate objects).
+     *
+     * @param x the absolute x-coordinate of the central site.
+     * @param y the absolute y-coordinate of the central site.
+     * @param z the absolute z-coordinate of the central site.
+     *
+     * @param neighborhood the neighborhood (around the central site)
+     * to search.
+     *
+     * @param available an array with length at least {@code 3 *
+     * neighborhood.size()} to be filled with consecutive {@code (x,
+     * y, z)} triples for each available neighbor.
+     *
+     * @return the number of available neighbors stored in the array.
+     *
+     * @throws IndexOutOfBoundsException if the coordinate array is
+     * too short.
+     */
+    public int findAvailable(int x, int y, int z, Neighborhood neighborhood, int[] available) {
+        int[] basis = neighborhood.basisArray();
+
+        if (available.length < basis.length)
+            throw new IndexOutOfBoundsException("Coordinate array is too short.");
+
+        int count = 0;
+
+        for (int index = 0; index < basis.length; index += 3) {
+            int nx = x + basis[index];
+            int ny = y + basis[index + 1];
+            int nz = z + basis[index + 2];
+
+            if (isAvailable(nx, ny, nz)) {
+                available[3 * count]     = nx;
+                available[3 * count + 1] = ny;
+                available[3 * count + 2] = nz;
+                ++count;
+            }
+        }
+
+        return count;
+    }
+
     /**
      * Finds all lattice sites in the neighborhood of a given occupant
      * that can accommodate new occupants.
@@ -180,6 +328,21 @@ public abstract class LatticeView<T> {
         return countOccupants(coord) < siteCapacity();
     }
 
+    /**
+     * Identifies lattice sites that can accommodate new occupants
+     * (without creating any intermediate coordinate objects).
+     *
+     * @param x the absolute x-coordinate of the site to examine.
+     * @param y the absolute y-coordinate of the site to examine.
+     * @param z the absolute z-coordinate of the site to examine.
+     * 
+     * @return {@code true} iff the specified site contains fewer
+     * occupants than its capacity.
+     */
+    public boolean isAvailable(int x, int y, int z) {
+        return countOccupants(x, y, z) < siteCapacity();
+    }
+
     /**
      * Identifies empty latticess.
      *
@@ -245,8 +408,10 @@ public abstract class LatticeView<T> {
      * site are availble.
      */
     public boolean hasAvailableNeighbor(Coord center, Neighborhood neighborhood) {
-        for (Coord basis : neighborhood.viewBasis())
-            if (isAvailable(center.plus(basis)))
+        int[] basis = neighborhood.basisArray();
+
+        for (int index = 0; index < basis.length; index += 3)
+            if (isAvailable(center.x + basis[index], center.y + basis[index + 1], center.z + basis[index + 2]))
                 return true;
 
         return false;
@@ -99,6 +99,47 @@ public enum Neighborhood {
     private static final ListView<Coord> NEAREST_123 =
         ListView.create(ListUtil.cat(FIRST_NEAREST, SECOND_NEAREST, THIRD_NEAREST));
 
+    // The basis vectors flattened into (dx, dy, dz) triples, indexed
+    // by ordinal, so that neighbors may be visited without creating
+    // new Coord objects...
+    private static final int[][] BASIS_ARRAYS = createBasisArrays();
+
+    private static int[][] createBasisArrays() {
+        Neighborhood[] neighborhoods = values();
+        int[][] basisArrays = new int[neighborhoods.length][];
+
+        for (int index = 0; index < neighborhoods.length; ++index)
+            basisArrays[index] = flattenBasis(neighborhoods[index].viewBasis());
+
+        return basisArrays;
+    }
+
+    private static int[] flattenBasis(List<Coord> basis) {
+        int[] array = new int[3 * basis.size()];
+
+        for (int index = 0; index < basis.size(); ++index) {
+            Coord vector = basis.get(index);
+
+            array[3 * index]     = vector.x;
+            array[3 * index + 1] = vector.y;
+            array[3 * index + 2] = vector.z;
+        }
+
+        return array;
+    }
+
+    /**
+     * Returns the basis vectors for this neighborhood flattened into
+     * consecutive {@code (dx, dy, dz)} triples (in the same order as
+     * the vectors in {@code viewBasis()}); the array is shared and
+     * must not be modified.
+     *
+     * @return the flattened basis vectors for this neighborhood.
+     */
+    int[] basisArray() {
+        return BASIS_ARRAYS[ordinal()];
+    }
+
     /**
      * Returns the basis vectors that define the nearest neighbors in this
      * neighborhood.
@@ -123,6 +164,70 @@ public enum Neighborhood {
         return neighbors;
     }
 
+    /**
+     * Computes the neighbors surrounding a central coordinate and
+     * stores them in a caller-supplied array (without creating any
+     * new objects).
+     *
+     * @param x the discrete x-coordinate of the central site.
+     * @param y the discrete y-coordinate of the central site.
+     * @param z the discrete z-coordinate of the central site.
+     *
+     * @param neighbors an array with length at least {@code 3 * size()}
+     * to be filled with consecutive {@code (x, y, z)} triples for each
+     * neighbor (in the same order as the basis vectors).
+     *
+     * @return the number of neighbors stored in the array.
+     *
+     * @throws IndexOutOfBoundsException if the neighbor array is too
+     * short.
+     */
+    public int getNeighbors(int x, int y, int z, int[] neighbors) {
+        int[] basis = basisArray();
+
+        if (neighbors.length < basis.length)
+            throw new IndexOutOfBoundsException("Neighbor array is too short.");
+
+        for (int index = 0; index < basis.length; index += 3) {
+            neighbors[index]     = x + basis[index];
+            neighbors[index + 1] = y + basis[index + 1];
+            neighbors[index + 2] = z + basis[index + 2];
+        }
+
+        return size();
+    }
+
+    /**
+     * Visits each neighbor surrounding a central coordinate (without
+     * creating any new coordinate objects).
+     *
+     * @param center the central coordinate.
+     *
+     * @param visitor the visitor to receive the neighbor coordinates
+     * (in the same order as the basis vectors).
+     */
+    public void visitNeighbors(Coord center, CoordVisitor visitor) {
+        visitNeighbors(center.x, center.y, center.z, visitor);
+    }
+
+    /**
+     * Visits each neighbor surrounding a central coordinate (without
+     * creating any new coordinate objects).
+     *
+     * @param x the discrete x-coordinate of the central site.
+     * @param y the discrete y-coordinate of the central site.
+     * @param z the discrete z-coordinate of the central site.
+     *
+     * @param visitor the visitor to receive the neighbor coordinates
+     * (in the same order as the basis vectors).
+     */
+    public void visitNeighbors(int x, int y, int z, CoordVisitor visitor) {
+        int[] basis = basisArray();
+
+        for (int index = 0; index < basis.length; index += 3)
+            visitor.visit(x + basis[index], y + basis[index + 1], z + basis[index + 2]);
+    }
+
     /**
      * Selects one of the basis vectors in this neighborhood at
      * random, with each basis vector being equally likely.
@@ -150,6 +255,35 @@ public enum Neighborhood {
         return center.plus(randomBasisVector(source));
     }
 
+    /**
+     * Selects a neighboring coordinate at random, with each neighbor
+     * being equally likely, and stores it in a caller-supplied array
+     * (without creating any new objects).
+     *
+     * @param x the discrete x-coordinate of the central site.
+     * @param y the discrete y-coordinate of the central site.
+     * @param z the discrete z-coordinate of the central site.
+     *
+     * @param source a random number generator.
+     *
+     * @param neighbor an array with length at least three to be
+     * filled with the {@code (x, y, z)} coordinates of the selected
+     * neighbor.
+     *
+     * @return the index of the basis vector that was selected.
+     */
+    public int randomNeighbor(int x, int y, int z, JamRandom source, int[] neighbor) {
+        int[] basis = basisArray();
+        int   index = source.nextInt(size());
+        int   start = 3 * index;
+
+        neighbor[0] = x + basis[start];
+        neighbor[1] = y + basis[start + 1];
+        neighbor[2] = z + basis[start + 2];
+
+        return index;
+    }
+
     /**
      * Selects distinct neighboring coordinates at random, with each
      * neighbor being equally likely.
@@ -0,0 +1,620 @@
+
+package jam.lattice;
+
+import java.util.Arrays;
+
+/**
+ * Records the occupancy of a periodic cubic lattice with one bit per
+ * site and provides bulk shape-analysis operations over the entire
+ * lattice.
+ *
+ * <p>An occupancy bitmap is a compact companion to a lattice that
+ * holds the occupants themselves (like {@code DenseSOLattice}): a
+ * lattice with {@code 10^8} sites requires only about twelve
+ * megabytes.  The bitmap does not track the lattice after it is
+ * created; sites must be occupied and vacated explicitly.
+ *
+ * <p><b>Layout.</b> Each row of sites along the x-direction occupies
+ * a whole number of consecutive {@code long} words, with rows ordered
+ * by {@code y} and then {@code z}.  Neighbors along the y- and
+ * z-directions therefore lie in other word-aligned rows, and neighbors
+ * along the x-direction are reached by shifting the row.  The bulk
+ * operations ({@code countBoundary}, {@code countContacts}, and
+ * {@code surface}) process 64 sites at a time using bitwise masks
+ * and population counts.
+ *
+ * <p><b>Coordinates.</b> Methods that accept individual coordinates
+ * take absolute coordinates and operate on their periodic images.
+ * Methods that report coordinates (such as {@code visitOccupied})
+ * report periodic images.
+ */
+public final class OccupancyBitmap {
+    private final Period period;
+
+    private final int nx;
+    private final int ny;
+    private final int nz;
+
+    private final int wordsPerRow;
+    private final long tailMask;
+    private final long[] words;
+
+    private OccupancyBitmap(Period period) {
+        this.period = period;
+
+        this.nx = period.getPeriodX();
+        this.ny = period.getPeriodY();
+        this.nz = period.getPeriodZ();
+
+        this.wordsPerRow = (nx + 63) >>> 6;
+        this.tailMask = ((nx & 63) == 0) ? -1L : (1L << (nx & 63)) - 1L;
+
+        try {
+            this.words = new long[Math.multiplyExact(wordsPerRow, Math.multiplyExact(ny, nz))];
+        }
+        catch (ArithmeticException ex) {
+            throw new IllegalArgumentException("Lattice period is too large for an occupancy bitmap.");
+        }
+    }
+
+    private OccupancyBitmap(OccupancyBitmap that) {
+        this.period = that.period;
+
+        this.nx = that.nx;
+        this.ny = that.ny;
+        this.nz = that.nz;
+
+        this.wordsPerRow = that.wordsPerRow;
+        this.tailMask = that.tailMask;
+        this.words = new long[that.words.length];
+    }
+
+    /**
+     * Creates an empty occupancy bitmap.
+     *
+     * @param period the period of the lattice.
+     *
+     * @return an occupancy bitmap with every site unoccupied.
+     *
+     * @throws IllegalArgumentException if the period contains too
+     * many sites to be represented.
+     */
+    public static OccupancyBitmap empty(Period period) {
+        return new OccupancyBitmap(period);
+    }
+
+    /**
+     * Creates an occupancy bitmap that records the sites occupied on
+     * a lattice (at the time this method is called).
+     *
+     * @param lattice the lattice to examine.
+     *
+     * @return an occupancy bitmap with a bit set for every site that
+     * contains at least one occupant on the specified lattice.
+     *
+     * @throws IllegalArgumentException if the lattice contains too
+     * many sites to be represented.
+     */
+    public static OccupancyBitmap of(LatticeView<?> lattice) {
+        OccupancyBitmap bitmap = new OccupancyBitmap(lattice.getPeriod());
+
+        for (Object occupant : lattice.viewOccupants())
+            bitmap.occupy(locate(lattice, occupant));
+
+        return bitmap;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Coord locate(LatticeView<T> lattice, Object occupant) {
+        return lattice.locate((T) occupant);
+    }
+
+    private int rowOf(int y, int z) {
+        return Period.computeImage(y, ny) + ny * Period.computeImage(z, nz);
+    }
+
+    private int wordOf(int x, int y, int z) {
+        return rowOf(y, z) * wordsPerRow + (Period.computeImage(x, nx) >>> 6);
+    }
+
+    private static long bitOf(int x, int nx) {
+        return 1L << (Period.computeImage(x, nx) & 63);
+    }
+
+    private long maskOf(int word) {
+        return (word == wordsPerRow - 1) ? tailMask : -1L;
+    }
+
+    /**
+     * Returns the period of the lattice.
+     *
+     * @return the period of the lattice.
+     */
+    public Period getPeriod() {
+        return period;
+    }
+
+    /**
+     * Identifies occupied sites.
+     *
+     * @param coord the absolute coordinate of the site.
+     *
+     * @return {@code true} iff the site is occupied.
+     */
+    public boolean isOccupied(Coord coord) {
+        return isOccupied(coord.x, coord.y, coord.z);
+    }
+
+    /**
+     * Identifies occupied sites.
+     *
+     * @param x the absolute x-coordinate of the site.
+     * @param y the absolute y-coordinate of the site.
+     * @param z the absolute z-coordinate of the site.
+     *
+     * @return {@code true} iff the site is occupied.
+     */
+    public boolean isOccupied(int x, int y, int z) {
+        return (words[wordOf(x, y, z)] & bitOf(x, nx)) != 0L;
+    }
+
+    /**
+     * Marks a site as occupied.
+     *
+     * @param coord the absolute coordinate of the site.
+     */
+    public void occupy(Coord coord) {
+        occupy(coord.x, coord.y, coord.z);
+    }
+
+    /**
+     * Marks a site as occupied.
+     *
+     * @param x the absolute x-coordinate of the site.
+     * @param y the absolute y-coordinate of the site.
+     * @param z the absolute z-coordinate of the site.
+     */
+    public void occupy(int x, int y, int z) {
+        words[wordOf(x, y, z)] |= bitOf(x, nx);
+    }
+
+    /**
+     * Marks a site as unoccupied.
+     *
+     * @param coord the absolute coordinate of the site.
+     */
+    public void vacate(Coord coord) {
+        vacate(coord.x, coord.y, coord.z);
+    }
+
+    /**
+     * Marks a site as unoccupied.
+     *
+     * @param x the absolute x-coordinate of the site.
+     * @param y the absolute y-coordinate of the site.
+     * @param z the absolute z-coordinate of the site.
+     */
+    public void vacate(int x, int y, int z) {
+        words[wordOf(x, y, z)] &= ~bitOf(x, nx);
+    }
+
+    /**
+     * Counts the occupied sites.
+     *
+     * @return the number of occupied sites.
+     */
+    public long countOccupied() {
+        long count = 0;
+
+        for (long word : words)
+            count += Long.bitCount(word);
+
+        return count;
+    }
+
+    /**
+     * Counts the occupied sites in the neighborhood of a site.
+     *
+     * @param x the absolute x-coordinate of the central site.
+     * @param y the absolute y-coordinate of the central site.
+     * @param z the absolute z-coordinate of the central site.
+     *
+     * @param neighborhood the neighborhood to examine.
+     *
+     * @return the number of occupied neighbors.
+     */
+    public int countOccupiedNeighbors(int x, int y, int z, Neighborhood neighborhood) {
+        int[] basis = neighborhood.basisArray();
+        int   count = 0;
+
+        for (int index = 0; index < basis.length; index += 3)
+            if (isOccupied(x + basis[index], y + basis[index + 1], z + basis[index + 2]))
+                ++count;
+
+        return count;
+    }
+
+    /**
+     * Counts the bonds between occupied sites and unoccupied neighbors
+     * (the perimeter, or surface area, of the occupied region measured
+     * in units of bonds).
+     *
+     * @param neighborhood the neighborhood that defines the bonds.
+     *
+     * @return the number of bonds between an occupied site and an
+     * unoccupied site.
+     */
+    public long countBoundary(Neighborhood neighborhood) {
+        int[] basis = neighborhood.basisArray();
+        long  count = 0;
+
+        for (int index = 0; index < basis.length; index += 3) {
+            int dx = basis[index];
+            int dy = basis[index + 1];
+            int dz = basis[index + 2];
+
+            for (int z = 0; z < nz; ++z) {
+                for (int y = 0; y < ny; ++y) {
+                    int rowBase = rowOf(y, z) * wordsPerRow;
+                    int nbrBase = rowOf(y + dy, z + dz) * wordsPerRow;
+
+                    for (int word = 0; word < wordsPerRow; ++word)
+                        count += Long.bitCount(words[rowBase + word] & ~window(nbrBase, word, dx) & maskOf(word));
+                }
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Counts the bonds between pairs of occupied sites.
+     *
+     * @param neighborhood the neighborhood that defines the bonds.
+     *
+     * @return the number of bonds joining two occupied sites (each
+     * bond is counted once).
+     */
+    public long countContacts(Neighborhood neighborhood) {
+        int[] basis = neighborhood.basisArray();
+        long  count = 0;
+
+        for (int index = 0; index < basis.length; index += 3) {
+            int dx = basis[index];
+            int dy = basis[index + 1];
+            int dz = basis[index + 2];
+
+            for (int z = 0; z < nz; ++z) {
+                for (int y = 0; y < ny; ++y) {
+                    int rowBase = rowOf(y, z) * wordsPerRow;
+                    int nbrBase = rowOf(y + dy, z + dz) * wordsPerRow;
+
+                    for (int word = 0; word < wordsPerRow; ++word)
+                        count += Long.bitCount(words[rowBase + word] & window(nbrBase, word, dx));
+                }
+            }
+        }
+
+        // Every bond was counted from both ends...
+        return count / 2;
+    }
+
+    /**
+     * Computes the ratio of the perimeter (the number of bonds between
+     * occupied and unoccupied sites) to the volume (the number of
+     * occupied sites).
+     *
+     * @param neighborhood the neighborhood that defines the bonds.
+     *
+     * @return the perimeter-to-volume ratio ({@code NaN} if no sites
+     * are occupied).
+     */
+    public double perimeterVolumeRatio(Neighborhood neighborhood) {
+        long volume = countOccupied();
+
+        if (volume == 0)
+            return Double.NaN;
+        else
+            return ((double) countBoundary(neighborhood)) / ((double) volume);
+    }
+
+    /**
+     * Identifies the surface of the occupied region: the occupied
+     * sites that have at least one unoccupied neighbor.
+     *
+     * @param neighborhood the neighborhood to examine.
+     *
+     * @return a new bitmap containing the surface sites.
+     */
+    public OccupancyBitmap surface(Neighborhood neighborhood) {
+        int[] basis = neighborhood.basisArray();
+        OccupancyBitmap surface = new OccupancyBitmap(this);
+
+        for (int z = 0; z < nz; ++z) {
+            for (int y = 0; y < ny; ++y) {
+                int rowBase = rowOf(y, z) * wordsPerRow;
+
+                for (int word = 0; word < wordsPerRow; ++word) {
+                    long occupied = words[rowBase + word];
+
+                    if (occupied == 0L)
+                        continue;
+
+                    // Sites whose neighbors are all occupied...
+                    long interior = -1L;
+
+                    for (int index = 0; index < basis.length && interior != 0L; index += 3) {
+                        int nbrBase = rowOf(y + basis[index + 1], z + basis[index + 2]) * wordsPerRow;
+                        interior &= window(nbrBase, word, basis[index]);
+                    }
+
+                    surface.words[rowBase + word] = occupied & ~interior & maskOf(word);
+                }
+            }
+        }
+
+        return surface;
+    }
+
+    /**
+     * Extracts the occupancy of the neighbors displaced by {@code dx}
+     * along the x-direction for the sites in one word of a row: bit
+     * {@code b} of the result is the occupancy of the site at
+     * {@code x = 64 * word + b + dx} (wrapped periodically) in the row
+     * beginning at word {@code rowBase}.
+     */
+    private long window(int rowBase, int word, int dx) {
+        int start = Period.computeImage(64 * word + dx, nx);
+
+        if (start + 64 <= nx) {
+            //
+            // The window does not wrap around the end of the row...
+            //
+            int  index = rowBase + (start >>> 6);
+            int  shift = start & 63;
+
+            if (shift == 0)
+                return words[index];
+            else
+                return (words[index] >>> shift) | (words[index + 1] << (64 - shift));
+        }
+
+        long result = 0L;
+        int  filled = 0;
+        int  pos    = start;
+
+        while (filled < 64) {
+            int  take  = Math.min(64 - filled, Math.min(nx - pos, 64 - (pos & 63)));
+            long chunk = words[rowBase + (pos >>> 6)] >>> (pos & 63);
+
+            if (take < 64)
+                chunk &= (1L << take) - 1L;
+
+            result |= chunk << filled;
+            filled += take;
+            pos += take;
+
+            if (pos == nx)
+                pos = 0;
+        }
+
+        return result;
+    }
+
+    /**
+     * Labels the connected components (clusters) of occupied sites
+     * using a union-find structure that requires storage only for the
+     * occupied sites.
+     *
+     * @param neighborhood the neighborhood that defines connectivity.
+     *
+     * @return an array containing the component label of each occupied
+     * site, in the order that the sites are reported by {@code
+     * visitOccupied}; the labels are numbered consecutively from zero
+     * in order of their first appearance.
+     *
+     * @throws IllegalStateException if there are too many occupied
+     * sites to label.
+     */
+    public int[] labelComponents(Neighborhood neighborhood) {
+        long occupiedCount = countOccupied();
+
+        if (occupiedCount > Integer.MAX_VALUE)
+            throw new IllegalStateException("Too many occupied sites to label.");
+
+        //
+        // The rank of an occupied site (its position in the sequence of
+        // occupied sites) is the number of occupied sites in preceding
+        // words plus the number of lower bits set in its own word...
+        //
+        int[] wordRank = new int[words.length];
+        int   rank = 0;
+
+        for (int index = 0; index < words.length; ++index) {
+            wordRank[index] = rank;
+            rank += Long.bitCount(words[index]);
+        }
+
+        int[] forward = forwardBasis(neighborhood);
+        int[] parent  = new int[(int) occupiedCount];
+        int[] size    = new int[(int) occupiedCount];
+
+        for (int index = 0; index < parent.length; ++index) {
+            parent[index] = index;
+            size[index] = 1;
+        }
+
+        //
+        // Each bond is examined once, from the site at which the bond
+        // vector points forward...
+        //
+        rank = 0;
+
+        for (int z = 0; z < nz; ++z) {
+            for (int y = 0; y < ny; ++y) {
+                int rowBase = rowOf(y, z) * wordsPerRow;
+
+                for (int word = 0; word < wordsPerRow; ++word) {
+                    long bits = words[rowBase + word];
+
+                    while (bits != 0L) {
+                        int x = 64 * word + Long.numberOfTrailingZeros(bits);
+
+                        for (int index = 0; index < forward.length; index += 3) {
+                            int nx1 = x + forward[index];
+                            int ny1 = y + forward[index + 1];
+                            int nz1 = z + forward[index + 2];
+
+                            int  nbrWord = wordOf(nx1, ny1, nz1);
+                            long nbrBit  = bitOf(nx1, nx);
+
+                            if ((words[nbrWord] & nbrBit) != 0L)
+                                union(parent, size, rank, wordRank[nbrWord] + Long.bitCount(words[nbrWord] & (nbrBit - 1L)));
+                        }
+
+                        bits &= bits - 1L;
+                        ++rank;
+                    }
+                }
+            }
+        }
+
+        //
+        // Replace the root of each component with consecutive labels;
+        // the size array is no longer needed and holds the label of
+        // each root...
+        //
+        int[] labels = new int[parent.length];
+        int   labelCount = 0;
+
+        Arrays.fill(size, -1);
+
+        for (int index = 0; index < parent.length; ++index) {
+            int root = find(parent, index);
+
+            if (size[root] < 0)
+                size[root] = labelCount++;
+
+            labels[index] = size[root];
+        }
+
+        return labels;
+    }
+
+    private static int[] forwardBasis(Neighborhood neighborhood) {
+        int[] basis = neighborhood.basisArray();
+        int[] forward = new int[basis.length / 2];
+        int   count = 0;
+
+        for (int index = 0; index < basis.length; index += 3) {
+            int dx = basis[index];
+            int dy = basis[index + 1];
+            int dz = basis[index + 2];
+
+            if (dz > 0 || (dz == 0 && (dy > 0 || (dy == 0 && dx > 0)))) {
+                forward[count++] = dx;
+                forward[count++] = dy;
+                forward[count++] = dz;
+            }
+        }
+
+        return forward;
+    }
+
+    private static int find(int[] parent, int index) {
+        // Path halving...
+        while (parent[index] != index) {
+            parent[index] = parent[parent[index]];
+            index = parent[index];
+        }
+
+        return index;
+    }
+
+    private static void union(int[] parent, int[] size, int i, int j) {
+        int rootI = find(parent, i);
+        int rootJ = find(parent, j);
+
+        if (rootI == rootJ)
+            return;
+
+        if (size[rootI] < size[rootJ]) {
+            int temp = rootI;
+            rootI = rootJ;
+            rootJ = temp;
+        }
+
+        parent[rootJ] = rootI;
+        size[rootI] += size[rootJ];
+    }
+
+    /**
+     * Counts the connected components (clusters) of occupied sites.
+     *
+     * @param neighborhood the neighborhood that defines connectivity.
+     *
+     * @return the number of connected components.
+     *
+     * @throws IllegalStateException if there are too many occupied
+     * sites to label.
+     */
+    public int countComponents(Neighborhood neighborhood) {
+        return componentSizes(neighborhood).length;
+    }
+
+    /**
+     * Computes the sizes of the connected components (clusters) of
+     * occupied sites.
+     *
+     * @param neighborhood the neighborhood that defines connectivity.
+     *
+     * @return an array whose element {@code k} is the number of sites
+     * in the component with label {@code k} (as assigned by {@code
+     * labelComponents}).
+     *
+     * @throws IllegalStateException if there are too many occupied
+     * sites to label.
+     */
+    public int[] componentSizes(Neighborhood neighborhood) {
+        int[] labels = labelComponents(neighborhood);
+        int   labelCount = 0;
+
+        for (int label : labels)
+            labelCount = Math.max(labelCount, label + 1);
+
+        int[] sizes = new int[labelCount];
+
+        for (int label : labels)
+            ++sizes[label];
+
+        return sizes;
+    }
+
+    /**
+     * Visits every occupied site (as a periodic image) in order of
+     * increasing {@code x}, then {@code y}, then {@code z} with
+     * {@code x} varying fastest.
+     *
+     * @param visitor the visitor to receive the occupied sites.
+     */
+    public void visitOccupied(CoordVisitor visitor) {
+        for (int z = 0; z < nz; ++z) {
+            for (int y = 0; y < ny; ++y) {
+                int rowBase = rowOf(y, z) * wordsPerRow;
+
+                for (int word = 0; word < wordsPerRow; ++word) {
+                    long bits = words[rowBase + word];
+
+                    while (bits != 0L) {
+                        visitor.visit(64 * word + Long.numberOfTrailingZeros(bits), y, z);
+                        bits &= bits - 1L;
+                    }
+                }
+            }
+        }
+    }
+
+    @Override public String toString() {
+        return String.format("OccupancyBitmap(%s, %d occupied)", period, countOccupied());
+    }
+}
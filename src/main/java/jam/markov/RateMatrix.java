@@ -0,0 +1,296 @@
+package jam.markov;
+
+import jam.matrix.CSRMatrix;
+import jam.matrix.MatrixView;
+import jam.matrix.SparseMatrixBuilder;
+
+/**
+ * Describes a continuous-time Markov process by a sparse matrix of
+ * transition rates.
+ *
+ * <p>Off-diagonal element {@code [j, k]} of the rate matrix is the
+ * rate of transitions <em>from</em> state {@code j} <em>to</em>
+ * state {@code k}; the total rate of transitions leaving state {@code
+ * j} (its <em>exit rate</em>) is the sum of the off-diagonal elements
+ * in row {@code j}.  (The generator matrix {@code Q} of the process
+ * has the negative exit rates on its diagonal; the diagonal of the
+ * input matrix is ignored, so either the generator or the matrix of
+ * off-diagonal rates may be supplied.)
+ *
+ * <p>State distributions are propagated in time by
+ * <em>uniformization</em>: with {@code L} equal to the maximum exit
+ * rate, the discrete-time chain {@code P = I + Q / L} is embedded in
+ * a Poisson process with rate {@code L}, so that
+ * <pre>
+ *     p(t) = sum_n Poisson(n; L t) p(0) P^n.
+ * </pre>
+ * The sum is truncated where the Poisson weights become negligible
+ * and evaluated with sparse vector-matrix products, without
+ * computing the matrix exponential.
+ */
+public final class RateMatrix {
+    private final CSRMatrix rates;
+    private final double[] exitRates;
+    private final double uniformRate;
+    private final SparseTransitionMatrix uniformized;
+
+    // Poisson weights smaller than this fraction of the modal weight
+    // are discarded...
+    private static final double WEIGHT_TOLERANCE = 1.0E-16;
+
+    private RateMatrix(CSRMatrix rates) {
+        validateRates(rates);
+
+        this.rates = rates;
+        this.exitRates = computeExitRates(rates);
+        this.uniformRate = computeUniformRate(exitRates);
+        this.uniformized = SparseTransitionMatrix.create(uniformize(rates, exitRates, uniformRate));
+    }
+
+    private static void validateRates(CSRMatrix rates) {
+        if (!rates.isSquare())
+            throw new IllegalArgumentException("Non-square rate matrix.");
+
+        for (int row = 0; row < rates.nrow(); ++row) {
+            int[]    cols   = rates.getColumnIndexes(row);
+            double[] values = rates.getRowValues(row);
+
+            for (int k = 0; k < cols.length; ++k)
+                if (cols[k] != row && !(values[k] >= 0.0 && Double.isFinite(values[k])))
+                    throw new IllegalArgumentException("Transition rates must be finite and non-negative.");
+        }
+    }
+
+    private static double[] computeExitRates(CSRMatrix rates) {
+        double[] exitRates = new double[rates.nrow()];
+
+        for (int row = 0; row < rates.nrow(); ++row) {
+            int[]    cols   = rates.getColumnIndexes(row);
+            double[] values = rates.getRowValues(row);
+
+            for (int k = 0; k < cols.length; ++k)
+                if (cols[k] != row)
+                    exitRates[row] += values[k];
+        }
+
+        return exitRates;
+    }
+
+    private static double computeUniformRate(double[] exitRates) {
+        double result = 0.0;
+
+        for (double exitRate : exitRates)
+            result = Math.max(result, exitRate);
+
+        return result;
+    }
+
+    private static CSRMatrix uniformize(CSRMatrix rates, double[] exitRates, double uniformRate) {
+        int stateCount = rates.nrow();
+
+        SparseMatrixBuilder builder =
+            SparseMatrixBuilder.create(stateCount, stateCount, rates.countNonZero() + stateCount);
+
+        for (int row = 0; row < stateCount; ++row) {
+            if (uniformRate == 0.0) {
+                builder.add(row, row, 1.0);
+                continue;
+            }
+
+            int[]    cols   = rates.getColumnIndexes(row);
+            double[] values = rates.getRowValues(row);
+
+            for (int k = 0; k < cols.length; ++k)
+                if (cols[k] != row)
+                    builder.add(row, cols[k], values[k] / uniformRate);
+
+            builder.add(row, row, 1.0 - exitRates[row] / uniformRate);
+        }
+
+        return builder.buildCSR();
+    }
+
+    /**
+     * Creates a new rate matrix.
+     *
+     * @param rates a sparse matrix containing the transition rates
+     * in its off-diagonal elements (the diagonal is ignored).
+     *
+     * @return the rate matrix.
+     *
+     * @throws IllegalArgumentException unless the matrix is square
+     * with finite, non-negative off-diagonal elements.
+     */
+    public static RateMatrix create(CSRMatrix rates) {
+        return new RateMatrix(rates);
+    }
+
+    /**
+     * Creates a new rate matrix containing the non-zero elements of
+     * another matrix.
+     *
+     * @param rates a matrix containing the transition rates in its
+     * off-diagonal elements (the diagonal is ignored).
+     *
+     * @return the rate matrix.
+     *
+     * @throws IllegalArgumentException unless the matrix is square
+     * with finite, non-negative off-diagonal elements.
+     */
+    public static RateMatrix copyOf(MatrixView rates) {
+        return create(CSRMatrix.copyOf(rates));
+    }
+
+    /**
+     * Returns the number of states in this process.
+     *
+     * @return the number of states in this process.
+     */
+    public int countStates() {
+        return rates.nrow();
+    }
+
+    /**
+     * Returns the rate of transitions from one state to another.
+     *
+     * @param fromState the index of the initial state.
+     *
+     * @param toState the index of the final state.
+     *
+     * @return the rate of transitions from the state with index
+     * {@code fromState} to the state with index {@code toState}
+     * (zero if the states are identical).
+     *
+     * @throws IndexOutOfBoundsException unless the state indexes are
+     * valid.
+     */
+    public double getRate(int fromState, int toState) {
+        if (fromState == toState)
+            return 0.0;
+        else
+            return rates.get(fromState, toState);
+    }
+
+    /**
+     * Returns the total rate of transitions leaving a given state.
+     *
+     * @param state the index of the state.
+     *
+     * @return the total rate of transitions leaving the specified
+     * state.
+     *
+     * @throws IndexOutOfBoundsException unless the state index is
+     * valid.
+     */
+    public double getExitRate(int state) {
+        return exitRates[state];
+    }
+
+    /**
+     * Returns the uniformization rate (the maximum exit rate).
+     *
+     * @return the uniformization rate (the maximum exit rate).
+     */
+    public double getUniformizationRate() {
+        return uniformRate;
+    }
+
+    /**
+     * Returns the uniformized discrete-time chain {@code P = I + Q /
+     * L}.
+     *
+     * @return the uniformized discrete-time chain.
+     */
+    public SparseTransitionMatrix uniformize() {
+        return uniformized;
+    }
+
+    /**
+     * Propagates a state probability distribution forward in time.
+     *
+     * @param dist the initial state probability distribution.
+     *
+     * @param time the elapsed time.
+     *
+     * @return a new array containing the state probability
+     * distribution after the specified time has elapsed.
+     *
+     * @throws IllegalArgumentException unless the distribution has
+     * one element for each state and the time is non-negative.
+     */
+    public double[] propagate(double[] dist, double time) {
+        if (!(time >= 0.0))
+            throw new IllegalArgumentException("Elapsed time must be non-negative.");
+
+        double poissonMean = uniformRate * time;
+
+        if (poissonMean == 0.0)
+            return uniformized.propagate(dist, 0);
+
+        // Compute the (unnormalized) Poisson weights outward from
+        // the mode, where the modal weight is one, until they become
+        // negligible...
+        long mode  = (long) Math.floor(poissonMean);
+        long lower = mode;
+        long upper = mode;
+
+        double lowerWeight = 1.0;
+        double upperWeight = 1.0;
+        double totalWeight = 1.0;
+
+        while (lower > 0) {
+            double weight = lowerWeight * lower / poissonMean;
+
+            if (weight < WEIGHT_TOLERANCE)
+                break;
+
+            lowerWeight = weight;
+            totalWeight += weight;
+            --lower;
+        }
+
+        while (true) {
+            double weight = upperWeight * poissonMean / (upper + 1);
+
+            if (weight < WEIGHT_TOLERANCE)
+                break;
+
+            upperWeight = weight;
+            totalWeight += weight;
+            ++upper;
+        }
+
+        // Jump directly to the first step with non-negligible weight,
+        // then accumulate the weighted distributions...
+        double[] stepDist = uniformized.propagate(dist, lower);
+        double[] result   = new double[stepDist.length];
+
+        double weight = lowerWeight / totalWeight;
+
+        for (long step = lower; step <= upper; ++step) {
+            for (int state = 0; state < result.length; ++state)
+                result[state] += weight * stepDist[state];
+
+            if (step < upper) {
+                stepDist = uniformized.propagate(stepDist);
+                weight  *= poissonMean / (step + 1);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Computes the stationary state distribution (which is identical
+     * to the stationary distribution of the uniformized chain).
+     *
+     * @return the stationary state distribution.
+     *
+     * @throws IllegalStateException if the stationary distribution
+     * cannot be computed by Gauss-Seidel iteration (for example, if
+     * the process has an absorbing state).
+     */
+    public double[] stationary() {
+        return uniformized.stationary();
+    }
+}
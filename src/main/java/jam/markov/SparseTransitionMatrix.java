@@ -0,0 +1,543 @@
+package jam.markov;
+
+import java.util.Arrays;
+
+import jam.math.AliasTable;
+import jam.math.DoubleComparator;
+import jam.math.JamRandom;
+import jam.math.Probability;
+import jam.matrix.CSRMatrix;
+import jam.matrix.JamMatrix;
+import jam.matrix.LinearOperator;
+import jam.matrix.MatrixView;
+import jam.vector.VectorView;
+
+/**
+ * Describes a discrete-time Markov chain by a sparse (right)
+ * stochastic transition matrix.
+ *
+ * <p>We adopt the same convention as {@link StochasticMatrix}:
+ * element {@code [j, k]} is the probability of moving <em>from</em>
+ * state {@code j} <em>to</em> state {@code k}, each row has unit sum,
+ * and state probability (row) vectors evolve as {@code p(t + 1) =
+ * p(t) T}.  Unlike {@code StochasticMatrix}, this class never forms
+ * the dense matrix or its eigenvector decomposition, so it is suited
+ * to chains with very many states and few transitions from each.
+ *
+ * <p>State distributions are propagated by sparse vector-matrix
+ * products; distributions after a large number of steps are computed
+ * by repeated squaring of the (dense) transition matrix when that is
+ * cheaper.  Stationary distributions are computed by Gauss-Seidel or
+ * power iteration.  Transitions are sampled from an alias table for
+ * each state, in constant time regardless of the number of possible
+ * destinations, and the states of many independent chains may be
+ * advanced in bulk.
+ */
+public final class SparseTransitionMatrix {
+    private final CSRMatrix transProb;
+
+    // Multiplies column vectors by the transpose of the transition
+    // matrix, which propagates the (row) state distribution...
+    private final LinearOperator propagator;
+
+    // The non-zero transition probabilities into each state (the
+    // columns of the transition matrix) in compressed format, for
+    // Gauss-Seidel iteration...
+    private final int[] colPtr;
+    private final int[] rowIndex;
+    private final double[] colProb;
+
+    // The destination states and alias table for transitions leaving
+    // each state...
+    private final int[][] destination;
+    private final AliasTable[] aliasTable;
+
+    /**
+     * The default convergence tolerance for stationary distributions
+     * (in the L1 norm).
+     */
+    public static final double DEFAULT_TOLERANCE = 1.0E-12;
+
+    /**
+     * The default maximum number of iterations when computing
+     * stationary distributions.
+     */
+    public static final int DEFAULT_MAX_ITERATIONS = 100000;
+
+    // Matrix powers are computed by dense repeated squaring only for
+    // chains with at most this many states...
+    private static final int DENSE_POWER_LIMIT = 2000;
+
+    private SparseTransitionMatrix(CSRMatrix transProb) {
+        validateTransitionProbability(transProb);
+
+        int stateCount = transProb.nrow();
+        CSRMatrix transpose = transProb.toCSC().transpose();
+
+        this.transProb  = transProb;
+        this.propagator = LinearOperator.of(transpose);
+
+        this.colPtr   = new int[stateCount + 1];
+        this.rowIndex = new int[transProb.countNonZero()];
+        this.colProb  = new double[transProb.countNonZero()];
+
+        for (int col = 0; col < stateCount; ++col) {
+            int[]    rows  = transpose.getColumnIndexes(col);
+            double[] probs = transpose.getRowValues(col);
+
+            System.arraycopy(rows,  0, rowIndex, colPtr[col], rows.length);
+            System.arraycopy(probs, 0, colProb,  colPtr[col], probs.length);
+
+            colPtr[col + 1] = colPtr[col] + rows.length;
+        }
+
+        this.destination = new int[stateCount][];
+        this.aliasTable  = new AliasTable[stateCount];
+
+        for (int state = 0; state < stateCount; ++state) {
+            destination[state] = transProb.getColumnIndexes(state);
+            aliasTable[state]  = AliasTable.create(transProb.getRowValues(state));
+        }
+    }
+
+    private static void validateTransitionProbability(CSRMatrix transProb) {
+        if (!transProb.isSquare())
+            throw new IllegalArgumentException("Non-square transition matrix.");
+
+        for (int row = 0; row < transProb.nrow(); ++row) {
+            double rowSum = 0.0;
+
+            for (double element : transProb.getRowValues(row)) {
+                Probability.validate(element);
+                rowSum += element;
+            }
+
+            if (DoubleComparator.DEFAULT.NE(rowSum, 1.0))
+                throw new IllegalArgumentException("Non-normalized transition matrix row.");
+        }
+    }
+
+    /**
+     * Creates a new sparse transition matrix.
+     *
+     * @param transProb the transition probability matrix.
+     *
+     * @return the sparse transition matrix.
+     *
+     * @throws IllegalArgumentException unless the input matrix is a
+     * valid transition matrix.
+     */
+    public static SparseTransitionMatrix create(CSRMatrix transProb) {
+        return new SparseTransitionMatrix(transProb);
+    }
+
+    /**
+     * Creates a new sparse transition matrix containing the non-zero
+     * elements of another matrix.
+     *
+     * @param transProb the transition probability matrix.
+     *
+     * @return the sparse transition matrix.
+     *
+     * @throws IllegalArgumentException unless the input matrix is a
+     * valid transition matrix.
+     */
+    public static SparseTransitionMatrix copyOf(MatrixView transProb) {
+        return create(CSRMatrix.copyOf(transProb));
+    }
+
+    /**
+     * Creates a new sparse transition matrix describing the same
+     * Markov chain as a dense stochastic matrix.
+     *
+     * @param matrix the dense stochastic matrix.
+     *
+     * @return the sparse transition matrix.
+     */
+    public static SparseTransitionMatrix copyOf(StochasticMatrix matrix) {
+        return copyOf(matrix.getTransitionProbability());
+    }
+
+    /**
+     * Returns the number of states in this transition matrix.
+     *
+     * @return the number of states in this transition matrix.
+     */
+    public int countStates() {
+        return transProb.nrow();
+    }
+
+    /**
+     * Returns the number of non-zero transition probabilities.
+     *
+     * @return the number of non-zero transition probabilities.
+     */
+    public int countTransitions() {
+        return transProb.countNonZero();
+    }
+
+    /**
+     * Returns the transition probability from one state to another.
+     *
+     * @param fromState the index of the initial state.
+     *
+     * @param toState the index of the final state.
+     *
+     * @return the probability of transition from the state with index
+     * {@code fromState} to the state with index {@code toState}.
+     *
+     * @throws IndexOutOfBoundsException unless the state indexes are
+     * valid.
+     */
+    public double getTransitionProbability(int fromState, int toState) {
+        return transProb.get(fromState, toState);
+    }
+
+    /**
+     * Returns the underlying sparse transition probability matrix.
+     *
+     * @return the underlying sparse transition probability matrix.
+     */
+    public CSRMatrix getTransitionProbability() {
+        return transProb;
+    }
+
+    /**
+     * Updates a state probability distribution by one step of the
+     * Markov chain.
+     *
+     * @param dist the initial state probability distribution.
+     *
+     * @return a new array containing the state probability
+     * distribution after one step.
+     *
+     * @throws IllegalArgumentException unless the distribution has
+     * one element for each state.
+     */
+    public double[] propagate(double[] dist) {
+        validateDistribution(dist);
+        return propagator.apply(dist);
+    }
+
+    /**
+     * Updates a state probability distribution by a number of steps
+     * of the Markov chain.
+     *
+     * <p>The distribution is propagated by repeated sparse
+     * vector-matrix products, unless computing the matrix power
+     * {@code T^steps} by repeated squaring (in dense storage) would
+     * require fewer operations.
+     *
+     * @param dist the initial state probability distribution.
+     *
+     * @param steps the number of steps to take.
+     *
+     * @return a new array containing the state probability
+     * distribution after the specified number of steps.
+     *
+     * @throws IllegalArgumentException unless the distribution has
+     * one element for each state and the number of steps is
+     * non-negative.
+     */
+    public double[] propagate(double[] dist, long steps) {
+        validateDistribution(dist);
+
+        if (steps < 0)
+            throw new IllegalArgumentException("Number of steps must be non-negative.");
+
+        if (isDensePowerFaster(steps))
+            return JamMatrix.times(VectorView.wrap(dist), power(steps)).toNumeric();
+
+        double[] result = dist.clone();
+
+        for (long step = 0; step < steps; ++step)
+            result = propagator.apply(result);
+
+        return result;
+    }
+
+    private boolean isDensePowerFaster(long steps) {
+        if (countStates() > DENSE_POWER_LIMIT || steps < 2)
+            return false;
+
+        double states  = countStates();
+        double squares = 2.0 * (64 - Long.numberOfLeadingZeros(steps));
+
+        return squares * states * states * states < ((double) steps) * countTransitions();
+    }
+
+    private void validateDistribution(double[] dist) {
+        if (dist.length != countStates())
+            throw new IllegalArgumentException("Distribution length does not match the number of states.");
+    }
+
+    /**
+     * Computes a power of this transition matrix by repeated squaring.
+     *
+     * <p>Each row of every intermediate product is renormalized to
+     * unit sum, which prevents the round-off error in the row sums
+     * from doubling with every squaring.
+     *
+     * @param steps the exponent (number of steps).
+     *
+     * @return the (dense) matrix {@code T^steps} whose element
+     * {@code [j, k]} is the probability of moving from state {@code
+     * j} to state {@code k} in exactly {@code steps} steps.
+     *
+     * @throws IllegalArgumentException if the exponent is negative.
+     */
+    public JamMatrix power(long steps) {
+        if (steps < 0)
+            throw new IllegalArgumentException("Number of steps must be non-negative.");
+
+        JamMatrix result = null;
+        JamMatrix square = transProb.toDense();
+
+        while (steps > 0) {
+            if ((steps & 1L) != 0)
+                result = (result == null) ? square : normalizeRows(result.times(square));
+
+            steps >>= 1;
+
+            if (steps > 0)
+                square = normalizeRows(square.times(square));
+        }
+
+        if (result == null)
+            result = JamMatrix.identity(countStates());
+
+        return result;
+    }
+
+    private static JamMatrix normalizeRows(JamMatrix matrix) {
+        for (int row = 0; row < matrix.nrow(); ++row) {
+            double rowSum = 0.0;
+
+            for (int col = 0; col < matrix.ncol(); ++col)
+                rowSum += matrix.get(row, col);
+
+            for (int col = 0; col < matrix.ncol(); ++col)
+                matrix.set(row, col, matrix.get(row, col) / rowSum);
+        }
+
+        return matrix;
+    }
+
+    /**
+     * Computes the stationary state distribution by Gauss-Seidel
+     * iteration with the default tolerance and iteration limit.
+     *
+     * @return the stationary state distribution.
+     *
+     * @throws IllegalStateException if the chain has an absorbing
+     * state or the iteration does not converge.
+     */
+    public double[] stationary() {
+        return stationary(DEFAULT_TOLERANCE, DEFAULT_MAX_ITERATIONS);
+    }
+
+    /**
+     * Computes the stationary state distribution by Gauss-Seidel
+     * iteration.
+     *
+     * <p>Each sweep solves the balance equation {@code p[k] = sum_j
+     * p[j] T[j, k]} for each state {@code k} in turn, using the most
+     * recent estimates for all other states, and then normalizes the
+     * distribution.  Gauss-Seidel iteration usually converges much
+     * faster than power iteration, but requires that no state be
+     * absorbing ({@code T[k, k] < 1} for all {@code k}).
+     *
+     * @param tolerance the convergence tolerance: the iteration stops
+     * when the distribution changes by less than this amount (in the
+     * L1 norm) in one sweep.
+     *
+     * @param maxIterations the maximum number of sweeps.
+     *
+     * @return the stationary state distribution.
+     *
+     * @throws IllegalStateException if the chain has an absorbing
+     * state or the iteration does not converge.
+     */
+    public double[] stationary(double tolerance, int maxIterations) {
+        int stateCount = countStates();
+
+        double[] selfProb = new double[stateCount];
+
+        for (int state = 0; state < stateCount; ++state) {
+            selfProb[state] = transProb.get(state, state);
+
+            if (selfProb[state] >= 1.0)
+                throw new IllegalStateException("Gauss-Seidel iteration requires a chain with no absorbing states.");
+        }
+
+        double[] dist = uniformDistribution();
+        double[] prev = new double[stateCount];
+
+        for (int iter = 0; iter < maxIterations; ++iter) {
+            System.arraycopy(dist, 0, prev, 0, stateCount);
+
+            for (int col = 0; col < stateCount; ++col) {
+                double inflow = 0.0;
+
+                for (int k = colPtr[col]; k < colPtr[col + 1]; ++k)
+                    if (rowIndex[k] != col)
+                        inflow += dist[rowIndex[k]] * colProb[k];
+
+                dist[col] = inflow / (1.0 - selfProb[col]);
+            }
+
+            normalize(dist);
+
+            if (distance(dist, prev) < tolerance)
+                return dist;
+        }
+
+        throw new IllegalStateException("Gauss-Seidel iteration did not converge.");
+    }
+
+    /**
+     * Computes the stationary state distribution by power iteration
+     * with the default tolerance and iteration limit.
+     *
+     * @return the stationary state distribution.
+     *
+     * @throws IllegalStateException if the iteration does not
+     * converge.
+     */
+    public double[] stationaryPower() {
+        return stationaryPower(DEFAULT_TOLERANCE, DEFAULT_MAX_ITERATIONS);
+    }
+
+    /**
+     * Computes the stationary state distribution by power iteration.
+     *
+     * <p>The iteration is applied to the <em>lazy</em> chain {@code
+     * (I + T) / 2}, which has the same stationary distribution as
+     * this chain but is aperiodic, so the iteration converges for
+     * periodic chains as well.
+     *
+     * @param tolerance the convergence tolerance: the iteration stops
+     * when the distribution changes by less than this amount (in the
+     * L1 norm) in one step.
+     *
+     * @param maxIterations the maximum number of steps.
+     *
+     * @return the stationary state distribution.
+     *
+     * @throws IllegalStateException if the iteration does not
+     * converge.
+     */
+    public double[] stationaryPower(double tolerance, int maxIterations) {
+        double[] dist = uniformDistribution();
+
+        for (int iter = 0; iter < maxIterations; ++iter) {
+            double[] next = propagator.apply(dist);
+
+            for (int state = 0; state < next.length; ++state)
+                next[state] = 0.5 * (next[state] + dist[state]);
+
+            normalize(next);
+
+            double change = distance(next, dist);
+            dist = next;
+
+            if (change < tolerance)
+                return dist;
+        }
+
+        throw new IllegalStateException("Power iteration did not converge.");
+    }
+
+    private double[] uniformDistribution() {
+        double[] dist = new double[countStates()];
+        Arrays.fill(dist, 1.0 / dist.length);
+        return dist;
+    }
+
+    private static void normalize(double[] dist) {
+        double total = 0.0;
+
+        for (double prob : dist)
+            total += prob;
+
+        for (int state = 0; state < dist.length; ++state)
+            dist[state] /= total;
+    }
+
+    private static double distance(double[] x, double[] y) {
+        double result = 0.0;
+
+        for (int k = 0; k < x.length; ++k)
+            result += Math.abs(x[k] - y[k]);
+
+        return result;
+    }
+
+    /**
+     * Simulates one transition from a given state.
+     *
+     * @param random the random number source.
+     *
+     * @param state the index of the initial state.
+     *
+     * @return the index of the new state, generated randomly with the
+     * transition probabilities for the initial state.
+     *
+     * @throws IndexOutOfBoundsException unless the initial state
+     * index is valid.
+     */
+    public int sample(JamRandom random, int state) {
+        return destination[state][aliasTable[state].sample(random)];
+    }
+
+    /**
+     * Advances the states of many independent chains (in place) by a
+     * fixed number of steps.
+     *
+     * @param random the random number source.
+     *
+     * @param states the current states of the chains, which are
+     * replaced by their states after the specified number of steps.
+     *
+     * @param steps the number of steps to advance each chain.
+     *
+     * @throws IndexOutOfBoundsException unless all state indexes are
+     * valid.
+     */
+    public void advance(JamRandom random, int[] states, int steps) {
+        for (int chain = 0; chain < states.length; ++chain) {
+            int state = states[chain];
+
+            for (int step = 0; step < steps; ++step)
+                state = destination[state][aliasTable[state].sample(random)];
+
+            states[chain] = state;
+        }
+    }
+
+    /**
+     * Simulates a trajectory of the Markov chain.
+     *
+     * @param random the random number source.
+     *
+     * @param initial the index of the initial state.
+     *
+     * @param steps the number of steps to simulate.
+     *
+     * @return an array of length {@code steps + 1} whose element
+     * {@code k} is the state after {@code k} steps (element {@code 0}
+     * is the initial state).
+     *
+     * @throws IndexOutOfBoundsException unless the initial state
+     * index is valid.
+     */
+    public int[] trajectory(JamRandom random, int initial, int steps) {
+        int[] result = new int[steps + 1];
+        result[0] = initial;
+
+        for (int step = 1; step <= steps; ++step)
+            result[step] = sample(random, result[step - 1]);
+
+        return result;
+    }
+}
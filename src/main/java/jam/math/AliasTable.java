@@ -0,0 +1,173 @@
+
+package jam.math;
+
+/**
+ * Samples from a finite discrete distribution in constant time by the
+ * alias method of Walker, as refined by Vose (A Linear Algorithm for
+ * Generating Random Numbers with a Given Distribution, IEEE
+ * Transactions on Software Engineering 17, 972-975, 1991).
+ *
+ * <p>The table is constructed in {@code O(N)} time for {@code N}
+ * events.  Thereafter, each sample requires one uniform deviate, one
+ * array lookup, and one comparison, independent of the number of
+ * events and of the shape of the distribution.  Alias tables are
+ * therefore the method of choice for distributions with static
+ * weights that are sampled many times.
+ *
+ * <p>Alias tables are immutable and may be shared between threads
+ * (provided that each thread uses its own random number source).
+ */
+public final class AliasTable {
+    // The probability of accepting column "k" itself (rather than its
+    // alias) after column "k" has been chosen uniformly...
+    private final double[] accept;
+
+    // The event selected when column "k" is rejected...
+    private final int[] alias;
+
+    // The normalized event probabilities...
+    private final double[] probability;
+
+    private AliasTable(double[] accept, int[] alias, double[] probability) {
+        this.accept = accept;
+        this.alias = alias;
+        this.probability = probability;
+    }
+
+    /**
+     * Creates an alias table for a set of mutually exclusive events.
+     *
+     * @param weights the relative weights of the events, which need
+     * not be normalized ({@code weights[k]} is proportional to the
+     * probability of event {@code k}).
+     *
+     * @return the alias table for the specified weights.
+     *
+     * @throws IllegalArgumentException if the weight array is empty,
+     * any weight is negative or not finite, or all weights are zero.
+     */
+    public static AliasTable create(double... weights) {
+        int count = weights.length;
+
+        if (count == 0)
+            throw new IllegalArgumentException("At least one event is required.");
+
+        double total = 0.0;
+
+        for (double weight : weights) {
+            if (weight < 0.0 || !Double.isFinite(weight))
+                throw new IllegalArgumentException("Event weights must be finite and non-negative.");
+
+            total += weight;
+        }
+
+        if (total <= 0.0)
+            throw new IllegalArgumentException("At least one event weight must be positive.");
+
+        double[] probability = new double[count];
+        double[] scaled = new double[count];
+
+        for (int k = 0; k < count; ++k) {
+            probability[k] = weights[k] / total;
+            scaled[k] = probability[k] * count;
+        }
+
+        //
+        // Vose's algorithm: pair each column with less than the
+        // average probability ("small") with one that has more
+        // ("large"), which donates the missing probability and
+        // becomes the alias of the small column...
+        //
+        int[] small = new int[count];
+        int[] large = new int[count];
+
+        int smallCount = 0;
+        int largeCount = 0;
+
+        for (int k = 0; k < count; ++k) {
+            if (scaled[k] < 1.0)
+                small[smallCount++] = k;
+            else
+                large[largeCount++] = k;
+        }
+
+        double[] accept = new double[count];
+        int[] alias = new int[count];
+
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+
+            accept[less] = scaled[less];
+            alias[less] = more;
+
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+
+            if (scaled[more] < 1.0)
+                small[smallCount++] = more;
+            else
+                large[largeCount++] = more;
+        }
+
+        //
+        // Any remaining columns differ from the average only by
+        // round-off error and are accepted unconditionally...
+        //
+        while (largeCount > 0) {
+            int more = large[--largeCount];
+            accept[more] = 1.0;
+            alias[more] = more;
+        }
+
+        while (smallCount > 0) {
+            int less = small[--smallCount];
+            accept[less] = 1.0;
+            alias[less] = less;
+        }
+
+        return new AliasTable(accept, alias, probability);
+    }
+
+    /**
+     * Returns the (normalized) probability of an event.
+     *
+     * @param index the zero-based index of the event.
+     *
+     * @return the probability of the specified event.
+     *
+     * @throws IndexOutOfBoundsException unless the index is valid.
+     */
+    public double probability(int index) {
+        return probability[index];
+    }
+
+    /**
+     * Selects one event at random.
+     *
+     * @param source the source of uniform random deviates.
+     *
+     * @return the zero-based index of the randomly selected event.
+     */
+    public int sample(JamRandom source) {
+        //
+        // A single deviate supplies both the column (integer part)
+        // and the acceptance test (fractional part)...
+        //
+        double draw = source.nextDouble() * accept.length;
+        int column = Math.min((int) draw, accept.length - 1);
+
+        if (draw - column < accept[column])
+            return column;
+        else
+            return alias[column];
+    }
+
+    /**
+     * Returns the number of events in this table.
+     *
+     * @return the number of events in this table.
+     */
+    public int size() {
+        return accept.length;
+    }
+}
@@ -0,0 +1,115 @@
+
+package jam.math;
+
+import java.util.function.DoubleConsumer;
+import java.util.stream.DoubleStream;
+
+/**
+ * Accumulates a floating-point sum with compensation for round-off
+ * error (the Kahan-Babuska-Neumaier algorithm).
+ *
+ * <p>The low-order bits lost from each addition are collected in a
+ * separate compensation term, so the error in the final sum is of the
+ * order of the machine epsilon (independent of the number of terms)
+ * rather than growing linearly with the number of terms, as it does
+ * for naive summation.
+ *
+ * <p>Partial sums are mergeable: the sums of separate portions of a
+ * data set may be accumulated independently (e.g., in parallel) and
+ * then combined without losing their compensation terms.  Instances
+ * are not thread-safe; each thread must accumulate its own partial
+ * sum.
+ */
+public final class CompensatedSum implements DoubleConsumer {
+    private double sum = 0.0;
+    private double compensation = 0.0;
+
+    /**
+     * Creates a new accumulator with a zero initial sum.
+     */
+    public CompensatedSum() {
+    }
+
+    /**
+     * Computes the compensated sum of the values in an array.
+     *
+     * @param values the values to sum.
+     *
+     * @return the compensated sum of the values.
+     */
+    public static double compute(double... values) {
+        CompensatedSum result = new CompensatedSum();
+
+        for (double value : values)
+            result.add(value);
+
+        return result.sum();
+    }
+
+    /**
+     * Computes the compensated sum of the values in a stream, which
+     * may be parallel.
+     *
+     * @param values the values to sum.
+     *
+     * @return the compensated sum of the values.
+     */
+    public static double compute(DoubleStream values) {
+        return values.collect(CompensatedSum::new, CompensatedSum::add, CompensatedSum::combine).sum();
+    }
+
+    /**
+     * Adds a value to the sum.
+     *
+     * @param value the value to add.
+     */
+    public void add(double value) {
+        double total = sum + value;
+
+        if (Math.abs(sum) >= Math.abs(value))
+            compensation += (sum - total) + value;
+        else
+            compensation += (value - total) + sum;
+
+        sum = total;
+    }
+
+    /**
+     * Adds a value to the sum.
+     *
+     * @param value the value to add.
+     */
+    @Override public void accept(double value) {
+        add(value);
+    }
+
+    /**
+     * Merges another partial sum into this sum; the other sum is
+     * unchanged.
+     *
+     * @param that the partial sum to merge.
+     *
+     * @return this accumulator, containing the combined sum.
+     */
+    public CompensatedSum combine(CompensatedSum that) {
+        add(that.sum);
+        add(that.compensation);
+        return this;
+    }
+
+    /**
+     * Returns the compensated sum of all values added so far.
+     *
+     * @return the compensated sum of all values added so far.
+     */
+    public double sum() {
+        //
+        // An infinite or missing sum makes the compensation term
+        // meaningless (NaN)...
+        //
+        if (Double.isFinite(sum))
+            return sum + compensation;
+        else
+            return sum;
+    }
+}
@@ -0,0 +1,155 @@
+
+package jam.math;
+
+/**
+ * Samples from a finite discrete distribution by inversion of its
+ * cumulative distribution function, using a guide table to start
+ * each search near its target (the <em>indexed search</em> method of
+ * Chen and Asau, On Generating Random Variates from an Empirical
+ * Distribution, AIIE Transactions 6, 163-166, 1974).
+ *
+ * <p>The unit interval is divided into {@code N} equal cells for
+ * {@code N} events, and the guide table records the first event whose
+ * cumulative probability exceeds the lower edge of each cell.  A
+ * search then begins at the guide entry for the cell containing the
+ * uniform deviate and moves forward an expected number of steps that
+ * is less than two, regardless of the number of events.
+ *
+ * <p>Unlike the {@link AliasTable}, a guide table preserves the
+ * monotone mapping from uniform deviates to events: the event
+ * returned for a given deviate is exactly the event that a linear
+ * search of the cumulative distribution would return.
+ *
+ * <p>Guide tables are immutable and may be shared between threads
+ * (provided that each thread uses its own random number source).
+ */
+public final class GuideTable {
+    private final double[] cdf;
+    private final int[] guide;
+
+    private GuideTable(double[] cdf, int[] guide) {
+        this.cdf = cdf;
+        this.guide = guide;
+    }
+
+    /**
+     * Creates a guide table for a set of mutually exclusive events.
+     *
+     * @param eventCDF the cumulative probability distribution for the
+     * set of events: {@code CDF[k]} is the probability that any event
+     * in the range {@code [0, 1, ..., k]} occurs.  The array is copied.
+     *
+     * @return the guide table for the specified distribution.
+     *
+     * @throws IllegalArgumentException if the array is empty or the
+     * cumulative probabilities are decreasing.
+     */
+    public static GuideTable create(double[] eventCDF) {
+        int count = eventCDF.length;
+
+        if (count == 0)
+            throw new IllegalArgumentException("At least one event is required.");
+
+        for (int k = 1; k < count; ++k)
+            if (eventCDF[k] < eventCDF[k - 1])
+                throw new IllegalArgumentException("Cumulative probabilities must be non-decreasing.");
+
+        double[] cdf = eventCDF.clone();
+        int[] guide = new int[count];
+
+        int event = 0;
+
+        for (int cell = 0; cell < count; ++cell) {
+            double lower = ((double) cell) / count;
+
+            while (event < count - 1 && cdf[event] <= lower)
+                ++event;
+
+            guide[cell] = event;
+        }
+
+        return new GuideTable(cdf, guide);
+    }
+
+    /**
+     * Finds the first event whose cumulative probability exceeds a
+     * given value by binary search.
+     *
+     * @param eventCDF the cumulative probability distribution for the
+     * set of events.
+     *
+     * @param draw a value in the range {@code [0.0, 1.0)}.
+     *
+     * @return the smallest index {@code k} for which
+     * {@code draw < eventCDF[k]}, or the last index if there is no
+     * such event.
+     */
+    static int search(double[] eventCDF, double draw) {
+        int lower = 0;
+        int upper = eventCDF.length - 1;
+
+        while (lower < upper) {
+            int middle = (lower + upper) >>> 1;
+
+            if (draw < eventCDF[middle])
+                upper = middle;
+            else
+                lower = middle + 1;
+        }
+
+        return lower;
+    }
+
+    /**
+     * Returns the event corresponding to a given uniform deviate.
+     *
+     * @param draw a value in the range {@code [0.0, 1.0)}.
+     *
+     * @return the smallest index {@code k} for which
+     * {@code draw < CDF[k]}, or the last index if there is no such
+     * event.
+     */
+    public int select(double draw) {
+        int count = guide.length;
+        int cell  = (int) (draw * count);
+
+        if (cell < 0)
+            cell = 0;
+        else if (cell >= count)
+            cell = count - 1;
+
+        int event = guide[cell];
+
+        //
+        // Floating-point round-off in the cell index may (very rarely)
+        // place the guide one event too far...
+        //
+        while (event > 0 && draw < cdf[event - 1])
+            --event;
+
+        while (event < count - 1 && draw >= cdf[event])
+            ++event;
+
+        return event;
+    }
+
+    /**
+     * Selects one event at random.
+     *
+     * @param source the source of uniform random deviates.
+     *
+     * @return the zero-based index of the randomly selected event.
+     */
+    public int sample(JamRandom source) {
+        return select(source.nextDouble());
+    }
+
+    /**
+     * Returns the number of events in this table.
+     *
+     * @return the number of events in this table.
+     */
+    public int size() {
+        return guide.length;
+    }
+}
@@ -255,7 +255,10 @@ public abstract class JamRandom implements RandomGenerator {
      * Selects one event from a set of mutually exclusive events.
      *
      * <p>In the interest of efficiency, the distribution function is
-     * not validated.
+     * not validated.  The event is located by binary search, so the
+     * cost grows only logarithmically with the number of events; for
+     * repeated selection from the same distribution, a {@link
+     * GuideTable} or {@link AliasTable} selects in constant time.
      *
      * @param eventCDF the cumulative probability distribution for the
      * set of events: {@code CDF[k]} is the probability that any event
@@ -264,20 +267,16 @@ public abstract class JamRandom implements RandomGenerator {
      * @return the zero-based index of the randomly selected event.
      */
     public int selectCDF(double[] eventCDF) {
-        int    eventIndex = 0;
-        double randomDraw = nextDouble();
-
-        while (randomDraw >= eventCDF[eventIndex])
-            eventIndex++;
-
-        return eventIndex;
+        return GuideTable.search(eventCDF, nextDouble());
     }
 
     /**
      * Selects one event from a set of mutually exclusive events.
      *
      * <p>In the interest of efficiency, the event probabilities are
-     * not validated.
+     * not validated.  Each selection requires a linear scan of the
+     * probabilities; for repeated selection from the same distribution,
+     * an {@link AliasTable} selects in constant time.
      *
      * @param eventPDF the probability of each event.
      *
@@ -288,7 +287,7 @@ public abstract class JamRandom implements RandomGenerator {
         double eventTotal = eventPDF[0];
         double randomDraw = nextDouble();
 
-        while (randomDraw >= eventTotal) {
+        while (randomDraw >= eventTotal && eventIndex < eventPDF.length - 1) {
             eventIndex++;
             eventTotal += eventPDF[eventIndex];
         }
@@ -12,6 +12,10 @@ import jam.vector.VectorView;
  * data, specified when the calculator is created.  Once created,
  * users may compute any number of quantile positions from that
  * original data set.
+ *
+ * <p>The calculator retains (and sorts) the entire data set; use a
+ * {@link QuantileSketch} to estimate quantiles of very large data
+ * sets or data streams in bounded memory.
  */
 public final class Quantile {
     private final Percentile percentile;
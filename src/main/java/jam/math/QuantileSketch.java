@@ -0,0 +1,461 @@
+package jam.math;
+
+import java.util.Arrays;
+import java.util.function.DoubleConsumer;
+import java.util.stream.DoubleStream;
+
+/**
+ * Estimates quantiles of a stream of numeric data in bounded memory
+ * (a merging t-digest).
+ *
+ * <p>The sketch summarizes the data by a sorted set of weighted
+ * centroids.  The scale function limits the weight of each centroid
+ * in proportion to {@code q (1 - q)}, where {@code q} is its quantile
+ * position, so centroids near the tails stay small and the tail
+ * quantiles are estimated with a relative rank error much smaller
+ * than that near the median.  The number of centroids never exceeds
+ * a small multiple of the compression parameter, regardless of the
+ * number of values added: with the default compression, the sketch
+ * occupies a few tens of kilobytes and estimates any quantile to
+ * within a rank error of roughly one part per thousand.
+ *
+ * <p>Sketches are mergeable: separate portions of a data set (e.g.,
+ * per-thread or per-trajectory results) may be summarized
+ * independently and then combined.  Instances are not thread-safe;
+ * each thread must accumulate its own partial sketch.
+ *
+ * <p>Missing ({@code NaN}) values are ignored.
+ */
+public final class QuantileSketch implements DoubleConsumer {
+    private final double compression;
+
+    // Merged centroids, sorted by mean...
+    private double[] centroidMean;
+    private double[] centroidWeight;
+    private int centroidCount = 0;
+
+    // Values (with unit weight) added since the last merge...
+    private final double[] buffer;
+    private int bufferCount = 0;
+
+    private double totalWeight = 0.0;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * The default compression parameter.
+     */
+    public static final double DEFAULT_COMPRESSION = 200.0;
+
+    private QuantileSketch(double compression) {
+        if (compression < 10.0)
+            throw new IllegalArgumentException("Compression must be at least 10.");
+
+        this.compression = compression;
+
+        int capacity = 2 * (int) Math.ceil(compression) + 10;
+
+        this.centroidMean   = new double[capacity];
+        this.centroidWeight = new double[capacity];
+        this.buffer         = new double[5 * capacity];
+    }
+
+    /**
+     * Creates an empty sketch with the default compression.
+     *
+     * @return an empty sketch with the default compression.
+     */
+    public static QuantileSketch create() {
+        return create(DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Creates an empty sketch.
+     *
+     * @param compression the compression parameter, which bounds the
+     * number of centroids: larger values give more accurate estimates
+     * at the expense of memory and time.
+     *
+     * @return an empty sketch with the specified compression.
+     *
+     * @throws IllegalArgumentException if the compression is less
+     * than ten.
+     */
+    public static QuantileSketch create(double compression) {
+        return new QuantileSketch(compression);
+    }
+
+    /**
+     * Summarizes the values in an array.
+     *
+     * @param values the values to summarize.
+     *
+     * @return a sketch summarizing the values.
+     */
+    public static QuantileSketch compute(double... values) {
+        QuantileSketch sketch = create();
+        sketch.addAll(values);
+        return sketch;
+    }
+
+    /**
+     * Summarizes the values in a stream, which may be parallel.
+     *
+     * @param values the values to summarize.
+     *
+     * @return a sketch summarizing the values.
+     */
+    public static QuantileSketch compute(DoubleStream values) {
+        return values.collect(QuantileSketch::create, QuantileSketch::add, QuantileSketch::combine);
+    }
+
+    /**
+     * Adds a value to this sketch.
+     *
+     * @param value the value to add.
+     */
+    public void add(double value) {
+        if (Double.isNaN(value))
+            return;
+
+        if (bufferCount == buffer.length)
+            mergeBuffer();
+
+        buffer[bufferCount++] = value;
+        totalWeight += 1.0;
+
+        if (value < min)
+            min = value;
+
+        if (value > max)
+            max = value;
+    }
+
+    /**
+     * Adds a value to this sketch.
+     *
+     * @param value the value to add.
+     */
+    @Override public void accept(double value) {
+        add(value);
+    }
+
+    /**
+     * Adds an array of values to this sketch.
+     *
+     * @param values the values to add.
+     */
+    public void addAll(double... values) {
+        for (double value : values)
+            add(value);
+    }
+
+    /**
+     * Merges another sketch into this sketch.  The data summarized by
+     * the other sketch is unchanged, although its internal state may
+     * be compacted.
+     *
+     * @param that the sketch to merge.
+     *
+     * @return this sketch, now summarizing the combined data.
+     */
+    public QuantileSketch combine(QuantileSketch that) {
+        this.mergeBuffer();
+        that.mergeBuffer();
+
+        int n1 = this.centroidCount;
+        int n2 = that.centroidCount;
+
+        double[] means   = new double[n1 + n2];
+        double[] weights = new double[n1 + n2];
+
+        mergeSorted(this.centroidMean, this.centroidWeight, n1,
+                    that.centroidMean, that.centroidWeight, n2,
+                    means, weights);
+
+        this.totalWeight += that.totalWeight;
+        this.min = Math.min(this.min, that.min);
+        this.max = Math.max(this.max, that.max);
+
+        compress(means, weights);
+        return this;
+    }
+
+    private void mergeBuffer() {
+        if (bufferCount == 0)
+            return;
+
+        Arrays.sort(buffer, 0, bufferCount);
+
+        double[] unitWeights = new double[bufferCount];
+        Arrays.fill(unitWeights, 1.0);
+
+        double[] means   = new double[centroidCount + bufferCount];
+        double[] weights = new double[centroidCount + bufferCount];
+
+        mergeSorted(centroidMean, centroidWeight, centroidCount,
+                    buffer, unitWeights, bufferCount,
+                    means, weights);
+
+        bufferCount = 0;
+        compress(means, weights);
+    }
+
+    private static void mergeSorted(double[] means1, double[] weights1, int n1,
+                                    double[] means2, double[] weights2, int n2,
+                                    double[] means,  double[] weights) {
+        int i1 = 0;
+        int i2 = 0;
+
+        for (int k = 0; k < n1 + n2; ++k) {
+            if (i2 == n2 || (i1 < n1 && means1[i1] <= means2[i2])) {
+                means[k]   = means1[i1];
+                weights[k] = weights1[i1];
+                ++i1;
+            }
+            else {
+                means[k]   = means2[i2];
+                weights[k] = weights2[i2];
+                ++i2;
+            }
+        }
+    }
+
+    private void compress(double[] means, double[] weights) {
+        if (means.length == 0)
+            return;
+
+        // Sweep the sorted centroids from left to right, absorbing
+        // each centroid into its predecessor until the combined
+        // weight would exceed the limit imposed by the scale function
+        // at the quantile position of the predecessor...
+        double weightSoFar = 0.0;
+        double weightLimit = totalWeight * limitQuantile(0.0);
+
+        int count = 0;
+        double curMean   = means[0];
+        double curWeight = weights[0];
+
+        for (int k = 1; k < means.length; ++k) {
+            if (weightSoFar + curWeight + weights[k] <= weightLimit) {
+                curWeight += weights[k];
+                curMean   += (means[k] - curMean) * weights[k] / curWeight;
+            }
+            else {
+                count = store(count, curMean, curWeight);
+
+                weightSoFar += curWeight;
+                weightLimit  = totalWeight * limitQuantile(weightSoFar / totalWeight);
+
+                curMean   = means[k];
+                curWeight = weights[k];
+            }
+        }
+
+        centroidCount = store(count, curMean, curWeight);
+    }
+
+    private int store(int index, double mean, double weight) {
+        if (index == centroidMean.length) {
+            centroidMean   = Arrays.copyOf(centroidMean,   2 * index);
+            centroidWeight = Arrays.copyOf(centroidWeight, 2 * index);
+        }
+
+        centroidMean[index]   = mean;
+        centroidWeight[index] = weight;
+
+        return index + 1;
+    }
+
+    private double limitQuantile(double q) {
+        //
+        // The quantile position one unit beyond "q" on the scale
+        // k(q) = (compression / 2 pi) asin(2q - 1)...
+        //
+        double k = compression * Math.asin(2.0 * q - 1.0) / (2.0 * Math.PI) + 1.0;
+
+        if (k >= 0.25 * compression)
+            return 1.0;
+        else
+            return 0.5 * (Math.sin(2.0 * Math.PI * k / compression) + 1.0);
+    }
+
+    /**
+     * Estimates a quantile of the summarized data.
+     *
+     * @param quantile the desired quantile location.
+     *
+     * @return an estimate of the specified quantile, or {@code
+     * Double.NaN} if this sketch is empty.
+     *
+     * @throws IllegalArgumentException unless the quantile is in the
+     * valid range {@code [0, 1]}.
+     */
+    public double quantile(double quantile) {
+        Probability.validate(quantile);
+        mergeBuffer();
+
+        if (centroidCount == 0)
+            return Double.NaN;
+
+        if (centroidCount == 1)
+            return centroidMean[0];
+
+        // The centroids are treated as point masses located at their
+        // means, with the minimum and maximum as fixed end points;
+        // the estimate is interpolated linearly in rank between the
+        // centers of adjacent centroids...
+        double index = quantile * totalWeight;
+        int    last  = centroidCount - 1;
+
+        if (index < 1.0)
+            return min;
+
+        if (index > totalWeight - 1.0)
+            return max;
+
+        double half0 = 0.5 * centroidWeight[0];
+
+        if (index < half0)
+            return min + (index - 1.0) / (half0 - 1.0) * (centroidMean[0] - min);
+
+        double halfN = 0.5 * centroidWeight[last];
+
+        if (totalWeight - index < halfN)
+            return max - (totalWeight - index - 1.0) / (halfN - 1.0) * (max - centroidMean[last]);
+
+        double weightSoFar = half0;
+
+        for (int k = 0; k < last; ++k) {
+            double delta = 0.5 * (centroidWeight[k] + centroidWeight[k + 1]);
+
+            if (weightSoFar + delta > index) {
+                double frac = (index - weightSoFar) / delta;
+                return centroidMean[k] + frac * (centroidMean[k + 1] - centroidMean[k]);
+            }
+
+            weightSoFar += delta;
+        }
+
+        return centroidMean[last];
+    }
+
+    /**
+     * Estimates quantiles of the summarized data.
+     *
+     * @param quantiles the desired quantile locations.
+     *
+     * @return estimates of the specified quantiles.
+     *
+     * @throws IllegalArgumentException unless all quantiles are in
+     * the valid range {@code [0, 1]}.
+     */
+    public double[] quantile(double... quantiles) {
+        double[] result = new double[quantiles.length];
+
+        for (int k = 0; k < quantiles.length; ++k)
+            result[k] = quantile(quantiles[k]);
+
+        return result;
+    }
+
+    /**
+     * Estimates the cumulative distribution function of the
+     * summarized data: the fraction of values less than or equal to
+     * a given value.
+     *
+     * @param x the value at which to evaluate the distribution.
+     *
+     * @return an estimate of the cumulative distribution function at
+     * the specified value, or {@code Double.NaN} if this sketch is
+     * empty.
+     */
+    public double cdf(double x) {
+        mergeBuffer();
+
+        if (centroidCount == 0)
+            return Double.NaN;
+
+        if (x < min)
+            return 0.0;
+
+        if (x >= max)
+            return 1.0;
+
+        int last = centroidCount - 1;
+
+        // Interpolate the rank linearly between the end points and
+        // the centers of adjacent centroids, mirroring the quantile
+        // estimate...
+        if (x < centroidMean[0]) {
+            double width = centroidMean[0] - min;
+            return 0.5 * centroidWeight[0] * (x - min) / width / totalWeight;
+        }
+
+        if (x >= centroidMean[last]) {
+            double width = max - centroidMean[last];
+            double halfN = 0.5 * centroidWeight[last];
+            return 1.0 - halfN * (max - x) / width / totalWeight;
+        }
+
+        double weightSoFar = 0.5 * centroidWeight[0];
+
+        for (int k = 0; k < last; ++k) {
+            double delta = 0.5 * (centroidWeight[k] + centroidWeight[k + 1]);
+
+            if (x < centroidMean[k + 1]) {
+                double width = centroidMean[k + 1] - centroidMean[k];
+                double frac  = (width > 0.0) ? (x - centroidMean[k]) / width : 0.5;
+
+                return (weightSoFar + frac * delta) / totalWeight;
+            }
+
+            weightSoFar += delta;
+        }
+
+        return 1.0;
+    }
+
+    /**
+     * Returns the number of (non-missing) values summarized by this
+     * sketch.
+     *
+     * @return the number of (non-missing) values summarized by this
+     * sketch.
+     */
+    public long size() {
+        return Math.round(totalWeight);
+    }
+
+    /**
+     * Returns the smallest value summarized by this sketch.
+     *
+     * @return the smallest value summarized by this sketch, or
+     * {@code Double.POSITIVE_INFINITY} if this sketch is empty.
+     */
+    public double min() {
+        return min;
+    }
+
+    /**
+     * Returns the largest value summarized by this sketch.
+     *
+     * @return the largest value summarized by this sketch, or
+     * {@code Double.NEGATIVE_INFINITY} if this sketch is empty.
+     */
+    public double max() {
+        return max;
+    }
+
+    /**
+     * Returns the number of centroids currently used to summarize the
+     * data (a measure of the memory footprint).
+     *
+     * @return the number of centroids currently used to summarize the
+     * data.
+     */
+    public int countCentroids() {
+        mergeBuffer();
+        return centroidCount;
+    }
+}
@@ -0,0 +1,272 @@
+package jam.math;
+
+/**
+ * Generates points distributed uniformly on the surface of the unit
+ * hypersphere {@code S^{n-1}} or within the unit ball in {@code n}
+ * dimensions, in bulk and without allocating a vector per point.
+ *
+ * <p>Points are written into flat {@code double[]} buffers with the
+ * coordinates of each point stored contiguously: point {@code k} in
+ * {@code n} dimensions occupies elements {@code [offset + k * n,
+ * offset + (k + 1) * n)}.
+ *
+ * <p>In two dimensions, directions are generated by the method of von
+ * Neumann: a point {@code (u, v)} is selected uniformly from the unit
+ * disk and mapped to {@code ((u^2 - v^2) / s, 2 u v / s)}, where
+ * {@code s = u^2 + v^2}, which requires no trigonometric functions or
+ * square roots.  In three dimensions, directions are generated by the
+ * method of Marsaglia (Ann. Math. Stat. 43, 645 (1972)), which maps a
+ * point from the unit disk to {@code (2 u sqrt(1 - s), 2 v sqrt(1 -
+ * s), 1 - 2 s)}.  Both methods consume two uniform deviates per trial
+ * and accept a fraction {@code pi / 4} of trials.  In higher
+ * dimensions, directions are normalized vectors of independent
+ * Gaussian deviates.  Points within balls are points on the sphere
+ * scaled by {@code U^{1/n}}, where {@code U} is a uniform deviate,
+ * except in two dimensions, where points are selected from the unit
+ * disk directly.
+ */
+public final class RandomDirection {
+    private RandomDirection() {}
+
+    /**
+     * Generates a single random direction.
+     *
+     * @param source the random number source.
+     *
+     * @param dim the dimensionality of the space.
+     *
+     * @return a new unit vector of length {@code dim} pointing in a
+     * random direction.
+     *
+     * @throws IllegalArgumentException unless the dimensionality is
+     * positive.
+     */
+    public static double[] sphere(JamRandom source, int dim) {
+        return sphere(source, dim, 1);
+    }
+
+    /**
+     * Generates random points on the surface of the unit hypersphere.
+     *
+     * @param source the random number source.
+     *
+     * @param dim the dimensionality of the space.
+     *
+     * @param count the number of points to generate.
+     *
+     * @return a new array of length {@code dim * count} containing
+     * the coordinates of the points (stored contiguously).
+     *
+     * @throws IllegalArgumentException unless the dimensionality is
+     * positive and the count is non-negative.
+     */
+    public static double[] sphere(JamRandom source, int dim, int count) {
+        double[] buffer = new double[validateLength(dim, count)];
+        sphere(source, dim, buffer, 0, count);
+        return buffer;
+    }
+
+    /**
+     * Generates random points on the surface of the unit hypersphere
+     * and stores them in an existing buffer.
+     *
+     * @param source the random number source.
+     *
+     * @param dim the dimensionality of the space.
+     *
+     * @param buffer the buffer to hold the coordinates.
+     *
+     * @param offset the index in the buffer of the first coordinate
+     * of the first point.
+     *
+     * @param count the number of points to generate.
+     *
+     * @throws IllegalArgumentException unless the dimensionality is
+     * positive and the count is non-negative.
+     *
+     * @throws IndexOutOfBoundsException unless the buffer has room
+     * for all points.
+     */
+    public static void sphere(JamRandom source, int dim, double[] buffer, int offset, int count) {
+        validateBuffer(dim, buffer, offset, count);
+
+        switch (dim) {
+        case 1:
+            sphere1(source, buffer, offset, count);
+            break;
+
+        case 2:
+            sphere2(source, buffer, offset, count);
+            break;
+
+        case 3:
+            sphere3(source, buffer, offset, count);
+            break;
+
+        default:
+            sphereN(source, dim, buffer, offset, count);
+        }
+    }
+
+    /**
+     * Generates random points within the unit ball.
+     *
+     * @param source the random number source.
+     *
+     * @param dim the dimensionality of the space.
+     *
+     * @param count the number of points to generate.
+     *
+     * @return a new array of length {@code dim * count} containing
+     * the coordinates of the points (stored contiguously).
+     *
+     * @throws IllegalArgumentException unless the dimensionality is
+     * positive and the count is non-negative.
+     */
+    public static double[] ball(JamRandom source, int dim, int count) {
+        double[] buffer = new double[validateLength(dim, count)];
+        ball(source, dim, buffer, 0, count);
+        return buffer;
+    }
+
+    /**
+     * Generates random points within the unit ball and stores them
+     * in an existing buffer.
+     *
+     * @param source the random number source.
+     *
+     * @param dim the dimensionality of the space.
+     *
+     * @param buffer the buffer to hold the coordinates.
+     *
+     * @param offset the index in the buffer of the first coordinate
+     * of the first point.
+     *
+     * @param count the number of points to generate.
+     *
+     * @throws IllegalArgumentException unless the dimensionality is
+     * positive and the count is non-negative.
+     *
+     * @throws IndexOutOfBoundsException unless the buffer has room
+     * for all points.
+     */
+    public static void ball(JamRandom source, int dim, double[] buffer, int offset, int count) {
+        validateBuffer(dim, buffer, offset, count);
+
+        if (dim == 2) {
+            disk(source, buffer, offset, count);
+            return;
+        }
+
+        sphere(source, dim, buffer, offset, count);
+
+        double exponent = 1.0 / dim;
+
+        for (int point = 0, index = offset; point < count; ++point) {
+            double scale = Math.pow(source.nextDouble(), exponent);
+
+            for (int coord = 0; coord < dim; ++coord, ++index)
+                buffer[index] *= scale;
+        }
+    }
+
+    private static int validateLength(int dim, int count) {
+        if (dim < 1)
+            throw new IllegalArgumentException("Dimensionality must be positive.");
+
+        if (count < 0)
+            throw new IllegalArgumentException("Point count must be non-negative.");
+
+        long length = (long) dim * (long) count;
+
+        if (length > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Too many points for a single buffer.");
+
+        return (int) length;
+    }
+
+    private static void validateBuffer(int dim, double[] buffer, int offset, int count) {
+        int length = validateLength(dim, count);
+
+        if (offset < 0 || offset > buffer.length - length)
+            throw new IndexOutOfBoundsException("Buffer too small for the requested points.");
+    }
+
+    private static void sphere1(JamRandom source, double[] buffer, int offset, int count) {
+        for (int index = offset; index < offset + count; ++index)
+            buffer[index] = source.nextBoolean() ? 1.0 : -1.0;
+    }
+
+    private static void sphere2(JamRandom source, double[] buffer, int offset, int count) {
+        for (int index = offset; index < offset + 2 * count; index += 2) {
+            double u;
+            double v;
+            double s;
+
+            do {
+                u = 2.0 * source.nextDouble() - 1.0;
+                v = 2.0 * source.nextDouble() - 1.0;
+                s = u * u + v * v;
+            } while (s >= 1.0 || s == 0.0);
+
+            buffer[index]     = (u * u - v * v) / s;
+            buffer[index + 1] = 2.0 * u * v / s;
+        }
+    }
+
+    private static void sphere3(JamRandom source, double[] buffer, int offset, int count) {
+        for (int index = offset; index < offset + 3 * count; index += 3) {
+            double u;
+            double v;
+            double s;
+
+            do {
+                u = 2.0 * source.nextDouble() - 1.0;
+                v = 2.0 * source.nextDouble() - 1.0;
+                s = u * u + v * v;
+            } while (s >= 1.0);
+
+            double scale = 2.0 * Math.sqrt(1.0 - s);
+
+            buffer[index]     = scale * u;
+            buffer[index + 1] = scale * v;
+            buffer[index + 2] = 1.0 - 2.0 * s;
+        }
+    }
+
+    private static void sphereN(JamRandom source, int dim, double[] buffer, int offset, int count) {
+        for (int index = offset; index < offset + dim * count; index += dim) {
+            double norm2 = 0.0;
+
+            // The norm vanishes with negligible probability, but a
+            // zero vector cannot be normalized...
+            while (norm2 == 0.0) {
+                for (int coord = index; coord < index + dim; ++coord) {
+                    double x = source.nextGaussian();
+                    buffer[coord] = x;
+                    norm2 += x * x;
+                }
+            }
+
+            double scale = 1.0 / Math.sqrt(norm2);
+
+            for (int coord = index; coord < index + dim; ++coord)
+                buffer[coord] *= scale;
+        }
+    }
+
+    private static void disk(JamRandom source, double[] buffer, int offset, int count) {
+        for (int index = offset; index < offset + 2 * count; index += 2) {
+            double u;
+            double v;
+
+            do {
+                u = 2.0 * source.nextDouble() - 1.0;
+                v = 2.0 * source.nextDouble() - 1.0;
+            } while (u * u + v * v >= 1.0);
+
+            buffer[index]     = u;
+            buffer[index + 1] = v;
+        }
+    }
+}
@@ -4,6 +4,8 @@ package jam.math;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.DoubleStream;
 
 import com.google.common.collect.Multiset;
 
@@ -15,6 +17,15 @@ import jam.vector.VectorView;
 
 /**
  * Computes and stores summary statistics for univariate data.
+ *
+ * <p>Summaries of arrays, collections, and vectors are exact.  A
+ * summary of a single-use {@code DoubleStream} is computed in bounded
+ * memory, so its median, quartiles, and median absolute deviation
+ * are approximate (estimated from a {@link QuantileSketch}); the size,
+ * extreme values, mean, and standard deviation are exact.  A summary
+ * of a repeatable stream (a {@code Supplier<DoubleStream>}) is exact
+ * and also uses bounded memory, at the cost of several passes over
+ * the data (see {@link StreamQuantile}).
  */
 public final class StatSummary {
     private final int size;
@@ -171,6 +182,129 @@ public final class StatSummary {
         return new StatSummary(size, min, max, mean, SD, median, MAD, quartile1, quartile3);
     }
 
+    /**
+     * Creates univariate summary statistics for a stream of data,
+     * which may be parallel, in bounded memory.
+     *
+     * <p>The median, quartiles, and median absolute deviation are
+     * approximate: they are estimated from a {@link QuantileSketch}
+     * with the default compression rather than computed exactly (see
+     * {@link StatSummaryAccumulator}).  The sketch does not guarantee
+     * a worst-case error, but the rank error of a quantile estimate
+     * {@code q} (the difference between {@code q} and the fraction of
+     * values below the estimate) is typically about {@code 1.0E-04}
+     * and is verified in the unit tests to be within {@code 0.005
+     * sqrt(q (1 - q))}: {@code 0.0025} for the median and {@code
+     * 0.0022} for the quartiles.  The median absolute deviation is
+     * derived from the sketch and carries a rank error of the same
+     * order.  Use {@link #compute(Supplier)} when exact values are
+     * required and the data can be streamed more than once.
+     *
+     * @param values the univariate sample data.
+     *
+     * @return the new summary object.
+     *
+     * @throws IllegalArgumentException unless there is at least one
+     * data value.
+     */
+    public static StatSummary compute(DoubleStream values) {
+        StatSummaryAccumulator accumulator = StatSummaryAccumulator.compute(values);
+
+        if (accumulator.count() < 1)
+            throw new IllegalArgumentException("At least one value required.");
+
+        return accumulator.summarize();
+    }
+
+    /**
+     * Creates exact univariate summary statistics for a data set that
+     * is too large to hold in memory but can be streamed repeatedly.
+     *
+     * <p>The summary is identical (up to floating-point round-off in
+     * the mean and standard deviation) to that computed from an array
+     * holding the same data, but the memory required is bounded: the
+     * median, quartiles, and median absolute deviation are selected
+     * exactly by a {@link StreamQuantile}, which makes several passes
+     * over the data.
+     *
+     * @param source a supplier of streams over the univariate sample
+     * data; each stream must contain the same values.
+     *
+     * @return the new summary object.
+     *
+     * @throws IllegalArgumentException unless there is at least one
+     * data value.
+     *
+     * @throws IllegalStateException if the data changes between
+     * passes.
+     */
+    public static StatSummary compute(Supplier<DoubleStream> source) {
+        StatSummaryAccumulator accumulator = StatSummaryAccumulator.compute(source.get());
+
+        if (accumulator.count() < 1)
+            throw new IllegalArgumentException("At least one value required.");
+
+        if (accumulator.count() > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Too many values to summarize.");
+
+        QuantileSketch sketch   = accumulator.sketch();
+        StreamQuantile quantile = new StreamQuantile(source, sketch, StreamQuantile.DEFAULT_CAPACITY);
+
+        int    size      = (int) accumulator.count();
+        double min       = sketch.min();
+        double max       = sketch.max();
+        double mean      = accumulator.mean();
+        double SD        = accumulator.sd();
+        double median    = quantile.evaluate(0.5);
+        double quartile1 = quantile.evaluate(0.25);
+        double quartile3 = quantile.evaluate(0.75);
+
+        StreamQuantile absdev =
+            StreamQuantile.create(() -> source.get().map(x -> Math.abs(x - median)));
+
+        double MAD = StatUtil.MAD_CONSTANT * absdev.median();
+
+        return new StatSummary(size, min, max, mean, SD, median, MAD, quartile1, quartile3);
+    }
+
+    static StatSummary create(QuantileSketch sketch, double mean, double SD) {
+        int    size      = (int) sketch.size();
+        double min       = sketch.min();
+        double max       = sketch.max();
+        double median    = sketch.quantile(0.5);
+        double MAD       = sketchMAD(sketch, median);
+        double quartile1 = sketch.quantile(0.25);
+        double quartile3 = sketch.quantile(0.75);
+
+        return new StatSummary(size, min, max, mean, SD, median, MAD, quartile1, quartile3);
+    }
+
+    private static double sketchMAD(QuantileSketch sketch, double median) {
+        //
+        // The median absolute deviation is the half-width "d" of the
+        // interval [median - d, median + d] containing one half of
+        // the data, found by bisection on the estimated CDF...
+        //
+        double lower = 0.0;
+        double upper = Math.max(sketch.max() - median, median - sketch.min());
+
+        for (int iter = 0; iter < 100 && lower < upper; ++iter) {
+            double width = 0.5 * (lower + upper);
+
+            if (width <= lower || width >= upper)
+                break;
+
+            double mass = sketch.cdf(median + width) - sketch.cdf(median - width);
+
+            if (mass < 0.5)
+                lower = width;
+            else
+                upper = width;
+        }
+
+        return StatUtil.MAD_CONSTANT * 0.5 * (lower + upper);
+    }
+
     /**
      * Formats this summary into a comma-delimited string.
      *
@@ -0,0 +1,190 @@
+package jam.math;
+
+import java.util.function.DoubleConsumer;
+import java.util.stream.DoubleStream;
+
+/**
+ * Accumulates univariate summary statistics for a stream of numeric
+ * data in bounded memory.
+ *
+ * <p>The mean and standard deviation are accumulated exactly (with
+ * Welford updates); the median, quartiles, and median absolute
+ * deviation are estimated from a {@link QuantileSketch}.  The memory
+ * required is independent of the number of values, so summaries of
+ * billions of values fit in a few tens of kilobytes.  The estimates
+ * are approximate (see {@link StatSummary#compute(DoubleStream)} for
+ * their rank error); when the data can be streamed more than once,
+ * {@link StatSummary#compute(java.util.function.Supplier)} computes
+ * them exactly in bounded memory.
+ *
+ * <p>Accumulators are mergeable: separate portions of a data set may
+ * be summarized independently (e.g., in parallel) and then combined.
+ * Instances are not thread-safe; each thread must accumulate its own
+ * partial summary.
+ *
+ * <p>Missing ({@code NaN}) values are ignored.
+ */
+public final class StatSummaryAccumulator implements DoubleConsumer {
+    private final QuantileSketch sketch;
+
+    private long   count = 0;
+    private double mean  = 0.0;
+    private double M2    = 0.0;
+
+    private StatSummaryAccumulator(QuantileSketch sketch) {
+        this.sketch = sketch;
+    }
+
+    /**
+     * Creates an empty accumulator using a quantile sketch with the
+     * default compression.
+     *
+     * @return an empty accumulator.
+     */
+    public static StatSummaryAccumulator create() {
+        return new StatSummaryAccumulator(QuantileSketch.create());
+    }
+
+    /**
+     * Creates an empty accumulator.
+     *
+     * @param compression the compression parameter for the quantile
+     * sketch.
+     *
+     * @return an empty accumulator.
+     *
+     * @throws IllegalArgumentException if the compression is less
+     * than ten.
+     */
+    public static StatSummaryAccumulator create(double compression) {
+        return new StatSummaryAccumulator(QuantileSketch.create(compression));
+    }
+
+    /**
+     * Accumulates the values in a stream, which may be parallel.
+     *
+     * @param values the values to summarize.
+     *
+     * @return an accumulator containing the values.
+     */
+    public static StatSummaryAccumulator compute(DoubleStream values) {
+        return values.collect(StatSummaryAccumulator::create,
+                              StatSummaryAccumulator::add,
+                              StatSummaryAccumulator::combine);
+    }
+
+    /**
+     * Adds a value to this accumulator.
+     *
+     * @param value the value to add.
+     */
+    public void add(double value) {
+        if (Double.isNaN(value))
+            return;
+
+        ++count;
+
+        double delta = value - mean;
+        mean += delta / count;
+        M2   += delta * (value - mean);
+
+        sketch.add(value);
+    }
+
+    /**
+     * Adds a value to this accumulator.
+     *
+     * @param value the value to add.
+     */
+    @Override public void accept(double value) {
+        add(value);
+    }
+
+    /**
+     * Adds an array of values to this accumulator.
+     *
+     * @param values the values to add.
+     */
+    public void addAll(double... values) {
+        for (double value : values)
+            add(value);
+    }
+
+    /**
+     * Merges another accumulator into this accumulator.
+     *
+     * @param that the accumulator to merge.
+     *
+     * @return this accumulator, now containing the combined data.
+     */
+    public StatSummaryAccumulator combine(StatSummaryAccumulator that) {
+        if (that.count == 0)
+            return this;
+
+        long   total = this.count + that.count;
+        double delta = that.mean - this.mean;
+
+        this.mean += delta * that.count / total;
+        this.M2   += that.M2 + delta * delta * ((double) this.count * that.count / total);
+        this.count = total;
+
+        sketch.combine(that.sketch);
+        return this;
+    }
+
+    /**
+     * Returns the number of (non-missing) values accumulated.
+     *
+     * @return the number of (non-missing) values accumulated.
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Returns the mean of the accumulated values.
+     *
+     * @return the mean of the accumulated values, or {@code
+     * Double.NaN} if there are none.
+     */
+    public double mean() {
+        return (count > 0) ? mean : Double.NaN;
+    }
+
+    /**
+     * Returns the standard deviation of the accumulated values.
+     *
+     * @return the standard deviation of the accumulated values, or
+     * {@code Double.NaN} if there are fewer than two.
+     */
+    public double sd() {
+        return (count > 1) ? Math.sqrt(M2 / (count - 1)) : Double.NaN;
+    }
+
+    /**
+     * Returns the quantile sketch for the accumulated values.
+     *
+     * @return the quantile sketch for the accumulated values.
+     */
+    public QuantileSketch sketch() {
+        return sketch;
+    }
+
+    /**
+     * Creates a summary of the values accumulated so far.
+     *
+     * @return a summary of the values accumulated so far.
+     *
+     * @throws IllegalStateException if there are no values, or more
+     * values than a summary can count ({@code Integer.MAX_VALUE}).
+     */
+    public StatSummary summarize() {
+        if (count < 1)
+            throw new IllegalStateException("At least one value required.");
+
+        if (count > Integer.MAX_VALUE)
+            throw new IllegalStateException("Too many values to summarize.");
+
+        return StatSummary.create(sketch, mean(), sd());
+    }
+}
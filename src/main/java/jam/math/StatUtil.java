@@ -148,15 +148,15 @@ public final class StatUtil {
      */
     public static double mean(VectorView values) {
         int count = 0;
-        double sumval = 0.0;
+        CompensatedSum sumval = new CompensatedSum();
 
         for (double value : values.elements())
             if (!Double.isNaN(value)) {
                 count++;
-                sumval += value;
+                sumval.add(value);
             }
 
-        return sumval / count;
+        return sumval.sum() / count;
     }
 
     /**
@@ -496,7 +496,8 @@ public final class StatUtil {
 
     /**
      * Computes the sum of a numerical sequence, ignoring missing
-     * values.
+     * values, with compensation for round-off error (see
+     * {@link CompensatedSum}).
      *
      * @param values the values to examine.
      *
@@ -504,13 +505,13 @@ public final class StatUtil {
      * {@code 0.0} if there are no non-missing values in the sequence.
      */
     public static double sum(VectorView values) {
-        double result = 0.0;
+        CompensatedSum result = new CompensatedSum();
 
         for (double value : values.elements())
             if (!Double.isNaN(value))
-                result += value;
+                result.add(value);
 
-        return result;
+        return result.sum();
     }
 
     /**
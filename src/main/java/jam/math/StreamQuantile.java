@@ -0,0 +1,369 @@
+package jam.math;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+import java.util.stream.DoubleStream;
+
+/**
+ * Computes exact quantiles of data sets too large to hold in memory
+ * by selection over several passes through a repeatable stream.
+ *
+ * <p>The first pass summarizes the data in a {@link QuantileSketch}.
+ * Each refinement then divides the range of values that must contain
+ * the target order statistic into buckets at the quantiles estimated
+ * by the sketch (so the buckets are roughly equally populated),
+ * counts the values in each bucket exactly, narrows the range to the
+ * bucket containing the target rank, and sketches the values in the
+ * narrowed range.  Once the range holds no more values than the
+ * capacity, those values are collected and sorted and the order
+ * statistic is selected directly.  The bucket counts are exact, so
+ * the accuracy of the sketch affects only the number of passes, never
+ * the result: quantiles are identical to those computed by {@link
+ * Quantile} from the full data set.
+ *
+ * <p>The memory required is bounded by the capacity plus one sketch
+ * and one array of bucket counts, independent of the number of
+ * values.  Each refinement takes two passes and reduces the number of
+ * candidate values by a factor of roughly {@link #BUCKET_COUNT}, so
+ * with the default capacity a quantile of one billion values usually
+ * requires three to five passes.
+ *
+ * <p>The stream supplier must return a stream over the same values
+ * (in any order) each time it is called; the streams may be parallel.
+ * Missing ({@code NaN}) values are ignored.
+ */
+public final class StreamQuantile {
+    private final Supplier<DoubleStream> source;
+    private final QuantileSketch sketch;
+    private final int capacity;
+
+    /**
+     * The default maximum number of values collected for the final
+     * selection.
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 20;
+
+    /**
+     * The number of buckets into which each refinement divides the
+     * candidate values.
+     */
+    public static final int BUCKET_COUNT = 1024;
+
+    StreamQuantile(Supplier<DoubleStream> source, QuantileSketch sketch, int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Capacity must be positive.");
+
+        this.source = source;
+        this.sketch = sketch;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Creates a quantile calculator with the default capacity; the
+     * first pass over the data is made immediately.
+     *
+     * @param source a supplier of streams over the data.
+     *
+     * @return a quantile calculator for the data.
+     */
+    public static StreamQuantile create(Supplier<DoubleStream> source) {
+        return create(source, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a quantile calculator; the first pass over the data is
+     * made immediately.
+     *
+     * @param source a supplier of streams over the data.
+     *
+     * @param capacity the maximum number of values to collect for
+     * the final selection.
+     *
+     * @return a quantile calculator for the data.
+     *
+     * @throws IllegalArgumentException unless the capacity is
+     * positive.
+     */
+    public static StreamQuantile create(Supplier<DoubleStream> source, int capacity) {
+        return new StreamQuantile(source, QuantileSketch.compute(stream(source)), capacity);
+    }
+
+    private static DoubleStream stream(Supplier<DoubleStream> source) {
+        return source.get().filter(x -> !Double.isNaN(x));
+    }
+
+    /**
+     * Computes the location of a specified quantile, using the same
+     * definition as {@link Quantile#evaluate(double)}.
+     *
+     * @param quantile the desired quantile location.
+     *
+     * @return the specified quantile, or {@code Double.NaN} if there
+     * are no (non-missing) values.
+     *
+     * @throws IllegalArgumentException unless the quantile is in the
+     * valid range {@code (0, 1]}.
+     *
+     * @throws IllegalStateException if the data changes between
+     * passes.
+     */
+    public double evaluate(double quantile) {
+        if (quantile <= 0.0 || quantile > 1.0)
+            throw new IllegalArgumentException("Invalid quantile.");
+
+        long size = size();
+
+        if (size < 1)
+            return Double.NaN;
+
+        // Quantile delegates to the commons-math Percentile, which
+        // converts the quantile to a percentage and back; the same
+        // (possibly inexact) conversion yields identical results...
+        double pos = ((100.0 * quantile) / 100.0) * (size + 1);
+
+        if (pos < 1.0)
+            return sketch.min();
+
+        if (pos >= size)
+            return sketch.max();
+
+        long     rank  = (long) Math.floor(pos);
+        double[] pair  = select(rank - 1, rank);
+        double   delta = pos - rank;
+
+        return pair[0] + delta * (pair[1] - pair[0]);
+    }
+
+    /**
+     * Computes the locations of specified quantiles.
+     *
+     * @param quantiles the desired quantile locations.
+     *
+     * @return the specified quantiles.
+     *
+     * @throws IllegalArgumentException unless all quantiles are in
+     * the valid range {@code (0, 1]}.
+     *
+     * @throws IllegalStateException if the data changes between
+     * passes.
+     */
+    public double[] evaluate(double... quantiles) {
+        double[] result = new double[quantiles.length];
+
+        for (int k = 0; k < quantiles.length; k++)
+            result[k] = evaluate(quantiles[k]);
+
+        return result;
+    }
+
+    /**
+     * Computes the median, using the same definition as {@link
+     * StatUtil#median(jam.vector.VectorView)}.
+     *
+     * @return the median value, or {@code Double.NaN} if there are no
+     * (non-missing) values.
+     *
+     * @throws IllegalStateException if the data changes between
+     * passes.
+     */
+    public double median() {
+        long size = size();
+
+        if (size < 1)
+            return Double.NaN;
+
+        long mid = (size - 1) / 2;
+
+        if (size % 2 == 1)
+            return orderStatistic(mid);
+
+        double[] pair = select(mid, mid + 1);
+        return 0.5 * (pair[0] + pair[1]);
+    }
+
+    /**
+     * Returns an order statistic.
+     *
+     * @param rank the (zero-based) rank of the order statistic.
+     *
+     * @return the value with the specified rank.
+     *
+     * @throws IndexOutOfBoundsException unless the rank is valid.
+     *
+     * @throws IllegalStateException if the data changes between
+     * passes.
+     */
+    public double orderStatistic(long rank) {
+        if (rank < 0 || rank >= size())
+            throw new IndexOutOfBoundsException(String.format("Rank [%d] out of bounds: [0, %d).", rank, size()));
+
+        return select(rank, rank)[0];
+    }
+
+    /**
+     * Returns the number of (non-missing) values in the data set.
+     *
+     * @return the number of (non-missing) values in the data set.
+     */
+    public long size() {
+        return sketch.size();
+    }
+
+    /**
+     * Returns the quantile sketch computed in the first pass.
+     *
+     * @return the quantile sketch computed in the first pass.
+     */
+    public QuantileSketch sketch() {
+        return sketch;
+    }
+
+    // The closed range [lower, upper] of candidate values, the number
+    // of values below the range, and the number within the range...
+    private static final class Bracket {
+        final double lower;
+        final double upper;
+        final long below;
+        final long size;
+
+        Bracket(double lower, double upper, long below, long size) {
+            this.lower = lower;
+            this.upper = upper;
+            this.below = below;
+            this.size  = size;
+        }
+
+        boolean contains(double x) {
+            return lower <= x && x <= upper;
+        }
+    }
+
+    // Selects the consecutive order statistics with ranks first
+    // through last (where last is at most first + 1)...
+    private double[] select(long first, long last) {
+        return select(new Bracket(sketch.min(), sketch.max(), 0, size()), sketch, first, last);
+    }
+
+    private double[] select(Bracket bracket, QuantileSketch bracketSketch, long first, long last) {
+        while (true) {
+            if (bracket.lower == bracket.upper) {
+                double[] result = new double[(int) (last - first + 1)];
+                Arrays.fill(result, bracket.lower);
+                return result;
+            }
+
+            if (bracket.size <= capacity)
+                return collect(bracket, first, last);
+
+            if (bracketSketch == null) {
+                //
+                // The minimum and maximum recorded by the sketch are
+                // exact, so the range may be tightened to them...
+                //
+                bracketSketch = QuantileSketch.compute(stream(source).filter(bracket::contains));
+                validateSize(bracket, bracketSketch.size());
+
+                bracket = new Bracket(bracketSketch.min(), bracketSketch.max(), bracket.below, bracket.size);
+                continue;
+            }
+
+            double[] edges  = bucketEdges(bracket, bracketSketch);
+            long[]   counts = countBuckets(bracket, edges);
+
+            Bracket firstBracket = locate(bracket, edges, counts, first);
+            Bracket lastBracket  = locate(bracket, edges, counts, last);
+
+            if (firstBracket.lower != lastBracket.lower) {
+                //
+                // The target ranks lie in different buckets and must
+                // be selected separately...
+                //
+                return new double[] {
+                    select(firstBracket, null, first, first)[0],
+                    select(lastBracket, null, last, last)[0]
+                };
+            }
+
+            bracket = firstBracket;
+            bracketSketch = null;
+        }
+    }
+
+    private double[] collect(Bracket bracket, long first, long last) {
+        double[] values = stream(source).filter(bracket::contains).toArray();
+        validateSize(bracket, values.length);
+
+        Arrays.sort(values);
+        return Arrays.copyOfRange(values, (int) (first - bracket.below), (int) (last - bracket.below + 1));
+    }
+
+    private static void validateSize(Bracket bracket, long size) {
+        if (size != bracket.size)
+            throw new IllegalStateException("The data changed between passes.");
+    }
+
+    // Bucket k contains the values in [edges[k], edges[k + 1]); the
+    // last bucket contains only the upper bound of the range, so
+    // every bucket excludes some value in the range...
+    private static double[] bucketEdges(Bracket bracket, QuantileSketch bracketSketch) {
+        double[] edges = new double[BUCKET_COUNT + 1];
+        int count = 0;
+
+        edges[count++] = bracket.lower;
+
+        for (int k = 1; k < BUCKET_COUNT; ++k) {
+            double edge = bracketSketch.quantile(((double) k) / BUCKET_COUNT);
+
+            if (edge > edges[count - 1] && edge < bracket.upper)
+                edges[count++] = edge;
+        }
+
+        edges[count++] = bracket.upper;
+        return Arrays.copyOf(edges, count);
+    }
+
+    private long[] countBuckets(Bracket bracket, double[] edges) {
+        long[] counts =
+            stream(source).filter(bracket::contains).collect(() -> new long[edges.length],
+                                                              (c, x) -> ++c[bucketIndex(edges, x)],
+                                                              StreamQuantile::addCounts);
+
+        long total = 0;
+
+        for (long count : counts)
+            total += count;
+
+        validateSize(bracket, total);
+        return counts;
+    }
+
+    private static int bucketIndex(double[] edges, double x) {
+        int index = Arrays.binarySearch(edges, x);
+
+        if (index >= 0)
+            return index;
+        else
+            return -index - 2;
+    }
+
+    private static void addCounts(long[] counts, long[] other) {
+        for (int k = 0; k < counts.length; ++k)
+            counts[k] += other[k];
+    }
+
+    private static Bracket locate(Bracket bracket, double[] edges, long[] counts, long rank) {
+        long below = bracket.below;
+        int  last  = edges.length - 1;
+
+        for (int k = 0; k < counts.length; ++k) {
+            if (rank < below + counts[k]) {
+                double upper = (k < last) ? Math.nextDown(edges[k + 1]) : bracket.upper;
+                return new Bracket(edges[k], upper, below, counts[k]);
+            }
+
+            below += counts[k];
+        }
+
+        throw new IllegalStateException("The data changed between passes.");
+    }
+}
@@ -1,6 +1,7 @@
 
 package jam.math;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.function.Function;
@@ -50,7 +51,14 @@ public final class VectorMoment {
      * vector and all vectors have the same dimensionality.
      */
     public static VectorMoment compute(Collection<? extends VectorView> vectors) {
-        return compute(vectors.toArray(new VectorView[vectors.size()]));
+        if (vectors.isEmpty())
+            throw new IllegalArgumentException("At least one vector is required.");
+
+        return compute(VectorStatistics.compute(vectors, true));
+    }
+
+    private static VectorMoment compute(VectorStatistics stats) {
+        return new VectorMoment(stats.mean(), stats.populationCovariance());
     }
     
     /**
@@ -87,41 +95,7 @@ public final class VectorMoment {
      * vector and all vectors have the same dimensionality.
      */
     public static VectorMoment compute(VectorView... vectors) {
-        if (vectors.length < 1)
-            throw new IllegalArgumentException("At least one vector is required.");
-
-        JamVector CM = computeCM(vectors);
-        JamMatrix RG = computeRG(vectors, CM);
-
-        return new VectorMoment(CM, RG);
-    }
-
-    private static JamVector computeCM(VectorView[] vectors) {
-        int D = vectors[0].length();
-        JamVector CM = JamVector.zeros(D);
-
-        for (VectorView vector : vectors)
-            CM.add(vector);
-
-        CM.divide(vectors.length);
-        return CM;
-    }
-
-    private static JamMatrix computeRG(VectorView[] vectors, VectorView CM) {
-        int D = CM.length();
-        JamMatrix RG = JamMatrix.zeros(D, D);
-
-        for (VectorView vector : vectors)
-            RG.add(JamMatrix.dyad(centered(vector, CM)));
-
-        RG.divide(vectors.length);
-        return RG;
-    }
-
-    private static JamVector centered(VectorView vector, VectorView CM) {
-        JamVector result = JamVector.copyOf(vector);
-        result.subtract(CM);
-        return result;
+        return compute(Arrays.asList(vectors));
     }
 
     /**
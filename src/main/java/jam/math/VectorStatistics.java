@@ -0,0 +1,437 @@
+
+package jam.math;
+
+import java.util.Collection;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
+
+import jam.matrix.JamMatrix;
+import jam.vector.JamVector;
+import jam.vector.VectorView;
+
+/**
+ * Accumulates the sum, mean, variance, and (optionally) covariance
+ * matrix of a collection of vectors in a single pass.
+ *
+ * <p>Each component sum is accumulated with compensation for
+ * round-off error (see {@link CompensatedSum}).  The means and
+ * co-moments are updated by Welford's algorithm, which accumulates
+ * deviations from the running mean and therefore does not suffer the
+ * catastrophic cancellation of the textbook formula
+ * {@code E[xy] - E[x]E[y]}.
+ *
+ * <p>Accumulators are mergeable: partial statistics computed over
+ * disjoint subsets may be combined exactly (by the pairwise update of
+ * Chan, Golub, and LeVeque), so the statistics may be computed with a
+ * parallel stream and the {@link VectorStatistics#collector()} or by
+ * the {@link VectorStatistics#compute(Collection)} method, which uses
+ * all available processors for large collections.  Instances are not
+ * thread-safe; each thread must accumulate its own partial result.
+ *
+ * <p>The vector dimension is fixed by the first vector added.
+ * Accumulating the covariance matrix requires {@code O(D^2)}
+ * operations for each vector of dimension {@code D} (compared with
+ * {@code O(D)} for the means and variances), so it is optional.
+ */
+public final class VectorStatistics {
+    private final boolean covariance;
+
+    private int dimension = -1;
+    private long count = 0;
+
+    // Compensated component sums...
+    private double[] sum;
+    private double[] comp;
+
+    // Running component means...
+    private double[] mean;
+
+    // Sums of squared deviations from the mean: either the diagonal
+    // only (length D) or the upper triangle of the full co-moment
+    // matrix (length D * D, stored by row)...
+    private double[] moment;
+
+    // Collections at least this large are processed in parallel...
+    private static final int PARALLEL_THRESHOLD = 10000;
+
+    private VectorStatistics(boolean covariance) {
+        this.covariance = covariance;
+    }
+
+    /**
+     * Creates a new empty accumulator for the sums, means, and
+     * variances (but not the covariance matrix).
+     *
+     * @return a new empty accumulator.
+     */
+    public static VectorStatistics create() {
+        return create(false);
+    }
+
+    /**
+     * Creates a new empty accumulator.
+     *
+     * @param covariance whether to accumulate the full covariance
+     * matrix.
+     *
+     * @return a new empty accumulator.
+     */
+    public static VectorStatistics create(boolean covariance) {
+        return new VectorStatistics(covariance);
+    }
+
+    /**
+     * Returns a collector that accumulates vector statistics (without
+     * the covariance matrix) and may be applied to parallel streams.
+     *
+     * @return a collector that accumulates vector statistics.
+     */
+    public static Collector<VectorView, ?, VectorStatistics> collector() {
+        return collector(false);
+    }
+
+    /**
+     * Returns a collector that accumulates vector statistics and may
+     * be applied to parallel streams.
+     *
+     * @param covariance whether to accumulate the full covariance
+     * matrix.
+     *
+     * @return a collector that accumulates vector statistics.
+     */
+    public static Collector<VectorView, ?, VectorStatistics> collector(boolean covariance) {
+        return Collector.of(() -> create(covariance),
+                            VectorStatistics::add,
+                            VectorStatistics::combine,
+                            Collector.Characteristics.IDENTITY_FINISH,
+                            Collector.Characteristics.UNORDERED);
+    }
+
+    /**
+     * Computes the statistics for a collection of vectors (without the
+     * covariance matrix), using all available processors for large
+     * collections.
+     *
+     * @param vectors the vectors to examine.
+     *
+     * @return the statistics for the vectors.
+     *
+     * @throws IllegalArgumentException unless all vectors have the
+     * same dimension.
+     */
+    public static VectorStatistics compute(Collection<? extends VectorView> vectors) {
+        return compute(vectors, false);
+    }
+
+    /**
+     * Computes the statistics for a collection of vectors, using all
+     * available processors for large collections.
+     *
+     * @param vectors the vectors to examine.
+     *
+     * @param covariance whether to compute the full covariance matrix.
+     *
+     * @return the statistics for the vectors.
+     *
+     * @throws IllegalArgumentException unless all vectors have the
+     * same dimension.
+     */
+    public static VectorStatistics compute(Collection<? extends VectorView> vectors, boolean covariance) {
+        Stream<? extends VectorView> stream = vectors.stream();
+
+        if (vectors.size() >= PARALLEL_THRESHOLD)
+            stream = stream.parallel();
+
+        return stream.collect(collector(covariance));
+    }
+
+    /**
+     * Adds a vector to the statistics.
+     *
+     * @param vector the vector to add.
+     *
+     * @throws IllegalArgumentException unless the vector dimension
+     * matches the previous vectors.
+     */
+    public void add(VectorView vector) {
+        add(vector.toNumeric());
+    }
+
+    /**
+     * Adds a vector to the statistics.
+     *
+     * @param vector the vector to add (which is not modified).
+     *
+     * @throws IllegalArgumentException unless the vector dimension
+     * matches the previous vectors.
+     */
+    public void add(double[] vector) {
+        validateDimension(vector.length);
+        ++count;
+
+        double[] delta = new double[dimension];
+
+        for (int i = 0; i < dimension; ++i) {
+            addCompensated(i, vector[i]);
+
+            delta[i] = vector[i] - mean[i];
+            mean[i] += delta[i] / count;
+        }
+
+        //
+        // Welford update: the co-moment increment is the product of
+        // the deviation from the old mean and the deviation from the
+        // new mean...
+        //
+        if (covariance) {
+            for (int i = 0; i < dimension; ++i) {
+                int offset = i * dimension;
+
+                for (int j = i; j < dimension; ++j)
+                    moment[offset + j] += delta[i] * (vector[j] - mean[j]);
+            }
+        }
+        else {
+            for (int i = 0; i < dimension; ++i)
+                moment[i] += delta[i] * (vector[i] - mean[i]);
+        }
+    }
+
+    private void addCompensated(int index, double value) {
+        double total = sum[index] + value;
+
+        if (Math.abs(sum[index]) >= Math.abs(value))
+            comp[index] += (sum[index] - total) + value;
+        else
+            comp[index] += (value - total) + sum[index];
+
+        sum[index] = total;
+    }
+
+    private void validateDimension(int length) {
+        if (dimension < 0)
+            allocate(length);
+        else if (length != dimension)
+            throw new IllegalArgumentException("Inconsistent vector dimensions.");
+    }
+
+    private void allocate(int length) {
+        dimension = length;
+
+        sum  = new double[length];
+        comp = new double[length];
+        mean = new double[length];
+
+        if (covariance)
+            moment = new double[length * length];
+        else
+            moment = new double[length];
+    }
+
+    /**
+     * Merges the statistics from another accumulator into this one;
+     * the other accumulator is unchanged.
+     *
+     * @param that the statistics to merge.
+     *
+     * @return this accumulator, containing the combined statistics.
+     *
+     * @throws IllegalArgumentException unless the accumulators have
+     * the same vector dimension and covariance option.
+     */
+    public VectorStatistics combine(VectorStatistics that) {
+        if (this.covariance != that.covariance)
+            throw new IllegalArgumentException("Inconsistent covariance options.");
+
+        if (that.count == 0)
+            return this;
+
+        validateDimension(that.dimension);
+
+        long   n1 = this.count;
+        long   n2 = that.count;
+        double nn = (double) n1 + (double) n2;
+
+        double[] delta = new double[dimension];
+
+        for (int i = 0; i < dimension; ++i) {
+            addCompensated(i, that.sum[i]);
+            addCompensated(i, that.comp[i]);
+
+            delta[i] = that.mean[i] - this.mean[i];
+            this.mean[i] += delta[i] * (n2 / nn);
+        }
+
+        double factor = ((double) n1) * ((double) n2) / nn;
+
+        if (covariance) {
+            for (int i = 0; i < dimension; ++i) {
+                int offset = i * dimension;
+
+                for (int j = i; j < dimension; ++j)
+                    moment[offset + j] += that.moment[offset + j] + factor * delta[i] * delta[j];
+            }
+        }
+        else {
+            for (int i = 0; i < dimension; ++i)
+                moment[i] += that.moment[i] + factor * delta[i] * delta[i];
+        }
+
+        this.count += n2;
+        return this;
+    }
+
+    /**
+     * Returns the number of vectors accumulated.
+     *
+     * @return the number of vectors accumulated.
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Returns the dimension of the accumulated vectors.
+     *
+     * @return the dimension of the accumulated vectors, or {@code -1}
+     * if no vectors have been accumulated.
+     */
+    public int dimension() {
+        return dimension;
+    }
+
+    /**
+     * Identifies accumulators that track the full covariance matrix.
+     *
+     * @return {@code true} iff this accumulator tracks the full
+     * covariance matrix.
+     */
+    public boolean hasCovariance() {
+        return covariance;
+    }
+
+    /**
+     * Returns the compensated component sums.
+     *
+     * @return a new vector containing the component sums.
+     *
+     * @throws IllegalStateException if no vectors have been
+     * accumulated.
+     */
+    public JamVector sum() {
+        validateCount(1);
+
+        double[] result = new double[dimension];
+
+        for (int i = 0; i < dimension; ++i)
+            result[i] = Double.isFinite(sum[i]) ? sum[i] + comp[i] : sum[i];
+
+        return JamVector.copyOf(result);
+    }
+
+    /**
+     * Returns the component means.
+     *
+     * @return a new vector containing the component means.
+     *
+     * @throws IllegalStateException if no vectors have been
+     * accumulated.
+     */
+    public JamVector mean() {
+        validateCount(1);
+        return JamVector.copyOf(mean);
+    }
+
+    /**
+     * Returns the (unbiased) sample variance of each component.
+     *
+     * @return a new vector containing the component variances.
+     *
+     * @throws IllegalStateException unless at least two vectors have
+     * been accumulated.
+     */
+    public JamVector variance() {
+        validateCount(2);
+
+        double[] result = new double[dimension];
+
+        for (int i = 0; i < dimension; ++i)
+            result[i] = diagonalMoment(i) / (count - 1);
+
+        return JamVector.copyOf(result);
+    }
+
+    /**
+     * Returns the sample standard deviation of each component.
+     *
+     * @return a new vector containing the component standard
+     * deviations.
+     *
+     * @throws IllegalStateException unless at least two vectors have
+     * been accumulated.
+     */
+    public JamVector sd() {
+        JamVector result = variance();
+
+        for (int i = 0; i < dimension; ++i)
+            result.set(i, Math.sqrt(result.get(i)));
+
+        return result;
+    }
+
+    /**
+     * Returns the (unbiased) sample covariance matrix, with the
+     * co-moments divided by {@code N - 1}.
+     *
+     * @return a new matrix containing the sample covariances.
+     *
+     * @throws IllegalStateException unless this accumulator tracks the
+     * covariance matrix and at least two vectors have been accumulated.
+     */
+    public JamMatrix covariance() {
+        validateCount(2);
+        return comoment(count - 1);
+    }
+
+    /**
+     * Returns the population covariance matrix, with the co-moments
+     * divided by {@code N}; for vector coordinates, this is the
+     * gyration tensor.
+     *
+     * @return a new matrix containing the population covariances.
+     *
+     * @throws IllegalStateException unless this accumulator tracks the
+     * covariance matrix and at least one vector has been accumulated.
+     */
+    public JamMatrix populationCovariance() {
+        validateCount(1);
+        return comoment(count);
+    }
+
+    private JamMatrix comoment(long divisor) {
+        if (!covariance)
+            throw new IllegalStateException("Covariance matrix was not accumulated.");
+
+        JamMatrix result = new JamMatrix(dimension, dimension);
+
+        for (int i = 0; i < dimension; ++i) {
+            for (int j = i; j < dimension; ++j) {
+                double value = moment[i * dimension + j] / divisor;
+
+                result.set(i, j, value);
+                result.set(j, i, value);
+            }
+        }
+
+        return result;
+    }
+
+    private double diagonalMoment(int i) {
+        return covariance ? moment[i * dimension + i] : moment[i];
+    }
+
+    private void validateCount(long minCount) {
+        if (count < minCount)
+            throw new IllegalStateException(String.format("At least [%d] vector(s) are required.", minCount));
+    }
+}
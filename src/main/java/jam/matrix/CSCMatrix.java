@@ -0,0 +1,163 @@
+
+package jam.matrix;
+
+import jam.vector.JamVector;
+import jam.vector.VectorView;
+
+/**
+ * Stores a sparse matrix in compressed sparse column (CSC) format.
+ *
+ * <p>The row indexes and values of the non-zero elements in column
+ * {@code j} occupy positions {@code [colPtr[j], colPtr[j + 1])} of the
+ * index and value arrays, sorted by row index. The compressed column
+ * storage of a matrix is identical to the compressed row storage of
+ * its transpose, so the two formats transpose into each other without
+ * copying.
+ */
+public final class CSCMatrix extends SparseMatrix {
+    private final int nrow;
+    private final int ncol;
+    private final int[] colPtr;
+    private final int[] rowIndex;
+    private final double[] values;
+
+    CSCMatrix(int nrow, int ncol, int[] colPtr, int[] rowIndex, double[] values) {
+        this.nrow = nrow;
+        this.ncol = ncol;
+        this.colPtr = colPtr;
+        this.rowIndex = rowIndex;
+        this.values = values;
+    }
+
+    CSCMatrix(int nrow, int ncol, Compressed storage) {
+        this(nrow, ncol, storage.ptr, storage.index, storage.values);
+    }
+
+    /**
+     * Creates a compressed column matrix containing the non-zero
+     * elements of another matrix.
+     *
+     * @param view the matrix to copy.
+     *
+     * @return a compressed column matrix containing the non-zero
+     * elements of the specified matrix.
+     */
+    public static CSCMatrix copyOf(MatrixView view) {
+        if (view instanceof CSCMatrix)
+            return (CSCMatrix) view;
+
+        if (view instanceof CSRMatrix)
+            return ((CSRMatrix) view).toCSC();
+
+        SparseMatrixBuilder builder = SparseMatrixBuilder.create(view.nrow(), view.ncol());
+
+        for (int row = 0; row < view.nrow(); ++row)
+            for (int col = 0; col < view.ncol(); ++col)
+                builder.add(row, col, view.get(row, col));
+
+        return builder.buildCSC();
+    }
+
+    /**
+     * Returns the number of non-zero elements in a given column.
+     *
+     * @param col the index of the column to examine.
+     *
+     * @return the number of non-zero elements in the specified column.
+     *
+     * @throws IndexOutOfBoundsException unless the column index is
+     * valid.
+     */
+    public int countNonZero(int col) {
+        validateColumn(col);
+        return colPtr[col + 1] - colPtr[col];
+    }
+
+    /**
+     * Returns this matrix in compressed row format.
+     *
+     * @return this matrix in compressed row format.
+     */
+    public CSRMatrix toCSR() {
+        return new CSRMatrix(nrow, ncol, compress(nrow, ncol, rowIndex, expand(colPtr, ncol), values, values.length));
+    }
+
+    @Override public int countNonZero() {
+        return values.length;
+    }
+
+    @Override public double get(int row, int col) {
+        validateIndex(row, col);
+        return find(colPtr, rowIndex, values, col, row);
+    }
+
+    @Override public int nrow() {
+        return nrow;
+    }
+
+    @Override public int ncol() {
+        return ncol;
+    }
+
+    @Override public JamVector times(VectorView factor) {
+        validateFactor(factor);
+        return JamVector.valueOf(times(factor.toNumeric()));
+    }
+
+    @Override double[] times(double[] x) {
+        double[] y = new double[nrow];
+
+        for (int col = 0; col < ncol; ++col)
+            for (int k = colPtr[col]; k < colPtr[col + 1]; ++k)
+                y[rowIndex[k]] += values[k] * x[col];
+
+        return y;
+    }
+
+    @Override public JamVector transposeTimes(VectorView factor) {
+        if (factor.length() != nrow)
+            throw new IllegalArgumentException("Factor dimension mismatch.");
+
+        return JamVector.valueOf(transposeTimes(factor.toNumeric()));
+    }
+
+    @Override double[] transposeTimes(double[] x) {
+        double[] y = new double[ncol];
+
+        MatrixKernel.execute((from, to) -> {
+                for (int col = from; col < to; ++col) {
+                    double sum = 0.0;
+
+                    for (int k = colPtr[col]; k < colPtr[col + 1]; ++k)
+                        sum += values[k] * x[rowIndex[k]];
+
+                    y[col] = sum;
+                }
+            }, ncol, values.length);
+
+        return y;
+    }
+
+    @Override public JamMatrix times(MatrixView factor) {
+        //
+        // Products with a dense factor are computed row by row, which
+        // requires the compressed row format...
+        //
+        validateFactor(factor);
+        return toCSR().times(factor);
+    }
+
+    @Override public CSRMatrix transpose() {
+        return new CSRMatrix(ncol, nrow, colPtr, rowIndex, values);
+    }
+
+    @Override public double[][] toNumeric() {
+        double[][] result = new double[nrow][ncol];
+
+        for (int col = 0; col < ncol; ++col)
+            for (int k = colPtr[col]; k < colPtr[col + 1]; ++k)
+                result[rowIndex[k]][col] = values[k];
+
+        return result;
+    }
+}
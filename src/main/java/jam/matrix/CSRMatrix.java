@@ -0,0 +1,216 @@
+
+package jam.matrix;
+
+import java.util.Arrays;
+
+import jam.vector.JamVector;
+import jam.vector.VectorView;
+
+/**
+ * Stores a sparse matrix in compressed sparse row (CSR) format.
+ *
+ * <p>The column indexes and values of the non-zero elements in row
+ * {@code i} occupy positions {@code [rowPtr[i], rowPtr[i + 1])} of the
+ * index and value arrays, sorted by column index. Element access
+ * requires a binary search within one row; matrix-vector products
+ * traverse the storage arrays in order and are divided among threads
+ * by blocks of rows when the matrix is large.
+ */
+public final class CSRMatrix extends SparseMatrix {
+    private final int nrow;
+    private final int ncol;
+    private final int[] rowPtr;
+    private final int[] colIndex;
+    private final double[] values;
+
+    CSRMatrix(int nrow, int ncol, int[] rowPtr, int[] colIndex, double[] values) {
+        this.nrow = nrow;
+        this.ncol = ncol;
+        this.rowPtr = rowPtr;
+        this.colIndex = colIndex;
+        this.values = values;
+    }
+
+    CSRMatrix(int nrow, int ncol, Compressed storage) {
+        this(nrow, ncol, storage.ptr, storage.index, storage.values);
+    }
+
+    /**
+     * Creates a compressed row matrix containing the non-zero elements
+     * of another matrix.
+     *
+     * @param view the matrix to copy.
+     *
+     * @return a compressed row matrix containing the non-zero elements
+     * of the specified matrix.
+     */
+    public static CSRMatrix copyOf(MatrixView view) {
+        if (view instanceof CSRMatrix)
+            return (CSRMatrix) view;
+
+        if (view instanceof CSCMatrix)
+            return ((CSCMatrix) view).toCSR();
+
+        SparseMatrixBuilder builder = SparseMatrixBuilder.create(view.nrow(), view.ncol());
+
+        for (int row = 0; row < view.nrow(); ++row)
+            for (int col = 0; col < view.ncol(); ++col)
+                builder.add(row, col, view.get(row, col));
+
+        return builder.buildCSR();
+    }
+
+    /**
+     * Returns the number of non-zero elements in a given row.
+     *
+     * @param row the index of the row to examine.
+     *
+     * @return the number of non-zero elements in the specified row.
+     *
+     * @throws IndexOutOfBoundsException unless the row index is valid.
+     */
+    public int countNonZero(int row) {
+        validateRow(row);
+        return rowPtr[row + 1] - rowPtr[row];
+    }
+
+    /**
+     * Returns the column indexes of the non-zero elements in a given
+     * row, in ascending order.
+     *
+     * @param row the index of the row to examine.
+     *
+     * @return a new array containing the column indexes of the
+     * non-zero elements in the specified row.
+     *
+     * @throws IndexOutOfBoundsException unless the row index is valid.
+     */
+    public int[] getColumnIndexes(int row) {
+        validateRow(row);
+        return Arrays.copyOfRange(colIndex, rowPtr[row], rowPtr[row + 1]);
+    }
+
+    /**
+     * Returns the values of the non-zero elements in a given row, in
+     * the order of their column indexes.
+     *
+     * @param row the index of the row to examine.
+     *
+     * @return a new array containing the values of the non-zero
+     * elements in the specified row, parallel to the array returned
+     * by {@link #getColumnIndexes(int)}.
+     *
+     * @throws IndexOutOfBoundsException unless the row index is valid.
+     */
+    public double[] getRowValues(int row) {
+        validateRow(row);
+        return Arrays.copyOfRange(values, rowPtr[row], rowPtr[row + 1]);
+    }
+
+    /**
+     * Returns this matrix in compressed column format.
+     *
+     * @return this matrix in compressed column format.
+     */
+    public CSCMatrix toCSC() {
+        return new CSCMatrix(nrow, ncol, compress(ncol, nrow, colIndex, expand(rowPtr, nrow), values, values.length));
+    }
+
+    @Override public int countNonZero() {
+        return values.length;
+    }
+
+    @Override public double get(int row, int col) {
+        validateIndex(row, col);
+        return find(rowPtr, colIndex, values, row, col);
+    }
+
+    @Override public int nrow() {
+        return nrow;
+    }
+
+    @Override public int ncol() {
+        return ncol;
+    }
+
+    @Override public JamVector times(VectorView factor) {
+        validateFactor(factor);
+        return JamVector.valueOf(times(factor.toNumeric()));
+    }
+
+    @Override double[] times(double[] x) {
+        double[] y = new double[nrow];
+
+        MatrixKernel.execute((from, to) -> {
+                for (int row = from; row < to; ++row) {
+                    double sum = 0.0;
+
+                    for (int k = rowPtr[row]; k < rowPtr[row + 1]; ++k)
+                        sum += values[k] * x[colIndex[k]];
+
+                    y[row] = sum;
+                }
+            }, nrow, values.length);
+
+        return y;
+    }
+
+    @Override public JamVector transposeTimes(VectorView factor) {
+        if (factor.length() != nrow)
+            throw new IllegalArgumentException("Factor dimension mismatch.");
+
+        return JamVector.valueOf(transposeTimes(factor.toNumeric()));
+    }
+
+    @Override double[] transposeTimes(double[] x) {
+        double[] y = new double[ncol];
+
+        for (int row = 0; row < nrow; ++row)
+            for (int k = rowPtr[row]; k < rowPtr[row + 1]; ++k)
+                y[colIndex[k]] += values[k] * x[row];
+
+        return y;
+    }
+
+    @Override public JamMatrix times(MatrixView factor) {
+        validateFactor(factor);
+
+        double[][] B = DenseMatrix.dense(factor).toNumeric();
+        double[][] C = new double[nrow][factor.ncol()];
+
+        //
+        // Each row of the product is a linear combination of the rows
+        // of the factor selected by the non-zero elements in the
+        // corresponding row of this matrix...
+        //
+        MatrixKernel.execute((from, to) -> {
+                for (int row = from; row < to; ++row) {
+                    double[] result = C[row];
+
+                    for (int k = rowPtr[row]; k < rowPtr[row + 1]; ++k) {
+                        double   scalar = values[k];
+                        double[] source = B[colIndex[k]];
+
+                        for (int col = 0; col < result.length; ++col)
+                            result[col] += scalar * source[col];
+                    }
+                }
+            }, nrow, (long) values.length * (long) factor.ncol());
+
+        return new JamMatrix(C);
+    }
+
+    @Override public CSCMatrix transpose() {
+        return new CSCMatrix(ncol, nrow, rowPtr, colIndex, values);
+    }
+
+    @Override public double[][] toNumeric() {
+        double[][] result = new double[nrow][ncol];
+
+        for (int row = 0; row < nrow; ++row)
+            for (int k = rowPtr[row]; k < rowPtr[row + 1]; ++k)
+                result[row][colIndex[k]] = values[k];
+
+        return result;
+    }
+}
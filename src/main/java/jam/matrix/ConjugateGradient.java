@@ -0,0 +1,152 @@
+
+package jam.matrix;
+
+import jam.lang.JamException;
+import jam.vector.JamVector;
+import jam.vector.VectorUtil;
+import jam.vector.VectorView;
+
+/**
+ * Solves linear systems {@code A x = b} with symmetric positive
+ * definite coefficient matrices by the conjugate gradient method.
+ *
+ * <p>Each iteration requires one matrix-vector product and a few
+ * vector updates, so the method applies to large dense, sparse, or
+ * implicit matrices; in exact arithmetic it converges in at most
+ * {@code n} iterations for an {@code n x n} matrix, and in practice
+ * it converges much faster when the eigenvalues of the matrix are
+ * clustered.
+ */
+public final class ConjugateGradient {
+    private final JamVector solution;
+    private final double residual;
+    private final int iterations;
+
+    /**
+     * The default tolerance for the relative residual norm:
+     * {@code |b - A x| <= tolerance * |b|}.
+     */
+    public static final double DEFAULT_TOLERANCE = 1.0E-10;
+
+    private ConjugateGradient(JamVector solution, double residual, int iterations) {
+        this.solution = solution;
+        this.residual = residual;
+        this.iterations = iterations;
+    }
+
+    /**
+     * Solves a linear system with the default tolerance and an
+     * iteration limit of ten times the system dimension.
+     *
+     * @param operator the coefficient matrix operator, which must be
+     * symmetric and positive definite.
+     *
+     * @param rhs the right-hand side vector.
+     *
+     * @return the solution of the linear system.
+     *
+     * @throws IllegalArgumentException unless the operator is square
+     * and the right-hand side has matching dimension.
+     *
+     * @throws RuntimeException if the iteration does not converge.
+     */
+    public static JamVector solve(LinearOperator operator, VectorView rhs) {
+        return solve(operator, rhs, DEFAULT_TOLERANCE, 10 * operator.nrow()).getSolution();
+    }
+
+    /**
+     * Solves a linear system.
+     *
+     * @param operator the coefficient matrix operator, which must be
+     * symmetric and positive definite.
+     *
+     * @param rhs the right-hand side vector.
+     *
+     * @param tolerance the tolerance for the relative residual norm.
+     *
+     * @param maxIterations the maximum number of iterations.
+     *
+     * @return the converged iteration.
+     *
+     * @throws IllegalArgumentException unless the operator is square
+     * and the right-hand side has matching dimension.
+     *
+     * @throws RuntimeException if the iteration does not converge.
+     */
+    public static ConjugateGradient solve(LinearOperator operator, VectorView rhs, double tolerance, int maxIterations) {
+        operator.validateSquare();
+
+        if (rhs.length() != operator.nrow())
+            throw new IllegalArgumentException("Right-hand side dimension mismatch.");
+
+        double[] b = rhs.toNumeric();
+        double[] x = new double[b.length];
+
+        double bnorm = VectorUtil.norm2(b);
+        double limit = tolerance * bnorm;
+
+        if (bnorm == 0.0)
+            return new ConjugateGradient(JamVector.copyOf(x), 0.0, 0);
+
+        // With the initial guess x = 0, the initial residual is b...
+        double[] r = b.clone();
+        double[] p = b.clone();
+        double rr = VectorUtil.dot(r, r);
+
+        for (int iter = 1; iter <= maxIterations; ++iter) {
+            double[] Ap = operator.apply(p);
+            double pAp = VectorUtil.dot(p, Ap);
+
+            if (pAp <= 0.0)
+                throw JamException.runtime("Coefficient matrix is not positive definite.");
+
+            double alpha = rr / pAp;
+
+            VectorUtil.axpy( alpha, p, x);
+            VectorUtil.axpy(-alpha, Ap, r);
+
+            double rrNext = VectorUtil.dot(r, r);
+            double rnorm = Math.sqrt(rrNext);
+
+            if (rnorm <= limit)
+                return new ConjugateGradient(JamVector.copyOf(x), rnorm / bnorm, iter);
+
+            double beta = rrNext / rr;
+
+            for (int i = 0; i < p.length; ++i)
+                p[i] = r[i] + beta * p[i];
+
+            rr = rrNext;
+        }
+
+        throw JamException.runtime("Conjugate gradient iteration did not converge after [%d] iterations.", maxIterations);
+    }
+
+    /**
+     * Returns the number of iterations required for convergence.
+     *
+     * @return the number of iterations required for convergence.
+     */
+    public int countIterations() {
+        return iterations;
+    }
+
+    /**
+     * Returns the relative residual norm {@code |b - A x| / |b|} of
+     * the solution (as tracked by the iteration).
+     *
+     * @return the relative residual norm of the solution.
+     */
+    public double getResidual() {
+        return residual;
+    }
+
+    /**
+     * Returns the solution of the linear system.
+     *
+     * @return the solution of the linear system.
+     */
+    public JamVector getSolution() {
+        return solution;
+    }
+}
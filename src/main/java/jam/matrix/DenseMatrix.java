@@ -1,41 +1,121 @@
 
 package jam.matrix;
 
-import org.apache.commons.math3.linear.BlockRealMatrix;
 import org.apache.commons.math3.linear.MatrixUtils;
 
-// Package-scope implementation of a dense floating-point matrix.
+import jam.vector.JamVector;
+import jam.vector.VectorView;
+
+// Package-scope implementation of a dense floating-point matrix
+// stored in a single flat array.
+//
+// The element at [row, col] is located at array index
+// (offset + row * rowStride + col * colStride). The constructors
+// create contiguous row-major matrices (zero offset, row stride equal
+// to the number of columns, and unit column stride); row, column,
+// diagonal, and submatrix views share the array of their parent and
+// differ only in their offset, dimensions, and strides.
+//
+// Bulk operations on contiguous matrices run as single loops over
+// the entire array, which the JIT compiler can unroll and vectorize.
 //
 final class DenseMatrix extends MatrixImpl {
-    private final BlockRealMatrix elements;
+    private final double[] data;
+    private final int offset;
+    private final int nrow;
+    private final int ncol;
+    private final int rowStride;
+    private final int colStride;
 
     DenseMatrix(int nrow, int ncol) {
-        this.elements = new BlockRealMatrix(nrow, ncol);
+        this(new double[size(nrow, ncol)], 0, nrow, ncol, ncol, 1);
     }
 
     DenseMatrix(double[][] elements) {
-        this.elements = new BlockRealMatrix(elements);
+        this(elements.length, (elements.length > 0) ? elements[0].length : 0);
+
+        for (int row = 0; row < nrow; ++row) {
+            if (elements[row].length != ncol)
+                throw new IllegalArgumentException("Ragged matrix.");
+
+            System.arraycopy(elements[row], 0, data, row * ncol, ncol);
+        }
     }
 
-    DenseMatrix(BlockRealMatrix elements) {
-        this.elements = elements;
+    // Wraps (without copying) an array of elements in row-major order.
+    static DenseMatrix wrap(int nrow, int ncol, double[] data) {
+        if (data.length != size(nrow, ncol))
+            throw new IllegalArgumentException("Inconsistent dimensions.");
+
+        return new DenseMatrix(data, 0, nrow, ncol, ncol, 1);
+    }
+
+    private DenseMatrix(double[] data, int offset, int nrow, int ncol, int rowStride, int colStride) {
+        this.data = data;
+        this.offset = offset;
+        this.nrow = nrow;
+        this.ncol = ncol;
+        this.rowStride = rowStride;
+        this.colStride = colStride;
+    }
+
+    private static int size(int nrow, int ncol) {
+        if (nrow < 0 || ncol < 0)
+            throw new IllegalArgumentException("Negative matrix dimension.");
+
+        return Math.multiplyExact(nrow, ncol);
+    }
+
+    // Returns the dense implementation underlying a view, if there is
+    // one, or a dense copy of the view otherwise; the result must not
+    // be modified.
+    static DenseMatrix dense(MatrixView view) {
+        if (view instanceof DenseMatrix)
+            return (DenseMatrix) view;
+
+        if (view instanceof JamMatrix && ((JamMatrix) view).impl() instanceof DenseMatrix)
+            return (DenseMatrix) ((JamMatrix) view).impl();
+
+        return new DenseMatrix(view.toNumeric());
+    }
+
+    private int index(int row, int col) {
+        if (row < 0 || row >= nrow || col < 0 || col >= ncol)
+            throw new IllegalArgumentException(String.format("Element index [%d, %d] out of bounds.", row, col));
+
+        return offset + row * rowStride + col * colStride;
+    }
+
+    private boolean isContiguous() {
+        return offset == 0 && rowStride == ncol && colStride == 1 && data.length == nrow * ncol;
+    }
+
+    // Returns this matrix if it is contiguous, or a contiguous copy.
+    private DenseMatrix packed() {
+        return isContiguous() ? this : copy();
+    }
+
+    // Returns this matrix if its rows are contiguous, or a contiguous
+    // copy; the product kernels require contiguous rows.
+    private DenseMatrix unitColumns() {
+        return (colStride == 1) ? this : copy();
     }
 
     @Override public MatrixImpl add(int row, int col, double value) {
-        elements.addToEntry(row, col, value);
+        data[index(row, col)] += value;
         return this;
     }
 
-    @Override public MatrixImpl copy() {
-        return new DenseMatrix(elements.copy());
+    @Override public DenseMatrix copy() {
+        return new DenseMatrix(MatrixKernel.pack(data, offset, rowStride, colStride, nrow, ncol), 0, nrow, ncol, ncol, 1);
     }
 
     @Override public double get(int row, int col) {
-        return elements.getEntry(row, col);
+        return data[index(row, col)];
     }
 
     @Override public MatrixImpl inverse() {
-        return new DenseMatrix(MatrixUtils.inverse(elements, 1.0E-12).getData());
+        return new DenseMatrix(MatrixUtils.inverse(toRealMatrix(), 1.0E-12).getData());
     }
 
     @Override public MatrixImpl like(int nrow, int ncol) {
@@ -43,20 +123,160 @@ final class DenseMatrix extends MatrixImpl {
     }
 
     @Override MatrixImpl multiply(int row, int col, double value) {
-        elements.multiplyEntry(row, col, value);
+        data[index(row, col)] *= value;
         return this;
     }
 
     @Override public int nrow() {
-        return elements.getRowDimension();
+        return nrow;
     }
 
     @Override public int ncol() {
-        return elements.getColumnDimension();
+        return ncol;
     }
 
     @Override public MatrixImpl set(int row, int col, double value) {
-        elements.setEntry(row, col, value);
+        data[index(row, col)] = value;
         return this;
     }
+
+    @Override public double[][] toNumeric() {
+        double[][] result = new double[nrow][];
+
+        for (int row = 0; row < nrow; ++row)
+            result[row] = viewRow(row).toNumeric();
+
+        return result;
+    }
+
+    @Override public VectorView viewColumn(int col) {
+        validateColumn(col);
+        return new StridedVector(data, offset + col * colStride, nrow, rowStride);
+    }
+
+    @Override public VectorView viewDiagonal() {
+        return new StridedVector(data, offset, diagonalLength(), rowStride + colStride);
+    }
+
+    @Override public VectorView viewRow(int row) {
+        validateRow(row);
+        return new StridedVector(data, offset + row * rowStride, ncol, colStride);
+    }
+
+    @Override public MatrixView viewSubmatrix(int row0, int col0, int nrow, int ncol) {
+        validateSubmatrix(row0, col0, nrow, ncol);
+        return new DenseMatrix(data, offset + row0 * rowStride + col0 * colStride, nrow, ncol, rowStride, colStride);
+    }
+
+    @Override MatrixImpl daxpy(double scalar, MatrixView that) {
+        validateEBE(that);
+
+        double[] x = this.packed().data;
+        double[] y = dense(that).packed().data;
+        double[] z = new double[x.length];
+
+        for (int k = 0; k < z.length; ++k)
+            z[k] = x[k] + scalar * y[k];
+
+        return new DenseMatrix(z, 0, nrow, ncol, ncol, 1);
+    }
+
+    @Override MatrixImpl plus(double scalar) {
+        double[] x = packed().data;
+        double[] z = new double[x.length];
+
+        for (int k = 0; k < z.length; ++k)
+            z[k] = x[k] + scalar;
+
+        return new DenseMatrix(z, 0, nrow, ncol, ncol, 1);
+    }
+
+    @Override MatrixImpl times(double scalar) {
+        double[] x = packed().data;
+        double[] z = new double[x.length];
+
+        for (int k = 0; k < z.length; ++k)
+            z[k] = x[k] * scalar;
+
+        return new DenseMatrix(z, 0, nrow, ncol, ncol, 1);
+    }
+
+    @Override JamVector times(VectorView factor) {
+        validateFactor(factor);
+        return JamVector.valueOf(times(factor.toNumeric()));
+    }
+
+    // Computes the matrix-vector product (this * factor) for a bare
+    // factor of valid length.
+    double[] times(double[] factor) {
+        DenseMatrix A = unitColumns();
+        return MatrixKernel.times(A.data, A.offset, A.rowStride, nrow, ncol, factor);
+    }
+
+    // Computes the vector-matrix product (factor' * this).
+    JamVector transposeTimes(VectorView factor) {
+        if (factor.length() != nrow)
+            throw new IllegalArgumentException("Factor dimension mismatch.");
+
+        return JamVector.valueOf(transposeTimes(factor.toNumeric()));
+    }
+
+    // Computes the vector-matrix product (factor' * this) for a bare
+    // factor of valid length.
+    double[] transposeTimes(double[] factor) {
+        DenseMatrix A = unitColumns();
+        return MatrixKernel.transposeTimes(A.data, A.offset, A.rowStride, nrow, ncol, factor);
+    }
+
+    @Override MatrixImpl times(MatrixView factor) {
+        validateFactor(factor);
+
+        DenseMatrix A = unitColumns();
+        DenseMatrix B = dense(factor);
+        DenseMatrix C = new DenseMatrix(nrow, B.ncol);
+
+        double[] Bt = MatrixKernel.transpose(B.data, B.offset, B.rowStride, B.colStride, B.nrow, B.ncol);
+
+        MatrixKernel.multiplyTransposed(A.data, A.offset, A.rowStride,
+                                        Bt, 0, ncol,
+                                        C.data, 0, C.ncol,
+                                        nrow, C.ncol, ncol);
+        return C;
+    }
+
+    @Override MatrixImpl transposeTimes(MatrixView factor) {
+        if (this.nrow != factor.nrow())
+            throw new IllegalArgumentException("Factor dimension mismatch.");
+
+        DenseMatrix B = dense(factor);
+        DenseMatrix C = new DenseMatrix(ncol, B.ncol);
+
+        double[] At = MatrixKernel.transpose(data, offset, rowStride, colStride, nrow, ncol);
+        double[] Bt = MatrixKernel.transpose(B.data, B.offset, B.rowStride, B.colStride, B.nrow, B.ncol);
+
+        MatrixKernel.multiplyTransposed(At, 0, nrow,
+                                        Bt, 0, nrow,
+                                        C.data, 0, C.ncol,
+                                        C.nrow, C.ncol, nrow);
+        return C;
+    }
+
+    @Override MatrixImpl timesTranspose(MatrixView factor) {
+        if (this.ncol != factor.ncol())
+            throw new IllegalArgumentException("Factor dimension mismatch.");
+
+        DenseMatrix A = unitColumns();
+        DenseMatrix B = dense(factor).unitColumns();
+        DenseMatrix C = new DenseMatrix(nrow, B.nrow);
+
+        MatrixKernel.multiplyTransposed(A.data, A.offset, A.rowStride,
+                                        B.data, B.offset, B.rowStride,
+                                        C.data, 0, C.ncol,
+                                        nrow, C.ncol, ncol);
+        return C;
+    }
+
+    @Override MatrixImpl transpose() {
+        return new DenseMatrix(MatrixKernel.transpose(data, offset, rowStride, colStride, nrow, ncol), 0, ncol, nrow, nrow, 1);
+    }
 }
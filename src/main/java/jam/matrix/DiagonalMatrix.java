@@ -51,8 +51,14 @@ final class DiagonalMatrix extends MatrixImpl {
     }
 
     @Override public MatrixImpl like(int nrow, int ncol) {
-        validateSquare(nrow, ncol);
-        return new DiagonalMatrix(nrow);
+        //
+        // Products with a non-square factor (and the transpose of a
+        // non-square matrix) cannot be diagonal...
+        //
+        if (isSquare(nrow, ncol))
+            return new DiagonalMatrix(nrow);
+        else
+            return new DenseMatrix(nrow, ncol);
     }
 
     @Override public int nrow() {
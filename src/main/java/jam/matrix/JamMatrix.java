@@ -149,16 +149,31 @@ public final class JamMatrix extends MatrixView {
      * supplied is equal to the number required ({@code nrow * ncol}).
      */
     public static JamMatrix byrow(int nrow, int ncol, double... elements) {
-	if (elements.length != nrow * ncol)
-	    throw new IllegalArgumentException("Inconsistent dimensions.");
-
-	JamMatrix result = new JamMatrix(nrow, ncol);
-
-	for (int i = 0; i < nrow; i++)
-	    for (int j = 0; j < ncol; j++)
-		result.set(i, j, elements[j + i * ncol]);
+	return wrap(nrow, ncol, elements.clone());
+    }
 
-	return result;
+    /**
+     * Creates a matrix backed by an array of elements in row-major
+     * order; the array is not copied, so subsequent changes to the
+     * array will be reflected in the matrix (and vice versa).
+     *
+     * <p>This is the most memory-efficient way to create a large
+     * matrix from elements that have been assembled in a flat array
+     * (for example, by a file parser).
+     *
+     * @param nrow the number of rows.
+     *
+     * @param ncol the number of columns.
+     *
+     * @param elements the elements in row-major order.
+     *
+     * @return a matrix backed by the specified array.
+     *
+     * @throws IllegalArgumentException unless the number of elements
+     * supplied is equal to the number required ({@code nrow * ncol}).
+     */
+    public static JamMatrix wrap(int nrow, int ncol, double[] elements) {
+        return new JamMatrix(DenseMatrix.wrap(nrow, ncol, elements));
     }
 
     /**
@@ -792,12 +807,7 @@ public final class JamMatrix extends MatrixView {
         if (matrix.nrow() != vector.length())
             throw new IllegalArgumentException("Incongruent matrix factor.");
 
-        JamVector result = new JamVector(matrix.ncol());
-
-        for (int j = 0; j < matrix.ncol(); ++j)
-            result.set(j, JamVector.dot(vector, matrix.viewColumn(j)));
-
-        return result;
+        return DenseMatrix.dense(matrix).transposeTimes(vector);
     }
 
     /**
@@ -814,6 +824,40 @@ public final class JamMatrix extends MatrixView {
         return new JamMatrix(impl.times(factor));
     }
 
+    /**
+     * Computes the matrix product of this matrix and the transpose of
+     * a matrix factor ({@code this * factor'}) without forming the
+     * transpose explicitly.
+     *
+     * @param factor the matrix factor.
+     *
+     * @return the product of this matrix and the transpose of the
+     * input factor.
+     *
+     * @throws IllegalArgumentException unless the number of columns
+     * in the factor matches the number of columns in this matrix.
+     */
+    public JamMatrix timesTranspose(MatrixView factor) {
+        return new JamMatrix(impl.timesTranspose(factor));
+    }
+
+    /**
+     * Computes the matrix product of the transpose of this matrix and
+     * a matrix factor ({@code this' * factor}) without forming the
+     * transpose explicitly.
+     *
+     * @param factor the matrix factor.
+     *
+     * @return the product of the transpose of this matrix and the
+     * input factor.
+     *
+     * @throws IllegalArgumentException unless the number of rows in
+     * the factor matches the number of rows in this matrix.
+     */
+    public JamMatrix transposeTimes(MatrixView factor) {
+        return new JamMatrix(impl.transposeTimes(factor));
+    }
+
     /**
      * Returns the transpose of this matrix; this matrix is unchanged.
      *
@@ -823,6 +867,12 @@ public final class JamMatrix extends MatrixView {
         return new JamMatrix(impl.transpose());
     }
 
+    // Returns the current storage implementation (which changes if,
+    // for example, a diagonal matrix acquires off-diagonal elements).
+    MatrixImpl impl() {
+        return impl;
+    }
+
     @Override public double get(int row, int col) {
         return impl.get(row, col);
     }
@@ -834,4 +884,8 @@ public final class JamMatrix extends MatrixView {
     @Override public int ncol() {
         return impl.ncol();
     }
+
+    @Override public double[][] toNumeric() {
+        return impl.toNumeric();
+    }
 }
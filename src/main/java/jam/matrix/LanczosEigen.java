@@ -0,0 +1,325 @@
+
+package jam.matrix;
+
+import jam.lang.JamException;
+import jam.math.JamRandom;
+import jam.math.RandomDirection;
+import jam.vector.JamVector;
+import jam.vector.VectorUtil;
+import jam.vector.VectorView;
+
+/**
+ * Computes the leading (algebraically largest) eigenvalues and the
+ * corresponding eigenvectors of a large symmetric matrix by the
+ * Lanczos algorithm.
+ *
+ * <p>The Lanczos iteration builds an orthonormal basis for a Krylov
+ * subspace {@code span{q, Aq, A^2 q, ...}} using only matrix-vector
+ * products, projects the matrix onto that subspace to obtain a small
+ * tridiagonal matrix, and takes the eigenpairs of the tridiagonal
+ * matrix (the Ritz pairs) as approximations to the leading eigenpairs
+ * of the full matrix. The basis vectors are explicitly reorthogonalized
+ * at each step, which prevents the spurious copies of converged
+ * eigenvalues that plague the plain iteration in floating-point
+ * arithmetic. If the requested eigenpairs have not converged when the
+ * subspace is exhausted, the iteration restarts with a subspace twice
+ * as large.
+ *
+ * <p>Computing {@code k} eigenpairs of an {@code n x n} matrix with a
+ * subspace of dimension {@code m} requires {@code m} matrix-vector
+ * products, {@code O(n m^2)} operations for the reorthogonalization,
+ * and storage for {@code m} vectors of length {@code n}, compared with
+ * {@code O(n^3)} operations and {@code n^2} storage for the complete
+ * decomposition computed by {@link JamEigen}.
+ */
+public final class LanczosEigen {
+    private final JamVector values;
+    private final JamMatrix vectors;
+    private final int subspaceDim;
+
+    /**
+     * The default tolerance for the relative residual norm of each
+     * eigenpair: {@code |A y - lambda y| <= tolerance * |lambda_max|}.
+     */
+    public static final double DEFAULT_TOLERANCE = 1.0E-10;
+
+    // Smallest initial subspace dimension...
+    private static final int MIN_SUBSPACE_DIM = 20;
+
+    // Relative size of the residual vector that indicates an invariant
+    // Krylov subspace...
+    private static final double BREAKDOWN_TOLERANCE = 1.0E-12;
+
+    private LanczosEigen(JamVector values, JamMatrix vectors, int subspaceDim) {
+        this.values = values;
+        this.vectors = vectors;
+        this.subspaceDim = subspaceDim;
+    }
+
+    /**
+     * Computes the leading eigenpairs of a symmetric matrix with the
+     * default tolerance.
+     *
+     * @param operator the matrix-vector product operator for a
+     * symmetric matrix.
+     *
+     * @param count the number of eigenpairs to compute.
+     *
+     * @return the leading {@code count} eigenpairs.
+     *
+     * @throws IllegalArgumentException unless the operator is square
+     * and the count is positive and no larger than the dimension of
+     * the operator.
+     *
+     * @throws RuntimeException if the iteration does not converge.
+     */
+    public static LanczosEigen compute(LinearOperator operator, int count) {
+        return compute(operator, count, DEFAULT_TOLERANCE);
+    }
+
+    /**
+     * Computes the leading eigenpairs of a symmetric matrix.
+     *
+     * <p>The operator is assumed to be symmetric; the results are
+     * meaningless for non-symmetric operators.
+     *
+     * @param operator the matrix-vector product operator for a
+     * symmetric matrix.
+     *
+     * @param count the number of eigenpairs to compute.
+     *
+     * @param tolerance the tolerance for the relative residual norm of
+     * each eigenpair.
+     *
+     * @return the leading {@code count} eigenpairs.
+     *
+     * @throws IllegalArgumentException unless the operator is square
+     * and the count is positive and no larger than the dimension of
+     * the operator.
+     *
+     * @throws RuntimeException if the iteration does not converge.
+     */
+    public static LanczosEigen compute(LinearOperator operator, int count, double tolerance) {
+        operator.validateSquare();
+        int n = operator.nrow();
+
+        if (count < 1 || count > n)
+            throw new IllegalArgumentException("Invalid eigenpair count.");
+
+        double[] start = RandomDirection.sphere(JamRandom.global(), n);
+        int subspaceDim = Math.min(n, Math.max(2 * count + 1, MIN_SUBSPACE_DIM));
+
+        while (true) {
+            LanczosEigen result = iterate(operator, start, count, subspaceDim, tolerance);
+
+            if (result != null)
+                return result;
+
+            if (subspaceDim == n)
+                throw JamException.runtime("Lanczos iteration did not converge.");
+
+            subspaceDim = Math.min(n, 2 * subspaceDim);
+        }
+    }
+
+    // Runs the Lanczos iteration with a subspace of fixed dimension m
+    // and returns the leading eigenpairs, or null if they have not
+    // converged.
+    private static LanczosEigen iterate(LinearOperator operator,
+                                        double[] start,
+                                        int count,
+                                        int m,
+                                        double tolerance) {
+        int n = operator.nrow();
+
+        double[][] Q = new double[m][];
+        double[] alpha = new double[m];
+        double[] beta = new double[m];
+
+        Q[0] = start.clone();
+
+        // Running estimate of the matrix norm...
+        double anorm = 0.0;
+
+        for (int j = 0; j < m; ++j) {
+            double[] w = operator.apply(Q[j]);
+
+            alpha[j] = VectorUtil.dot(Q[j], w);
+            VectorUtil.axpy(-alpha[j], Q[j], w);
+
+            if (j > 0)
+                VectorUtil.axpy(-beta[j - 1], Q[j - 1], w);
+
+            // Two rounds of full reorthogonalization ("twice is
+            // enough") keep the basis orthonormal to working
+            // precision...
+            orthogonalize(w, Q, j + 1);
+            orthogonalize(w, Q, j + 1);
+
+            beta[j] = VectorUtil.norm2(w);
+
+            if (j == m - 1)
+                break;
+
+            anorm = Math.max(anorm, Math.abs(alpha[j]) + beta[j] + (j > 0 ? beta[j - 1] : 0.0));
+
+            if (beta[j] > BREAKDOWN_TOLERANCE * anorm) {
+                Q[j + 1] = scale(w, 1.0 / beta[j]);
+            }
+            else {
+                //
+                // The Krylov subspace is invariant, so its eigenpairs
+                // are exact; continue with a new random direction
+                // orthogonal to the basis (and a zero off-diagonal
+                // element in the tridiagonal matrix)...
+                //
+                beta[j] = 0.0;
+                Q[j + 1] = randomOrthogonal(n, Q, j + 1);
+            }
+        }
+
+        double[] offDiagonal = new double[m - 1];
+        System.arraycopy(beta, 0, offDiagonal, 0, m - 1);
+
+        TridiagonalEigen ritz = new TridiagonalEigen(alpha, offDiagonal);
+
+        //
+        // The residual norm of Ritz pair k is |beta[m - 1] * s[m - 1, k]|,
+        // where s is the eigenvector of the tridiagonal matrix...
+        //
+        double scale = Math.max(Math.abs(ritz.value(0)), Math.abs(ritz.value(m - 1)));
+        double limit = tolerance * Math.max(scale, Double.MIN_NORMAL);
+
+        for (int k = 0; k < count; ++k)
+            if (Math.abs(beta[m - 1] * ritz.vector(m - 1, k)) > limit)
+                return null;
+
+        JamVector values  = new JamVector(count);
+        JamMatrix vectors = new JamMatrix(n, count);
+
+        for (int k = 0; k < count; ++k) {
+            double[] y = new double[n];
+
+            for (int j = 0; j < m; ++j)
+                VectorUtil.axpy(ritz.vector(j, k), Q[j], y);
+
+            normalize(y);
+
+            values.set(k, ritz.value(k));
+            vectors.setColumn(k, VectorView.wrap(y));
+        }
+
+        return new LanczosEigen(values, vectors, m);
+    }
+
+    // Subtracts from w its projection onto the first "count" basis
+    // vectors.
+    private static void orthogonalize(double[] w, double[][] Q, int count) {
+        for (int i = 0; i < count; ++i)
+            VectorUtil.axpy(-VectorUtil.dot(Q[i], w), Q[i], w);
+    }
+
+    private static double[] scale(double[] x, double factor) {
+        double[] result = new double[x.length];
+
+        for (int i = 0; i < x.length; ++i)
+            result[i] = factor * x[i];
+
+        return result;
+    }
+
+    // Scales a vector to unit 2-norm with its largest element (in
+    // magnitude) positive, which fixes the arbitrary sign of an
+    // eigenvector.
+    static void normalize(double[] x) {
+        int imax = 0;
+
+        for (int i = 1; i < x.length; ++i)
+            if (Math.abs(x[i]) > Math.abs(x[imax]))
+                imax = i;
+
+        double factor = 1.0 / VectorUtil.norm2(x);
+
+        if (x.length > 0 && x[imax] < 0.0)
+            factor = -factor;
+
+        for (int i = 0; i < x.length; ++i)
+            x[i] *= factor;
+    }
+
+    private static double[] randomOrthogonal(int n, double[][] Q, int count) {
+        double[] x = RandomDirection.sphere(JamRandom.global(), n);
+
+        orthogonalize(x, Q, count);
+        orthogonalize(x, Q, count);
+
+        return scale(x, 1.0 / VectorUtil.norm2(x));
+    }
+
+    /**
+     * Returns the number of eigenpairs computed.
+     *
+     * @return the number of eigenpairs computed.
+     */
+    public int count() {
+        return values.length();
+    }
+
+    /**
+     * Returns the dimension of the Krylov subspace in which the
+     * eigenpairs converged.
+     *
+     * @return the dimension of the Krylov subspace in which the
+     * eigenpairs converged.
+     */
+    public int getSubspaceDimension() {
+        return subspaceDim;
+    }
+
+    /**
+     * Returns an eigenvalue.
+     *
+     * @param index the eigenvalue index, with eigenvalues in
+     * descending order.
+     *
+     * @return the eigenvalue with the specified index.
+     *
+     * @throws IndexOutOfBoundsException unless the index is valid.
+     */
+    public double getValue(int index) {
+        return values.getDouble(index);
+    }
+
+    /**
+     * Returns the eigenvalues in descending order.
+     *
+     * @return the eigenvalues in descending order.
+     */
+    public VectorView viewValues() {
+        return values;
+    }
+
+    /**
+     * Returns an eigenvector, with unit norm and its largest element
+     * (in magnitude) positive.
+     *
+     * @param index the index of the corresponding eigenvalue.
+     *
+     * @return the eigenvector with the specified index.
+     *
+     * @throws IndexOutOfBoundsException unless the index is valid.
+     */
+    public VectorView viewVector(int index) {
+        return vectors.viewColumn(index);
+    }
+
+    /**
+     * Returns the eigenvectors as matrix columns, ordered from left to
+     * right by descending eigenvalue.
+     *
+     * @return the eigenvectors as matrix columns.
+     */
+    public MatrixView viewVectors() {
+        return vectors;
+    }
+}
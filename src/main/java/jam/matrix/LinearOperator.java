@@ -0,0 +1,151 @@
+
+package jam.matrix;
+
+import java.util.function.UnaryOperator;
+
+import jam.vector.VectorView;
+
+/**
+ * Represents a linear transformation by its action on vectors (the
+ * matrix-vector product), without requiring explicit storage of the
+ * matrix elements.
+ *
+ * <p>The iterative solvers ({@link LanczosEigen}, {@link PowerIteration},
+ * and {@link ConjugateGradient}) access matrices only through this
+ * interface, so they apply equally to dense matrices, sparse matrices,
+ * and implicit matrices that are never formed (e.g., the covariance
+ * matrix {@code X'X} of a large data matrix {@code X}).
+ */
+public interface LinearOperator {
+    /**
+     * Returns the number of rows in the matrix represented by this
+     * operator (the length of the result vectors).
+     *
+     * @return the number of rows in the matrix represented by this
+     * operator.
+     */
+    public abstract int nrow();
+
+    /**
+     * Returns the number of columns in the matrix represented by this
+     * operator (the length of the operand vectors).
+     *
+     * @return the number of columns in the matrix represented by this
+     * operator.
+     */
+    public abstract int ncol();
+
+    /**
+     * Applies this operator to a vector.
+     *
+     * @param x the vector operand, which must not be modified.
+     *
+     * @return a new array containing the matrix-vector product
+     * {@code A * x}.
+     */
+    public abstract double[] apply(double[] x);
+
+    /**
+     * Creates an operator from a function that computes matrix-vector
+     * products.
+     *
+     * @param nrow the number of rows in the implicit matrix.
+     *
+     * @param ncol the number of columns in the implicit matrix.
+     *
+     * @param function a function that computes the matrix-vector
+     * product and returns it in a new array.
+     *
+     * @return an operator that computes matrix-vector products by
+     * applying the specified function.
+     *
+     * @throws IllegalArgumentException if either dimension is
+     * negative.
+     */
+    public static LinearOperator create(int nrow, int ncol, UnaryOperator<double[]> function) {
+        if (nrow < 0 || ncol < 0)
+            throw new IllegalArgumentException("Negative matrix dimension.");
+
+        return new LinearOperator() {
+            @Override public int nrow() {
+                return nrow;
+            }
+
+            @Override public int ncol() {
+                return ncol;
+            }
+
+            @Override public double[] apply(double[] x) {
+                if (x.length != ncol)
+                    throw new IllegalArgumentException("Factor dimension mismatch.");
+
+                return function.apply(x);
+            }
+        };
+    }
+
+    /**
+     * Creates an operator that multiplies vectors by a matrix.
+     *
+     * <p>Sparse matrices are used directly; other matrices are stored
+     * (once) in a dense array.
+     *
+     * @param matrix the matrix to apply.
+     *
+     * @return an operator that computes {@code matrix * x}.
+     */
+    public static LinearOperator of(MatrixView matrix) {
+        if (matrix instanceof SparseMatrix) {
+            SparseMatrix sparse = (SparseMatrix) matrix;
+            return create(sparse.nrow(), sparse.ncol(), x -> sparse.times(x));
+        }
+        else {
+            DenseMatrix dense = DenseMatrix.dense(matrix);
+            return create(dense.nrow(), dense.ncol(), x -> dense.times(x));
+        }
+    }
+
+    /**
+     * Creates an operator that multiplies vectors by the transpose of
+     * a matrix, without forming the transpose.
+     *
+     * @param matrix the matrix whose transpose is applied.
+     *
+     * @return an operator that computes {@code matrix' * x}.
+     */
+    public static LinearOperator transposeOf(MatrixView matrix) {
+        if (matrix instanceof SparseMatrix) {
+            SparseMatrix sparse = (SparseMatrix) matrix;
+            return create(sparse.ncol(), sparse.nrow(), x -> sparse.transposeTimes(x));
+        }
+        else {
+            DenseMatrix dense = DenseMatrix.dense(matrix);
+            return create(dense.ncol(), dense.nrow(), x -> dense.transposeTimes(x));
+        }
+    }
+
+    /**
+     * Applies this operator to a vector view.
+     *
+     * @param x the vector operand.
+     *
+     * @return a new array containing the matrix-vector product
+     * {@code A * x}.
+     *
+     * @throws IllegalArgumentException unless the length of the
+     * operand matches the number of columns in this operator.
+     */
+    public default double[] apply(VectorView x) {
+        return apply(x.toNumeric());
+    }
+
+    /**
+     * Ensures that this operator represents a square matrix.
+     *
+     * @throws IllegalArgumentException unless this operator represents
+     * a square matrix.
+     */
+    public default void validateSquare() {
+        MatrixView.validateSquare(nrow(), ncol());
+    }
+}
@@ -136,6 +136,24 @@ abstract class MatrixImpl extends MatrixView {
         return result;
     }
 
+    // Computes the product of the transpose of this matrix and a
+    // matrix factor (this' * factor).
+    MatrixImpl transposeTimes(MatrixView factor) {
+        if (this.nrow() != factor.nrow())
+            throw new IllegalArgumentException("Factor dimension mismatch.");
+
+        return transpose().times(factor);
+    }
+
+    // Computes the product of this matrix and the transpose of a
+    // matrix factor (this * factor').
+    MatrixImpl timesTranspose(MatrixView factor) {
+        if (this.ncol() != factor.ncol())
+            throw new IllegalArgumentException("Factor dimension mismatch.");
+
+        return times(DenseMatrix.dense(factor).transpose());
+    }
+
     MatrixImpl transpose() {
         MatrixImpl result = like(ncol(), nrow());
 
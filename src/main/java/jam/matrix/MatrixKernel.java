@@ -0,0 +1,333 @@
+
+package jam.matrix;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Package-scope computational kernels for dense matrix products.
+//
+// The kernels operate on matrices stored in flat arrays: the element
+// at [row, col] of a matrix with offset "off" and row stride "stride"
+// is located at index (off + row * stride + col), so the elements in
+// each row are contiguous.
+//
+// Every matrix-matrix product is reduced to the form A * B' with both
+// operands stored by row, so the innermost loop is a dot product over
+// two contiguous arrays. The loops are tiled so that one block of each
+// operand stays in cache while it is reused, the innermost block is
+// computed two rows by two columns at a time to halve the number of
+// memory loads, and large products are divided among the threads of
+// the common ForkJoin pool by blocks of rows.
+//
+final class MatrixKernel {
+    private MatrixKernel() {}
+
+    // Edge length of the square tiles, chosen so that a tile from each
+    // operand (2 * 64 * 64 * 8 bytes = 64 KB) fits in a typical L2 cache.
+    static final int BLOCK_SIZE = 64;
+
+    // Products requiring fewer multiply-add operations are computed on
+    // the calling thread; forking tasks would cost more than it saves.
+    static final long PARALLEL_THRESHOLD = 1L << 18;
+
+    // Computes a contiguous range of rows (or columns) of a result.
+    interface RangeKernel {
+        void compute(int from, int to);
+    }
+
+    private static final class RangeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final RangeKernel kernel;
+        private final int from;
+        private final int to;
+
+        private RangeTask(RangeKernel kernel, int from, int to) {
+            this.kernel = kernel;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override protected void compute() {
+            if (to - from <= BLOCK_SIZE) {
+                kernel.compute(from, to);
+            }
+            else {
+                // Split on a block boundary to keep the tiles aligned...
+                int mid = from + BLOCK_SIZE * (((to - from) / BLOCK_SIZE + 1) / 2);
+                invokeAll(new RangeTask(kernel, from, mid), new RangeTask(kernel, mid, to));
+            }
+        }
+    }
+
+    // Applies a kernel to the range [0, length), divided among threads
+    // if the total work (the number of multiply-add operations) is large.
+    static void execute(RangeKernel kernel, int length, long work) {
+        if (work < PARALLEL_THRESHOLD || length <= BLOCK_SIZE)
+            kernel.compute(0, length);
+        else
+            ForkJoinPool.commonPool().invoke(new RangeTask(kernel, 0, length));
+    }
+
+    // Accumulates the product A * B' into C, where A is (nrow x inner),
+    // B is (ncol x inner), and C is (nrow x ncol).
+    static void multiplyTransposed(double[] A, int aOff, int aStride,
+                                   double[] B, int bOff, int bStride,
+                                   double[] C, int cOff, int cStride,
+                                   int nrow, int ncol, int inner) {
+        execute((from, to) -> multiplyBlock(A, aOff, aStride, B, bOff, bStride, C, cOff, cStride, ncol, inner, from, to),
+                nrow, (long) nrow * (long) ncol * (long) inner);
+    }
+
+    // Accumulates rows [rowFrom, rowTo) of the product A * B' into C.
+    private static void multiplyBlock(double[] A, int aOff, int aStride,
+                                      double[] B, int bOff, int bStride,
+                                      double[] C, int cOff, int cStride,
+                                      int ncol, int inner, int rowFrom, int rowTo) {
+        for (int colBlock = 0; colBlock < ncol; colBlock += BLOCK_SIZE) {
+            int colEnd = Math.min(colBlock + BLOCK_SIZE, ncol);
+
+            for (int kBlock = 0; kBlock < inner; kBlock += BLOCK_SIZE) {
+                int kEnd = Math.min(kBlock + BLOCK_SIZE, inner);
+                int row  = rowFrom;
+
+                for (; row + 1 < rowTo; row += 2) {
+                    int a0 = aOff + row * aStride;
+                    int a1 = a0 + aStride;
+                    int c0 = cOff + row * cStride;
+                    int c1 = c0 + cStride;
+
+                    int col = colBlock;
+
+                    for (; col + 1 < colEnd; col += 2) {
+                        int b0 = bOff + col * bStride;
+                        int b1 = b0 + bStride;
+
+                        double s00 = 0.0;
+                        double s01 = 0.0;
+                        double s10 = 0.0;
+                        double s11 = 0.0;
+
+                        for (int k = kBlock; k < kEnd; ++k) {
+                            double x0 = A[a0 + k];
+                            double x1 = A[a1 + k];
+                            double y0 = B[b0 + k];
+                            double y1 = B[b1 + k];
+
+                            s00 += x0 * y0;
+                            s01 += x0 * y1;
+                            s10 += x1 * y0;
+                            s11 += x1 * y1;
+                        }
+
+                        C[c0 + col]     += s00;
+                        C[c0 + col + 1] += s01;
+                        C[c1 + col]     += s10;
+                        C[c1 + col + 1] += s11;
+                    }
+
+                    if (col < colEnd) {
+                        int b0 = bOff + col * bStride;
+
+                        C[c0 + col] += dot(A, a0, B, b0, kBlock, kEnd);
+                        C[c1 + col] += dot(A, a1, B, b0, kBlock, kEnd);
+                    }
+                }
+
+                if (row < rowTo) {
+                    int a0 = aOff + row * aStride;
+                    int c0 = cOff + row * cStride;
+
+                    for (int col = colBlock; col < colEnd; ++col)
+                        C[c0 + col] += dot(A, a0, B, bOff + col * bStride, kBlock, kEnd);
+                }
+            }
+        }
+    }
+
+    private static double dot(double[] x, int xOff, double[] y, int yOff, int from, int to) {
+        double result = 0.0;
+
+        for (int k = from; k < to; ++k)
+            result += x[xOff + k] * y[yOff + k];
+
+        return result;
+    }
+
+    // Computes the matrix-vector product A * x for an (nrow x ncol)
+    // matrix A.
+    static double[] times(double[] A, int aOff, int aStride, int nrow, int ncol, double[] x) {
+        double[] y = new double[nrow];
+
+        execute((from, to) -> {
+                for (int row = from; row < to; ++row)
+                    y[row] = dot(A, aOff + row * aStride, x, 0, 0, ncol);
+            }, nrow, (long) nrow * (long) ncol);
+
+        return y;
+    }
+
+    // Computes the vector-matrix product x' * A (equivalently, A' * x)
+    // for an (nrow x ncol) matrix A by accumulating scaled rows of A,
+    // which traverses A in storage order; the columns of the result
+    // are divided among threads.
+    static double[] transposeTimes(double[] A, int aOff, int aStride, int nrow, int ncol, double[] x) {
+        double[] y = new double[ncol];
+
+        execute((from, to) -> {
+                for (int row = 0; row < nrow; ++row) {
+                    double scalar = x[row];
+                    int    start  = aOff + row * aStride;
+
+                    for (int col = from; col < to; ++col)
+                        y[col] += scalar * A[start + col];
+                }
+            }, ncol, (long) nrow * (long) ncol);
+
+        return y;
+    }
+
+    // Copies an (nrow x ncol) matrix with arbitrary row and column
+    // strides into a new contiguous row-major array.
+    static double[] pack(double[] A, int aOff, int rowStride, int colStride, int nrow, int ncol) {
+        double[] P = new double[Math.multiplyExact(nrow, ncol)];
+
+        for (int row = 0; row < nrow; ++row) {
+            int src = aOff + row * rowStride;
+            int dst = row * ncol;
+
+            if (colStride == 1)
+                System.arraycopy(A, src, P, dst, ncol);
+            else
+                for (int col = 0; col < ncol; ++col)
+                    P[dst + col] = A[src + col * colStride];
+        }
+
+        return P;
+    }
+
+    // Transposes an (nrow x ncol) matrix with arbitrary row and column
+    // strides into a new contiguous row-major (ncol x nrow) array, one
+    // tile at a time so that both the elements being read and those
+    // being written stay in cache.
+    static double[] transpose(double[] A, int aOff, int rowStride, int colStride, int nrow, int ncol) {
+        double[] T = new double[Math.multiplyExact(nrow, ncol)];
+
+        for (int rowBlock = 0; rowBlock < nrow; rowBlock += BLOCK_SIZE) {
+            int rowEnd = Math.min(rowBlock + BLOCK_SIZE, nrow);
+
+            for (int colBlock = 0; colBlock < ncol; colBlock += BLOCK_SIZE) {
+                int colEnd = Math.min(colBlock + BLOCK_SIZE, ncol);
+
+                for (int row = rowBlock; row < rowEnd; ++row) {
+                    int src = aOff + row * rowStride;
+
+                    for (int col = colBlock; col < colEnd; ++col)
+                        T[col * nrow + row] = A[src + col * colStride];
+                }
+            }
+        }
+
+        return T;
+    }
+
+    // ---------------------------------------------------------------
+    // Products of bare (double[][]) matrices, which are copied into
+    // flat arrays before applying the kernels above.
+    // ---------------------------------------------------------------
+
+    // Returns the number of columns in a rectangular bare matrix (zero
+    // for a matrix with no rows).
+    private static int ncol(double[][] matrix) {
+        return (matrix.length > 0) ? matrix[0].length : 0;
+    }
+
+    private static double[] flatten(double[][] matrix) {
+        int nrow = matrix.length;
+        int ncol = ncol(matrix);
+
+        double[] flat = new double[Math.multiplyExact(nrow, ncol)];
+
+        for (int row = 0; row < nrow; ++row) {
+            if (matrix[row].length != ncol)
+                throw new IllegalArgumentException("Ragged matrix.");
+
+            System.arraycopy(matrix[row], 0, flat, row * ncol, ncol);
+        }
+
+        return flat;
+    }
+
+    private static double[][] unflatten(double[] flat, int nrow, int ncol) {
+        double[][] matrix = new double[nrow][ncol];
+
+        for (int row = 0; row < nrow; ++row)
+            System.arraycopy(flat, row * ncol, matrix[row], 0, ncol);
+
+        return matrix;
+    }
+
+    // Computes the product A * B.
+    static double[][] times(double[][] A, double[][] B) {
+        if (ncol(A) != B.length)
+            throw new IllegalArgumentException("Factor dimension mismatch.");
+
+        int nrow  = A.length;
+        int ncol  = ncol(B);
+        int inner = B.length;
+
+        double[] Bt = transpose(flatten(B), 0, ncol, 1, inner, ncol);
+        double[] C  = new double[Math.multiplyExact(nrow, ncol)];
+
+        multiplyTransposed(flatten(A), 0, inner, Bt, 0, inner, C, 0, ncol, nrow, ncol, inner);
+        return unflatten(C, nrow, ncol);
+    }
+
+    // Computes the product A' * B.
+    static double[][] transposeTimes(double[][] A, double[][] B) {
+        if (A.length != B.length)
+            throw new IllegalArgumentException("Factor dimension mismatch.");
+
+        int nrow  = ncol(A);
+        int ncol  = ncol(B);
+        int inner = A.length;
+
+        double[] At = transpose(flatten(A), 0, nrow, 1, inner, nrow);
+        double[] Bt = transpose(flatten(B), 0, ncol, 1, inner, ncol);
+        double[] C  = new double[Math.multiplyExact(nrow, ncol)];
+
+        multiplyTransposed(At, 0, inner, Bt, 0, inner, C, 0, ncol, nrow, ncol, inner);
+        return unflatten(C, nrow, ncol);
+    }
+
+    // Computes the product A * B'.
+    static double[][] timesTranspose(double[][] A, double[][] B) {
+        if (ncol(A) != ncol(B))
+            throw new IllegalArgumentException("Factor dimension mismatch.");
+
+        int nrow  = A.length;
+        int ncol  = B.length;
+        int inner = ncol(A);
+
+        double[] C = new double[Math.multiplyExact(nrow, ncol)];
+
+        multiplyTransposed(flatten(A), 0, inner, flatten(B), 0, inner, C, 0, ncol, nrow, ncol, inner);
+        return unflatten(C, nrow, ncol);
+    }
+
+    // Computes the matrix-vector product A * x.
+    static double[] times(double[][] A, double[] x) {
+        if (ncol(A) != x.length)
+            throw new IllegalArgumentException("Factor dimension mismatch.");
+
+        return times(flatten(A), 0, x.length, A.length, x.length, x);
+    }
+
+    // Computes the vector-matrix product x' * A.
+    static double[] transposeTimes(double[][] A, double[] x) {
+        if (A.length != x.length)
+            throw new IllegalArgumentException("Factor dimension mismatch.");
+
+        return transposeTimes(flatten(A), 0, ncol(A), A.length, ncol(A), x);
+    }
+}
@@ -248,6 +248,74 @@ public final class MatrixUtil {
         return means;
     }
 
+    /**
+     * Computes the product of two bare matrices using a cache-blocked
+     * algorithm that is distributed over multiple threads for large
+     * matrices.
+     *
+     * @param A the left factor.
+     *
+     * @param B the right factor.
+     *
+     * @return the matrix product {@code A * B}.
+     *
+     * @throws IllegalArgumentException unless the number of columns
+     * in {@code A} matches the number of rows in {@code B}.
+     */
+    public static double[][] times(double[][] A, double[][] B) {
+        return MatrixKernel.times(A, B);
+    }
+
+    /**
+     * Computes the product of a bare matrix and a vector.
+     *
+     * @param A the matrix factor.
+     *
+     * @param x the vector factor.
+     *
+     * @return the matrix-vector product {@code A * x}.
+     *
+     * @throws IllegalArgumentException unless the number of columns
+     * in {@code A} matches the length of {@code x}.
+     */
+    public static double[] times(double[][] A, double[] x) {
+        return MatrixKernel.times(A, x);
+    }
+
+    /**
+     * Computes the product of one bare matrix and the transpose of
+     * another.
+     *
+     * @param A the left factor.
+     *
+     * @param B the right factor (to be transposed).
+     *
+     * @return the matrix product {@code A * B'}.
+     *
+     * @throws IllegalArgumentException unless {@code A} and {@code B}
+     * have the same number of columns.
+     */
+    public static double[][] timesTranspose(double[][] A, double[][] B) {
+        return MatrixKernel.timesTranspose(A, B);
+    }
+
+    /**
+     * Computes the product of the transpose of one bare matrix and
+     * another.
+     *
+     * @param A the left factor (to be transposed).
+     *
+     * @param B the right factor.
+     *
+     * @return the matrix product {@code A' * B}.
+     *
+     * @throws IllegalArgumentException unless {@code A} and {@code B}
+     * have the same number of rows.
+     */
+    public static double[][] transposeTimes(double[][] A, double[][] B) {
+        return MatrixKernel.transposeTimes(A, B);
+    }
+
     /**
      * Verifies that a bare matrix is rectangular.
      *
@@ -184,6 +184,28 @@ public abstract class MatrixView implements NumericMatrix, Iterable<MatrixCursor
         return new ColumnView(this, col);
     }
 
+    /**
+     * Returns a shallow read-only view of a rectangular block of
+     * elements in this matrix.
+     *
+     * @param row0 the index of the first row in the block.
+     *
+     * @param col0 the index of the first column in the block.
+     *
+     * @param nrow the number of rows in the block.
+     *
+     * @param ncol the number of columns in the block.
+     *
+     * @return a view {@code v} of the block such that {@code
+     * v.get(i, j) == this.get(row0 + i, col0 + j)}.
+     *
+     * @throws IndexOutOfBoundsException unless the block lies within
+     * this matrix.
+     */
+    public MatrixView viewSubmatrix(int row0, int col0, int nrow, int ncol) {
+        return new SubmatrixView(this, row0, col0, nrow, ncol);
+    }
+
     /**
      * Returns a shallow read-only view of the columns in this matrix.
      *
@@ -301,6 +323,28 @@ public abstract class MatrixView implements NumericMatrix, Iterable<MatrixCursor
             throw new IndexOutOfBoundsException(String.format("Column index [%d] out of bounds: [0, %d).", col, ncol()));
     }
 
+    /**
+     * Validates the location of a rectangular block of elements.
+     *
+     * @param row0 the index of the first row in the block.
+     *
+     * @param col0 the index of the first column in the block.
+     *
+     * @param nrow the number of rows in the block.
+     *
+     * @param ncol the number of columns in the block.
+     *
+     * @throws IndexOutOfBoundsException unless the block lies within
+     * this matrix.
+     */
+    public void validateSubmatrix(int row0, int col0, int nrow, int ncol) {
+        if (row0 < 0 || nrow < 0 || row0 + nrow > nrow())
+            throw new IndexOutOfBoundsException(String.format("Row block [%d, %d) out of bounds: [0, %d).", row0, row0 + nrow, nrow()));
+
+        if (col0 < 0 || ncol < 0 || col0 + ncol > ncol())
+            throw new IndexOutOfBoundsException(String.format("Column block [%d, %d) out of bounds: [0, %d).", col0, col0 + ncol, ncol()));
+    }
+
     /**
      * Validates a matrix operand in element-by-element algebraic
      * operations (e.g., matrix addition and subtraction).
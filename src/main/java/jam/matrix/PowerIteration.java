@@ -0,0 +1,155 @@
+
+package jam.matrix;
+
+import jam.lang.JamException;
+import jam.vector.JamVector;
+import jam.vector.VectorUtil;
+import jam.vector.VectorView;
+
+/**
+ * Computes the dominant eigenvalue (the eigenvalue with the largest
+ * magnitude) and the corresponding eigenvector of a square matrix by
+ * power iteration.
+ *
+ * <p>Power iteration repeatedly applies the matrix to a vector and
+ * rescales the result. It requires only matrix-vector products and
+ * storage for two vectors, applies to non-symmetric matrices, and
+ * converges at a rate given by the ratio of the second-largest to the
+ * largest eigenvalue magnitude. It is the natural method to compute
+ * the stationary distribution of a regular stochastic matrix, whose
+ * dominant eigenvalue is one and well separated from the others.
+ */
+public final class PowerIteration {
+    private final double value;
+    private final JamVector vector;
+    private final int iterations;
+
+    /**
+     * The default tolerance for the relative residual norm:
+     * {@code |A x - lambda x| <= tolerance * |lambda|}.
+     */
+    public static final double DEFAULT_TOLERANCE = 1.0E-10;
+
+    /**
+     * The default maximum number of iterations.
+     */
+    public static final int DEFAULT_MAX_ITERATIONS = 100000;
+
+    private PowerIteration(double value, JamVector vector, int iterations) {
+        this.value = value;
+        this.vector = vector;
+        this.iterations = iterations;
+    }
+
+    /**
+     * Computes the dominant eigenpair of a square matrix starting
+     * from a uniform vector, with the default tolerance and iteration
+     * limit.
+     *
+     * @param operator the matrix-vector product operator.
+     *
+     * @return the dominant eigenpair.
+     *
+     * @throws IllegalArgumentException unless the operator is square.
+     *
+     * @throws RuntimeException if the iteration does not converge.
+     */
+    public static PowerIteration compute(LinearOperator operator) {
+        operator.validateSquare();
+        return compute(operator, JamVector.ones(operator.nrow()), DEFAULT_TOLERANCE, DEFAULT_MAX_ITERATIONS);
+    }
+
+    /**
+     * Computes the dominant eigenpair of a square matrix.
+     *
+     * @param operator the matrix-vector product operator.
+     *
+     * @param start the initial vector, which must not be orthogonal to
+     * the dominant eigenvector.
+     *
+     * @param tolerance the tolerance for the relative residual norm.
+     *
+     * @param maxIterations the maximum number of iterations.
+     *
+     * @return the dominant eigenpair.
+     *
+     * @throws IllegalArgumentException unless the operator is square
+     * and the starting vector has the same dimension and a non-zero
+     * norm.
+     *
+     * @throws RuntimeException if the iteration does not converge.
+     */
+    public static PowerIteration compute(LinearOperator operator, VectorView start, double tolerance, int maxIterations) {
+        operator.validateSquare();
+
+        if (start.length() != operator.ncol())
+            throw new IllegalArgumentException("Starting vector dimension mismatch.");
+
+        double[] x = start.toNumeric();
+        double norm = VectorUtil.norm2(x);
+
+        if (norm == 0.0)
+            throw new IllegalArgumentException("Starting vector has zero norm.");
+
+        rescale(x, 1.0 / norm);
+
+        for (int iter = 1; iter <= maxIterations; ++iter) {
+            double[] y = operator.apply(x);
+
+            // The Rayleigh quotient (for a unit vector x)...
+            double lambda = VectorUtil.dot(x, y);
+
+            // The residual y - lambda * x...
+            double[] r = y.clone();
+            VectorUtil.axpy(-lambda, x, r);
+
+            if (VectorUtil.norm2(r) <= tolerance * Math.abs(lambda)) {
+                LanczosEigen.normalize(x);
+                return new PowerIteration(lambda, JamVector.copyOf(x), iter);
+            }
+
+            norm = VectorUtil.norm2(y);
+
+            if (norm == 0.0)
+                throw JamException.runtime("Power iteration reached the null space.");
+
+            rescale(y, 1.0 / norm);
+            x = y;
+        }
+
+        throw JamException.runtime("Power iteration did not converge after [%d] iterations.", maxIterations);
+    }
+
+    private static void rescale(double[] x, double factor) {
+        for (int i = 0; i < x.length; ++i)
+            x[i] *= factor;
+    }
+
+    /**
+     * Returns the number of iterations required for convergence.
+     *
+     * @return the number of iterations required for convergence.
+     */
+    public int countIterations() {
+        return iterations;
+    }
+
+    /**
+     * Returns the dominant eigenvalue.
+     *
+     * @return the dominant eigenvalue.
+     */
+    public double getValue() {
+        return value;
+    }
+
+    /**
+     * Returns the dominant eigenvector, with unit norm and its largest
+     * element (in magnitude) positive.
+     *
+     * @return the dominant eigenvector.
+     */
+    public VectorView viewVector() {
+        return vector;
+    }
+}
@@ -0,0 +1,201 @@
+
+package jam.matrix;
+
+import java.util.Arrays;
+
+import jam.vector.JamVector;
+import jam.vector.VectorView;
+
+/**
+ * Represents an immutable sparse matrix that stores only its non-zero
+ * elements in compressed row ({@link CSRMatrix}) or compressed column
+ * ({@link CSCMatrix}) format.
+ *
+ * <p>Sparse matrices are created by a {@link SparseMatrixBuilder} from
+ * coordinate triples or by copying the non-zero elements of another
+ * matrix. The products computed by sparse matrices require time
+ * proportional to the number of non-zero elements rather than the
+ * total number of elements.
+ */
+public abstract class SparseMatrix extends MatrixView {
+    // Only CSRMatrix and CSCMatrix are supported...
+    SparseMatrix() {}
+
+    /**
+     * Returns the number of explicitly stored (non-zero) elements.
+     *
+     * @return the number of explicitly stored (non-zero) elements.
+     */
+    public abstract int countNonZero();
+
+    /**
+     * Computes the matrix-vector product {@code this * factor}.
+     *
+     * @param factor the (column) vector factor.
+     *
+     * @return the matrix-vector product {@code this * factor}.
+     *
+     * @throws IllegalArgumentException unless the length of the
+     * factor matches the number of columns in this matrix.
+     */
+    public abstract JamVector times(VectorView factor);
+
+    /**
+     * Computes the vector-matrix product {@code factor' * this}
+     * (equivalently, the matrix-vector product {@code this' * factor}).
+     *
+     * @param factor the (row) vector factor.
+     *
+     * @return the vector-matrix product {@code factor' * this}.
+     *
+     * @throws IllegalArgumentException unless the length of the
+     * factor matches the number of rows in this matrix.
+     */
+    public abstract JamVector transposeTimes(VectorView factor);
+
+    /**
+     * Computes the matrix product {@code this * factor} with a dense
+     * (or any other) right factor.
+     *
+     * @param factor the right factor.
+     *
+     * @return the dense matrix product {@code this * factor}.
+     *
+     * @throws IllegalArgumentException unless the number of rows in
+     * the factor matches the number of columns in this matrix.
+     */
+    public abstract JamMatrix times(MatrixView factor);
+
+    /**
+     * Returns the transpose of this matrix, which shares the storage
+     * of this matrix: the transpose of a compressed row matrix is a
+     * compressed column matrix and vice versa.
+     *
+     * @return the transpose of this matrix.
+     */
+    public abstract SparseMatrix transpose();
+
+    // Computes the matrix-vector product (this * factor) for a bare
+    // factor of valid length.
+    abstract double[] times(double[] factor);
+
+    // Computes the vector-matrix product (factor' * this) for a bare
+    // factor of valid length.
+    abstract double[] transposeTimes(double[] factor);
+
+    /**
+     * Returns the fraction of elements that are explicitly stored.
+     *
+     * @return the fraction of elements that are explicitly stored.
+     */
+    public double density() {
+        return ((double) countNonZero()) / (((double) nrow()) * ((double) ncol()));
+    }
+
+    /**
+     * Returns a dense copy of this matrix.
+     *
+     * @return a dense copy of this matrix.
+     */
+    public JamMatrix toDense() {
+        return new JamMatrix(toNumeric());
+    }
+
+    // Returns the value stored at a minor index within the major slice
+    // [ptr[major], ptr[major + 1]) of a compressed matrix, or zero if
+    // the element is not stored.
+    static double find(int[] ptr, int[] index, double[] values, int major, int minor) {
+        int k = Arrays.binarySearch(index, ptr[major], ptr[major + 1], minor);
+
+        if (k >= 0)
+            return values[k];
+        else
+            return 0.0;
+    }
+
+    // Expands the pointer array of a compressed matrix into the major
+    // index of each stored element.
+    static int[] expand(int[] ptr, int nmajor) {
+        int[] major = new int[ptr[nmajor]];
+
+        for (int slice = 0; slice < nmajor; ++slice)
+            Arrays.fill(major, ptr[slice], ptr[slice + 1], slice);
+
+        return major;
+    }
+
+    // Compresses coordinate triples (major[k], minor[k], values[k]) for
+    // k in [0, size) into the arrays {ptr, index, values} of a compressed
+    // matrix with minor indexes sorted within each major slice. Duplicate
+    // coordinates are summed and elements equal to zero are dropped.
+    //
+    // The triples are ordered by two stable counting sorts, first by the
+    // minor index and then by the major index, so the compression takes
+    // time proportional to (size + nmajor + nminor).
+    static Compressed compress(int nmajor, int nminor, int[] major, int[] minor, double[] values, int size) {
+        int[] order = countingSort(minor, nminor, size, null);
+        order = countingSort(major, nmajor, size, order);
+
+        int[]    ptr   = new int[nmajor + 1];
+        int[]    index = new int[size];
+        double[] elems = new double[size];
+
+        int count = 0;
+        int k = 0;
+
+        for (int slice = 0; slice < nmajor; ++slice) {
+            ptr[slice] = count;
+
+            while (k < size && major[order[k]] == slice) {
+                int    col = minor[order[k]];
+                double sum = values[order[k]];
+
+                for (++k; k < size && major[order[k]] == slice && minor[order[k]] == col; ++k)
+                    sum += values[order[k]];
+
+                if (sum != 0.0) {
+                    index[count] = col;
+                    elems[count] = sum;
+                    ++count;
+                }
+            }
+        }
+
+        ptr[nmajor] = count;
+        return new Compressed(ptr, Arrays.copyOf(index, count), Arrays.copyOf(elems, count));
+    }
+
+    // Returns the permutation that stably sorts the elements listed in
+    // the input order (or [0, size) if the order is null) by their keys.
+    private static int[] countingSort(int[] keys, int nkeys, int size, int[] input) {
+        int[] start = new int[nkeys + 1];
+
+        for (int k = 0; k < size; ++k)
+            ++start[keys[k] + 1];
+
+        for (int key = 0; key < nkeys; ++key)
+            start[key + 1] += start[key];
+
+        int[] output = new int[size];
+
+        for (int k = 0; k < size; ++k) {
+            int elem = (input != null) ? input[k] : k;
+            output[start[keys[elem]]++] = elem;
+        }
+
+        return output;
+    }
+
+    // The storage arrays of a compressed matrix.
+    static final class Compressed {
+        final int[] ptr;
+        final int[] index;
+        final double[] values;
+
+        Compressed(int[] ptr, int[] index, double[] values) {
+            this.ptr = ptr;
+            this.index = index;
+            this.values = values;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+
+package jam.matrix;
+
+import java.util.Arrays;
+
+/**
+ * Builds sparse matrices from coordinate triples {@code (row, col,
+ * value)}.
+ *
+ * <p>Elements may be added in any order. Values added more than once
+ * at the same location are summed, and elements whose (summed) value
+ * is zero are not stored. A builder may create any number of matrices;
+ * matrices that have already been built are unaffected by elements
+ * added subsequently.
+ */
+public final class SparseMatrixBuilder {
+    private final int nrow;
+    private final int ncol;
+
+    private int size = 0;
+    private int[] rows;
+    private int[] cols;
+    private double[] values;
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private SparseMatrixBuilder(int nrow, int ncol, int capacity) {
+        if (nrow < 0 || ncol < 0)
+            throw new IllegalArgumentException("Negative matrix dimension.");
+
+        if (capacity < 1)
+            throw new IllegalArgumentException("Capacity must be positive.");
+
+        this.nrow = nrow;
+        this.ncol = ncol;
+        this.rows = new int[capacity];
+        this.cols = new int[capacity];
+        this.values = new double[capacity];
+    }
+
+    /**
+     * Creates a new builder for sparse matrices with fixed dimensions.
+     *
+     * @param nrow the number of matrix rows.
+     *
+     * @param ncol the number of matrix columns.
+     *
+     * @return a new builder for sparse matrices with the specified
+     * dimensions.
+     *
+     * @throws IllegalArgumentException if either dimension is
+     * negative.
+     */
+    public static SparseMatrixBuilder create(int nrow, int ncol) {
+        return create(nrow, ncol, INITIAL_CAPACITY);
+    }
+
+    /**
+     * Creates a new builder for sparse matrices with fixed dimensions
+     * and storage pre-allocated for an expected number of elements.
+     *
+     * @param nrow the number of matrix rows.
+     *
+     * @param ncol the number of matrix columns.
+     *
+     * @param capacity the expected number of elements.
+     *
+     * @return a new builder for sparse matrices with the specified
+     * dimensions.
+     *
+     * @throws IllegalArgumentException if either dimension is negative
+     * or the capacity is not positive.
+     */
+    public static SparseMatrixBuilder create(int nrow, int ncol, int capacity) {
+        return new SparseMatrixBuilder(nrow, ncol, capacity);
+    }
+
+    /**
+     * Adds a value to the element at a given location.
+     *
+     * @param row the row index of the element.
+     *
+     * @param col the column index of the element.
+     *
+     * @param value the value to add.
+     *
+     * @throws IndexOutOfBoundsException unless the location is valid.
+     */
+    public void add(int row, int col, double value) {
+        if (row < 0 || row >= nrow)
+            throw new IndexOutOfBoundsException(String.format("Row index [%d] out of bounds: [0, %d).", row, nrow));
+
+        if (col < 0 || col >= ncol)
+            throw new IndexOutOfBoundsException(String.format("Column index [%d] out of bounds: [0, %d).", col, ncol));
+
+        if (value == 0.0)
+            return;
+
+        if (size == values.length)
+            grow();
+
+        rows[size] = row;
+        cols[size] = col;
+        values[size] = value;
+        ++size;
+    }
+
+    private void grow() {
+        int capacity = Math.max(INITIAL_CAPACITY, 2 * values.length);
+
+        rows = Arrays.copyOf(rows, capacity);
+        cols = Arrays.copyOf(cols, capacity);
+        values = Arrays.copyOf(values, capacity);
+    }
+
+    /**
+     * Builds a sparse matrix in compressed row format.
+     *
+     * @return a new sparse matrix in compressed row format containing
+     * the elements added to this builder.
+     */
+    public CSRMatrix buildCSR() {
+        return new CSRMatrix(nrow, ncol, SparseMatrix.compress(nrow, ncol, rows, cols, values, size));
+    }
+
+    /**
+     * Builds a sparse matrix in compressed column format.
+     *
+     * @return a new sparse matrix in compressed column format
+     * containing the elements added to this builder.
+     */
+    public CSCMatrix buildCSC() {
+        return new CSCMatrix(nrow, ncol, SparseMatrix.compress(ncol, nrow, cols, rows, values, size));
+    }
+
+    /**
+     * Returns the number of (non-zero) coordinate triples added to
+     * this builder, including duplicate locations.
+     *
+     * @return the number of coordinate triples added to this builder.
+     */
+    public int size() {
+        return size;
+    }
+}
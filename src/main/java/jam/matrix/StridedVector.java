@@ -0,0 +1,45 @@
+
+package jam.matrix;
+
+import jam.vector.AbstractVector;
+
+// Package-scope read-only view of equally spaced elements in a flat
+// array (a row, column, or diagonal of a dense matrix); the view
+// shares the underlying array and copies nothing.
+//
+final class StridedVector extends AbstractVector {
+    private final double[] data;
+    private final int offset;
+    private final int length;
+    private final int stride;
+
+    StridedVector(double[] data, int offset, int length, int stride) {
+        this.data = data;
+        this.offset = offset;
+        this.length = length;
+        this.stride = stride;
+    }
+
+    @Override public int length() {
+        return length;
+    }
+
+    @Override public double getDouble(int index) {
+        if (index < 0 || index >= length)
+            throw new IndexOutOfBoundsException(String.format("Index [%d] out of bounds: [0, %d).", index, length));
+
+        return data[offset + index * stride];
+    }
+
+    @Override public double[] toNumeric() {
+        double[] result = new double[length];
+
+        if (stride == 1)
+            System.arraycopy(data, offset, result, 0, length);
+        else
+            for (int index = 0; index < length; ++index)
+                result[index] = data[offset + index * stride];
+
+        return result;
+    }
+}
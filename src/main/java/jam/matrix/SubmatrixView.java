@@ -0,0 +1,33 @@
+
+package jam.matrix;
+
+final class SubmatrixView extends MatrixView {
+    private final MatrixView matrix;
+    private final int row0;
+    private final int col0;
+    private final int nrow;
+    private final int ncol;
+
+    SubmatrixView(MatrixView matrix, int row0, int col0, int nrow, int ncol) {
+        matrix.validateSubmatrix(row0, col0, nrow, ncol);
+
+        this.matrix = matrix;
+        this.row0 = row0;
+        this.col0 = col0;
+        this.nrow = nrow;
+        this.ncol = ncol;
+    }
+
+    @Override public int nrow() {
+        return nrow;
+    }
+
+    @Override public int ncol() {
+        return ncol;
+    }
+
+    @Override public double get(int row, int col) {
+        validateIndex(row, col);
+        return matrix.get(row0 + row, col0 + col);
+    }
+}
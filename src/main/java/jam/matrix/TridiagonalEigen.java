@@ -0,0 +1,169 @@
+
+package jam.matrix;
+
+import jam.lang.JamException;
+
+// Package-scope eigenvalue decomposition of a symmetric tridiagonal
+// matrix by the QL algorithm with implicit shifts (the EISPACK routine
+// tql2, as adapted in the public-domain JAMA library).
+//
+// The Lanczos iteration reduces a large symmetric matrix to a small
+// tridiagonal matrix, whose eigenpairs are computed here in O(m^2)
+// operations (plus O(m^3) for the eigenvectors).
+//
+final class TridiagonalEigen {
+    // Eigenvalues in descending order...
+    private final double[] values;
+
+    // Eigenvectors stored by column: vectors[i][k] is element i of
+    // the eigenvector for values[k]...
+    private final double[][] vectors;
+
+    private static final int MAX_ITERATIONS = 100;
+
+    // Decomposes the matrix with the specified diagonal (length m) and
+    // off-diagonal (length m - 1) elements.
+    TridiagonalEigen(double[] diagonal, double[] offDiagonal) {
+        int m = diagonal.length;
+
+        if (offDiagonal.length != Math.max(0, m - 1))
+            throw new IllegalArgumentException("Inconsistent tridiagonal dimensions.");
+
+        double[] d = diagonal.clone();
+        double[] e = new double[m];
+        double[][] V = new double[m][m];
+
+        System.arraycopy(offDiagonal, 0, e, 0, offDiagonal.length);
+
+        for (int i = 0; i < m; ++i)
+            V[i][i] = 1.0;
+
+        ql(d, e, V);
+        sort(d, V);
+
+        this.values = d;
+        this.vectors = V;
+    }
+
+    private static void ql(double[] d, double[] e, double[][] V) {
+        int n = d.length;
+
+        double f = 0.0;
+        double tst1 = 0.0;
+        double eps = Math.ulp(1.0);
+
+        for (int l = 0; l < n; ++l) {
+            // Find a small sub-diagonal element...
+            tst1 = Math.max(tst1, Math.abs(d[l]) + Math.abs(e[l]));
+            int m = l;
+
+            while (m < n - 1 && Math.abs(e[m]) > eps * tst1)
+                ++m;
+
+            // If m == l, d[l] is already an eigenvalue; otherwise,
+            // iterate...
+            if (m > l) {
+                int iter = 0;
+
+                do {
+                    if (++iter > MAX_ITERATIONS)
+                        throw JamException.runtime("Tridiagonal QL iteration did not converge.");
+
+                    // Compute the implicit shift...
+                    double g = d[l];
+                    double p = (d[l + 1] - g) / (2.0 * e[l]);
+                    double r = Math.hypot(p, 1.0);
+
+                    if (p < 0)
+                        r = -r;
+
+                    d[l] = e[l] / (p + r);
+                    d[l + 1] = e[l] * (p + r);
+
+                    double dl1 = d[l + 1];
+                    double h = g - d[l];
+
+                    for (int i = l + 2; i < n; ++i)
+                        d[i] -= h;
+
+                    f += h;
+
+                    // Implicit QL transformation...
+                    p = d[m];
+
+                    double c = 1.0;
+                    double c2 = c;
+                    double c3 = c;
+                    double el1 = e[l + 1];
+                    double s = 0.0;
+                    double s2 = 0.0;
+
+                    for (int i = m - 1; i >= l; --i) {
+                        c3 = c2;
+                        c2 = c;
+                        s2 = s;
+                        g = c * e[i];
+                        h = c * p;
+                        r = Math.hypot(p, e[i]);
+                        e[i + 1] = s * r;
+                        s = e[i] / r;
+                        c = p / r;
+                        p = c * d[i] - s * g;
+                        d[i + 1] = h + s * (c * g + s * d[i]);
+
+                        // Accumulate the transformation...
+                        for (int k = 0; k < n; ++k) {
+                            h = V[k][i + 1];
+                            V[k][i + 1] = s * V[k][i] + c * h;
+                            V[k][i] = c * V[k][i] - s * h;
+                        }
+                    }
+
+                    p = -s * s2 * c3 * el1 * e[l] / dl1;
+                    e[l] = s * p;
+                    d[l] = c * p;
+                } while (Math.abs(e[l]) > eps * tst1);
+            }
+
+            d[l] += f;
+            e[l] = 0.0;
+        }
+    }
+
+    // Sorts the eigenvalues into descending order (by selection, since
+    // the matrices are small) and permutes the eigenvectors to match.
+    private static void sort(double[] d, double[][] V) {
+        int n = d.length;
+
+        for (int i = 0; i < n - 1; ++i) {
+            int k = i;
+
+            for (int j = i + 1; j < n; ++j)
+                if (d[j] > d[k])
+                    k = j;
+
+            if (k != i) {
+                double p = d[k];
+                d[k] = d[i];
+                d[i] = p;
+
+                for (int j = 0; j < n; ++j) {
+                    p = V[j][i];
+                    V[j][i] = V[j][k];
+                    V[j][k] = p;
+                }
+            }
+        }
+    }
+
+    // Returns the k-th largest eigenvalue.
+    double value(int k) {
+        return values[k];
+    }
+
+    // Returns element i of the eigenvector for the k-th largest
+    // eigenvalue.
+    double vector(int i, int k) {
+        return vectors[i][k];
+    }
+}
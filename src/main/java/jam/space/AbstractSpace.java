@@ -2,9 +2,13 @@
 package jam.space;
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import jam.bravais.UnitIndex;
+import jam.math.Point;
 
 /**
  * Defines a spatial arrangement of discrete points.
@@ -13,6 +17,9 @@ public abstract class AbstractSpace implements Space {
     private final SiteMap siteMap;
     private final NeighborMap neighborMap;
 
+    // Spatial index over the site points, created on demand...
+    private KDTreeIndex<Site> siteIndex = null;
+
     /**
      * Creates a new discrete space with fixed sites and neighbors.
      *
@@ -39,6 +46,53 @@ public abstract class AbstractSpace implements Space {
         return neighborMap.getNeighbors(site);
     }
 
+    @Override public Site nearestSite(Point point) {
+        return getSiteIndex().findNearest(point);
+    }
+
+    /**
+     * Finds all sites within a given distance of a point in
+     * continuous space using a k-d tree over the site points.
+     *
+     * <p>Distances are measured between the absolute site points;
+     * periodic images of the sites are not considered.
+     *
+     * @param center the point of interest.
+     *
+     * @param range the maximum distance (inclusive).
+     *
+     * @return a list containing every site whose distance from the
+     * specified point is less than or equal to the range (in no
+     * particular order).
+     */
+    @Override public List<Site> sitesWithin(Point center, double range) {
+        return getSiteIndex().findWithin(center, range);
+    }
+
+    private KDTreeIndex<Site> getSiteIndex() {
+        if (siteIndex == null)
+            siteIndex = createSiteIndex();
+
+        return siteIndex;
+    }
+
+    private KDTreeIndex<Site> createSiteIndex() {
+        Collection<Site> sites = viewSites();
+        Map<Site, Point> points = new LinkedHashMap<Site, Point>(sites.size());
+
+        for (Site site : sites)
+            points.put(site, site.getPoint());
+
+        return KDTreeIndex.create(dimensionality(sites), points);
+    }
+
+    private static int dimensionality(Collection<Site> sites) {
+        if (sites.isEmpty())
+            return 1;
+        else
+            return sites.iterator().next().getPoint().dimensionality();
+    }
+
     @Override public Collection<Site> viewSites() {
         return siteMap.viewSites();
     }
@@ -0,0 +1,436 @@
+
+package jam.space;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jam.math.Point;
+
+/**
+ * Indexes objects in a periodic box by dividing the box into a
+ * uniform grid of cells.
+ *
+ * <p><b>Periodic boundaries.</b> Distances are computed with the
+ * minimum-image convention: each component of the displacement
+ * between two points is wrapped into the interval {@code [-L/2,
+ * L/2]}, where {@code L} is the box length along that direction.
+ * Points may be added at absolute (unwrapped) locations; they are
+ * assigned to the cell that contains their periodic image.
+ *
+ * <p><b>Performance.</b> Adding, moving, and removing objects take
+ * constant time.  When the cell size is at least as large as the
+ * query radius, a radius query examines only the cell containing
+ * the query point and its immediate neighbors, so the cost depends
+ * on the local density rather than the total number of objects.
+ *
+ * @param <T> the type of the indexed objects.
+ */
+public final class CellListIndex<T> implements SpatialIndex<T> {
+    // The number of dimensions actually used (one, two, or three);
+    // the arrays below always have length three, with unit period
+    // and a single cell along any unused dimension...
+    private final int dimensionality;
+
+    private final double[] boxLength = new double[3];
+    private final double[] cellWidth = new double[3];
+    private final int[]    cellCount = new int[3];
+
+    private final List<List<Entry<T>>> cells;
+    private final Map<T, Entry<T>> entries = new HashMap<T, Entry<T>>();
+
+    private static final class Entry<T> {
+        private final T object;
+        private final Point point;
+        private final double[] image = new double[3];
+
+        private int cell;
+        private int slot;
+
+        private Entry(T object, Point point) {
+            this.object = object;
+            this.point  = point;
+        }
+    }
+
+    private CellListIndex(double cellSize, double[] box) {
+        validateBox(cellSize, box);
+        this.dimensionality = box.length;
+
+        int totalCells = 1;
+
+        for (int dim = 0; dim < 3; ++dim) {
+            if (dim < box.length) {
+                boxLength[dim] = box[dim];
+                cellCount[dim] = Math.max(1, (int) Math.floor(box[dim] / cellSize));
+            }
+            else {
+                boxLength[dim] = 1.0;
+                cellCount[dim] = 1;
+            }
+
+            cellWidth[dim] = boxLength[dim] / cellCount[dim];
+            totalCells = Math.multiplyExact(totalCells, cellCount[dim]);
+        }
+
+        this.cells = new ArrayList<List<Entry<T>>>(totalCells);
+
+        for (int index = 0; index < totalCells; ++index)
+            cells.add(new ArrayList<Entry<T>>());
+    }
+
+    private static void validateBox(double cellSize, double[] box) {
+        if (box.length < 1 || box.length > 3)
+            throw new IllegalArgumentException("Cell lists require one, two, or three dimensions.");
+
+        if (!(cellSize > 0.0))
+            throw new IllegalArgumentException("Cell size must be positive.");
+
+        for (double length : box)
+            if (!(length > 0.0))
+                throw new IllegalArgumentException("Box lengths must be positive.");
+    }
+
+    /**
+     * Creates a new empty cell-list index for a periodic box.
+     *
+     * @param <T> the type of the indexed objects.
+     *
+     * @param cellSize the minimum edge length of each cell (typically
+     * the interaction range); the actual cell widths are chosen so
+     * that an integral number of cells fills the box.
+     *
+     * @param box the edge lengths of the periodic box (one per
+     * dimension).
+     *
+     * @return a new empty cell-list index.
+     *
+     * @throws IllegalArgumentException unless the cell size and box
+     * lengths are positive and the dimensionality lies between one
+     * and three (inclusive).
+     */
+    public static <T> CellListIndex<T> create(double cellSize, double... box) {
+        return new CellListIndex<T>(cellSize, box);
+    }
+
+    /**
+     * Returns the length of the periodic box along a given dimension.
+     *
+     * @param dim the (zero-based) dimension of interest.
+     *
+     * @return the length of the periodic box along the specified
+     * dimension.
+     *
+     * @throws IndexOutOfBoundsException unless the dimension is valid.
+     */
+    public double boxLength(int dim) {
+        validateDimension(dim);
+        return boxLength[dim];
+    }
+
+    /**
+     * Returns the number of cells along a given dimension.
+     *
+     * @param dim the (zero-based) dimension of interest.
+     *
+     * @return the number of cells along the specified dimension.
+     *
+     * @throws IndexOutOfBoundsException unless the dimension is valid.
+     */
+    public int cellCount(int dim) {
+        validateDimension(dim);
+        return cellCount[dim];
+    }
+
+    private void validateDimension(int dim) {
+        if (dim < 0 || dim >= dimensionality)
+            throw new IndexOutOfBoundsException("Invalid dimension.");
+    }
+
+    private void validatePoint(Point point) {
+        if (point.dimensionality() != dimensionality)
+            throw new IllegalArgumentException("Inconsistent dimensionality.");
+    }
+
+    private static double imageOf(double coord, double length) {
+        double image = coord % length;
+
+        if (image < 0.0)
+            image += length;
+
+        // Guard against round-off placing the image exactly on the
+        // upper boundary...
+        if (image >= length)
+            image = 0.0;
+
+        return image;
+    }
+
+    private static double minimumImage(double delta, double length) {
+        return delta - length * Math.rint(delta / length);
+    }
+
+    private void computeImage(Point point, double[] image) {
+        for (int dim = 0; dim < 3; ++dim) {
+            if (dim < dimensionality)
+                image[dim] = imageOf(point.coord(dim), boxLength[dim]);
+            else
+                image[dim] = 0.0;
+        }
+    }
+
+    private int cellOrdinal(int i, int j, int k) {
+        return i + cellCount[0] * (j + cellCount[1] * k);
+    }
+
+    private int cellIndex(double image, int dim) {
+        return Math.min(cellCount[dim] - 1, (int) (image / cellWidth[dim]));
+    }
+
+    private int cellOf(double[] image) {
+        return cellOrdinal(cellIndex(image[0], 0),
+                           cellIndex(image[1], 1),
+                           cellIndex(image[2], 2));
+    }
+
+    private double squaredDistance(double[] image1, double[] image2) {
+        double result = 0.0;
+
+        for (int dim = 0; dim < dimensionality; ++dim) {
+            double delta = minimumImage(image1[dim] - image2[dim], boxLength[dim]);
+            result += delta * delta;
+        }
+
+        return result;
+    }
+
+    private void insert(Entry<T> entry) {
+        List<Entry<T>> cellList = cells.get(entry.cell);
+
+        entry.slot = cellList.size();
+        cellList.add(entry);
+    }
+
+    private void unlink(Entry<T> entry) {
+        //
+        // Move the last entry in the cell into the vacated slot so
+        // that removal takes constant time...
+        //
+        List<Entry<T>> cellList = cells.get(entry.cell);
+        Entry<T> last = cellList.remove(cellList.size() - 1);
+
+        if (last != entry) {
+            last.slot = entry.slot;
+            cellList.set(entry.slot, last);
+        }
+    }
+
+    @Override public void add(T object, Point point) {
+        validatePoint(point);
+        Entry<T> entry = new Entry<T>(object, point);
+
+        computeImage(point, entry.image);
+        entry.cell = cellOf(entry.image);
+
+        Entry<T> previous = entries.put(object, entry);
+
+        if (previous != null)
+            unlink(previous);
+
+        insert(entry);
+    }
+
+    @Override public boolean contains(T object) {
+        return entries.containsKey(object);
+    }
+
+    @Override public int dimensionality() {
+        return dimensionality;
+    }
+
+    @Override public double distance(Point p1, Point p2) {
+        validatePoint(p1);
+        validatePoint(p2);
+
+        double[] image1 = new double[3];
+        double[] image2 = new double[3];
+
+        computeImage(p1, image1);
+        computeImage(p2, image2);
+
+        return Math.sqrt(squaredDistance(image1, image2));
+    }
+
+    @Override public List<T> findNearest(Point center, int count) {
+        validatePoint(center);
+
+        if (count < 0)
+            throw new IllegalArgumentException("Negative object count.");
+
+        if (count == 0 || entries.isEmpty())
+            return List.of();
+
+        count = Math.min(count, entries.size());
+
+        double[] image = new double[3];
+        computeImage(center, image);
+
+        //
+        // Expand the search radius one cell width at a time until it
+        // encloses the requested number of objects; any object closer
+        // than the k-th object found must also lie within the radius.
+        // The minimum-image distance can never exceed the half-diagonal
+        // of the box, so that radius is guaranteed to find every object.
+        //
+        double maxRadius = maximumDistance();
+        double radius = minimumCellWidth();
+
+        List<Entry<T>> found = new ArrayList<Entry<T>>();
+
+        while (true) {
+            found.clear();
+            collectWithin(image, Math.min(radius, maxRadius), found);
+
+            if (found.size() >= count || radius >= maxRadius)
+                break;
+
+            radius += minimumCellWidth();
+        }
+
+        double[] distances = new double[found.size()];
+        List<Integer> order = new ArrayList<Integer>(found.size());
+
+        for (int index = 0; index < found.size(); ++index) {
+            distances[index] = squaredDistance(image, found.get(index).image);
+            order.add(index);
+        }
+
+        Collections.sort(order, Comparator.comparingDouble(index -> distances[index]));
+
+        List<T> nearest = new ArrayList<T>(count);
+
+        for (int index = 0; index < count; ++index)
+            nearest.add(found.get(order.get(index)).object);
+
+        return nearest;
+    }
+
+    private double minimumCellWidth() {
+        double result = Double.POSITIVE_INFINITY;
+
+        for (int dim = 0; dim < dimensionality; ++dim)
+            result = Math.min(result, cellWidth[dim]);
+
+        return result;
+    }
+
+    private double maximumDistance() {
+        double result = 0.0;
+
+        for (int dim = 0; dim < dimensionality; ++dim)
+            result += 0.25 * boxLength[dim] * boxLength[dim];
+
+        return Math.sqrt(result);
+    }
+
+    @Override public List<T> findWithin(Point center, double radius) {
+        validatePoint(center);
+
+        if (radius < 0.0)
+            throw new IllegalArgumentException("Negative radius.");
+
+        double[] image = new double[3];
+        computeImage(center, image);
+
+        List<Entry<T>> found = new ArrayList<Entry<T>>();
+        collectWithin(image, radius, found);
+
+        List<T> objects = new ArrayList<T>(found.size());
+
+        for (Entry<T> entry : found)
+            objects.add(entry.object);
+
+        return objects;
+    }
+
+    private void collectWithin(double[] image, double radius, List<Entry<T>> found) {
+        double radiusSq = radius * radius;
+
+        int[] lower = new int[3];
+        int[] upper = new int[3];
+
+        for (int dim = 0; dim < 3; ++dim) {
+            int center = cellIndex(image[dim], dim);
+            int reach  = (int) Math.ceil(radius / cellWidth[dim]);
+
+            if (2 * reach + 1 >= cellCount[dim]) {
+                //
+                // The search region wraps around the entire box along
+                // this dimension, so visit each cell exactly once...
+                //
+                lower[dim] = 0;
+                upper[dim] = cellCount[dim] - 1;
+            }
+            else {
+                lower[dim] = center - reach;
+                upper[dim] = center + reach;
+            }
+        }
+
+        for (int k = lower[2]; k <= upper[2]; ++k) {
+            int kk = wrapCell(k, 2);
+
+            for (int j = lower[1]; j <= upper[1]; ++j) {
+                int jj = wrapCell(j, 1);
+
+                for (int i = lower[0]; i <= upper[0]; ++i) {
+                    int ii = wrapCell(i, 0);
+
+                    for (Entry<T> entry : cells.get(cellOrdinal(ii, jj, kk)))
+                        if (squaredDistance(image, entry.image) <= radiusSq)
+                            found.add(entry);
+                }
+            }
+        }
+    }
+
+    private int wrapCell(int index, int dim) {
+        int count = cellCount[dim];
+        int result = index % count;
+
+        if (result < 0)
+            result += count;
+
+        return result;
+    }
+
+    @Override public Point locate(T object) {
+        Entry<T> entry = entries.get(object);
+
+        if (entry != null)
+            return entry.point;
+        else
+            return null;
+    }
+
+    @Override public boolean remove(T object) {
+        Entry<T> entry = entries.remove(object);
+
+        if (entry == null)
+            return false;
+
+        unlink(entry);
+        return true;
+    }
+
+    @Override public int size() {
+        return entries.size();
+    }
+
+    @Override public String toString() {
+        return String.format("CellListIndex(%d objects)", size());
+    }
+}
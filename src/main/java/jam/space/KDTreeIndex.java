@@ -0,0 +1,371 @@
+
+package jam.space;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import jam.math.Point;
+
+/**
+ * Indexes objects in free (unbounded, non-periodic) space with a
+ * k-d tree.
+ *
+ * <p><b>Incremental updates.</b> New objects are inserted at the
+ * leaves of the tree; removed objects are marked as deleted and
+ * skipped by subsequent queries.  The tree is rebuilt in balanced
+ * form whenever deleted nodes outnumber live nodes or an insertion
+ * path grows much deeper than {@code log2(N)}, so queries take
+ * {@code O(log N)} expected time regardless of the order in which
+ * objects are added and removed.
+ *
+ * @param <T> the type of the indexed objects.
+ */
+public final class KDTreeIndex<T> implements SpatialIndex<T> {
+    private final int dimensionality;
+    private final Map<T, Node<T>> nodes = new HashMap<T, Node<T>>();
+
+    private Node<T> root = null;
+    private int nodeCount = 0;
+
+    // Rebuild the tree when an insertion path exceeds this multiple
+    // of the optimal depth (plus a small constant)...
+    private static final int DEPTH_FACTOR = 3;
+    private static final int DEPTH_OFFSET = 8;
+
+    private static final class Node<T> {
+        private final T object;
+        private final Point point;
+        private final double[] coords;
+
+        private int axis;
+        private boolean deleted = false;
+
+        private Node<T> left  = null;
+        private Node<T> right = null;
+
+        private Node(T object, Point point) {
+            this.object = object;
+            this.point  = point;
+            this.coords = point.toArray();
+        }
+    }
+
+    private KDTreeIndex(int dimensionality) {
+        if (dimensionality < 1)
+            throw new IllegalArgumentException("Dimensionality must be positive.");
+
+        this.dimensionality = dimensionality;
+    }
+
+    /**
+     * Creates a new empty k-d tree index.
+     *
+     * @param <T> the type of the indexed objects.
+     *
+     * @param dimensionality the dimensionality of the space.
+     *
+     * @return a new empty k-d tree index.
+     *
+     * @throws IllegalArgumentException unless the dimensionality is
+     * positive.
+     */
+    public static <T> KDTreeIndex<T> create(int dimensionality) {
+        return new KDTreeIndex<T>(dimensionality);
+    }
+
+    /**
+     * Creates a new balanced k-d tree index containing the objects
+     * in a map.
+     *
+     * @param <T> the type of the indexed objects.
+     *
+     * @param dimensionality the dimensionality of the space.
+     *
+     * @param points a mapping from objects to their locations.
+     *
+     * @return a new balanced k-d tree index containing the objects in
+     * the specified map.
+     *
+     * @throws IllegalArgumentException unless the dimensionality is
+     * positive and matches the dimensionality of every point.
+     */
+    public static <T> KDTreeIndex<T> create(int dimensionality, Map<T, ? extends Point> points) {
+        KDTreeIndex<T> index = new KDTreeIndex<T>(dimensionality);
+        List<Node<T>> nodeList = new ArrayList<Node<T>>(points.size());
+
+        for (Map.Entry<T, ? extends Point> entry : points.entrySet()) {
+            index.validatePoint(entry.getValue());
+
+            Node<T> node = new Node<T>(entry.getKey(), entry.getValue());
+
+            nodeList.add(node);
+            index.nodes.put(node.object, node);
+        }
+
+        index.rebuild(nodeList);
+        return index;
+    }
+
+    private void validatePoint(Point point) {
+        if (point.dimensionality() != dimensionality)
+            throw new IllegalArgumentException("Inconsistent dimensionality.");
+    }
+
+    private static double squaredDistance(double[] x1, double[] x2) {
+        double result = 0.0;
+
+        for (int dim = 0; dim < x1.length; ++dim) {
+            double delta = x1[dim] - x2[dim];
+            result += delta * delta;
+        }
+
+        return result;
+    }
+
+    private int maxDepth() {
+        int live = Math.max(1, nodes.size());
+        int log2 = 32 - Integer.numberOfLeadingZeros(live);
+
+        return DEPTH_FACTOR * log2 + DEPTH_OFFSET;
+    }
+
+    private void rebuild() {
+        rebuild(new ArrayList<Node<T>>(nodes.values()));
+    }
+
+    private void rebuild(List<Node<T>> liveNodes) {
+        @SuppressWarnings("unchecked")
+        Node<T>[] array = liveNodes.toArray((Node<T>[]) new Node<?>[liveNodes.size()]);
+
+        root = build(array, 0, array.length, 0);
+        nodeCount = array.length;
+    }
+
+    private Node<T> build(Node<T>[] array, int from, int to, int depth) {
+        if (from >= to)
+            return null;
+
+        int axis = depth % dimensionality;
+        int mid  = (from + to) >>> 1;
+
+        Arrays.sort(array, from, to, Comparator.comparingDouble(node -> node.coords[axis]));
+
+        Node<T> node = array[mid];
+
+        node.axis  = axis;
+        node.left  = build(array, from, mid, depth + 1);
+        node.right = build(array, mid + 1, to, depth + 1);
+
+        return node;
+    }
+
+    @Override public void add(T object, Point point) {
+        validatePoint(point);
+
+        Node<T> previous = nodes.get(object);
+
+        if (previous != null)
+            previous.deleted = true;
+
+        Node<T> node = new Node<T>(object, point);
+        nodes.put(object, node);
+
+        //
+        // Moving an object leaves a deleted node behind, so check the
+        // fraction of deleted nodes as well as the insertion depth...
+        //
+        if (insert(node) > maxDepth() || nodeCount > 2 * nodes.size())
+            rebuild();
+    }
+
+    private int insert(Node<T> node) {
+        ++nodeCount;
+
+        if (root == null) {
+            node.axis = 0;
+            root = node;
+            return 1;
+        }
+
+        int depth = 1;
+        Node<T> parent = root;
+
+        while (true) {
+            ++depth;
+            int axis = parent.axis;
+
+            if (node.coords[axis] < parent.coords[axis]) {
+                if (parent.left == null) {
+                    node.axis = (axis + 1) % dimensionality;
+                    parent.left = node;
+                    return depth;
+                }
+
+                parent = parent.left;
+            }
+            else {
+                if (parent.right == null) {
+                    node.axis = (axis + 1) % dimensionality;
+                    parent.right = node;
+                    return depth;
+                }
+
+                parent = parent.right;
+            }
+        }
+    }
+
+    @Override public boolean contains(T object) {
+        return nodes.containsKey(object);
+    }
+
+    @Override public int dimensionality() {
+        return dimensionality;
+    }
+
+    @Override public double distance(Point p1, Point p2) {
+        validatePoint(p1);
+        validatePoint(p2);
+
+        return Math.sqrt(squaredDistance(p1.toArray(), p2.toArray()));
+    }
+
+    @Override public List<T> findNearest(Point center, int count) {
+        validatePoint(center);
+
+        if (count < 0)
+            throw new IllegalArgumentException("Negative object count.");
+
+        if (count == 0 || nodes.isEmpty())
+            return List.of();
+
+        //
+        // The priority queue is a max-heap on distance holding the
+        // best candidates found so far...
+        //
+        double[] coords = center.toArray();
+        PriorityQueue<Candidate<T>> heap =
+            new PriorityQueue<Candidate<T>>(count + 1, Comparator.comparingDouble((Candidate<T> c) -> c.distSq).reversed());
+
+        searchNearest(root, coords, count, heap);
+
+        Candidate<T>[] sorted = sortCandidates(heap);
+        List<T> nearest = new ArrayList<T>(sorted.length);
+
+        for (Candidate<T> candidate : sorted)
+            nearest.add(candidate.node.object);
+
+        return nearest;
+    }
+
+    private static final class Candidate<T> {
+        private final Node<T> node;
+        private final double distSq;
+
+        private Candidate(Node<T> node, double distSq) {
+            this.node = node;
+            this.distSq = distSq;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Candidate<T>[] sortCandidates(PriorityQueue<Candidate<T>> heap) {
+        Candidate<T>[] sorted = heap.toArray((Candidate<T>[]) new Candidate<?>[heap.size()]);
+        Arrays.sort(sorted, Comparator.comparingDouble(candidate -> candidate.distSq));
+        return sorted;
+    }
+
+    private void searchNearest(Node<T> node, double[] coords, int count, PriorityQueue<Candidate<T>> heap) {
+        while (node != null) {
+            if (!node.deleted) {
+                double distSq = squaredDistance(coords, node.coords);
+
+                if (heap.size() < count)
+                    heap.add(new Candidate<T>(node, distSq));
+                else if (distSq < heap.peek().distSq) {
+                    heap.poll();
+                    heap.add(new Candidate<T>(node, distSq));
+                }
+            }
+
+            double delta = coords[node.axis] - node.coords[node.axis];
+
+            Node<T> near = (delta < 0.0) ? node.left : node.right;
+            Node<T> far  = (delta < 0.0) ? node.right : node.left;
+
+            searchNearest(near, coords, count, heap);
+
+            if (heap.size() < count || delta * delta < heap.peek().distSq)
+                node = far;
+            else
+                node = null;
+        }
+    }
+
+    @Override public List<T> findWithin(Point center, double radius) {
+        validatePoint(center);
+
+        if (radius < 0.0)
+            throw new IllegalArgumentException("Negative radius.");
+
+        List<T> found = new ArrayList<T>();
+        searchWithin(root, center.toArray(), radius * radius, found);
+
+        return found;
+    }
+
+    private void searchWithin(Node<T> node, double[] coords, double radiusSq, List<T> found) {
+        while (node != null) {
+            if (!node.deleted && squaredDistance(coords, node.coords) <= radiusSq)
+                found.add(node.object);
+
+            double delta = coords[node.axis] - node.coords[node.axis];
+
+            Node<T> near = (delta < 0.0) ? node.left : node.right;
+            Node<T> far  = (delta < 0.0) ? node.right : node.left;
+
+            searchWithin(near, coords, radiusSq, found);
+
+            if (delta * delta <= radiusSq)
+                node = far;
+            else
+                node = null;
+        }
+    }
+
+    @Override public Point locate(T object) {
+        Node<T> node = nodes.get(object);
+
+        if (node != null)
+            return node.point;
+        else
+            return null;
+    }
+
+    @Override public boolean remove(T object) {
+        Node<T> node = nodes.remove(object);
+
+        if (node == null)
+            return false;
+
+        node.deleted = true;
+
+        if (nodeCount > 2 * nodes.size())
+            rebuild();
+
+        return true;
+    }
+
+    @Override public int size() {
+        return nodes.size();
+    }
+
+    @Override public String toString() {
+        return String.format("KDTreeIndex(%d objects)", size());
+    }
+}
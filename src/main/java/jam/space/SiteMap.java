@@ -4,7 +4,6 @@ package jam.space;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
 
 import jam.bravais.Lattice;
@@ -31,14 +30,10 @@ public final class SiteMap {
      * to its corresponding site.
      */
     public static SiteMap create(Lattice lattice) {
-        List<UnitIndex> indexList =
-            lattice.period().enumerate(); 
-
         Map<UnitIndex, Site> siteMap =
-            new LinkedHashMap<UnitIndex, Site>(indexList.size());
+            new LinkedHashMap<UnitIndex, Site>((int) lattice.period().countSites());
 
-        for (UnitIndex index : indexList)
-            siteMap.put(index, Site.create(index, lattice));
+        lattice.period().stream().forEach(index -> siteMap.put(index, Site.create(index, lattice)));
 
         return new SiteMap(siteMap);
     }
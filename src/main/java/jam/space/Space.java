@@ -1,9 +1,12 @@
 
 package jam.space;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 
 import jam.bravais.UnitIndex;
+import jam.math.Point;
 
 /**
  * Defines a spatial arrangement of discrete points.
@@ -42,6 +45,64 @@ public interface Space {
      */
     public abstract Collection<Site> neighborsOf(Site site);
 
+    /**
+     * Finds the site nearest to a point in continuous space.
+     *
+     * <p>This default implementation examines every site; spaces with
+     * many sites should override it to use a spatial index.
+     *
+     * @param point the point of interest.
+     *
+     * @return the site nearest to the specified point ({@code null}
+     * if this space has no sites).
+     *
+     * @throws IllegalArgumentException unless the dimensionality of
+     * the point matches the dimensionality of the sites.
+     */
+    public default Site nearestSite(Point point) {
+        Site   nearest  = null;
+        double distance = Double.POSITIVE_INFINITY;
+
+        for (Site site : viewSites()) {
+            double siteDist = site.getPoint().distance(point);
+
+            if (siteDist < distance) {
+                nearest  = site;
+                distance = siteDist;
+            }
+        }
+
+        return nearest;
+    }
+
+    /**
+     * Finds all sites within a given distance of a point in
+     * continuous space (the interaction range of the point).
+     *
+     * <p>This default implementation examines every site; spaces with
+     * many sites should override it to use a spatial index.
+     *
+     * @param center the point of interest.
+     *
+     * @param range the maximum distance (inclusive).
+     *
+     * @return a list containing every site whose distance from the
+     * specified point is less than or equal to the range (in no
+     * particular order).
+     *
+     * @throws IllegalArgumentException unless the dimensionality of
+     * the point matches the dimensionality of the sites.
+     */
+    public default List<Site> sitesWithin(Point center, double range) {
+        List<Site> sites = new ArrayList<Site>();
+
+        for (Site site : viewSites())
+            if (site.getPoint().distance(center) <= range)
+                sites.add(site);
+
+        return sites;
+    }
+
     /**
      * Returns a read-only view of the discrete sites in this space.
      *
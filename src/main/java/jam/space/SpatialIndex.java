@@ -0,0 +1,185 @@
+
+package jam.space;
+
+import java.util.List;
+
+import jam.math.Point;
+
+/**
+ * Indexes objects by their location in continuous space to support
+ * efficient radius and nearest-neighbor queries.
+ *
+ * <p><b>Implementations.</b> Use a {@link CellListIndex} for objects
+ * confined to a periodic box (where the interaction range is small
+ * compared to the box size) and a {@link KDTreeIndex} for objects in
+ * free (unbounded, non-periodic) space.
+ *
+ * <p><b>Identity.</b> Each object may be indexed at most once; adding
+ * an object that is already present moves it to the new location.
+ *
+ * @param <T> the type of the indexed objects.
+ */
+public interface SpatialIndex<T> {
+    /**
+     * Creates a new empty cell-list index for a periodic box.
+     *
+     * @param <T> the type of the indexed objects.
+     *
+     * @param cellSize the minimum edge length of each cell (typically
+     * the interaction range).
+     *
+     * @param box the edge lengths of the periodic box (one per
+     * dimension).
+     *
+     * @return a new empty cell-list index.
+     *
+     * @throws IllegalArgumentException unless the cell size and box
+     * lengths are positive and the dimensionality lies between one
+     * and three (inclusive).
+     */
+    public static <T> SpatialIndex<T> cellList(double cellSize, double... box) {
+        return CellListIndex.create(cellSize, box);
+    }
+
+    /**
+     * Creates a new empty k-d tree index for free space.
+     *
+     * @param <T> the type of the indexed objects.
+     *
+     * @param dimensionality the dimensionality of the space.
+     *
+     * @return a new empty k-d tree index.
+     *
+     * @throws IllegalArgumentException unless the dimensionality is
+     * positive.
+     */
+    public static <T> SpatialIndex<T> kdTree(int dimensionality) {
+        return KDTreeIndex.create(dimensionality);
+    }
+
+    /**
+     * Adds an object to this index (or moves it to a new location if
+     * it is already present).
+     *
+     * @param object the object to add.
+     *
+     * @param point the location of the object.
+     *
+     * @throws IllegalArgumentException unless the dimensionality of
+     * the point matches the dimensionality of this index.
+     */
+    public abstract void add(T object, Point point);
+
+    /**
+     * Identifies objects contained in this index.
+     *
+     * @param object the object of interest.
+     *
+     * @return {@code true} iff this index contains the specified
+     * object.
+     */
+    public abstract boolean contains(T object);
+
+    /**
+     * Returns the dimensionality of the space covered by this index.
+     *
+     * @return the dimensionality of the space covered by this index.
+     */
+    public abstract int dimensionality();
+
+    /**
+     * Computes the distance between two points using the metric of
+     * this index (including any periodic boundary conditions).
+     *
+     * @param p1 the first point.
+     *
+     * @param p2 the second point.
+     *
+     * @return the distance between the two points.
+     *
+     * @throws IllegalArgumentException unless the dimensionality of
+     * the points matches the dimensionality of this index.
+     */
+    public abstract double distance(Point p1, Point p2);
+
+    /**
+     * Finds the indexed objects nearest to a given point.
+     *
+     * @param center the point of interest.
+     *
+     * @param count the maximum number of objects to return.
+     *
+     * @return a list containing the {@code count} objects nearest to
+     * the specified point (or every object, if this index contains
+     * fewer than {@code count} objects) in order of increasing
+     * distance.
+     *
+     * @throws IllegalArgumentException if the count is negative or
+     * the dimensionality of the point does not match the
+     * dimensionality of this index.
+     */
+    public abstract List<T> findNearest(Point center, int count);
+
+    /**
+     * Finds the indexed object nearest to a given point.
+     *
+     * @param center the point of interest.
+     *
+     * @return the object nearest to the specified point ({@code null}
+     * if this index is empty).
+     *
+     * @throws IllegalArgumentException unless the dimensionality of
+     * the point matches the dimensionality of this index.
+     */
+    public default T findNearest(Point center) {
+        List<T> nearest = findNearest(center, 1);
+
+        if (nearest.isEmpty())
+            return null;
+        else
+            return nearest.get(0);
+    }
+
+    /**
+     * Finds all indexed objects within a given distance of a point.
+     *
+     * @param center the point of interest.
+     *
+     * @param radius the maximum distance (inclusive).
+     *
+     * @return a list containing every object whose distance from the
+     * specified point is less than or equal to the radius (in no
+     * particular order).
+     *
+     * @throws IllegalArgumentException if the radius is negative or
+     * the dimensionality of the point does not match the
+     * dimensionality of this index.
+     */
+    public abstract List<T> findWithin(Point center, double radius);
+
+    /**
+     * Returns the location of an indexed object.
+     *
+     * @param object the object to locate.
+     *
+     * @return the location of the specified object ({@code null} if
+     * this index does not contain the object).
+     */
+    public abstract Point locate(T object);
+
+    /**
+     * Removes an object from this index.
+     *
+     * @param object the object to remove.
+     *
+     * @return {@code true} iff this index contained the object.
+     */
+    public abstract boolean remove(T object);
+
+    /**
+     * Returns the number of objects in this index.
+     *
+     * @return the number of objects in this index.
+     */
+    public abstract int size();
+}
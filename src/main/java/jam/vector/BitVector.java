@@ -1,12 +1,14 @@
 
 package jam.vector;
 
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Collection;
 
 import jam.lang.Formatted;
 import jam.lang.JamBoolean;
 import jam.lang.Sequence;
+import jam.lang.Traversable;
 import jam.math.DoubleUtil;
 import jam.math.IntSequence;
 import jam.math.JamRandom;
@@ -18,10 +20,21 @@ import jam.math.JamRandom;
  * explicit (fixed) length to each bit vector, independent of the
  * contents of the vector.  Attempting to access bits beyond the
  * vector length triggers an exception.
+ *
+ * <p>The bits are packed 64 to a word in a {@code long[]} array, so
+ * the logical operations and the population counts (cardinality,
+ * Hamming distance, overlap) process 64 bits at a time with the
+ * {@code Long.bitCount} intrinsic (a single hardware instruction on
+ * modern processors).  The counting methods ({@code andCount},
+ * {@code orCount}, {@code xorCount}, and {@code hamming}) allocate no
+ * temporary vectors; see {@link HammingMatrix} for bulk pairwise
+ * distance computations.
  */
 public final class BitVector implements Formatted, Sequence<Boolean>, VectorView {
     private final int length;
-    private final BitSet bits;
+    private final long[] words;
+
+    private static final int ADDRESS_BITS_PER_WORD = 6;
 
     /**
      * Creates a new bit vector of specified length; all elements are
@@ -32,7 +45,23 @@ public final class BitVector implements Formatted, Sequence<Boolean>, VectorView
      * @throws RuntimeException if the length is negative.
      */
     public BitVector(int length) {
-        this(length, new BitSet(length), false);
+        Traversable.validateLength(length);
+
+        this.length = length;
+        this.words  = new long[wordCount(length)];
+    }
+
+    private BitVector(int length, long[] words) {
+        this.length = length;
+        this.words  = words;
+    }
+
+    private static int wordCount(int length) {
+        return (length + Long.SIZE - 1) >>> ADDRESS_BITS_PER_WORD;
+    }
+
+    private static int wordIndex(int bitIndex) {
+        return bitIndex >>> ADDRESS_BITS_PER_WORD;
     }
 
     /**
@@ -56,16 +85,11 @@ public final class BitVector implements Formatted, Sequence<Boolean>, VectorView
      * @param bits the initial bit assignment.
      */
     public BitVector(boolean... bits) {
-        this(bits.length, makeSet(bits), false);
-    }
-
-    private static BitSet makeSet(boolean... bits) {
-        BitSet bitset = new BitSet(bits.length);
+        this(bits.length);
 
         for (int index : IntSequence.along(bits))
-            bitset.set(index, bits[index]);
-
-        return bitset;
+            if (bits[index])
+                words[wordIndex(index)] |= (1L << index);
     }
 
     /**
@@ -84,24 +108,13 @@ public final class BitVector implements Formatted, Sequence<Boolean>, VectorView
      * highest {@code true}) exceeds the specified vector length.
      */
     public BitVector(int length, BitSet bits) {
-        this(length, bits, true);
-    }
-
-    private BitVector(int length, BitSet bits, boolean copy) {
-        this.length = length;
-
-        if (copy)
-            this.bits = (BitSet) bits.clone();
-        else
-            this.bits = bits;
-
-        validateLength();
-        validateBits();
-    }
+        this(length);
 
-    private void validateBits() {
-        if (bits.length() > length())
+        if (bits.length() > length)
             throw new IllegalStateException("Bit set outside allowed range.");
+
+        long[] source = bits.toLongArray();
+        System.arraycopy(source, 0, this.words, 0, source.length);
     }
 
     /**
@@ -124,7 +137,7 @@ public final class BitVector implements Formatted, Sequence<Boolean>, VectorView
      * @return a new bit vector identical to this.
      */
     public BitVector copy() {
-        return new BitVector(length, bits, true);
+        return new BitVector(length, words.clone());
     }
 
     /**
@@ -253,10 +266,35 @@ public final class BitVector implements Formatted, Sequence<Boolean>, VectorView
     public BitVector and(BitVector that) {
         validateOperand(that);
 
-        BitSet newBits = (BitSet) this.bits.clone();
-        newBits.and(that.bits);
+        long[] result = new long[words.length];
+
+        for (int k = 0; k < result.length; ++k)
+            result[k] = this.words[k] & that.words[k];
+
+        return new BitVector(length, result);
+    }
+
+    /**
+     * Counts the bits that are {@code true} in both this bit vector
+     * and another (of the same length) without creating the logical
+     * AND vector.
+     *
+     * @param that the other bit vector operand.
+     *
+     * @return the cardinality of {@code this.and(that)}.
+     *
+     * @throws IllegalArgumentException unless the length of the
+     * operand matches this vector.
+     */
+    public int andCount(BitVector that) {
+        validateOperand(that);
+
+        int count = 0;
+
+        for (int k = 0; k < words.length; ++k)
+            count += Long.bitCount(this.words[k] & that.words[k]);
 
-        return new BitVector(this.length(), newBits, false);
+        return count;
     }
 
     private void validateOperand(BitVector that) {
@@ -270,7 +308,12 @@ public final class BitVector implements Formatted, Sequence<Boolean>, VectorView
      * @return the number of {@code true} bits in this vector.
      */
     public int cardinality() {
-        return bits.cardinality();
+        int count = 0;
+
+        for (long word : words)
+            count += Long.bitCount(word);
+
+        return count;
     }
 
     /**
@@ -279,8 +322,15 @@ public final class BitVector implements Formatted, Sequence<Boolean>, VectorView
      * @param value the value to assign.
      */
     public void fill(boolean value) {
-        for (int index : IntSequence.along(this))
-            set(index, value);
+        Arrays.fill(words, value ? -1L : 0L);
+        clearUnusedBits();
+    }
+
+    // Bits beyond the vector length in the last word must remain zero
+    // for the population counts and equality tests...
+    private void clearUnusedBits() {
+        if (words.length > 0)
+            words[words.length - 1] &= (-1L >>> -length);
     }
 
     /**
@@ -305,8 +355,10 @@ public final class BitVector implements Formatted, Sequence<Boolean>, VectorView
      * Flips all bits in this vector.
      */
     public void flip() {
-        for (int index : IntSequence.along(this))
-            flip(index);
+        for (int k = 0; k < words.length; ++k)
+            words[k] = ~words[k];
+
+        clearUnusedBits();
     }
 
     /**
@@ -319,7 +371,7 @@ public final class BitVector implements Formatted, Sequence<Boolean>, VectorView
      */
     public void flip(int index) {
         validateIndex(index);
-        bits.flip(index);
+        words[wordIndex(index)] ^= (1L << index);
     }
 
     /**
@@ -334,7 +386,7 @@ public final class BitVector implements Formatted, Sequence<Boolean>, VectorView
      */
     public boolean get(int index) {
         validateIndex(index);
-        return bits.get(index);
+        return (words[wordIndex(index)] & (1L << index)) != 0L;
     }
 
     /**
@@ -349,7 +401,23 @@ public final class BitVector implements Formatted, Sequence<Boolean>, VectorView
      * operand matches this vector.
      */
     public int hamming(BitVector that) {
-        return this.xor(that).cardinality();
+        return xorCount(that);
+    }
+
+    // Allocation-free Hamming distance between packed words of equal
+    // length, shared with the bulk computations in HammingMatrix...
+    static int hamming(long[] words1, long[] words2) {
+        int count = 0;
+
+        for (int k = 0; k < words1.length; ++k)
+            count += Long.bitCount(words1[k] ^ words2[k]);
+
+        return count;
+    }
+
+    // Exposes the packed words (not a copy) for bulk computations...
+    long[] words() {
+        return words;
     }
 
     /**
@@ -381,10 +449,35 @@ public final class BitVector implements Formatted, Sequence<Boolean>, VectorView
     public BitVector or(BitVector that) {
         validateOperand(that);
 
-        BitSet newBits = (BitSet) this.bits.clone();
-        newBits.or(that.bits);
+        long[] result = new long[words.length];
+
+        for (int k = 0; k < result.length; ++k)
+            result[k] = this.words[k] | that.words[k];
+
+        return new BitVector(length, result);
+    }
+
+    /**
+     * Counts the bits that are {@code true} in either this bit vector
+     * or another (of the same length) without creating the logical OR
+     * vector.
+     *
+     * @param that the other bit vector operand.
+     *
+     * @return the cardinality of {@code this.or(that)}.
+     *
+     * @throws IllegalArgumentException unless the length of the
+     * operand matches this vector.
+     */
+    public int orCount(BitVector that) {
+        validateOperand(that);
+
+        int count = 0;
+
+        for (int k = 0; k < words.length; ++k)
+            count += Long.bitCount(this.words[k] | that.words[k]);
 
-        return new BitVector(this.length(), newBits, false);
+        return count;
     }
 
     /**
@@ -411,7 +504,11 @@ public final class BitVector implements Formatted, Sequence<Boolean>, VectorView
      */
     public void set(int index, boolean value) {
         validateIndex(index);
-        bits.set(index, value);
+
+        if (value)
+            words[wordIndex(index)] |= (1L << index);
+        else
+            words[wordIndex(index)] &= ~(1L << index);
     }
 
     /**
@@ -466,10 +563,40 @@ public final class BitVector implements Formatted, Sequence<Boolean>, VectorView
     public BitVector xor(BitVector that) {
         validateOperand(that);
 
-        BitSet newBits = (BitSet) this.bits.clone();
-        newBits.xor(that.bits);
+        long[] result = new long[words.length];
+
+        for (int k = 0; k < result.length; ++k)
+            result[k] = this.words[k] ^ that.words[k];
 
-        return new BitVector(this.length(), newBits, false);
+        return new BitVector(length, result);
+    }
+
+    /**
+     * Counts the bits that differ between this bit vector and another
+     * (of the same length) without creating the logical XOR vector.
+     *
+     * @param that the other bit vector operand.
+     *
+     * @return the cardinality of {@code this.xor(that)}, which is the
+     * Hamming distance between the vectors.
+     *
+     * @throws IllegalArgumentException unless the length of the
+     * operand matches this vector.
+     */
+    public int xorCount(BitVector that) {
+        validateOperand(that);
+        return hamming(this.words, that.words);
+    }
+
+    /**
+     * Returns a {@code java.util.BitSet} representation of this bit
+     * vector.
+     *
+     * @return a new bit set containing the {@code true} bits in this
+     * vector.
+     */
+    public BitSet toBitSet() {
+        return BitSet.valueOf(words);
     }
 
     /**
@@ -519,11 +646,19 @@ public final class BitVector implements Formatted, Sequence<Boolean>, VectorView
     }
 
     private boolean equalsBitVector(BitVector that) {
-        return this.length == that.length && this.bits.equals(that.bits);
+        return this.length == that.length && Arrays.equals(this.words, that.words);
     }
 
     @Override public int hashCode() {
-        return bits.hashCode();
+        //
+        // Same hash code as the equivalent java.util.BitSet...
+        //
+        long hash = 1234;
+
+        for (int k = words.length; --k >= 0; )
+            hash ^= words[k] * (k + 1);
+
+        return (int) ((hash >> 32) ^ hash);
     }
 
     @Override public String toString() {
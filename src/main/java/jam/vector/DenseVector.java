@@ -10,6 +10,29 @@ final class DenseVector extends VectorImpl {
         this.elements = elements;
     }
 
+    // Returns the array underlying a dense vector, or null if the view
+    // is not backed by a dense vector; the array must not be modified.
+    static double[] backing(VectorView view) {
+        if (view instanceof DenseVector)
+            return ((DenseVector) view).elements;
+
+        if (view instanceof JamVector && ((JamVector) view).impl() instanceof DenseVector)
+            return ((DenseVector) ((JamVector) view).impl()).elements;
+
+        return null;
+    }
+
+    // Returns the array underlying a dense vector, or a copy of the
+    // elements of any other view; the array must not be modified.
+    static double[] numeric(VectorView view) {
+        double[] backing = backing(view);
+
+        if (backing != null)
+            return backing;
+        else
+            return view.toNumeric();
+    }
+
     @Override public VectorImpl copy() {
         return new DenseVector(VectorUtil.copy(elements));
     }
@@ -25,9 +48,23 @@ final class DenseVector extends VectorImpl {
     @Override public double getDouble(int index) {
         return elements[index];
     }
-    
+
     @Override public VectorImpl set(int index, double value) {
         elements[index] = value;
         return this;
     }
+
+    @Override VectorImpl daxpy(double scalar, VectorView that) {
+        validateOperand(that);
+
+        double[] result = VectorUtil.copy(elements);
+        VectorKernel.INSTANCE.axpy(scalar, numeric(that), result);
+
+        return new DenseVector(result);
+    }
+
+    @Override double dot(VectorView that) {
+        validateOperand(that);
+        return VectorKernel.INSTANCE.dot(elements, numeric(that));
+    }
 }
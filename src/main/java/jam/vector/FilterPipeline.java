@@ -0,0 +1,229 @@
+
+package jam.vector;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Applies a sequence of filters to vectors with as few passes through
+ * the vector elements as possible.
+ *
+ * <p>Consecutive local filters are fused so that each element is read,
+ * transformed by every filter in the sequence, and written back in a
+ * single pass. The statistics required by the {@link VectorFilter#DEMEAN
+ * DEMEAN} and {@link VectorFilter#ZSCORE ZSCORE} filters are accumulated
+ * in the same pass that applies the preceding local filters, and the
+ * resulting shift and scale are fused into the pass that applies the
+ * following local filters. A pipeline containing {@code k} of those
+ * standardizing filters therefore makes {@code k + 1} passes in total.
+ * Other non-local filters are applied to a temporary vector between
+ * passes.
+ *
+ * <p>The pipeline operates on primitive {@code double} arrays without
+ * boxing and may be applied to many vectors in parallel with the
+ * {@link FilterPipeline#applyAll(double[][])} method, provided that
+ * the filters themselves are stateless.
+ */
+public final class FilterPipeline extends VectorFilter {
+    private final List<VectorFilter> filters;
+    private final Stage[] stages;
+
+    // A sequence of local filters, which are fused into a single pass,
+    // followed by a non-local filter (or null at the end of the
+    // pipeline)...
+    private static final class Stage {
+        private final LocalFilter[] locals;
+        private final NonLocalFilter terminal;
+
+        private Stage(List<LocalFilter> locals, NonLocalFilter terminal) {
+            this.locals = locals.toArray(new LocalFilter[0]);
+            this.terminal = terminal;
+        }
+    }
+
+    private FilterPipeline(List<VectorFilter> filters) {
+        this.filters = Collections.unmodifiableList(filters);
+        this.stages = compile(filters);
+    }
+
+    private static Stage[] compile(List<VectorFilter> filters) {
+        List<Stage> stages = new ArrayList<Stage>();
+        List<LocalFilter> locals = new ArrayList<LocalFilter>();
+
+        for (VectorFilter filter : filters) {
+            if (filter instanceof LocalFilter) {
+                locals.add((LocalFilter) filter);
+            }
+            else {
+                stages.add(new Stage(locals, (NonLocalFilter) filter));
+                locals.clear();
+            }
+        }
+
+        // The final stage applies any pending shift and scale...
+        stages.add(new Stage(locals, null));
+        return stages.toArray(new Stage[0]);
+    }
+
+    /**
+     * Creates a new filter pipeline.
+     *
+     * @param filters the filters to apply, in order of application.
+     *
+     * @return a pipeline that applies the specified filters in order.
+     *
+     * @throws IllegalArgumentException unless each filter is a local
+     * filter, a non-local filter, or another pipeline.
+     */
+    public static FilterPipeline of(VectorFilter... filters) {
+        List<VectorFilter> list = new ArrayList<VectorFilter>(filters.length);
+        Collections.addAll(list, filters);
+        return of(list);
+    }
+
+    /**
+     * Creates a new filter pipeline.
+     *
+     * @param filters the filters to apply, in order of application.
+     *
+     * @return a pipeline that applies the specified filters in order.
+     *
+     * @throws IllegalArgumentException unless each filter is a local
+     * filter, a non-local filter, or another pipeline.
+     */
+    public static FilterPipeline of(List<? extends VectorFilter> filters) {
+        List<VectorFilter> flattened = new ArrayList<VectorFilter>();
+
+        for (VectorFilter filter : filters) {
+            if (filter instanceof FilterPipeline)
+                flattened.addAll(((FilterPipeline) filter).filters);
+            else if (filter instanceof LocalFilter || filter instanceof NonLocalFilter)
+                flattened.add(filter);
+            else
+                throw new IllegalArgumentException("Unsupported filter type.");
+        }
+
+        return new FilterPipeline(flattened);
+    }
+
+    /**
+     * Creates a new pipeline that applies the filters in this pipeline
+     * followed by another filter.
+     *
+     * @param filter the filter to apply last.
+     *
+     * @return a new pipeline that applies the filters in this pipeline
+     * followed by the specified filter.
+     */
+    public FilterPipeline then(VectorFilter filter) {
+        return of(this, filter);
+    }
+
+    /**
+     * Returns the filters in this pipeline in order of application.
+     *
+     * @return an unmodifiable list containing the filters in this
+     * pipeline in order of application.
+     */
+    public List<VectorFilter> filters() {
+        return filters;
+    }
+
+    /**
+     * Returns the number of passes through the vector elements that
+     * this pipeline requires.
+     *
+     * @return the number of passes through the vector elements that
+     * this pipeline requires.
+     */
+    public int countPasses() {
+        return stages.length;
+    }
+
+    /**
+     * Applies this pipeline to an array of values, which is modified
+     * in place.
+     *
+     * @param values the values to filter.
+     *
+     * @return the input array (for operator chaining).
+     */
+    public double[] apply(double[] values) {
+        //
+        // The shift and divisor computed for a standardizing filter
+        // are applied at the start of the following pass...
+        //
+        double shift = 0.0;
+        double divisor = 1.0;
+
+        for (Stage stage : stages) {
+            if (stage.terminal instanceof StandardizeFilter) {
+                StandardizeFilter standardize = (StandardizeFilter) stage.terminal;
+                StreamingMoments  moments = new StreamingMoments();
+
+                for (int index = 0; index < values.length; ++index) {
+                    double value = transform(values[index], shift, divisor, stage.locals);
+
+                    values[index] = value;
+                    moments.add(value);
+                }
+
+                shift = standardize.shift(moments);
+                divisor = standardize.divisor(moments);
+            }
+            else {
+                if (shift != 0.0 || divisor != 1.0 || stage.locals.length > 0)
+                    for (int index = 0; index < values.length; ++index)
+                        values[index] = transform(values[index], shift, divisor, stage.locals);
+
+                shift = 0.0;
+                divisor = 1.0;
+
+                if (stage.terminal != null)
+                    applyNonLocal(stage.terminal, values);
+            }
+        }
+
+        return values;
+    }
+
+    private static double transform(double value, double shift, double divisor, LocalFilter[] locals) {
+        value = (value - shift) / divisor;
+
+        for (LocalFilter local : locals)
+            value = local.filter(value);
+
+        return value;
+    }
+
+    private static void applyNonLocal(NonLocalFilter filter, double[] values) {
+        JamVector vector = JamVector.copyOf(values);
+        filter.apply(vector);
+
+        for (int index = 0; index < values.length; ++index)
+            values[index] = vector.getDouble(index);
+    }
+
+    /**
+     * Applies this pipeline to many arrays of values in parallel; the
+     * arrays are modified in place.
+     *
+     * @param vectors the arrays to filter.
+     */
+    public void applyAll(double[][] vectors) {
+        IntStream.range(0, vectors.length).parallel().forEach(index -> apply(vectors[index]));
+    }
+
+    @Override public boolean isLocal() {
+        return stages.length == 1;
+    }
+
+    @Override protected void filter(JamVector vector) {
+        double[] values = apply(vector.toNumeric());
+
+        for (int index = 0; index < values.length; ++index)
+            vector.set(index, values[index]);
+    }
+}
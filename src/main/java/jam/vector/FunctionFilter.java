@@ -1,13 +1,13 @@
 
 package jam.vector;
 
-import java.util.function.DoubleFunction;
+import java.util.function.DoubleUnaryOperator;
 
 /**
  * Applies local transformations to each element in a vector.
  */
 public final class FunctionFilter extends LocalFilter {
-    private final DoubleFunction<Double> function;
+    private final DoubleUnaryOperator function;
 
     /**
      * Creates a new local function filter.
@@ -15,11 +15,11 @@ public final class FunctionFilter extends LocalFilter {
      * @param function the local {@code double}-to-{@code double}
      * transformation function.
      */
-    public FunctionFilter(DoubleFunction<Double> function) {
+    public FunctionFilter(DoubleUnaryOperator function) {
         this.function = function;
     }
 
     @Override protected double filter(double value) {
-        return function.apply(value);
+        return function.applyAsDouble(value);
     }
 }
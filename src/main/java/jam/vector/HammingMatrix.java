@@ -0,0 +1,182 @@
+
+package jam.vector;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Stores the Hamming distances between all pairs of bit vectors in a
+ * collection.
+ *
+ * <p>The distance matrix is symmetric with a zero diagonal, so only
+ * the strict lower triangle is stored: the {@code N(N - 1) / 2}
+ * distances between {@code N} vectors are packed row by row into a
+ * single {@code int[]} array.
+ *
+ * <p>The distances are computed directly from the packed words of the
+ * bit vectors (64 bits per {@code Long.bitCount} operation), without
+ * creating any temporary vectors, and the rows of the triangle are
+ * distributed across the threads of the common fork-join pool when
+ * the collection is large.
+ */
+public final class HammingMatrix {
+    private final int size;
+    private final int[] distances;
+
+    // The minimum number of word comparisons to justify parallel
+    // execution...
+    private static final long PARALLEL_THRESHOLD = 1L << 16;
+
+    private HammingMatrix(int size, int[] distances) {
+        this.size = size;
+        this.distances = distances;
+    }
+
+    /**
+     * Computes the Hamming distances between all pairs of bit vectors
+     * in a collection.
+     *
+     * @param vectors the bit vectors to compare.
+     *
+     * @return the packed matrix of pairwise Hamming distances.
+     *
+     * @throws IllegalArgumentException unless all vectors have the
+     * same length and the packed matrix fits in a single array.
+     */
+    public static HammingMatrix compute(BitVector... vectors) {
+        return compute(Arrays.asList(vectors));
+    }
+
+    /**
+     * Computes the Hamming distances between all pairs of bit vectors
+     * in a collection.
+     *
+     * @param vectors the bit vectors to compare.
+     *
+     * @return the packed matrix of pairwise Hamming distances.
+     *
+     * @throws IllegalArgumentException unless all vectors have the
+     * same length and the packed matrix fits in a single array.
+     */
+    public static HammingMatrix compute(List<BitVector> vectors) {
+        int size = vectors.size();
+        long count = packedSize(size);
+
+        if (count > Integer.MAX_VALUE - 8)
+            throw new IllegalArgumentException("Too many vectors for a packed distance matrix.");
+
+        long[][] words = extractWords(vectors);
+        int[] distances = new int[(int) count];
+
+        IntStream rows = IntStream.range(1, size);
+        long work = count * (size > 0 ? words[0].length : 0);
+
+        if (work >= PARALLEL_THRESHOLD)
+            rows = rows.parallel();
+
+        rows.forEach(row -> computeRow(words, row, distances));
+        return new HammingMatrix(size, distances);
+    }
+
+    private static long[][] extractWords(List<BitVector> vectors) {
+        long[][] words = new long[vectors.size()][];
+
+        for (int index = 0; index < words.length; ++index) {
+            BitVector vector = vectors.get(index);
+
+            if (vector.length() != vectors.get(0).length())
+                throw new IllegalArgumentException("Length mismatch.");
+
+            words[index] = vector.words();
+        }
+
+        return words;
+    }
+
+    private static void computeRow(long[][] words, int row, int[] distances) {
+        long[] rowWords = words[row];
+        int offset = (int) packedSize(row);
+
+        for (int col = 0; col < row; ++col)
+            distances[offset + col] = BitVector.hamming(rowWords, words[col]);
+    }
+
+    // The number of elements in the strict lower triangle of a square
+    // matrix with the specified dimension, which is also the offset
+    // of that row in the packed array...
+    private static long packedSize(long size) {
+        return size * (size - 1) / 2;
+    }
+
+    /**
+     * Returns the Hamming distance between two vectors in the
+     * collection.
+     *
+     * @param i the index of the first vector.
+     *
+     * @param j the index of the second vector.
+     *
+     * @return the Hamming distance between vectors {@code i} and
+     * {@code j}.
+     *
+     * @throws IndexOutOfBoundsException unless both indexes are valid.
+     */
+    public int get(int i, int j) {
+        validateIndex(i);
+        validateIndex(j);
+
+        if (i > j)
+            return distances[(int) packedSize(i) + j];
+        else if (i < j)
+            return distances[(int) packedSize(j) + i];
+        else
+            return 0;
+    }
+
+    private void validateIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException(String.format("Index [%d] out of bounds: [0, %d).", index, size));
+    }
+
+    /**
+     * Counts the pairs of distinct vectors separated by no more than
+     * a maximum Hamming distance.
+     *
+     * @param maxDistance the maximum Hamming distance.
+     *
+     * @return the number of pairs {@code (i, j)} with {@code i < j}
+     * and {@code get(i, j) <= maxDistance}.
+     */
+    public long countWithin(int maxDistance) {
+        long count = 0;
+
+        for (int distance : distances)
+            if (distance <= maxDistance)
+                ++count;
+
+        return count;
+    }
+
+    /**
+     * Returns the number of vectors in the collection (the dimension
+     * of the distance matrix).
+     *
+     * @return the number of vectors in the collection.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns a copy of the packed distances: the strict lower
+     * triangle of the distance matrix stored row by row, so that the
+     * distance between vectors {@code i > j} is found at index
+     * {@code i * (i - 1) / 2 + j}.
+     *
+     * @return a copy of the packed distances.
+     */
+    public int[] toPacked() {
+        return distances.clone();
+    }
+}
@@ -28,6 +28,12 @@ public final class JamVector extends AbstractVector {
         this.impl = impl;
     }
 
+    // Returns the current implementation; package-scope classes use it
+    // to access the underlying storage directly...
+    VectorImpl impl() {
+        return impl;
+    }
+
     /**
      * Fixed unit vector along the x-axis.
      */
@@ -375,6 +381,38 @@ public final class JamVector extends AbstractVector {
         return new JamVector(impl.daxpy(scalar, that));
     }
 
+    /**
+     * Computes the Euclidean distance between this vector and another.
+     *
+     * @param that the other vector.
+     *
+     * @return the Euclidean distance between this vector and the
+     * input vector.
+     *
+     * @throws IllegalArgumentException unless the input vector has
+     * the same length as this vector.
+     */
+    public double distance(VectorView that) {
+        return distance(this, that);
+    }
+
+    /**
+     * Computes the Euclidean distance between two vectors.
+     *
+     * @param v1 the first vector.
+     *
+     * @param v2 the second vector.
+     *
+     * @return the Euclidean distance between the input vectors.
+     *
+     * @throws IllegalArgumentException unless the vectors have the
+     * same length.
+     */
+    public static double distance(VectorView v1, VectorView v2) {
+        v1.validateOperand(v2);
+        return VectorUtil.distance(DenseVector.numeric(v1), DenseVector.numeric(v2));
+    }
+
     /**
      * Computes the dot product of this vector and another.
      *
@@ -402,7 +440,8 @@ public final class JamVector extends AbstractVector {
      * same length.
      */
     public static double dot(VectorView v1, VectorView v2) {
-        return JamVector.copyOf(v1).dot(v2);
+        v1.validateOperand(v2);
+        return VectorUtil.dot(DenseVector.numeric(v1), DenseVector.numeric(v2));
     }
 
     /**
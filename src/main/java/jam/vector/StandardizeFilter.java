@@ -0,0 +1,37 @@
+
+package jam.vector;
+
+// Non-local filter that subtracts the mean of the non-missing values
+// and, optionally, divides by their standard deviation. The statistics
+// are computed in a single pass, so the filter requires two passes
+// through the vector in total.
+//
+final class StandardizeFilter extends NonLocalFilter {
+    private final boolean scale;
+
+    StandardizeFilter(boolean scale) {
+        this.scale = scale;
+    }
+
+    // The value subtracted from each element...
+    double shift(StreamingMoments moments) {
+        return moments.mean();
+    }
+
+    // The value by which each shifted element is divided...
+    double divisor(StreamingMoments moments) {
+        return scale ? moments.sd() : 1.0;
+    }
+
+    @Override protected void filter(JamVector vector) {
+        StreamingMoments moments = new StreamingMoments();
+
+        for (int index = 0; index < vector.length(); ++index)
+            moments.add(vector.getDouble(index));
+
+        vector.subtract(shift(moments));
+
+        if (scale)
+            vector.divide(divisor(moments));
+    }
+}
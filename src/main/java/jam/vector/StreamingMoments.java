@@ -0,0 +1,51 @@
+
+package jam.vector;
+
+// Accumulates the count, mean, and variance of the non-missing values
+// in a numerical sequence in a single pass.
+//
+// The sums are accumulated relative to the first non-missing value,
+// which avoids the catastrophic cancellation of the naive one-pass
+// formula when the mean is large compared to the standard deviation
+// without requiring a division for each value (as Welford's algorithm
+// does).
+//
+final class StreamingMoments {
+    private int count = 0;
+    private double ref = 0.0;
+    private double sum1 = 0.0;
+    private double sum2 = 0.0;
+
+    void add(double value) {
+        if (Double.isNaN(value))
+            return;
+
+        if (count == 0)
+            ref = value;
+
+        double delta = value - ref;
+
+        ++count;
+        sum1 += delta;
+        sum2 += delta * delta;
+    }
+
+    int count() {
+        return count;
+    }
+
+    double mean() {
+        return ref + sum1 / count;
+    }
+
+    double variance() {
+        if (count < 2)
+            return Double.NaN;
+        else
+            return (sum2 - sum1 * sum1 / count) / (count - 1);
+    }
+
+    double sd() {
+        return Math.sqrt(variance());
+    }
+}
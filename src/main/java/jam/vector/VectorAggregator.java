@@ -75,7 +75,7 @@ public abstract class VectorAggregator {
     public static final VectorAggregator NORM1 =
         new VectorAggregator() {
             @Override public double compute(VectorView values) {
-                return StatUtil.norm1(values);
+                return VectorUtil.norm1(DenseVector.numeric(values));
             }
         };
 
@@ -85,7 +85,7 @@ public abstract class VectorAggregator {
     public static final VectorAggregator NORM2 =
         new VectorAggregator() {
             @Override public double compute(VectorView values) {
-                return StatUtil.norm2(values);
+                return VectorUtil.norm2(DenseVector.numeric(values));
             }
         };
 
@@ -95,7 +95,7 @@ public abstract class VectorAggregator {
     public static final VectorAggregator NORM_INF =
         new VectorAggregator() {
             @Override public double compute(VectorView values) {
-                return StatUtil.normInf(values);
+                return VectorUtil.normInf(DenseVector.numeric(values));
             }
         };
 
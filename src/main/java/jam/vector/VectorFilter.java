@@ -1,7 +1,7 @@
 
 package jam.vector;
 
-import java.util.function.DoubleFunction;
+import java.util.function.DoubleUnaryOperator;
 import java.util.function.Function;
 
 /**
@@ -20,11 +20,7 @@ public abstract class VectorFilter implements Function<JamVector, JamVector> {
      * A non-local filter that subtracts the vector mean, returning
      * the vector with zero mean (but same variance).
      */
-    public static final VectorFilter DEMEAN = new NonLocalFilter() {
-            @Override protected void filter(JamVector vector) {
-                vector.subtract(VectorAggregator.mean(vector));
-            }
-        };
+    public static final VectorFilter DEMEAN = new StandardizeFilter(false);
 
     /**
      * A local filter that takes the natural logarithm of each
@@ -37,12 +33,7 @@ public abstract class VectorFilter implements Function<JamVector, JamVector> {
      * divides by the standard deviation, returning the vector with
      * zero mean and unit variance.
      */
-    public static final VectorFilter ZSCORE = new NonLocalFilter() {
-            @Override protected void filter(JamVector vector) {
-                vector.subtract(VectorAggregator.mean(vector));
-                vector.divide(VectorAggregator.sd(vector));
-            }
-        };
+    public static final VectorFilter ZSCORE = new StandardizeFilter(true);
 
     /**
      * Creates a filter that applies a local transformation to each
@@ -53,7 +44,7 @@ public abstract class VectorFilter implements Function<JamVector, JamVector> {
      *
      * @return a filter that applies the specified local transformation.
      */
-    public static VectorFilter local(DoubleFunction<Double> function) {
+    public static VectorFilter local(DoubleUnaryOperator function) {
         return new FunctionFilter(function);
     }
 
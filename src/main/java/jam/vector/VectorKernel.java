@@ -0,0 +1,292 @@
+
+package jam.vector;
+
+import jam.app.JamProperties;
+
+// Package-scope computational kernels for reductions and updates on
+// bare double[] arrays.
+//
+// Two implementations are available: a SCALAR kernel with one loop
+// iteration and one accumulator per element, and an UNROLLED kernel
+// that processes four elements per iteration into four independent
+// accumulators. The independent accumulators break the dependency
+// chain through a single floating-point sum, which lets the processor
+// overlap the additions and lets the JIT compiler emit packed (SIMD)
+// instructions; the UNROLLED kernel is the default. Because the
+// accumulators are combined at the end, the UNROLLED results may
+// differ from the SCALAR results in the last few bits.
+//
+// The kernel is selected once, when this class is initialized, by the
+// system property "jam.vector.kernel".
+//
+// The reductions ignore missing (NaN) values to match the aggregate
+// functions in StatUtil, except for the dot product and plain sum,
+// which propagate them.
+//
+abstract class VectorKernel {
+    static final String KERNEL_PROPERTY = "jam.vector.kernel";
+
+    enum Type { SCALAR, UNROLLED }
+
+    static final VectorKernel SCALAR = new Scalar();
+    static final VectorKernel UNROLLED = new Unrolled();
+
+    static final VectorKernel INSTANCE = select(JamProperties.getOptionalEnum(KERNEL_PROPERTY, Type.UNROLLED));
+
+    static VectorKernel select(Type type) {
+        switch (type) {
+        case SCALAR:
+            return SCALAR;
+
+        case UNROLLED:
+            return UNROLLED;
+
+        default:
+            throw new IllegalArgumentException("Unknown kernel type.");
+        }
+    }
+
+    // Returns the sum of the elements, including missing values.
+    abstract double sum(double[] x);
+
+    // Returns the dot product of two arrays with equal length.
+    abstract double dot(double[] x, double[] y);
+
+    // Returns the sum of absolute values of the non-missing elements.
+    abstract double sumAbs(double[] x);
+
+    // Returns the sum of squares of the non-missing elements.
+    abstract double sumSquares(double[] x);
+
+    // Returns the maximum absolute value of the non-missing elements,
+    // or negative infinity if there are none.
+    abstract double maxAbs(double[] x);
+
+    // Returns the sum of squared differences between two arrays with
+    // equal length, skipping pairs with a missing value.
+    abstract double sumSquaredDiff(double[] x, double[] y);
+
+    // Computes y += a * x in place.
+    abstract void axpy(double a, double[] x, double[] y);
+
+    // Returns the square of a value, or zero if the value is missing.
+    private static double square(double value) {
+        return (value == value) ? value * value : 0.0;
+    }
+
+    // Returns the absolute value of a value, or zero if the value is
+    // missing.
+    private static double abs(double value) {
+        return (value == value) ? Math.abs(value) : 0.0;
+    }
+
+    // Returns the square of a difference, or zero if the difference is
+    // missing.
+    private static double squaredDiff(double x, double y) {
+        return square(x - y);
+    }
+
+    // Returns the larger of a running maximum and the absolute value
+    // of an element, or the running maximum if the element is missing.
+    private static double max(double result, double value) {
+        return (value == value) ? Math.max(result, Math.abs(value)) : result;
+    }
+
+    private static final class Scalar extends VectorKernel {
+        @Override double sum(double[] x) {
+            double result = 0.0;
+
+            for (int k = 0; k < x.length; ++k)
+                result += x[k];
+
+            return result;
+        }
+
+        @Override double dot(double[] x, double[] y) {
+            double result = 0.0;
+
+            for (int k = 0; k < x.length; ++k)
+                result += x[k] * y[k];
+
+            return result;
+        }
+
+        @Override double sumAbs(double[] x) {
+            double result = 0.0;
+
+            for (int k = 0; k < x.length; ++k)
+                result += abs(x[k]);
+
+            return result;
+        }
+
+        @Override double sumSquares(double[] x) {
+            double result = 0.0;
+
+            for (int k = 0; k < x.length; ++k)
+                result += square(x[k]);
+
+            return result;
+        }
+
+        @Override double maxAbs(double[] x) {
+            double result = Double.NEGATIVE_INFINITY;
+
+            for (int k = 0; k < x.length; ++k)
+                result = max(result, x[k]);
+
+            return result;
+        }
+
+        @Override double sumSquaredDiff(double[] x, double[] y) {
+            double result = 0.0;
+
+            for (int k = 0; k < x.length; ++k)
+                result += squaredDiff(x[k], y[k]);
+
+            return result;
+        }
+
+        @Override void axpy(double a, double[] x, double[] y) {
+            for (int k = 0; k < x.length; ++k)
+                y[k] += a * x[k];
+        }
+    }
+
+    private static final class Unrolled extends VectorKernel {
+        @Override double sum(double[] x) {
+            double s0 = 0.0;
+            double s1 = 0.0;
+            double s2 = 0.0;
+            double s3 = 0.0;
+
+            int k = 0;
+
+            for (; k + 3 < x.length; k += 4) {
+                s0 += x[k];
+                s1 += x[k + 1];
+                s2 += x[k + 2];
+                s3 += x[k + 3];
+            }
+
+            for (; k < x.length; ++k)
+                s0 += x[k];
+
+            return (s0 + s1) + (s2 + s3);
+        }
+
+        @Override double dot(double[] x, double[] y) {
+            double s0 = 0.0;
+            double s1 = 0.0;
+            double s2 = 0.0;
+            double s3 = 0.0;
+
+            int k = 0;
+
+            for (; k + 3 < x.length; k += 4) {
+                s0 += x[k]     * y[k];
+                s1 += x[k + 1] * y[k + 1];
+                s2 += x[k + 2] * y[k + 2];
+                s3 += x[k + 3] * y[k + 3];
+            }
+
+            for (; k < x.length; ++k)
+                s0 += x[k] * y[k];
+
+            return (s0 + s1) + (s2 + s3);
+        }
+
+        @Override double sumAbs(double[] x) {
+            double s0 = 0.0;
+            double s1 = 0.0;
+            double s2 = 0.0;
+            double s3 = 0.0;
+
+            int k = 0;
+
+            for (; k + 3 < x.length; k += 4) {
+                s0 += abs(x[k]);
+                s1 += abs(x[k + 1]);
+                s2 += abs(x[k + 2]);
+                s3 += abs(x[k + 3]);
+            }
+
+            for (; k < x.length; ++k)
+                s0 += abs(x[k]);
+
+            return (s0 + s1) + (s2 + s3);
+        }
+
+        @Override double sumSquares(double[] x) {
+            double s0 = 0.0;
+            double s1 = 0.0;
+            double s2 = 0.0;
+            double s3 = 0.0;
+
+            int k = 0;
+
+            for (; k + 3 < x.length; k += 4) {
+                s0 += square(x[k]);
+                s1 += square(x[k + 1]);
+                s2 += square(x[k + 2]);
+                s3 += square(x[k + 3]);
+            }
+
+            for (; k < x.length; ++k)
+                s0 += square(x[k]);
+
+            return (s0 + s1) + (s2 + s3);
+        }
+
+        @Override double maxAbs(double[] x) {
+            double m0 = Double.NEGATIVE_INFINITY;
+            double m1 = Double.NEGATIVE_INFINITY;
+            double m2 = Double.NEGATIVE_INFINITY;
+            double m3 = Double.NEGATIVE_INFINITY;
+
+            int k = 0;
+
+            for (; k + 3 < x.length; k += 4) {
+                m0 = max(m0, x[k]);
+                m1 = max(m1, x[k + 1]);
+                m2 = max(m2, x[k + 2]);
+                m3 = max(m3, x[k + 3]);
+            }
+
+            for (; k < x.length; ++k)
+                m0 = max(m0, x[k]);
+
+            return Math.max(Math.max(m0, m1), Math.max(m2, m3));
+        }
+
+        @Override double sumSquaredDiff(double[] x, double[] y) {
+            double s0 = 0.0;
+            double s1 = 0.0;
+            double s2 = 0.0;
+            double s3 = 0.0;
+
+            int k = 0;
+
+            for (; k + 3 < x.length; k += 4) {
+                s0 += squaredDiff(x[k],     y[k]);
+                s1 += squaredDiff(x[k + 1], y[k + 1]);
+                s2 += squaredDiff(x[k + 2], y[k + 2]);
+                s3 += squaredDiff(x[k + 3], y[k + 3]);
+            }
+
+            for (; k < x.length; ++k)
+                s0 += squaredDiff(x[k], y[k]);
+
+            return (s0 + s1) + (s2 + s3);
+        }
+
+        @Override void axpy(double a, double[] x, double[] y) {
+            //
+            // The elements are independent, so the JIT compiler can
+            // vectorize the simple loop without manual unrolling...
+            //
+            for (int k = 0; k < x.length; ++k)
+                y[k] += a * x[k];
+        }
+    }
+}
@@ -12,6 +12,24 @@ import jam.math.DoubleComparator;
  * ({@code double[]} arrays).
  */
 public final class VectorUtil {
+    /**
+     * Adds a scalar multiple of one array to another in place: {@code
+     * y[k] += a * x[k]} for each index {@code k}.
+     *
+     * @param a the scalar multiplier.
+     *
+     * @param x the array to scale and add.
+     *
+     * @param y the array to update.
+     *
+     * @throws IllegalArgumentException unless the arrays have the same
+     * length.
+     */
+    public static void axpy(double a, double[] x, double[] y) {
+        validateLength(x, y);
+        VectorKernel.INSTANCE.axpy(a, x, y);
+    }
+
     /**
      * Brackets a target value in a sorted array.  
      *
@@ -107,6 +125,41 @@ public final class VectorUtil {
         return true;
     }
 
+    /**
+     * Computes the Euclidean distance between two arrays; pairs with
+     * a missing value are excluded.
+     *
+     * @param x the first array.
+     *
+     * @param y the second array.
+     *
+     * @return the Euclidean distance between the arrays.
+     *
+     * @throws IllegalArgumentException unless the arrays have the same
+     * length.
+     */
+    public static double distance(double[] x, double[] y) {
+        validateLength(x, y);
+        return Math.sqrt(VectorKernel.INSTANCE.sumSquaredDiff(x, y));
+    }
+
+    /**
+     * Computes the dot product of two arrays.
+     *
+     * @param x the first array.
+     *
+     * @param y the second array.
+     *
+     * @return the dot product of the arrays.
+     *
+     * @throws IllegalArgumentException unless the arrays have the same
+     * length.
+     */
+    public static double dot(double[] x, double[] y) {
+        validateLength(x, y);
+        return VectorKernel.INSTANCE.dot(x, y);
+    }
+
     /**
      * Computes the average of an array of values.
      *
@@ -124,6 +177,45 @@ public final class VectorUtil {
             throw new IllegalArgumentException("At least one value is required.");
     }
 
+    /**
+     * Computes the 1-norm (sum of absolute values) of an array,
+     * ignoring missing values.
+     *
+     * @param values the values to examine.
+     *
+     * @return the sum of the absolute values of the non-missing
+     * values.
+     */
+    public static double norm1(double[] values) {
+        return VectorKernel.INSTANCE.sumAbs(values);
+    }
+
+    /**
+     * Computes the 2-norm (square root of the sum of squares) of an
+     * array, ignoring missing values.
+     *
+     * @param values the values to examine.
+     *
+     * @return the square root of the sum of squares of the non-missing
+     * values.
+     */
+    public static double norm2(double[] values) {
+        return Math.sqrt(VectorKernel.INSTANCE.sumSquares(values));
+    }
+
+    /**
+     * Computes the infinity norm (maximum absolute value) of an array,
+     * ignoring missing values.
+     *
+     * @param values the values to examine.
+     *
+     * @return the maximum absolute value of the non-missing values,
+     * or {@code Double.NEGATIVE_INFINITY} if there are none.
+     */
+    public static double normInf(double[] values) {
+        return VectorKernel.INSTANCE.maxAbs(values);
+    }
+
     /**
      * Normalizes an array of values: rescales each value by the same
      * scalar factor to generate a unit sum.
@@ -233,12 +325,7 @@ public final class VectorUtil {
      * @return the sum of the input values.
      */
     public static double sum(double... values) {
-        double result = 0.0;
-
-        for (double value : values)
-            result += value;
-
-        return result;
+        return VectorKernel.INSTANCE.sum(values);
     }
 
     /**
@@ -277,4 +364,9 @@ public final class VectorUtil {
 
         return result;
     }
+
+    private static void validateLength(double[] x, double[] y) {
+        if (x.length != y.length)
+            throw new IllegalArgumentException("Array length mismatch.");
+    }
 }
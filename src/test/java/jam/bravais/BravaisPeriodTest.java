@@ -1,7 +1,10 @@
 
 package jam.bravais;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
 
 import jam.util.ListUtil;
 
@@ -123,6 +126,40 @@ public class BravaisPeriodTest {
             assertTrue(box.contains(image));
     }
 
+    @Test public void testStream() {
+        Period[] periods = new Period[] {
+            Period.linear(7), Period.box(3, 5), Period.box(2, 3, 4), Period.box(40, 30, 20)
+        };
+
+        for (Period period : periods) {
+            List<UnitIndex> expected = period.enumerate();
+
+            assertEquals(expected, period.stream().collect(Collectors.toList()));
+            assertEquals(expected, period.parallelStream().collect(Collectors.toList()));
+            assertEquals(period.countSites(), period.ordinals().count());
+            assertEquals(period.countSites(), period.spliterator().getExactSizeIfKnown());
+        }
+    }
+
+    @Test public void testSpliterator() {
+        Period period = Period.box(40, 30, 20);
+        Spliterator<UnitIndex> suffix = period.spliterator();
+        Spliterator<UnitIndex> prefix = suffix.trySplit();
+
+        assertNotNull(prefix);
+        assertEquals(12000, prefix.estimateSize());
+        assertEquals(12000, suffix.estimateSize());
+
+        List<UnitIndex> images = new ArrayList<UnitIndex>();
+
+        assertTrue(prefix.tryAdvance(images::add));
+        prefix.forEachRemaining(images::add);
+        suffix.forEachRemaining(images::add);
+
+        assertFalse(prefix.tryAdvance(images::add));
+        assertEquals(period.enumerate(), images);
+    }
+
     @Test public void testImageOf() {
 	assertEquals(9, Period.imageOf(-21, 10));
 	assertEquals(0, Period.imageOf(-20, 10));
@@ -0,0 +1,121 @@
+
+package jam.bravais;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class LatticeSnapshotTest {
+    private static File tempFile() {
+        try {
+            File file = File.createTempFile("LatticeSnapshotTest", LatticeSnapshot.SUFFIX);
+            file.deleteOnExit();
+            return file;
+        }
+        catch (IOException ioex) {
+            throw new RuntimeException(ioex);
+        }
+    }
+
+    @Test public void testOrdinal() {
+        Period period = Period.box(3, 4, 5);
+
+        for (long ordinal = 0; ordinal < period.countSites(); ++ordinal)
+            assertEquals(ordinal, period.ordinalOf(period.indexAt(ordinal)));
+
+        assertEquals(0L, period.ordinalOf(UnitIndex.at(0, 0, 0)));
+        assertEquals(1L, period.ordinalOf(UnitIndex.at(1, 0, 0)));
+        assertEquals(3L, period.ordinalOf(UnitIndex.at(0, 1, 0)));
+        assertEquals(12L, period.ordinalOf(UnitIndex.at(0, 0, 1)));
+        assertEquals(59L, period.ordinalOf(UnitIndex.at(-1, -1, -1)));
+
+        List<UnitIndex> enumerated = period.enumerate();
+
+        for (int ordinal = 0; ordinal < enumerated.size(); ++ordinal)
+            assertEquals(ordinal, period.ordinalOf(enumerated.get(ordinal)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOrdinalInvalid() {
+        Period.box(3, 4).ordinalOf(UnitIndex.at(1, 2, 3));
+    }
+
+    @Test public void testCreateOpen() {
+        File file = tempFile();
+        Period period = Period.box(3, 4);
+
+        LatticeSnapshot writer = LatticeSnapshot.create(file, UnitCellType.SQUARE, period);
+
+        assertFalse(writer.isReadOnly());
+        assertEquals(12L, writer.countSites());
+        assertEquals(0L, writer.countOccupied());
+
+        writer.set(UnitIndex.at(1, 2), 7);
+        writer.set(UnitIndex.at(-1, 5), 8);
+        writer.force();
+
+        assertEquals(2L, writer.countOccupied());
+
+        LatticeSnapshot reader = LatticeSnapshot.open(file);
+
+        assertTrue(reader.isReadOnly());
+        assertEquals(UnitCellType.SQUARE, reader.cellType());
+        assertEquals(2, reader.period().dimensionality());
+        assertEquals(3, reader.period().period(0));
+        assertEquals(4, reader.period().period(1));
+        assertEquals(2L, reader.countOccupied());
+
+        assertEquals(7, reader.get(UnitIndex.at(1, 2)));
+        assertEquals(8, reader.get(UnitIndex.at(2, 1)));
+        assertEquals(LatticeSnapshot.EMPTY, reader.get(UnitIndex.at(0, 0)));
+
+        assertTrue(reader.isOccupied(UnitIndex.at(4, 6)));
+        assertFalse(reader.isOccupied(UnitIndex.at(0, 1)));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testReadOnly() {
+        File file = tempFile();
+        LatticeSnapshot.create(file, UnitCellType.CUBIC, Period.cubic(2));
+        LatticeSnapshot.open(file).set(0, 1);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testInvalidOrdinal() {
+        LatticeSnapshot.create(tempFile(), UnitCellType.CUBIC, Period.cubic(2)).get(8);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testInvalidFile() {
+        LatticeSnapshot.open(tempFile());
+    }
+
+    @Test public void testPopulation() {
+        Lattice lattice = Lattice.parse("SQUARE; 1.0; 3, 4");
+        Population<String> population = Population.empty(lattice);
+
+        population.place("10", UnitIndex.at(0, 0));
+        population.place("20", UnitIndex.at(4, 10));
+        population.place("30", UnitIndex.at(-1, -1));
+
+        File file = tempFile();
+        LatticeSnapshot.write(file, UnitCellType.SQUARE, population, Integer::parseInt);
+
+        LatticeSnapshot snapshot = LatticeSnapshot.open(file);
+
+        assertEquals(3L, snapshot.countOccupied());
+        assertEquals(10, snapshot.get(UnitIndex.at(0, 0)));
+        assertEquals(20, snapshot.get(UnitIndex.at(1, 2)));
+        assertEquals(30, snapshot.get(UnitIndex.at(2, 3)));
+
+        for (UnitIndex index : lattice.period().enumerate())
+            assertEquals(population.isOccupied(index), snapshot.isOccupied(index));
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("jam.bravais.LatticeSnapshotTest");
+    }
+}
@@ -1,6 +1,11 @@
 
 package jam.data;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+import jam.io.IOUtil;
 import jam.junit.NumericTestBase;
 import jam.lang.KeyedObject;
 
@@ -19,6 +24,27 @@ final class Factor extends KeyedObject<String> {
     }
 }
 
+final class StringLoader extends DenseDataMatrixLoader<String, String> {
+    private final int threadCount;
+
+    StringLoader(File file, int threadCount) {
+        super(file);
+        this.threadCount = threadCount;
+    }
+
+    @Override protected int threadCount() {
+        return threadCount;
+    }
+
+    @Override public String parseColKey(String key) {
+        return key;
+    }
+
+    @Override public String parseRowKey(String key) {
+        return key;
+    }
+}
+
 final class ExposureLoader extends DenseDataMatrixLoader<Asset, Factor> {
     private ExposureLoader(String fileName) {
         super(fileName);
@@ -69,6 +95,169 @@ public class DataMatrixLoaderTest extends NumericTestBase {
         assertDouble( 1.88, matrix.get(LRCX, VALUE));
     }
 
+    private static File tempFile(String suffix) {
+        try {
+            File file = File.createTempFile("DataMatrixLoaderTest", suffix);
+            file.deleteOnExit();
+            return file;
+        }
+        catch (IOException ioex) {
+            throw new RuntimeException(ioex);
+        }
+    }
+
+    private double[][] writeRandom(File file, int nrow, int ncol, String delim) {
+        double[][] values = new double[nrow][ncol];
+
+        try (PrintWriter writer = IOUtil.openWriter(file)) {
+            writer.print("row");
+
+            for (int col = 0; col < ncol; ++col)
+                writer.print(delim + "C" + col);
+
+            writer.println();
+
+            for (int row = 0; row < nrow; ++row) {
+                writer.print("R" + row);
+
+                for (int col = 0; col < ncol; ++col) {
+                    //
+                    // Mix short fixed-point, full-precision, and
+                    // exponential formats...
+                    //
+                    double value = random().nextDouble() - 0.5;
+
+                    if (col % 3 == 0)
+                        value = Math.round(1000.0 * value) / 1000.0;
+                    else if (col % 3 == 2)
+                        value = value * 1.0E-30;
+
+                    values[row][col] = value;
+                    writer.print(delim + value);
+                }
+
+                writer.println();
+            }
+        }
+
+        return values;
+    }
+
+    private static void assertMatrix(double[][] expected, DataMatrix<String, String> actual) {
+        assertEquals(expected.length, actual.nrow());
+        assertEquals(expected[0].length, actual.ncol());
+
+        for (int row = 0; row < actual.nrow(); ++row) {
+            assertEquals("R" + row, actual.rowKey(row));
+
+            for (int col = 0; col < actual.ncol(); ++col)
+                assertEquals(expected[row][col], actual.get(row, col), 0.0);
+        }
+    }
+
+    @Test public void testParallel() {
+        //
+        // Large enough to be split into several sections...
+        //
+        File file = tempFile(".csv");
+        double[][] values = writeRandom(file, 40000, 12, ",");
+
+        assertMatrix(values, new StringLoader(file, 1).load());
+        assertMatrix(values, new StringLoader(file, 4).load());
+    }
+
+    @Test public void testTabGZip() {
+        File file = tempFile(".tsv.gz");
+        double[][] values = writeRandom(file, 500, 5, "\t");
+
+        assertMatrix(values, new StringLoader(file, 4).load());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testRagged() throws IOException {
+        File file = tempFile(".csv");
+
+        try (PrintWriter writer = IOUtil.openWriter(file)) {
+            writer.println("row,A,B");
+            writer.println("X,1.0,2.0");
+            writer.println("Y,1.0");
+        }
+
+        new StringLoader(file, 1).load();
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testInvalidNumber() throws IOException {
+        File file = tempFile(".csv");
+
+        try (PrintWriter writer = IOUtil.openWriter(file)) {
+            writer.println("row,A,B");
+            writer.println("X,1.0,abc");
+        }
+
+        new StringLoader(file, 1).load();
+    }
+
+    @Test public void testEscapedKeys() throws IOException {
+        File file = tempFile(".csv");
+
+        try (PrintWriter writer = IOUtil.openWriter(file)) {
+            writer.println("row,A\\,1,B");
+            writer.println("X\\,Y, 1.0, 2.0");
+            writer.println("Z, 3.0, 4.0");
+        }
+
+        DataMatrix<String, String> matrix = new StringLoader(file, 1).load();
+
+        assertEquals("A,1", matrix.colKey(0));
+        assertEquals("X,Y", matrix.rowKey(0));
+        assertEquals("Z", matrix.rowKey(1));
+
+        assertDouble(2.0, matrix.get("X,Y", "B"));
+        assertDouble(3.0, matrix.get("Z", "A,1"));
+    }
+
+    @Test public void testEscapedPipe() throws IOException {
+        File file = tempFile(".txt.gz");
+
+        try (PrintWriter writer = IOUtil.openWriter(file)) {
+            writer.println("row|A|B");
+            writer.println("X\\|Y|1.0|2.0");
+        }
+
+        DataMatrix<String, String> matrix = new StringLoader(file, 1).load();
+
+        assertEquals("X|Y", matrix.rowKey(0));
+        assertDouble(2.0, matrix.get("X|Y", "B"));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testBlankLine() throws IOException {
+        File file = tempFile(".csv");
+
+        try (PrintWriter writer = IOUtil.openWriter(file)) {
+            writer.println("row,A,B");
+            writer.println("X,1.0,2.0");
+            writer.println();
+            writer.println("Y,3.0,4.0");
+        }
+
+        new StringLoader(file, 1).load();
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testTrailingBlankLine() throws IOException {
+        File file = tempFile(".csv.gz");
+
+        try (PrintWriter writer = IOUtil.openWriter(file)) {
+            writer.println("row,A,B");
+            writer.println("X,1.0,2.0");
+            writer.println("  ");
+        }
+
+        new StringLoader(file, 1).load();
+    }
+
     public static void main(String[] args) {
         org.junit.runner.JUnitCore.main("jam.data.DataMatrixLoaderTest");
     }
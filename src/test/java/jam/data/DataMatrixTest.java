@@ -6,6 +6,8 @@ import java.util.Set;
 
 import jam.junit.NumericTestBase;
 import jam.lang.KeyedObject;
+import jam.vector.FilterPipeline;
+import jam.vector.VectorFilter;
 
 import org.junit.*;
 import static org.junit.Assert.*;
@@ -135,6 +137,38 @@ public class DataMatrixTest extends NumericTestBase {
         matrix.immutable().set(0, 0, 1.23);
     }
 
+    @Test public void testFilter() {
+        DataMatrix<Asset, Factor> matrix = createMatrix();
+
+        matrix.set(AMAT, MOMENTUM, 1.0);
+        matrix.set(KLAC, MOMENTUM, 2.0);
+        matrix.set(LRCX, MOMENTUM, 6.0);
+        matrix.set(AMAT, VALUE, 4.0);
+        matrix.set(KLAC, VALUE, 8.0);
+        matrix.set(LRCX, VALUE, 6.0);
+
+        matrix.filterColumns(VectorFilter.DEMEAN);
+
+        assertDouble(-2.0, matrix.get(AMAT, MOMENTUM));
+        assertDouble(-1.0, matrix.get(KLAC, MOMENTUM));
+        assertDouble( 3.0, matrix.get(LRCX, MOMENTUM));
+        assertDouble(-2.0, matrix.get(AMAT, VALUE));
+        assertDouble( 2.0, matrix.get(KLAC, VALUE));
+        assertDouble( 0.0, matrix.get(LRCX, VALUE));
+
+        matrix.filterRows(FilterPipeline.of(VectorFilter.ABS, VectorFilter.local(x -> 2.0 * x)));
+
+        assertDouble(4.0, matrix.get(AMAT, MOMENTUM));
+        assertDouble(6.0, matrix.get(LRCX, MOMENTUM));
+        assertDouble(4.0, matrix.get(AMAT, VALUE));
+        assertDouble(0.0, matrix.get(LRCX, VALUE));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testFilterImmutable() {
+        createMatrix().immutable().filterRows(VectorFilter.ABS);
+    }
+
     public static void main(String[] args) {
         org.junit.runner.JUnitCore.main("jam.data.DataMatrixTest");
     }
@@ -0,0 +1,173 @@
+
+package jam.data;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import jam.junit.NumericTestBase;
+import jam.vector.VectorFilter;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class MappedDataMatrixTest extends NumericTestBase {
+    private static File tempFile() {
+        try {
+            File file = File.createTempFile("MappedDataMatrixTest", MappedDataMatrix.SUFFIX);
+            file.deleteOnExit();
+            return file;
+        }
+        catch (IOException ioex) {
+            throw new RuntimeException(ioex);
+        }
+    }
+
+    private static List<String> keys(String prefix, int count) {
+        List<String> keys = new ArrayList<String>(count);
+
+        for (int index = 0; index < count; ++index)
+            keys.add(prefix + index);
+
+        return keys;
+    }
+
+    private static final List<String> ROWS = keys("R", 50);
+    private static final List<String> COLS = keys("C", 7);
+
+    private DataMatrix<String, String> randomDense() {
+        DataMatrix<String, String> matrix = DataMatrix.dense(ROWS, COLS);
+
+        for (int row = 0; row < matrix.nrow(); ++row)
+            for (int col = 0; col < matrix.ncol(); ++col)
+                matrix.set(row, col, random().nextDouble());
+
+        return matrix;
+    }
+
+    @Test public void testCreate() {
+        MappedDataMatrix<String, String> matrix = MappedDataMatrix.create(tempFile(), ROWS, COLS);
+
+        assertEquals(50, matrix.nrow());
+        assertEquals(7, matrix.ncol());
+        assertFalse(matrix.isReadOnly());
+
+        assertEquals(0.0, matrix.get("R3", "C4"), 0.0);
+
+        matrix.set("R3", "C4", 1.25);
+        matrix.set(49, 6, -2.5);
+
+        assertEquals(1.25, matrix.get(3, 4), 0.0);
+        assertEquals(-2.5, matrix.get("R49", "C6"), 0.0);
+
+        assertEquals("R3", matrix.rowKey(3));
+        assertEquals("C4", matrix.colKey(4));
+        assertEquals(3, matrix.rowIndex("R3"));
+        assertEquals(DataMatrix.KEY_MISSING, matrix.colIndex("C7"));
+    }
+
+    @Test public void testCopyAndOpen() {
+        File file = tempFile();
+        DataMatrix<String, String> dense = randomDense();
+
+        MappedDataMatrix<String, String> mapped = MappedDataMatrix.copyOf(file, dense);
+        assertEquals(dense, mapped);
+
+        MappedDataMatrix<String, String> reopened = MappedDataMatrix.open(file, ROWS, COLS, true);
+
+        assertTrue(reopened.isReadOnly());
+        assertEquals(dense, reopened);
+
+        assertArrayEquals(new double[] { dense.get(5, 0), dense.get(5, 1), dense.get(5, 2), dense.get(5, 3),
+                                         dense.get(5, 4), dense.get(5, 5), dense.get(5, 6) },
+                          reopened.getRow(5), 0.0);
+
+        double[] column = reopened.getColumn(2);
+
+        for (int row = 0; row < dense.nrow(); ++row)
+            assertEquals(dense.get(row, 2), column[row], 0.0);
+    }
+
+    @Test public void testSetRowColumn() {
+        MappedDataMatrix<String, String> matrix = MappedDataMatrix.create(tempFile(), ROWS, COLS);
+
+        matrix.setRow(10, new double[] { 1.0, 2.0, 3.0, 4.0, 5.0, 6.0, 7.0 });
+        matrix.setColumn(3, new double[50]);
+
+        assertArrayEquals(new double[] { 1.0, 2.0, 3.0, 0.0, 5.0, 6.0, 7.0 }, matrix.getRow(10), 0.0);
+    }
+
+    @Test public void testFilter() {
+        DataMatrix<String, String> dense = randomDense();
+
+        MappedDataMatrix<String, String> mapped = MappedDataMatrix.copyOf(tempFile(), dense);
+
+        dense.filterColumns(VectorFilter.ZSCORE);
+        mapped.filterColumns(VectorFilter.ZSCORE);
+        assertEquals(dense, mapped);
+
+        dense.filterRows(VectorFilter.DEMEAN);
+        mapped.filterRows(VectorFilter.DEMEAN);
+        assertEquals(dense, mapped);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testReadOnly() {
+        File file = tempFile();
+        MappedDataMatrix.create(file, ROWS, COLS);
+        MappedDataMatrix.open(file, ROWS, COLS, true).set(0, 0, 1.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testKeyMismatch() {
+        File file = tempFile();
+        MappedDataMatrix.create(file, ROWS, COLS);
+        MappedDataMatrix.open(file, ROWS, keys("C", 8), false);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testInvalidFile() {
+        MappedDataMatrix.open(tempFile(), ROWS, COLS, true);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testInvalidIndex() {
+        MappedDataMatrix.create(tempFile(), ROWS, COLS).get(50, 0);
+    }
+
+    @Test public void testInvalidCreate() {
+        File file = tempFile();
+        DataMatrix<String, String> dense = randomDense();
+
+        MappedDataMatrix.copyOf(file, dense);
+        long length = file.length();
+
+        List<String> duplicates = new ArrayList<String>(COLS);
+        duplicates.add("C0");
+
+        try {
+            MappedDataMatrix.create(file, ROWS, duplicates);
+            fail("Duplicate keys accepted.");
+        }
+        catch (IllegalArgumentException ex) {
+            // Expected...
+        }
+
+        try {
+            MappedDataMatrix.create(file, new ArrayList<String>(), COLS);
+            fail("Empty keys accepted.");
+        }
+        catch (IllegalArgumentException ex) {
+            // Expected...
+        }
+
+        // The existing file must not have been truncated...
+        assertEquals(length, file.length());
+        assertEquals(dense, MappedDataMatrix.open(file, ROWS, COLS, true));
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("jam.data.MappedDataMatrixTest");
+    }
+}
@@ -0,0 +1,68 @@
+
+package jam.data;
+
+import java.nio.charset.StandardCharsets;
+
+import jam.junit.NumericTestBase;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class NumericTableParserTest extends NumericTestBase {
+    private static void assertParse(String field) {
+        byte[] bytes = field.getBytes(StandardCharsets.US_ASCII);
+        double expected = Double.parseDouble(field);
+        double actual = NumericTableParser.parseDouble(bytes, 0, bytes.length);
+
+        assertEquals(field, Double.doubleToLongBits(expected), Double.doubleToLongBits(actual));
+    }
+
+    @Test public void testFixed() {
+        assertParse("0");
+        assertParse("-0.0");
+        assertParse("+1.5");
+        assertParse("1.23");
+        assertParse("-3.21");
+        assertParse(".5");
+        assertParse("5.");
+        assertParse("000123.4500");
+        assertParse("123456789012345678");
+        assertParse("1234567890123456789012");
+        assertParse("0.1000000000000000055511151231257827");
+    }
+
+    @Test public void testExponent() {
+        assertParse("1e10");
+        assertParse("1.5E-7");
+        assertParse("-2.5e+22");
+        assertParse("4.9e-324");
+        assertParse("1.7976931348623157E308");
+        assertParse("1e400");
+    }
+
+    @Test public void testSpecial() {
+        assertParse("NaN");
+        assertParse("Infinity");
+        assertParse("-Infinity");
+    }
+
+    @Test public void testRandom() {
+        for (int trial = 0; trial < 100000; ++trial) {
+            double value = (random().nextDouble() - 0.5) * Math.pow(10.0, random().nextInt(40) - 20);
+
+            assertParse(Double.toString(value));
+            assertParse(String.format("%.6f", value));
+            assertParse(String.format("%.4e", value));
+        }
+    }
+
+    @Test(expected = NumberFormatException.class)
+    public void testInvalid() {
+        byte[] bytes = "1.2.3".getBytes(StandardCharsets.US_ASCII);
+        NumericTableParser.parseDouble(bytes, 0, bytes.length);
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("jam.data.NumericTableParserTest");
+    }
+}
@@ -0,0 +1,79 @@
+
+package jam.dist;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class BinomialSamplerTest extends DiscreteDistributionTestBase {
+    private void runTest(long trials, double prob, int sampleCount) {
+        BinomialSampler sampler = BinomialSampler.create(trials, prob);
+
+        double n = trials;
+        double mean = n * prob;
+        double stdev = Math.sqrt(n * prob * (1.0 - prob));
+
+        long width = (long) Math.ceil(8.0 * stdev + 10.0);
+        long lower = Math.max(0, (long) Math.floor(mean) - width);
+        long upper = Math.min(trials, (long) Math.ceil(mean) + width);
+
+        long[] observed = new long[(int) (upper - lower + 1)];
+        double[] probs = new double[observed.length];
+
+        for (int index = 0; index < sampleCount; ++index) {
+            long k = sampler.sample(random());
+
+            assertTrue(0 <= k && k <= trials);
+            ++observed[(int) (Math.max(lower, Math.min(upper, k)) - lower)];
+        }
+
+        //
+        // The end bins also hold the tails, whose mass is negligible
+        // at eight standard deviations...
+        //
+        double inner = 0.0;
+
+        for (long k = lower; k <= upper; ++k) {
+            probs[(int) (k - lower)] = SaddlePoint.binomialPDF(k, n, prob, 1.0 - prob);
+            inner += probs[(int) (k - lower)];
+        }
+
+        assertEquals(1.0, inner, 1.0E-10);
+        chiSquareTest(observed, probs);
+    }
+
+    @Test public void testInversion() {
+        runTest(1, 0.3, 100000);
+        runTest(15, 0.2, 200000);
+        runTest(1000000, 5.0E-6, 200000);
+        runTest(19, 0.5, 200000);
+    }
+
+    @Test public void testRejection() {
+        runTest(20, 0.5, 500000);
+        runTest(100, 0.3, 500000);
+        runTest(5000, 0.01, 500000);
+        runTest(1000000, 0.25, 500000);
+        runTest(1000000000L, 0.4, 200000);
+    }
+
+    @Test public void testSymmetry() {
+        runTest(50, 0.9, 500000);
+        runTest(1000000, 0.999, 500000);
+        runTest(40, 0.99, 200000);
+    }
+
+    @Test public void testDegenerate() {
+        assertEquals(0, BinomialSampler.create(0, 0.5).sample(random()));
+        assertEquals(0, BinomialSampler.create(100, 0.0).sample(random()));
+        assertEquals(100, BinomialSampler.create(100, 1.0).sample(random()));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidProb() {
+        BinomialSampler.create(10, 1.5);
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("jam.dist.BinomialSamplerTest");
+    }
+}
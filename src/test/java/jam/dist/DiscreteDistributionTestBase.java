@@ -72,6 +72,24 @@ public abstract class DiscreteDistributionTestBase extends NumericTestBase {
 	assertTrue(varianceError <= varianceTolerance);
     }
 
+    // Compares the sample mean and variance with their exact values,
+    // allowing four standard errors in each: sqrt(V / N) for the mean
+    // and sqrt((mu4 - V^2) / N) for the variance, where mu4 is the
+    // fourth central moment...
+    public void momentTest(DiscreteDistribution distribution, int sampleCount, boolean verbose) {
+        double mean     = distribution.mean();
+        double variance = distribution.variance();
+        double moment4  = 0.0;
+
+        for (int k : distribution.effectiveRange())
+            moment4 += distribution.pdf(k) * Math.pow(k - mean, 4);
+
+        double meanError     = Math.sqrt(variance / sampleCount);
+        double varianceError = Math.sqrt(Math.max(0.0, moment4 - variance * variance) / sampleCount);
+
+        momentTest(distribution, sampleCount, 4.0 * meanError, 4.0 * varianceError, verbose);
+    }
+
     public void sampleTest(int sampleCount, 
                            double meanTolerance,
                            double varianceTolerance,
@@ -91,4 +109,39 @@ public abstract class DiscreteDistributionTestBase extends NumericTestBase {
         assertEquals(summary1.getMean(), summary2.getMean(), meanTolerance);
         assertEquals(summary1.getVariance(), summary2.getVariance(), varianceTolerance);
     }
+
+    // Pearson's chi-square goodness-of-fit test: bins with fewer than
+    // five expected counts are merged with their neighbors, and the
+    // statistic must lie within six standard deviations of its mean
+    // (the number of degrees of freedom)...
+    public void chiSquareTest(long[] observed, double[] probs) {
+        long total = 0;
+
+        for (long count : observed)
+            total += count;
+
+        double statistic = 0.0;
+        int    binCount  = 0;
+
+        double binExpected = 0.0;
+        double binObserved = 0.0;
+
+        for (int k = 0; k < observed.length; ++k) {
+            binExpected += total * probs[k];
+            binObserved += observed[k];
+
+            if (binExpected >= 5.0 || k == observed.length - 1) {
+                double diff = binObserved - binExpected;
+
+                statistic += diff * diff / binExpected;
+                binCount++;
+
+                binExpected = 0.0;
+                binObserved = 0.0;
+            }
+        }
+
+        int df = binCount - 1;
+        assertTrue(String.format("Chi-square: %f, df: %d", statistic, df), statistic < df + 6.0 * Math.sqrt(2.0 * df));
+    }
 }
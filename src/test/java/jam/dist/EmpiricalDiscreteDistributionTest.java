@@ -47,7 +47,7 @@ public class EmpiricalDiscreteDistributionTest extends DiscreteDistributionTestB
     }
 
     @Test public void testSample() {
-        momentTest(dist, 10000, 0.01, 0.01, false);
+        momentTest(dist, 10000, false);
     }
 
     @Test public void testSupport() {
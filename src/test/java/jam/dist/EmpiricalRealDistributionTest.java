@@ -0,0 +1,119 @@
+
+package jam.dist;
+
+import jam.junit.NumericTestBase;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class EmpiricalRealDistributionTest extends NumericTestBase {
+    private static final EmpiricalRealDistribution SMALL =
+        EmpiricalRealDistribution.compute(3.0, 1.0, 2.0, 2.0, 5.0);
+
+    @Test public void testCDF() {
+        assertDouble(0.0, SMALL.cdf(0.5));
+        assertDouble(0.2, SMALL.cdf(1.0));
+        assertDouble(0.2, SMALL.cdf(1.5));
+        assertDouble(0.6, SMALL.cdf(2.0));
+        assertDouble(0.8, SMALL.cdf(4.9));
+        assertDouble(1.0, SMALL.cdf(5.0));
+
+        double[] points = new double[] { 0.5, 1.0, 1.5, 2.0, 2.0, 4.9, 5.0, 9.0 };
+        double[] bulk   = SMALL.cdf(points);
+
+        for (int k = 0; k < points.length; ++k)
+            assertDouble(SMALL.cdf(points[k]), bulk[k]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnsortedPoints() {
+        SMALL.cdf(new double[] { 2.0, 1.0 });
+    }
+
+    @Test public void testMoments() {
+        assertEquals(5, SMALL.countObservations());
+        assertDouble(2.6, SMALL.mean());
+        assertDouble(2.0, SMALL.median());
+        assertDouble(2.3, SMALL.variance());
+
+        assertDouble(1.0, SMALL.quantile(0.0));
+        assertDouble(1.0, SMALL.quantile(0.2));
+        assertDouble(2.0, SMALL.quantile(0.21));
+        assertDouble(3.0, SMALL.quantile(0.8));
+        assertDouble(5.0, SMALL.quantile(1.0));
+
+        assertArrayEquals(new double[] { 1.0, 2.0, 2.0, 3.0, 5.0 }, SMALL.getObservations(), 0.0);
+    }
+
+    @Test public void testKS() {
+        EmpiricalRealDistribution dist1 = EmpiricalRealDistribution.compute(1.0, 2.0, 2.0, 3.0);
+        EmpiricalRealDistribution dist2 = EmpiricalRealDistribution.compute(2.0, 2.0, 3.0, 4.0);
+
+        assertDouble(0.25, dist1.ksDistance(dist2));
+        assertDouble(0.25, dist2.ksDistance(dist1));
+        assertDouble(0.0, dist1.ksDistance(dist1));
+
+        EmpiricalRealDistribution sample1 =
+            EmpiricalRealDistribution.compute(NormalDistribution.STANDARD.sample(random(), 20000));
+
+        EmpiricalRealDistribution sample2 =
+            EmpiricalRealDistribution.compute(NormalDistribution.STANDARD.sample(random(), 5000));
+
+        // Brute-force supremum over all observations...
+        double expected = 0.0;
+
+        for (int k = 0; k < sample1.countObservations(); ++k) {
+            double x = sample1.getOrderStatistic(k);
+            expected = Math.max(expected, Math.abs(sample1.cdf(x) - sample2.cdf(x)));
+        }
+
+        for (int k = 0; k < sample2.countObservations(); ++k) {
+            double x = sample2.getOrderStatistic(k);
+            expected = Math.max(expected, Math.abs(sample1.cdf(x) - sample2.cdf(x)));
+        }
+
+        assertDouble(expected, EmpiricalRealDistribution.ksStatistic(sample1, sample2));
+        assertTrue(sample1.ksDistance(NormalDistribution.STANDARD) < 0.015);
+    }
+
+    @Test public void testKernelDensity() {
+        double[] data = NormalDistribution.STANDARD.sample(random(), 10000);
+        double   bandwidth = 0.2;
+
+        EmpiricalRealDistribution dist = EmpiricalRealDistribution.compute(data);
+        KernelDensity kde = KernelDensity.compute(dist, bandwidth);
+
+        for (double x = -3.0; x <= 3.0; x += 0.25) {
+            double direct = 0.0;
+
+            for (double obs : data)
+                direct += NormalDistribution.pdf(x, obs, bandwidth);
+
+            assertEquals(direct / data.length, kde.evaluate(x), 1.0E-4);
+        }
+
+        double integral = 0.0;
+        double spacing  = kde.getGridPoint(1) - kde.getGridPoint(0);
+
+        for (double density : kde.getDensity())
+            integral += density * spacing;
+
+        assertEquals(1.0, integral, 1.0E-4);
+        assertDouble(0.0, kde.evaluate(100.0));
+        assertEquals(0.3989, dist.pdf(0.0), 0.02);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmpty() {
+        EmpiricalRealDistribution.compute(new double[0]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNaN() {
+        EmpiricalRealDistribution.compute(1.0, Double.NaN);
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("jam.dist.EmpiricalRealDistributionTest");
+    }
+}
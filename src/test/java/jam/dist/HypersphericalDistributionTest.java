@@ -28,6 +28,16 @@ public class HypersphericalDistributionTest extends MultivariateDistributionTest
             assertDouble(RADIUS, StatUtil.norm2(samples[sample].minus(CENTER)));
     }
 
+    @Test public void testSampleFlat() {
+        HypersphericalDistribution dist = new HypersphericalDistribution(RADIUS, CENTER);
+        double[] points = dist.sampleFlat(random(), 10000);
+
+        for (int index = 0; index < points.length; index += 3) {
+            JamVector point = JamVector.valueOf(points[index], points[index + 1], points[index + 2]);
+            assertDouble(RADIUS, StatUtil.norm2(point.minus(CENTER)));
+        }
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void testInvalidDimensionality() {
         new HypersphericalDistribution(1, 10.0);
@@ -0,0 +1,140 @@
+
+package jam.dist;
+
+import jam.junit.NumericTestBase;
+import jam.math.DoubleRange;
+import jam.math.IntRange;
+import jam.math.JamRandom;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class MomentsTest extends NumericTestBase {
+    // Geometric distribution (number of failures before the first
+    // success) with no closed-form moments...
+    private static final class Geometric extends AbstractDiscreteDistribution {
+        private final double prob;
+        private final int sign;
+
+        Geometric(double prob, int sign) {
+            this.prob = prob;
+            this.sign = sign;
+        }
+
+        @Override public double pdf(int k) {
+            k *= sign;
+            return (k < 0) ? 0.0 : prob * Math.pow(1.0 - prob, k);
+        }
+
+        @Override public int sample(JamRandom source) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override public IntRange support() {
+            return (sign > 0) ? IntRange.NON_NEGATIVE : IntRange.NON_POSITIVE;
+        }
+    }
+
+    // Exponential distribution defined only by its quantile function...
+    private static final class Exponential extends AbstractRealDistribution {
+        private final double rate;
+
+        Exponential(double rate) {
+            this.rate = rate;
+        }
+
+        @Override public double cdf(double x) {
+            return (x <= 0.0) ? 0.0 : -Math.expm1(-rate * x);
+        }
+
+        @Override public double pdf(double x) {
+            return (x < 0.0) ? 0.0 : rate * Math.exp(-rate * x);
+        }
+
+        @Override public double quantile(double F) {
+            return -Math.log1p(-F) / rate;
+        }
+
+        @Override public DoubleRange support() {
+            return DoubleRange.NON_NEGATIVE;
+        }
+    }
+
+    @Test public void testDiscreteSummation() {
+        double p = 0.3;
+        Geometric dist = new Geometric(p, +1);
+
+        assertEquals((1.0 - p) / p, dist.mean(), 1.0E-12);
+        assertEquals((1.0 - p) / (p * p), dist.variance(), 1.0E-10);
+        assertEquals(Math.ceil(-1.0 / (Math.log(1.0 - p) / Math.log(2.0))) - 1.0, dist.median(), 0.0);
+    }
+
+    @Test public void testDiscreteReverse() {
+        double p = 0.3;
+        Geometric dist = new Geometric(p, -1);
+
+        assertEquals(-(1.0 - p) / p, dist.mean(), 1.0E-12);
+        assertEquals((1.0 - p) / (p * p), dist.variance(), 1.0E-10);
+    }
+
+    @Test public void testDiscreteTie() {
+        // Uniform over {3, 4, 5, 6}: the median is 4.5...
+        DiscreteDistribution dist = new UniformDiscreteDistribution(3, 7);
+        Moments moments = Moments.compute(dist);
+
+        assertEquals(4.5, moments.mean, 1.0E-12);
+        assertEquals(4.5, moments.median, 0.0);
+        assertEquals(dist.variance(), moments.variance, 1.0E-12);
+        assertEquals(15.0 / 12.0, dist.variance(), 1.0E-12);
+    }
+
+    @Test public void testDiscreteClosedForm() {
+        BinomialDistribution binomial = BinomialDistribution.create(40, jam.math.Probability.valueOf(0.35));
+        Moments moments = Moments.compute(binomial);
+
+        assertEquals(binomial.mean(), moments.mean, 1.0E-10);
+        assertEquals(binomial.variance(), moments.variance, 1.0E-10);
+
+        PoissonDistribution poisson = PoissonDistribution.create(12.5);
+        moments = Moments.compute(poisson);
+
+        assertEquals(poisson.mean(), moments.mean, 1.0E-10);
+        assertEquals(poisson.variance(), moments.variance, 1.0E-9);
+    }
+
+    @Test public void testRealIntegration() {
+        Exponential dist = new Exponential(2.0);
+
+        assertEquals(0.5, dist.mean(), 1.0E-10);
+        assertEquals(0.25, dist.variance(), 1.0E-10);
+        assertEquals(Math.log(2.0) / 2.0, dist.median(), 1.0E-14);
+    }
+
+    @Test public void testRealClosedForm() {
+        assertClosedForm(new LogNormalDistribution(-1.0, 0.5));
+        assertClosedForm(new LogUniformDistribution(-1.0, 2.0));
+        assertClosedForm(new FrechetDistribution(1.0, 2.0, 0.2));
+        assertClosedForm(new ReverseWeibullDistribution(1.0, 2.0, -0.3));
+        assertClosedForm(new GumbelDistribution(1.0, 2.0));
+    }
+
+    private static void assertClosedForm(RealDistribution dist) {
+        Moments moments = Moments.compute(dist);
+
+        assertEquals(1.0, moments.mean / dist.mean(), 1.0E-08);
+        assertEquals(1.0, moments.variance / dist.variance(), 1.0E-06);
+        assertEquals(moments.median, dist.median(), 1.0E-12);
+    }
+
+    @Test public void testInfiniteMoments() {
+        FrechetDistribution dist = new FrechetDistribution(0.0, 1.0, 0.6);
+
+        assertTrue(Double.isFinite(dist.mean()));
+        assertEquals(Double.POSITIVE_INFINITY, dist.variance(), 0.0);
+        assertEquals(Double.POSITIVE_INFINITY, new FrechetDistribution(0.0, 1.0, 1.5).mean(), 0.0);
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("jam.dist.MomentsTest");
+    }
+}
@@ -0,0 +1,164 @@
+
+package jam.dist;
+
+import jam.junit.NumericTestBase;
+import jam.math.DoubleUtil;
+import jam.math.JamRandom;
+import jam.math.Probability;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class MultinomialTest extends NumericTestBase {
+    private static long sum(long[] counts) {
+        long total = 0;
+
+        for (long count : counts)
+            total += count;
+
+        return total;
+    }
+
+    @Test public void testBinomialPDF() {
+        Probability p = Probability.valueOf(0.3);
+
+        for (int k = 0; k <= 50; ++k)
+            assertEquals(BinomialDistribution.pdf(k, 50, p),
+                         SaddlePoint.binomialPDF(k, 50.0, 0.3, 0.7), 1.0E-14);
+    }
+
+    @Test public void testBinomialExact() {
+        int trials = 30;
+        int sampleCount = 200000;
+        int[] counts = new int[trials + 1];
+
+        for (int index = 0; index < sampleCount; ++index)
+            ++counts[(int) BinomialSampler.create(trials, 0.3).sample(random())];
+
+        for (int k = 0; k <= trials; ++k)
+            assertEquals(BinomialDistribution.pdf(k, trials, Probability.valueOf(0.3)),
+                         DoubleUtil.ratio(counts[k], sampleCount), 0.003);
+    }
+
+    @Test public void testBinomialLarge() {
+        long   trials = 1000000000L;
+        double prob   = 0.25;
+        int    sampleCount = 20000;
+
+        double sum = 0.0;
+        double sumsq = 0.0;
+
+        for (int index = 0; index < sampleCount; ++index) {
+            double draw = BinomialSampler.create(trials, prob).sample(random()) - trials * prob;
+
+            sum += draw;
+            sumsq += draw * draw;
+        }
+
+        double mean = sum / sampleCount;
+        double variance = sumsq / sampleCount - mean * mean;
+        double expectedVariance = trials * prob * (1.0 - prob);
+
+        assertEquals(0.0, mean, 4.0 * Math.sqrt(expectedVariance / sampleCount));
+        assertEquals(1.0, variance / expectedVariance, 0.05);
+    }
+
+    @Test public void testSample() {
+        double[] weights = new double[] { 1.0, 0.0, 2.0, 3.0, 4.0 };
+        long count = 1000000000L;
+        long[] counts = Multinomial.sample(random(), count, weights);
+
+        assertEquals(count, sum(counts));
+        assertEquals(0, counts[1]);
+
+        for (int k = 0; k < weights.length; ++k)
+            assertEquals(weights[k] / 10.0, ((double) counts[k]) / count, 1.0E-4);
+    }
+
+    @Test public void testMoments() {
+        double[] probs = new double[] { 0.1, 0.2, 0.3, 0.4 };
+        long count = 100;
+        int trials = 20000;
+
+        double[] sum = new double[probs.length];
+        double[] sumsq = new double[probs.length];
+
+        for (int trial = 0; trial < trials; ++trial) {
+            long[] counts = Multinomial.sample(random(), count, probs);
+            assertEquals(count, sum(counts));
+
+            for (int k = 0; k < probs.length; ++k) {
+                sum[k] += counts[k];
+                sumsq[k] += counts[k] * counts[k];
+            }
+        }
+
+        for (int k = 0; k < probs.length; ++k) {
+            double mean = sum[k] / trials;
+            double variance = sumsq[k] / trials - mean * mean;
+
+            assertEquals(count * probs[k], mean, 0.1);
+            assertEquals(count * probs[k] * (1.0 - probs[k]), variance, 0.05 * count * probs[k]);
+        }
+    }
+
+    @Test public void testParallel() {
+        int outcomes = 100000;
+        double[] weights = new double[outcomes];
+
+        for (int k = 0; k < outcomes; ++k)
+            weights[k] = (k < outcomes / 2) ? 1.0 : 3.0;
+
+        long count = 4000000000L;
+        long[] counts = Multinomial.sampleParallel(random(), count, weights);
+
+        assertEquals(outcomes, counts.length);
+        assertEquals(count, sum(counts));
+
+        long lower = 0;
+
+        for (int k = 0; k < outcomes / 2; ++k)
+            lower += counts[k];
+
+        assertEquals(0.25, ((double) lower) / count, 1.0E-4);
+        assertEquals(20000.0, counts[0], 1000.0);
+        assertEquals(60000.0, counts[outcomes - 1], 2000.0);
+    }
+
+    @Test public void testSampleCounts() {
+        DiscreteDistribution dist = BinomialDistribution.create(20, Probability.valueOf(0.4));
+        long count = 10000000L;
+        long[] counts = dist.sampleCounts(random(), count);
+
+        assertEquals(dist.effectiveRange().size(), counts.length);
+        assertEquals(count, sum(counts));
+
+        for (int k = 0; k < counts.length; ++k) {
+            int x = dist.effectiveRange().lower() + k;
+            assertEquals(dist.pdf(x), ((double) counts[k]) / count, 0.001);
+        }
+    }
+
+    @Test public void testReproducible() {
+        double[] weights = new double[] { 0.5, 0.25, 0.25 };
+
+        long[] counts1 = Multinomial.sample(JamRandom.generator(20180101L), 12345, weights);
+        long[] counts2 = Multinomial.sample(JamRandom.generator(20180101L), 12345, weights);
+
+        assertArrayEquals(counts1, counts2);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegativeCount() {
+        Multinomial.sample(random(), -1, 1.0, 2.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroWeights() {
+        Multinomial.sample(random(), 10, 0.0, 0.0);
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("jam.dist.MultinomialTest");
+    }
+}
@@ -0,0 +1,87 @@
+
+package jam.dist;
+
+import jam.junit.NumericTestBase;
+import jam.math.DoubleUtil;
+import jam.math.Factorial;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class MultivariateHypergeometricTest extends NumericTestBase {
+    private static double exactPDF(int k, int population, int successes, int draws) {
+        return Math.exp(Factorial.chooseLog(successes, k)
+                        + Factorial.chooseLog(population - successes, draws - k)
+                        - Factorial.chooseLog(population, draws));
+    }
+
+    @Test public void testPDF() {
+        for (int k = 0; k <= 20; ++k)
+            assertEquals(exactPDF(k, 60, 25, 20), SaddlePoint.hypergeometricPDF(k, 60, 25, 20), 1.0E-12);
+    }
+
+    @Test public void testUnivariate() {
+        int sampleCount = 200000;
+        int[] counts = new int[21];
+
+        for (int index = 0; index < sampleCount; ++index)
+            ++counts[(int) MultivariateHypergeometric.sample(random(), 60, 25, 20)];
+
+        for (int k = 0; k <= 20; ++k)
+            assertEquals(exactPDF(k, 60, 25, 20), DoubleUtil.ratio(counts[k], sampleCount), 0.003);
+    }
+
+    @Test public void testBounds() {
+        // All items drawn...
+        assertEquals(25, MultivariateHypergeometric.sample(random(), 60, 25, 60));
+
+        // No failures in the urn...
+        assertEquals(20, MultivariateHypergeometric.sample(random(), 60, 60, 20));
+
+        // At least five successes must be drawn...
+        for (int trial = 0; trial < 1000; ++trial)
+            assertTrue(MultivariateHypergeometric.sample(random(), 10, 8, 7) >= 5);
+    }
+
+    @Test public void testMultivariate() {
+        long[] population = new long[] { 1000000000L, 0L, 3000000000L, 6000000000L };
+        long   total = 10000000000L;
+        long   draws = 100000000L;
+        int    trials = 2000;
+
+        double[] sum = new double[population.length];
+
+        for (int trial = 0; trial < trials; ++trial) {
+            long[] counts = MultivariateHypergeometric.sample(random(), draws, population);
+            long drawn = 0;
+
+            for (int k = 0; k < counts.length; ++k) {
+                assertTrue(counts[k] <= population[k]);
+
+                drawn += counts[k];
+                sum[k] += counts[k];
+            }
+
+            assertEquals(draws, drawn);
+        }
+
+        for (int k = 0; k < population.length; ++k) {
+            double expected = ((double) draws) * population[k] / total;
+            assertEquals(1.0, (sum[k] / trials + 1.0) / (expected + 1.0), 1.0E-4);
+        }
+    }
+
+    @Test public void testExhaustive() {
+        long[] population = new long[] { 3, 5, 2 };
+        assertArrayEquals(population, MultivariateHypergeometric.sample(random(), 10, population));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooManyDraws() {
+        MultivariateHypergeometric.sample(random(), 11, new long[] { 3, 5, 2 });
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("jam.dist.MultivariateHypergeometricTest");
+    }
+}
@@ -0,0 +1,79 @@
+
+package jam.dist;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class PoissonSamplerTest extends DiscreteDistributionTestBase {
+    private void runTest(double mean, int sampleCount) {
+        PoissonSampler sampler = PoissonSampler.create(mean);
+
+        int width = (int) Math.ceil(8.0 * Math.sqrt(mean) + 10.0);
+        int lower = Math.max(0, (int) Math.floor(mean) - width);
+        int upper = (int) Math.ceil(mean) + width;
+
+        long[] observed = new long[upper - lower + 1];
+        double[] probs = new double[observed.length];
+
+        for (int index = 0; index < sampleCount; ++index) {
+            int k = sampler.sample(random());
+
+            assertTrue(k >= 0);
+            ++observed[Math.max(lower, Math.min(upper, k)) - lower];
+        }
+
+        //
+        // The end bins also hold the tails...
+        //
+        double inner = 0.0;
+
+        for (int k = lower + 1; k < upper; ++k) {
+            probs[k - lower] = PoissonDistribution.pdf(k, mean);
+            inner += probs[k - lower];
+        }
+
+        double lowerTail = 0.0;
+
+        for (int k = 0; k <= lower; ++k)
+            lowerTail += PoissonDistribution.pdf(k, mean);
+
+        probs[0] = lowerTail;
+        probs[probs.length - 1] = Math.max(0.0, 1.0 - inner - lowerTail);
+
+        chiSquareTest(observed, probs);
+    }
+
+    @Test public void testInversion() {
+        runTest(0.05, 200000);
+        runTest(2.5, 200000);
+        runTest(9.99, 200000);
+    }
+
+    @Test public void testRejection() {
+        runTest(10.0, 500000);
+        runTest(37.5, 500000);
+        runTest(1000.0, 500000);
+        runTest(1.0E+04, 500000);
+        runTest(2.5E+06, 200000);
+    }
+
+    @Test public void testLogFactorial() {
+        double expected = 0.0;
+
+        for (int k = 0; k <= 200; ++k) {
+            if (k > 0)
+                expected += Math.log(k);
+
+            assertEquals(expected, PoissonSampler.logFactorial(k), 1.0E-12 * Math.max(1.0, expected));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidMean() {
+        PoissonSampler.create(0.0);
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("jam.dist.PoissonSamplerTest");
+    }
+}
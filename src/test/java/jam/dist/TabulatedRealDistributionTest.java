@@ -0,0 +1,84 @@
+
+package jam.dist;
+
+import jam.junit.NumericTestBase;
+import jam.math.Probability;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class TabulatedRealDistributionTest extends NumericTestBase {
+    private static final double TOLERANCE = 1.0e-09;
+
+    public TabulatedRealDistributionTest() {
+        super(TOLERANCE);
+    }
+
+    private void runTest(RealDistribution exact) {
+        RealDistribution tabulated = exact.cache();
+
+        double lower = exact.quantile(1.0E-08);
+        double upper = exact.quantile(1.0 - 1.0E-08);
+
+        for (int k = 0; k <= 1000; ++k) {
+            double x = lower + k * (upper - lower) / 1000.0;
+
+            assertDouble(exact.cdf(x), tabulated.cdf(x));
+            assertEquals(exact.pdf(x), tabulated.pdf(x), 1.0E-07);
+        }
+
+        for (int k = 1; k < 1000; ++k) {
+            double F = 0.001 * k;
+            assertEquals(exact.quantile(F), tabulated.quantile(F), 1.0E-07);
+        }
+
+        assertDouble(exact.mean(), tabulated.mean());
+        assertDouble(exact.variance(), tabulated.variance());
+    }
+
+    @Test public void testExponential() {
+        runTest(new ExponentialDistribution(2.0));
+    }
+
+    @Test public void testNormal() {
+        runTest(new NormalDistribution(-1.0, 3.0));
+    }
+
+    @Test public void testTails() {
+        NormalDistribution exact = NormalDistribution.STANDARD;
+        RealDistribution tabulated = exact.cache();
+
+        assertDouble(exact.cdf(-9.0), tabulated.cdf(-9.0));
+        assertDouble(exact.cdf( 9.0), tabulated.cdf( 9.0));
+        assertDouble(exact.quantile(1.0E-14), tabulated.quantile(1.0E-14));
+    }
+
+    @Test public void testCache() {
+        DistributionCache.clear();
+
+        RealDistribution normal1 = DistributionCache.real(RealDistributionType.NORMAL, 0.0, 1.0);
+        RealDistribution normal2 = DistributionCache.real(RealDistributionType.NORMAL, 0.0, 1.0);
+        RealDistribution normal3 = DistributionCache.real(RealDistributionType.NORMAL, 0.0, 2.0);
+
+        assertSame(normal1, normal2);
+        assertNotSame(normal1, normal3);
+
+        DiscreteDistribution poisson1 = DistributionCache.poisson(2.5);
+        DiscreteDistribution poisson2 = DistributionCache.poisson(2.5);
+
+        assertSame(poisson1, poisson2);
+        assertEquals(PoissonDistribution.pdf(3, 2.5), poisson1.pdf(3), 1.0E-09);
+
+        DiscreteDistribution binomial1 = DistributionCache.binomial(100, Probability.valueOf(0.25));
+        DiscreteDistribution binomial2 = DistributionCache.binomial(100, Probability.valueOf(0.25));
+
+        assertSame(binomial1, binomial2);
+        assertEquals(BinomialDistribution.pdf(25, 100, Probability.valueOf(0.25)), binomial1.pdf(25), 1.0E-09);
+
+        assertEquals(4, DistributionCache.size());
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("jam.dist.TabulatedRealDistributionTest");
+    }
+}
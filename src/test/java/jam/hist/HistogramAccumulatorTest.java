@@ -0,0 +1,115 @@
+
+package jam.hist;
+
+import java.util.stream.DoubleStream;
+
+import jam.dist.NormalDistribution;
+import jam.junit.NumericTestBase;
+import jam.math.DoubleRange;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class HistogramAccumulatorTest extends NumericTestBase {
+    private static int findLinear(BinEdges edges, double obs) {
+        for (int bin = 0; bin < edges.countBins(); ++bin)
+            if (edges.getRange(bin).contains(obs))
+                return bin;
+
+        return BinEdges.OUTSIDE;
+    }
+
+    private static void assertFind(BinEdges edges, double[] data) {
+        for (double obs : data)
+            assertEquals(findLinear(edges, obs), edges.find(obs));
+
+        for (int bin = 0; bin <= edges.countBins(); ++bin) {
+            double edge = (bin < edges.countBins()) ? edges.getLower(bin) : edges.getUpper(bin - 1);
+
+            assertEquals(findLinear(edges, edge), edges.find(edge));
+            assertEquals(findLinear(edges, Math.nextDown(edge)), edges.find(Math.nextDown(edge)));
+            assertEquals(findLinear(edges, Math.nextUp(edge)), edges.find(Math.nextUp(edge)));
+        }
+    }
+
+    @Test public void testFind() {
+        double[] data = NormalDistribution.STANDARD.sample(random(), 10000);
+
+        assertFind(BinEdges.linear(-3.0, 3.0, 37), data);
+        assertFind(BinEdges.linear(-0.1, 0.7, 1000), data);
+        assertFind(BinEdges.create(-5.0, -1.0, -0.5, 0.0, 0.1, 0.2, 2.0), data);
+
+        for (int k = 0; k < data.length; ++k)
+            data[k] = Math.exp(data[k]);
+
+        assertFind(BinEdges.log(0.1, 10.0, 23), data);
+    }
+
+    @Test public void testFindNaN() {
+        assertEquals(BinEdges.OUTSIDE, BinEdges.linear(0.0, 1.0, 10).find(Double.NaN));
+        assertEquals(BinEdges.OUTSIDE, BinEdges.create(0.0, 0.5, 1.0).find(Double.NaN));
+    }
+
+    @Test public void testAccumulate() {
+        BinEdges edges = BinEdges.linear(1.0, 5.0, 4);
+        HistogramAccumulator accum = HistogramAccumulator.create(edges);
+
+        accum.add(0.99999999);
+        accum.addAll(1.0, 1.5, 2.0, 2.1, 3.0, 3.1);
+        accum.addAll(new double[] { 0.0, 4.1, 4.2, 4.9, 5.0, 0.0 }, 1, 5);
+        accum.add(5.00000001);
+        accum.add(Double.NaN);
+
+        assertArrayEquals(new long[] { 3, 2, 1, 4 }, accum.getCounts());
+        assertEquals(10, accum.getTotalCount());
+        assertEquals(1, accum.getUnderflow());
+        assertEquals(1, accum.getOverflow());
+        assertEquals(1, accum.getMissing());
+
+        Histogram hist = accum.toHistogram();
+
+        assertEquals(10, hist.getTotalCount());
+        assertEquals(DoubleRange.closed(  1.0, 2.0), hist.viewBins().get(0).getRange());
+        assertEquals(DoubleRange.leftOpen(4.0, 5.0), hist.viewBins().get(3).getRange());
+        assertEquals(4, hist.viewBins().get(3).getCount());
+    }
+
+    @Test public void testCombine() {
+        BinEdges edges = BinEdges.linear(-4.0, 4.0, 64);
+        double[] data  = NormalDistribution.STANDARD.sample(random(), 100000);
+
+        HistogramAccumulator serial = HistogramAccumulator.create(edges);
+        serial.addAll(data);
+
+        HistogramAccumulator part1 = HistogramAccumulator.create(edges);
+        HistogramAccumulator part2 = HistogramAccumulator.create(edges);
+
+        part1.addAll(data, 0, 40000);
+        part2.addAll(data, 40000, data.length);
+        part1.combine(part2);
+
+        HistogramAccumulator parallel =
+            HistogramAccumulator.compute(edges, DoubleStream.of(data).parallel());
+
+        assertArrayEquals(serial.getCounts(), part1.getCounts());
+        assertArrayEquals(serial.getCounts(), parallel.getCounts());
+
+        assertEquals(serial.getUnderflow(), parallel.getUnderflow());
+        assertEquals(serial.getOverflow(), parallel.getOverflow());
+        assertEquals(data.length, parallel.getTotalCount() + parallel.getUnderflow() + parallel.getOverflow());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCombineMismatch() {
+        HistogramAccumulator.create(BinEdges.linear(0.0, 1.0, 10)).combine(HistogramAccumulator.create(BinEdges.linear(0.0, 1.0, 11)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDescending() {
+        BinEdges.create(1.0, 0.0);
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("jam.hist.HistogramAccumulatorTest");
+    }
+}
@@ -55,6 +55,46 @@ public class LatticeTest {
             assertEquals(Integer.valueOf(0), occupants.get(neighbors.get(k)));
     }
 
+    @Test public void testCountOccupantsArray() {
+        runCountOccupantsArray(Lattice.denseSO(period), Neighborhood.MOORE);
+        runCountOccupantsArray(Lattice.sparseMO(period), Neighborhood.MOORE);
+        runCountOccupantsArray(Lattice.sparseMO(period), Neighborhood.VON_NEUMANN);
+    }
+
+    private void runCountOccupantsArray(Lattice<String> lattice, Neighborhood neighborhood) {
+        //
+        // Place the center at a periodic boundary to exercise the
+        // image calculations...
+        //
+        Coord center = Coord.at(0, 19, 8);
+        List<Coord> neighbors = neighborhood.getNeighbors(center);
+
+        lattice.occupy("A", neighbors.get(0));
+        lattice.occupy("B", neighbors.get(2));
+        lattice.occupy("C", neighbors.get(4));
+
+        int[] counts = new int[neighborhood.size()];
+        assertEquals(3, lattice.countOccupants(center, neighborhood, counts));
+
+        for (int k = 0; k < neighbors.size(); ++k)
+            assertEquals(lattice.countOccupants(neighbors.get(k)), counts[k]);
+
+        int[] available = new int[3 * neighborhood.size()];
+        int   numAvail  = lattice.findAvailable(center.x, center.y, center.z, neighborhood, available);
+
+        if (lattice.siteCapacity() == 1) {
+            assertEquals(neighborhood.size() - 3, numAvail);
+            assertEquals(neighborhood.size() - 3, lattice.countAvailable(center, neighborhood));
+        }
+        else {
+            assertEquals(neighborhood.size(), numAvail);
+            assertEquals(neighborhood.size(), lattice.countAvailable(center, neighborhood));
+        }
+
+        for (int k = 0; k < numAvail; ++k)
+            assertTrue(lattice.isAvailable(Coord.at(available[3 * k], available[3 * k + 1], available[3 * k + 2])));
+    }
+
     @Test public void testDenseSO() {
         runAvailabilitySO(Lattice.denseSO(period));
         runOccupyVacateSO(Lattice.denseSO(period));
@@ -1,6 +1,7 @@
 
 package jam.lattice;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -58,6 +59,49 @@ public class NeighborhoodTest extends NumericTestBase {
         assertTrue(neighbors.contains(Coord.at(2, 3, 4)));
     }
 
+    @Test public void testNeighborArray() {
+        for (Neighborhood neighborhood : Neighborhood.values()) {
+            Coord center = Coord.at(1, -2, 3);
+            List<Coord> expected = neighborhood.getNeighbors(center);
+
+            int[] actual = new int[3 * neighborhood.size()];
+            assertEquals(neighborhood.size(), neighborhood.getNeighbors(center.x, center.y, center.z, actual));
+
+            for (int k = 0; k < expected.size(); ++k)
+                assertEquals(expected.get(k), Coord.at(actual[3 * k], actual[3 * k + 1], actual[3 * k + 2]));
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testNeighborArrayShort() {
+        Neighborhood.MOORE.getNeighbors(0, 0, 0, new int[3 * Neighborhood.MOORE.size() - 1]);
+    }
+
+    @Test public void testVisitNeighbors() {
+        Coord center = Coord.at(4, 5, 6);
+        List<Coord> expected = Neighborhood.NEAR_NEXT.getNeighbors(center);
+        List<Coord> visited = new ArrayList<Coord>();
+
+        Neighborhood.NEAR_NEXT.visitNeighbors(center, (x, y, z) -> visited.add(Coord.at(x, y, z)));
+        assertEquals(expected, visited);
+    }
+
+    @Test public void testRandomNeighborArray() {
+        Multiset<Coord> coords = HashMultiset.create();
+        int[] neighbor = new int[3];
+
+        for (int trial = 0; trial < 260000; ++trial) {
+            int index = Neighborhood.MOORE.randomNeighbor(1, 1, 1, random(), neighbor);
+            Coord coord = Coord.at(neighbor[0], neighbor[1], neighbor[2]);
+
+            assertEquals(Coord.at(1, 1, 1).plus(Neighborhood.MOORE.viewBasis().get(index)), coord);
+            coords.add(coord);
+        }
+
+        for (Coord coord : Neighborhood.MOORE.getNeighbors(Coord.at(1, 1, 1)))
+            assertEquals(1.0 / 26.0, MultisetUtil.frequency(coords, coord), 0.002);
+    }
+
     @Test public void testRandomBasisVector() {
         Multiset<Coord> coords = HashMultiset.create();
 
@@ -0,0 +1,194 @@
+
+package jam.lattice;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+
+import jam.junit.NumericTestBase;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class OccupancyBitmapTest extends NumericTestBase {
+    private static final Period[] PERIODS =
+        new Period[] { new Period(3, 4, 5), new Period(64, 3, 2), new Period(70, 4, 3), new Period(130, 2, 2) };
+
+    private OccupancyBitmap randomBitmap(Period period, double fraction) {
+        OccupancyBitmap bitmap = OccupancyBitmap.empty(period);
+
+        for (int x = 0; x < period.getPeriodX(); ++x)
+            for (int y = 0; y < period.getPeriodY(); ++y)
+                for (int z = 0; z < period.getPeriodZ(); ++z)
+                    if (random().nextDouble() < fraction)
+                        bitmap.occupy(x, y, z);
+
+        return bitmap;
+    }
+
+    private static List<Coord> listSites(Period period) {
+        List<Coord> sites = new ArrayList<Coord>();
+
+        for (int z = 0; z < period.getPeriodZ(); ++z)
+            for (int y = 0; y < period.getPeriodY(); ++y)
+                for (int x = 0; x < period.getPeriodX(); ++x)
+                    sites.add(Coord.at(x, y, z));
+
+        return sites;
+    }
+
+    @Test public void testOccupy() {
+        OccupancyBitmap bitmap = OccupancyBitmap.empty(new Period(70, 4, 3));
+
+        assertEquals(0L, bitmap.countOccupied());
+        assertFalse(bitmap.isOccupied(69, 3, 2));
+
+        bitmap.occupy(-1, -1, -1);
+        bitmap.occupy(Coord.at(0, 0, 0));
+        bitmap.occupy(64, 1, 1);
+
+        assertEquals(3L, bitmap.countOccupied());
+        assertTrue(bitmap.isOccupied(69, 3, 2));
+        assertTrue(bitmap.isOccupied(Coord.at(70, 4, 3)));
+        assertTrue(bitmap.isOccupied(-6, 5, 4));
+        assertFalse(bitmap.isOccupied(63, 1, 1));
+
+        bitmap.vacate(69, 3, 2);
+
+        assertEquals(2L, bitmap.countOccupied());
+        assertFalse(bitmap.isOccupied(-1, -1, -1));
+    }
+
+    @Test public void testLattice() {
+        Lattice<String> lattice = Lattice.denseSO(new Period(5, 6, 7));
+
+        lattice.occupy("A", Coord.at(1, 2, 3));
+        lattice.occupy("B", Coord.at(-1, 2, 3));
+
+        OccupancyBitmap bitmap = OccupancyBitmap.of(lattice);
+
+        assertEquals(2L, bitmap.countOccupied());
+        assertTrue(bitmap.isOccupied(1, 2, 3));
+        assertTrue(bitmap.isOccupied(4, 2, 3));
+    }
+
+    @Test public void testBulk() {
+        for (Period period : PERIODS)
+            for (Neighborhood neighborhood : Neighborhood.values())
+                testBulk(randomBitmap(period, 0.6), neighborhood);
+    }
+
+    private void testBulk(OccupancyBitmap bitmap, Neighborhood neighborhood) {
+        long boundary = 0;
+        long contacts = 0;
+
+        OccupancyBitmap surface = bitmap.surface(neighborhood);
+
+        for (Coord site : listSites(bitmap.getPeriod())) {
+            int occupied = bitmap.countOccupiedNeighbors(site.x, site.y, site.z, neighborhood);
+
+            if (bitmap.isOccupied(site)) {
+                boundary += neighborhood.size() - occupied;
+                contacts += occupied;
+            }
+
+            assertEquals(bitmap.isOccupied(site) && occupied < neighborhood.size(), surface.isOccupied(site));
+        }
+
+        assertEquals(boundary, bitmap.countBoundary(neighborhood));
+        assertEquals(contacts / 2, bitmap.countContacts(neighborhood));
+        assertDouble(((double) boundary) / bitmap.countOccupied(), bitmap.perimeterVolumeRatio(neighborhood));
+    }
+
+    @Test public void testComponents() {
+        for (Period period : PERIODS)
+            for (Neighborhood neighborhood : Neighborhood.values())
+                testComponents(randomBitmap(period, 0.3), neighborhood);
+    }
+
+    private void testComponents(OccupancyBitmap bitmap, Neighborhood neighborhood) {
+        List<Coord> occupied = new ArrayList<Coord>();
+        bitmap.visitOccupied((x, y, z) -> occupied.add(Coord.at(x, y, z)));
+
+        assertEquals(bitmap.countOccupied(), occupied.size());
+
+        int[] labels = bitmap.labelComponents(neighborhood);
+        assertEquals(occupied.size(), labels.length);
+
+        //
+        // Breadth-first search from each unlabeled site must find
+        // exactly the sites sharing its label...
+        //
+        Period period = bitmap.getPeriod();
+        List<Coord> sites = listSites(period);
+        int[] expected = new int[sites.size()];
+        Arrays.fill(expected, -1);
+
+        int componentCount = 0;
+
+        for (Coord site : occupied) {
+            int ordinal = ordinalOf(period, site.x, site.y, site.z);
+
+            if (expected[ordinal] >= 0)
+                continue;
+
+            Deque<Coord> queue = new ArrayDeque<Coord>();
+            queue.add(site);
+            expected[ordinal] = componentCount;
+
+            while (!queue.isEmpty()) {
+                Coord current = queue.poll();
+
+                for (Coord neighbor : neighborhood.getNeighbors(current)) {
+                    Image image = period.computeImage(neighbor);
+                    int nbrOrdinal = ordinalOf(period, image.x, image.y, image.z);
+
+                    if (bitmap.isOccupied(neighbor) && expected[nbrOrdinal] < 0) {
+                        expected[nbrOrdinal] = componentCount;
+                        queue.add(Coord.at(image.x, image.y, image.z));
+                    }
+                }
+            }
+
+            ++componentCount;
+        }
+
+        for (int index = 0; index < occupied.size(); ++index) {
+            Coord site = occupied.get(index);
+            assertEquals(expected[ordinalOf(period, site.x, site.y, site.z)], labels[index]);
+        }
+
+        assertEquals(componentCount, bitmap.countComponents(neighborhood));
+    }
+
+    private static int ordinalOf(Period period, int x, int y, int z) {
+        return x + period.getPeriodX() * (y + period.getPeriodY() * z);
+    }
+
+    @Test public void testCluster() {
+        OccupancyBitmap bitmap = OccupancyBitmap.empty(Period.cubic(10));
+
+        for (int x = 2; x < 5; ++x)
+            for (int y = 2; y < 5; ++y)
+                for (int z = 2; z < 5; ++z)
+                    bitmap.occupy(x, y, z);
+
+        bitmap.occupy(8, 8, 8);
+
+        assertEquals(28L, bitmap.countOccupied());
+        assertEquals(2, bitmap.countComponents(Neighborhood.VON_NEUMANN));
+        assertArrayEquals(new int[] { 27, 1 }, bitmap.componentSizes(Neighborhood.VON_NEUMANN));
+
+        // Each face of the cube has nine bonds to the outside...
+        assertEquals(54L + 6L, bitmap.countBoundary(Neighborhood.VON_NEUMANN));
+        assertEquals(54L, bitmap.countContacts(Neighborhood.VON_NEUMANN));
+        assertEquals(27L, bitmap.surface(Neighborhood.VON_NEUMANN).countOccupied());
+        assertDouble(60.0 / 28.0, bitmap.perimeterVolumeRatio(Neighborhood.VON_NEUMANN));
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("jam.lattice.OccupancyBitmapTest");
+    }
+}
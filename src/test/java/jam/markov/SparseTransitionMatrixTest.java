@@ -0,0 +1,118 @@
+
+package jam.markov;
+
+import jam.junit.NumericTestBase;
+import jam.matrix.JamMatrix;
+import jam.matrix.SparseMatrixBuilder;
+import jam.vector.VectorView;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class SparseTransitionMatrixTest extends NumericTestBase {
+    private static final SparseTransitionMatrix REICHL =
+        SparseTransitionMatrix.copyOf(StochasticMatrix.REICHL);
+
+    // A random walk on a ring, which is periodic for an even number
+    // of states...
+    private static SparseTransitionMatrix ring(int stateCount) {
+        SparseMatrixBuilder builder = SparseMatrixBuilder.create(stateCount, stateCount);
+
+        for (int state = 0; state < stateCount; ++state) {
+            builder.add(state, (state + 1) % stateCount, 0.5);
+            builder.add(state, (state + stateCount - 1) % stateCount, 0.5);
+        }
+
+        return SparseTransitionMatrix.create(builder.buildCSR());
+    }
+
+    @Test public void testPropagate() {
+        JamMatrix dense = new JamMatrix(StochasticMatrix.REICHL.getTransitionProbability());
+        double[]  dist  = new double[] { 0.2, 0.5, 0.3 };
+
+        double[] expected = dist.clone();
+
+        for (int step = 1; step <= 20; ++step) {
+            expected = JamMatrix.times(VectorView.wrap(expected), dense).toNumeric();
+            assertArrayEquals(expected, REICHL.propagate(dist, step), 1.0E-12);
+        }
+
+        assertArrayEquals(dist, REICHL.propagate(dist, 0), 0.0);
+        assertArrayEquals(new double[] { 0.1, 0.6, 0.3 }, REICHL.propagate(dist, 1000000L), 1.0E-12);
+    }
+
+    @Test public void testPower() {
+        JamMatrix dense = new JamMatrix(StochasticMatrix.REICHL.getTransitionProbability());
+        JamMatrix power = JamMatrix.identity(3);
+
+        for (int step = 0; step < 7; ++step)
+            power = power.times(dense);
+
+        assertTrue(power.equalsMatrix(REICHL.power(7), 1.0E-12));
+    }
+
+    @Test public void testStationary() {
+        assertArrayEquals(new double[] { 0.1, 0.6, 0.3 }, REICHL.stationary(), 1.0E-10);
+        assertArrayEquals(new double[] { 0.1, 0.6, 0.3 }, REICHL.stationaryPower(), 1.0E-10);
+
+        double[] uniform = new double[] { 0.1, 0.1, 0.1, 0.1, 0.1, 0.1, 0.1, 0.1, 0.1, 0.1 };
+        assertArrayEquals(uniform, ring(10).stationaryPower(), 1.0E-10);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testAbsorbing() {
+        SparseTransitionMatrix.copyOf(new JamMatrix(new double[][] {{ 1.0, 0.0 }, { 0.5, 0.5 }})).stationary();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNonNormalized() {
+        SparseTransitionMatrix.copyOf(new JamMatrix(new double[][] {{ 0.5, 0.4 }, { 0.5, 0.5 }}));
+    }
+
+    @Test public void testAdvance() {
+        int[] states = new int[100000];
+        REICHL.advance(random(), states, 50);
+
+        int[] counts = new int[3];
+
+        for (int state : states)
+            ++counts[state];
+
+        assertEquals(0.1, counts[0] / 100000.0, 0.005);
+        assertEquals(0.6, counts[1] / 100000.0, 0.005);
+        assertEquals(0.3, counts[2] / 100000.0, 0.005);
+
+        int[] trajectory = REICHL.trajectory(random(), 0, 100);
+
+        assertEquals(101, trajectory.length);
+        assertEquals(0, trajectory[0]);
+        assertEquals(1, trajectory[1]);
+
+        for (int step = 1; step < trajectory.length; ++step)
+            assertTrue(REICHL.getTransitionProbability(trajectory[step - 1], trajectory[step]) > 0.0);
+    }
+
+    @Test public void testRateMatrix() {
+        // Two-state process with rates a (0 -> 1) and b (1 -> 0):
+        // p0(t) = b / (a + b) + [p0(0) - b / (a + b)] exp(-(a + b) t)
+        double a = 2.0;
+        double b = 0.5;
+
+        RateMatrix rates = RateMatrix.copyOf(new JamMatrix(new double[][] {{ -a, a }, { b, -b }}));
+
+        assertDouble(a, rates.getExitRate(0));
+        assertDouble(b, rates.getExitRate(1));
+        assertDouble(a, rates.getUniformizationRate());
+
+        for (double time : new double[] { 0.0, 0.01, 0.1, 1.0, 10.0, 500.0 }) {
+            double p0 = b / (a + b) + (1.0 - b / (a + b)) * Math.exp(-(a + b) * time);
+            assertArrayEquals(new double[] { p0, 1.0 - p0 }, rates.propagate(new double[] { 1.0, 0.0 }, time), 1.0E-12);
+        }
+
+        assertArrayEquals(new double[] { 0.2, 0.8 }, rates.stationary(), 1.0E-10);
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("jam.markov.SparseTransitionMatrixTest");
+    }
+}
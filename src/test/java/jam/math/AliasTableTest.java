@@ -0,0 +1,93 @@
+
+package jam.math;
+
+import jam.junit.NumericTestBase;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class AliasTableTest extends NumericTestBase {
+    private static double[] frequencies(AliasTable table, JamRandom source, int sampleCount) {
+        int[] counts = new int[table.size()];
+
+        for (int index = 0; index < sampleCount; ++index)
+            ++counts[table.sample(source)];
+
+        double[] result = new double[counts.length];
+
+        for (int k = 0; k < counts.length; ++k)
+            result[k] = DoubleUtil.ratio(counts[k], sampleCount);
+
+        return result;
+    }
+
+    @Test public void testProbability() {
+        AliasTable table = AliasTable.create(1.0, 2.0, 3.0, 4.0);
+
+        assertEquals(4, table.size());
+        assertDouble(0.1, table.probability(0));
+        assertDouble(0.2, table.probability(1));
+        assertDouble(0.3, table.probability(2));
+        assertDouble(0.4, table.probability(3));
+    }
+
+    @Test public void testSample() {
+        double[] weights = new double[] { 0.1, 0.0, 0.2, 0.3, 0.0, 0.4 };
+        double[] actual  = frequencies(AliasTable.create(weights), random(), 200000);
+
+        for (int k = 0; k < weights.length; ++k)
+            assertEquals(weights[k], actual[k], 0.005);
+
+        // Zero-weight events must never be selected...
+        assertEquals(0.0, actual[1], 0.0);
+        assertEquals(0.0, actual[4], 0.0);
+    }
+
+    @Test public void testSingle() {
+        AliasTable table = AliasTable.create(2.5);
+
+        for (int trial = 0; trial < 100; ++trial)
+            assertEquals(0, table.sample(random()));
+    }
+
+    @Test public void testLarge() {
+        int count = 1000;
+        double[] weights = new double[count];
+
+        for (int k = 0; k < count; ++k)
+            weights[k] = k + 1;
+
+        AliasTable table = AliasTable.create(weights);
+        double[] actual  = frequencies(table, random(), 2000000);
+
+        double expectedMean = 0.0;
+        double actualMean = 0.0;
+
+        for (int k = 0; k < count; ++k) {
+            expectedMean += k * table.probability(k);
+            actualMean += k * actual[k];
+        }
+
+        assertEquals(expectedMean, actualMean, 1.0);
+        assertEquals(table.probability(count - 1), actual[count - 1], 0.0003);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testEmpty() {
+        AliasTable.create();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNegative() {
+        AliasTable.create(1.0, -0.5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZero() {
+        AliasTable.create(0.0, 0.0);
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("jam.math.AliasTableTest");
+    }
+}
@@ -0,0 +1,68 @@
+
+package jam.math;
+
+import java.util.stream.DoubleStream;
+
+import jam.junit.NumericTestBase;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class CompensatedSumTest extends NumericTestBase {
+    @Test public void testCancellation() {
+        //
+        // Naive summation loses the small terms entirely...
+        //
+        double[] values = new double[] { 1.0, 1.0E100, 1.0, -1.0E100 };
+        assertEquals(2.0, CompensatedSum.compute(values), 0.0);
+
+        double naive = 0.0;
+
+        for (double value : values)
+            naive += value;
+
+        assertEquals(0.0, naive, 0.0);
+    }
+
+    @Test public void testManySmall() {
+        int N = 10000000;
+        CompensatedSum sum = new CompensatedSum();
+
+        for (int k = 0; k < N; ++k)
+            sum.add(0.1);
+
+        assertEquals(N * 0.1, sum.sum(), 1.0E-15 * N);
+    }
+
+    @Test public void testCombine() {
+        CompensatedSum sum1 = new CompensatedSum();
+        CompensatedSum sum2 = new CompensatedSum();
+
+        sum1.add(1.0);
+        sum1.add(1.0E100);
+        sum2.add(1.0);
+        sum2.add(-1.0E100);
+
+        assertEquals(2.0, sum1.combine(sum2).sum(), 0.0);
+    }
+
+    @Test public void testParallel() {
+        int N = 1000000;
+
+        double serial   = CompensatedSum.compute(DoubleStream.generate(() -> 0.1).limit(N));
+        double parallel = CompensatedSum.compute(DoubleStream.generate(() -> 0.1).limit(N).parallel());
+
+        assertEquals(N * 0.1, serial, 1.0E-15 * N);
+        assertEquals(N * 0.1, parallel, 1.0E-15 * N);
+    }
+
+    @Test public void testNonFinite() {
+        assertEquals(Double.POSITIVE_INFINITY, CompensatedSum.compute(1.0, Double.POSITIVE_INFINITY), 0.0);
+        assertTrue(Double.isNaN(CompensatedSum.compute(1.0, Double.NaN)));
+        assertEquals(0.0, CompensatedSum.compute(), 0.0);
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("jam.math.CompensatedSumTest");
+    }
+}
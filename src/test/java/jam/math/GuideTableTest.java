@@ -0,0 +1,87 @@
+
+package jam.math;
+
+import jam.junit.NumericTestBase;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class GuideTableTest extends NumericTestBase {
+    private static final double[] CDF = new double[] { 0.1, 0.3, 0.3, 0.6, 1.0 };
+
+    private static int linearSearch(double[] cdf, double draw) {
+        int index = 0;
+
+        while (index < cdf.length - 1 && draw >= cdf[index])
+            ++index;
+
+        return index;
+    }
+
+    @Test public void testSelect() {
+        GuideTable table = GuideTable.create(CDF);
+
+        assertEquals(5, table.size());
+        assertEquals(0, table.select(0.0));
+        assertEquals(0, table.select(0.099999));
+        assertEquals(1, table.select(0.1));
+        assertEquals(1, table.select(0.299999));
+        assertEquals(3, table.select(0.3));
+        assertEquals(3, table.select(0.599999));
+        assertEquals(4, table.select(0.6));
+        assertEquals(4, table.select(0.999999));
+    }
+
+    @Test public void testSearch() {
+        assertEquals(0, GuideTable.search(CDF, 0.0));
+        assertEquals(1, GuideTable.search(CDF, 0.1));
+        assertEquals(3, GuideTable.search(CDF, 0.3));
+        assertEquals(4, GuideTable.search(CDF, 0.6));
+
+        // Round-off in the last value must not run off the end...
+        assertEquals(1, GuideTable.search(new double[] { 0.5, 0.9999999 }, 0.99999999));
+    }
+
+    @Test public void testLinearEquivalence() {
+        int count = 500;
+        double[] weights = new double[count];
+
+        for (int k = 0; k < count; ++k)
+            weights[k] = (k % 7 == 0) ? 0.0 : random().nextDouble();
+
+        double[] cdf = new double[count];
+        double total = 0.0;
+
+        for (int k = 0; k < count; ++k) {
+            total += weights[k];
+            cdf[k] = total;
+        }
+
+        for (int k = 0; k < count; ++k)
+            cdf[k] /= total;
+
+        GuideTable table = GuideTable.create(cdf);
+
+        for (int trial = 0; trial < 100000; ++trial) {
+            double draw = random().nextDouble();
+            int expected = linearSearch(cdf, draw);
+
+            assertEquals(expected, table.select(draw));
+            assertEquals(expected, GuideTable.search(cdf, draw));
+        }
+
+        for (int k = 0; k < count; ++k) {
+            assertEquals(linearSearch(cdf, cdf[k]), table.select(cdf[k]));
+            assertEquals(linearSearch(cdf, ((double) k) / count), table.select(((double) k) / count));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDecreasing() {
+        GuideTable.create(new double[] { 0.5, 0.4, 1.0 });
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("jam.math.GuideTableTest");
+    }
+}
@@ -0,0 +1,106 @@
+
+package jam.math;
+
+import java.util.Arrays;
+import java.util.stream.DoubleStream;
+
+import jam.junit.NumericTestBase;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class QuantileSketchTest extends NumericTestBase {
+    private static final double[] QUANTILES =
+        new double[] { 0.0001, 0.001, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 0.999, 0.9999 };
+
+    private static double rank(double[] sorted, double value) {
+        int index = Arrays.binarySearch(sorted, value);
+
+        if (index < 0)
+            index = -index - 1;
+
+        return ((double) index) / sorted.length;
+    }
+
+    private static void assertSketch(double[] sorted, QuantileSketch sketch) {
+        assertEquals(sorted.length, sketch.size());
+        assertEquals(sorted[0], sketch.min(), 0.0);
+        assertEquals(sorted[sorted.length - 1], sketch.max(), 0.0);
+
+        assertEquals(sorted[0], sketch.quantile(0.0), 0.0);
+        assertEquals(sorted[sorted.length - 1], sketch.quantile(1.0), 0.0);
+
+        for (double quantile : QUANTILES) {
+            double estimate = sketch.quantile(quantile);
+
+            // The rank error shrinks in the tails...
+            double tolerance = Math.max(1.0E-04, 0.005 * Math.sqrt(quantile * (1.0 - quantile)));
+
+            assertEquals(quantile, rank(sorted, estimate), tolerance);
+            assertEquals(quantile, sketch.cdf(estimate), tolerance);
+        }
+
+        // The memory footprint is bounded by the compression...
+        assertTrue(sketch.countCentroids() <= 2 * QuantileSketch.DEFAULT_COMPRESSION);
+    }
+
+    @Test public void testGaussian() {
+        double[] values = new double[1000000];
+
+        for (int k = 0; k < values.length; ++k)
+            values[k] = random().nextGaussian();
+
+        QuantileSketch serial   = QuantileSketch.compute(values);
+        QuantileSketch parallel = QuantileSketch.compute(DoubleStream.of(values).parallel());
+
+        Arrays.sort(values);
+
+        assertSketch(values, serial);
+        assertSketch(values, parallel);
+    }
+
+    @Test public void testCombine() {
+        //
+        // Two portions with very different distributions...
+        //
+        double[] values = new double[400000];
+
+        for (int k = 0; k < values.length; ++k)
+            values[k] = (k < 100000) ? random().nextDouble() : 10.0 + random().nextGaussian();
+
+        QuantileSketch sketch1 = QuantileSketch.compute(Arrays.copyOfRange(values, 0, 100000));
+        QuantileSketch sketch2 = QuantileSketch.compute(Arrays.copyOfRange(values, 100000, values.length));
+
+        sketch1.combine(sketch2);
+        Arrays.sort(values);
+
+        assertSketch(values, sketch1);
+    }
+
+    @Test public void testEmpty() {
+        QuantileSketch sketch = QuantileSketch.create();
+        sketch.add(Double.NaN);
+
+        assertEquals(0, sketch.size());
+        assertTrue(Double.isNaN(sketch.quantile(0.5)));
+        assertTrue(Double.isNaN(sketch.cdf(0.0)));
+    }
+
+    @Test public void testSmall() {
+        QuantileSketch sketch = QuantileSketch.compute(5.0, 1.0, 4.0, 2.0, 3.0);
+
+        assertEquals(5, sketch.countCentroids());
+        assertDouble(1.0, sketch.quantile(0.1));
+        assertDouble(3.0, sketch.quantile(0.5));
+        assertDouble(5.0, sketch.quantile(0.9));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidQuantile() {
+        QuantileSketch.compute(1.0, 2.0).quantile(1.5);
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("jam.math.QuantileSketchTest");
+    }
+}
@@ -0,0 +1,107 @@
+
+package jam.math;
+
+import jam.junit.NumericTestBase;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class RandomDirectionTest extends NumericTestBase {
+    private static final int COUNT = 200000;
+
+    private void runSphereTest(int dim) {
+        double[] points = RandomDirection.sphere(random(), dim, COUNT);
+        assertEquals(dim * COUNT, points.length);
+
+        double[] mean   = new double[dim];
+        double[] meanSq = new double[dim];
+
+        for (int point = 0; point < COUNT; ++point) {
+            double norm2 = 0.0;
+
+            for (int coord = 0; coord < dim; ++coord) {
+                double x = points[point * dim + coord];
+
+                norm2 += x * x;
+                mean[coord] += x / COUNT;
+                meanSq[coord] += x * x / COUNT;
+            }
+
+            assertEquals(1.0, norm2, 1.0E-12);
+        }
+
+        for (int coord = 0; coord < dim; ++coord) {
+            assertEquals(0.0, mean[coord], 0.005);
+            assertEquals(1.0 / dim, meanSq[coord], 0.005);
+        }
+    }
+
+    private void runBallTest(int dim) {
+        double[] points = RandomDirection.ball(random(), dim, COUNT);
+
+        double meanR2 = 0.0;
+        double inner  = 0.0;
+
+        for (int point = 0; point < COUNT; ++point) {
+            double norm2 = 0.0;
+
+            for (int coord = 0; coord < dim; ++coord) {
+                double x = points[point * dim + coord];
+                norm2 += x * x;
+            }
+
+            assertTrue(norm2 <= 1.0);
+            meanR2 += norm2 / COUNT;
+
+            if (norm2 <= 0.25)
+                inner += 1.0 / COUNT;
+        }
+
+        // E[r^2] = n / (n + 2), P(r <= 1/2) = 2^(-n)...
+        assertEquals(dim / (dim + 2.0), meanR2, 0.005);
+        assertEquals(Math.pow(0.5, dim), inner, 0.005);
+    }
+
+    @Test public void testSphere() {
+        for (int dim = 1; dim <= 6; ++dim)
+            runSphereTest(dim);
+    }
+
+    @Test public void testBall() {
+        for (int dim = 1; dim <= 6; ++dim)
+            runBallTest(dim);
+    }
+
+    @Test public void testOffset() {
+        double[] buffer = new double[11];
+        buffer[0]  = -7.0;
+        buffer[10] = -7.0;
+
+        RandomDirection.sphere(random(), 3, buffer, 1, 3);
+
+        assertEquals(-7.0, buffer[0], 0.0);
+        assertEquals(-7.0, buffer[10], 0.0);
+
+        for (int point = 0; point < 3; ++point) {
+            double x = buffer[1 + 3 * point];
+            double y = buffer[2 + 3 * point];
+            double z = buffer[3 + 3 * point];
+
+            assertEquals(1.0, x * x + y * y + z * z, 1.0E-12);
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testBufferTooSmall() {
+        RandomDirection.sphere(random(), 3, new double[8], 0, 3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDimension() {
+        RandomDirection.sphere(random(), 0, 10);
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("jam.math.RandomDirectionTest");
+    }
+}
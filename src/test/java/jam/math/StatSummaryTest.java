@@ -3,6 +3,7 @@ package jam.math;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.stream.DoubleStream;
 
 import com.google.common.collect.HashMultiset;
 import com.google.common.collect.Multiset;
@@ -115,6 +116,51 @@ public class StatSummaryTest extends NumericTestBase {
         assertEquals(3.162278, summary.getSD(), 1.0E-06);
     }
         
+    @Test public void testStream() {
+        double mean = 10.0;
+        double sdev =  2.0;
+
+        double[] values = new double[1000000];
+
+        for (int k = 0; k < values.length; k++)
+            values[k] = RANDOM.nextGaussian(mean, sdev);
+
+        StatSummary exact  = StatSummary.compute(values);
+        StatSummary sketch = StatSummary.compute(DoubleStream.of(values).parallel());
+
+        assertEquals(exact.getSize(), sketch.getSize());
+        assertEquals(exact.getMin(),  sketch.getMin(),  1.0E-12);
+        assertEquals(exact.getMax(),  sketch.getMax(),  1.0E-12);
+        assertEquals(exact.getMean(), sketch.getMean(), 1.0E-10);
+        assertEquals(exact.getSD(),   sketch.getSD(),   1.0E-10);
+
+        assertEquals(exact.getMedian(),    sketch.getMedian(),    0.005);
+        assertEquals(exact.getQuartile1(), sketch.getQuartile1(), 0.005);
+        assertEquals(exact.getQuartile3(), sketch.getQuartile3(), 0.005);
+        assertEquals(exact.getMAD(),       sketch.getMAD(),       0.005);
+    }
+
+    @Test public void testExactStream() {
+        double[] values = new double[2000001];
+
+        for (int k = 0; k < values.length; k++)
+            values[k] = RANDOM.nextGaussian(10.0, 2.0);
+
+        StatSummary exact  = StatSummary.compute(values);
+        StatSummary stream = StatSummary.compute(() -> DoubleStream.of(values).parallel());
+
+        assertEquals(exact.getSize(), stream.getSize());
+        assertEquals(exact.getMin(),  stream.getMin(),  0.0);
+        assertEquals(exact.getMax(),  stream.getMax(),  0.0);
+        assertEquals(exact.getMean(), stream.getMean(), 1.0E-10);
+        assertEquals(exact.getSD(),   stream.getSD(),   1.0E-10);
+
+        assertEquals(exact.getMedian(),    stream.getMedian(),    0.0);
+        assertEquals(exact.getQuartile1(), stream.getQuartile1(), 0.0);
+        assertEquals(exact.getQuartile3(), stream.getQuartile3(), 0.0);
+        assertEquals(exact.getMAD(),       stream.getMAD(),       0.0);
+    }
+
     @Test public void testUniform() {
         double[] values = new double[1000000];
 
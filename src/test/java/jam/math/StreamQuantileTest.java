@@ -0,0 +1,124 @@
+
+package jam.math;
+
+import java.util.Arrays;
+import java.util.stream.DoubleStream;
+
+import jam.junit.NumericTestBase;
+import jam.vector.VectorView;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class StreamQuantileTest extends NumericTestBase {
+    private static final double[] QUANTILES =
+        new double[] { 0.0001, 0.001, 0.01, 0.1, 0.25, 0.5, 0.75, 0.9, 0.99, 0.999, 0.9999, 1.0 };
+
+    private void assertExact(double[] values, int capacity) {
+        StreamQuantile serial   = StreamQuantile.create(() -> DoubleStream.of(values), capacity);
+        StreamQuantile parallel = StreamQuantile.create(() -> DoubleStream.of(values).parallel(), capacity);
+
+        Quantile quantile = new Quantile(values);
+
+        // The selected quantiles must be identical, not merely close...
+        for (double q : QUANTILES) {
+            assertEquals(quantile.evaluate(q), serial.evaluate(q), 0.0);
+            assertEquals(quantile.evaluate(q), parallel.evaluate(q), 0.0);
+        }
+
+        assertEquals(StatUtil.median(VectorView.wrap(values)), serial.median(), 0.0);
+
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+
+        for (int trial = 0; trial < 20; ++trial) {
+            int rank = random().nextInt(sorted.length);
+            assertEquals(sorted[rank], serial.orderStatistic(rank), 0.0);
+        }
+    }
+
+    @Test public void testGaussian() {
+        double[] values = new double[200000];
+
+        for (int k = 0; k < values.length; ++k)
+            values[k] = random().nextGaussian();
+
+        // A capacity much smaller than the data forces several
+        // refinements...
+        assertExact(values, 100);
+        assertExact(values, StreamQuantile.DEFAULT_CAPACITY);
+    }
+
+    @Test public void testHeavyTail() {
+        double[] values = new double[100000];
+
+        for (int k = 0; k < values.length; ++k)
+            values[k] = Math.exp(20.0 * random().nextGaussian());
+
+        assertExact(values, 50);
+    }
+
+    @Test public void testTies() {
+        double[] values = new double[100000];
+
+        for (int k = 0; k < values.length; ++k)
+            values[k] = random().nextInt(5);
+
+        assertExact(values, 10);
+    }
+
+    @Test public void testTwoValues() {
+        //
+        // The two middle order statistics lie in different buckets
+        // separated by a gap...
+        //
+        double[] values = new double[100000];
+
+        for (int k = 0; k < values.length; ++k)
+            values[k] = (k % 2 == 0) ? 0.0 : 1.0;
+
+        StreamQuantile quantile = StreamQuantile.create(() -> DoubleStream.of(values), 10);
+
+        assertEquals(0.5, quantile.median(), 0.0);
+        assertEquals(0.5, quantile.evaluate(0.5), 0.0);
+        assertExact(values, 10);
+    }
+
+    @Test public void testMissing() {
+        StreamQuantile quantile =
+            StreamQuantile.create(() -> DoubleStream.of(3.0, Double.NaN, 1.0, 2.0, Double.NaN), 1);
+
+        assertEquals(3, quantile.size());
+        assertEquals(2.0, quantile.median(), 0.0);
+        assertEquals(1.0, quantile.orderStatistic(0), 0.0);
+        assertEquals(3.0, quantile.orderStatistic(2), 0.0);
+    }
+
+    @Test public void testEmpty() {
+        StreamQuantile quantile = StreamQuantile.create(() -> DoubleStream.empty());
+
+        assertEquals(0, quantile.size());
+        assertTrue(Double.isNaN(quantile.median()));
+        assertTrue(Double.isNaN(quantile.evaluate(0.5)));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testChanged() {
+        int[] calls = new int[1];
+
+        StreamQuantile quantile =
+            StreamQuantile.create(() -> DoubleStream.concat(DoubleStream.iterate(0.0, x -> x + 1.0).limit(1000),
+                                                            DoubleStream.generate(() -> 500.5).limit(calls[0]++)), 10);
+
+        quantile.median();
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testInvalidRank() {
+        StreamQuantile.create(() -> DoubleStream.of(1.0, 2.0)).orderStatistic(2);
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("jam.math.StreamQuantileTest");
+    }
+}
@@ -0,0 +1,151 @@
+
+package jam.math;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jam.junit.NumericTestBase;
+import jam.matrix.JamMatrix;
+import jam.vector.JamVector;
+import jam.vector.VectorView;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class VectorStatisticsTest extends NumericTestBase {
+    private List<JamVector> randomVectors(int count, double offset) {
+        List<JamVector> vectors = new ArrayList<JamVector>(count);
+
+        for (int k = 0; k < count; ++k)
+            vectors.add(JamVector.valueOf(offset + random().nextDouble(),
+                                          offset + 2.0 * random().nextDouble(),
+                                          offset - random().nextDouble()));
+
+        return vectors;
+    }
+
+    // Two-pass reference computation...
+    private static JamMatrix covariance(List<JamVector> vectors, JamVector mean) {
+        int D = mean.length();
+        JamMatrix result = new JamMatrix(D, D);
+
+        for (JamVector vector : vectors)
+            for (int i = 0; i < D; ++i)
+                for (int j = 0; j < D; ++j)
+                    result.set(i, j, result.get(i, j) + (vector.get(i) - mean.get(i)) * (vector.get(j) - mean.get(j)));
+
+        result.divide(vectors.size() - 1);
+        return result;
+    }
+
+    private static JamVector mean(List<JamVector> vectors) {
+        JamVector result = new JamVector(vectors.get(0).length());
+
+        for (JamVector vector : vectors)
+            result.add(vector);
+
+        return result.divide(vectors.size());
+    }
+
+    private static void assertStatistics(List<JamVector> vectors, VectorStatistics stats, double tolerance) {
+        JamVector mean = mean(vectors);
+        JamMatrix cov  = covariance(vectors, mean);
+
+        assertEquals(vectors.size(), stats.count());
+        assertEquals(3, stats.dimension());
+
+        for (int i = 0; i < 3; ++i) {
+            assertEquals(mean.get(i), stats.mean().get(i), tolerance);
+            assertEquals(mean.get(i) * vectors.size(), stats.sum().get(i), tolerance * vectors.size());
+            assertEquals(cov.get(i, i), stats.variance().get(i), tolerance);
+            assertEquals(Math.sqrt(cov.get(i, i)), stats.sd().get(i), tolerance);
+
+            if (stats.hasCovariance())
+                for (int j = 0; j < 3; ++j)
+                    assertEquals(cov.get(i, j), stats.covariance().get(i, j), tolerance);
+        }
+    }
+
+    @Test public void testSerial() {
+        List<JamVector> vectors = randomVectors(100, 0.0);
+
+        VectorStatistics stats1 = VectorStatistics.create();
+        VectorStatistics stats2 = VectorStatistics.create(true);
+
+        for (JamVector vector : vectors) {
+            stats1.add(vector);
+            stats2.add(vector);
+        }
+
+        assertFalse(stats1.hasCovariance());
+        assertTrue(stats2.hasCovariance());
+
+        assertStatistics(vectors, stats1, 1.0E-12);
+        assertStatistics(vectors, stats2, 1.0E-12);
+    }
+
+    @Test public void testCombine() {
+        List<JamVector> vectors = randomVectors(101, 0.0);
+
+        VectorStatistics stats1 = VectorStatistics.create(true);
+        VectorStatistics stats2 = VectorStatistics.create(true);
+        VectorStatistics empty  = VectorStatistics.create(true);
+
+        for (int k = 0; k < 37; ++k)
+            stats1.add(vectors.get(k));
+
+        for (int k = 37; k < vectors.size(); ++k)
+            stats2.add(vectors.get(k));
+
+        assertStatistics(vectors, stats1.combine(empty).combine(stats2), 1.0E-12);
+        assertStatistics(vectors, empty.combine(stats1), 1.0E-12);
+    }
+
+    @Test public void testParallel() {
+        List<JamVector> vectors = randomVectors(50000, 0.0);
+
+        assertStatistics(vectors, VectorStatistics.compute(vectors, true), 1.0E-12);
+        assertStatistics(vectors, vectors.parallelStream().collect(VectorStatistics.collector()), 1.0E-12);
+    }
+
+    @Test public void testLargeOffset() {
+        //
+        // The naive one-pass variance E[x^2] - E[x]^2 loses all
+        // significant digits here...
+        //
+        List<JamVector> vectors = randomVectors(20000, 1.0E9);
+        VectorStatistics stats = VectorStatistics.compute(vectors, true);
+
+        assertEquals(1.0 / 12.0, stats.variance().get(0), 0.01);
+        assertEquals(4.0 / 12.0, stats.variance().get(1), 0.02);
+        assertEquals(0.0, stats.covariance().get(0, 1), 0.01);
+
+        assertStatistics(vectors, stats, 1.0E-04);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDimensionMismatch() {
+        VectorStatistics stats = VectorStatistics.create();
+
+        stats.add(VectorView.wrap(1.0, 2.0));
+        stats.add(VectorView.wrap(1.0, 2.0, 3.0));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testNoCovariance() {
+        VectorStatistics stats = VectorStatistics.create();
+
+        stats.add(VectorView.wrap(1.0, 2.0));
+        stats.add(VectorView.wrap(3.0, 4.0));
+        stats.covariance();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testEmpty() {
+        VectorStatistics.create().mean();
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("jam.math.VectorStatisticsTest");
+    }
+}
@@ -0,0 +1,83 @@
+
+package jam.matrix;
+
+import jam.junit.NumericTestBase;
+import jam.vector.JamVector;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class ConjugateGradientTest extends NumericTestBase {
+    private JamVector randomVector(int N) {
+        JamVector vector = new JamVector(N);
+
+        for (int i = 0; i < N; ++i)
+            vector.set(i, random().nextDouble() - 0.5);
+
+        return vector;
+    }
+
+    @Test public void testDense() {
+        int N = 50;
+
+        JamMatrix matrix = JamMatrix.randomPositiveDefinite(N, uniform());
+        JamVector actual = randomVector(N);
+        JamVector rhs    = matrix.times(actual);
+
+        ConjugateGradient cg = ConjugateGradient.solve(LinearOperator.of(matrix), rhs, 1.0E-12, 10 * N);
+
+        assertTrue(cg.getResidual() <= 1.0E-12);
+        assertTrue(cg.countIterations() > 0);
+        assertTrue(cg.getSolution().equalsVector(actual, 1.0E-08));
+    }
+
+    @Test public void testSparse() {
+        //
+        // The one-dimensional discrete Laplacian with Dirichlet
+        // boundaries...
+        //
+        int N = 200;
+        SparseMatrixBuilder builder = SparseMatrixBuilder.create(N, N);
+
+        for (int i = 0; i < N; ++i) {
+            builder.add(i, i, 2.0);
+
+            if (i > 0)
+                builder.add(i, i - 1, -1.0);
+
+            if (i < N - 1)
+                builder.add(i, i + 1, -1.0);
+        }
+
+        CSRMatrix matrix = builder.buildCSR();
+        JamVector actual = randomVector(N);
+        JamVector rhs    = matrix.times(actual);
+
+        JamVector solution = ConjugateGradient.solve(LinearOperator.of(matrix), rhs);
+        assertTrue(solution.equalsVector(actual, 1.0E-06));
+    }
+
+    @Test public void testZeroRHS() {
+        ConjugateGradient cg = ConjugateGradient.solve(LinearOperator.of(JamMatrix.identity(4)), new JamVector(4), 1.0E-10, 10);
+
+        assertEquals(0, cg.countIterations());
+        assertTrue(cg.getSolution().equalsVector(new JamVector(4)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDimensionMismatch() {
+        ConjugateGradient.solve(LinearOperator.of(JamMatrix.identity(4)), new JamVector(3));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testIndefinite() {
+        double[][] x = new double[][] {{ 1.0,  0.0 },
+                                       { 0.0, -1.0 }};
+
+        ConjugateGradient.solve(LinearOperator.of(new JamMatrix(x)), JamVector.ones(2));
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("jam.matrix.ConjugateGradientTest");
+    }
+}
@@ -0,0 +1,73 @@
+
+package jam.matrix;
+
+import jam.vector.JamVector;
+import jam.vector.VectorView;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class DenseMatrixTest {
+    private static DenseMatrix create(int nrow, int ncol) {
+        DenseMatrix matrix = new DenseMatrix(nrow, ncol);
+
+        for (int row = 0; row < nrow; ++row)
+            for (int col = 0; col < ncol; ++col)
+                matrix.set(row, col, 10.0 * row + col);
+
+        return matrix;
+    }
+
+    @Test public void testViews() {
+        DenseMatrix matrix = create(4, 5);
+
+        assertEquals(JamVector.valueOf(20.0, 21.0, 22.0, 23.0, 24.0), JamVector.copyOf(matrix.viewRow(2)));
+        assertEquals(JamVector.valueOf(3.0, 13.0, 23.0, 33.0), JamVector.copyOf(matrix.viewColumn(3)));
+        assertEquals(JamVector.valueOf(0.0, 11.0, 22.0, 33.0), JamVector.copyOf(matrix.viewDiagonal()));
+
+        MatrixView block = matrix.viewSubmatrix(1, 2, 3, 2);
+
+        assertEquals(3, block.nrow());
+        assertEquals(2, block.ncol());
+        assertTrue(block.equalsMatrix(JamMatrix.byrow(3, 2, 12.0, 13.0, 22.0, 23.0, 32.0, 33.0)));
+        assertEquals(JamVector.valueOf(13.0, 23.0, 33.0), JamVector.copyOf(block.viewColumn(1)));
+
+        // The views share storage with the parent matrix...
+        VectorView row = matrix.viewRow(2);
+        matrix.set(2, 3, -1.0);
+
+        assertEquals(-1.0, row.getDouble(3), 0.0);
+        assertEquals(-1.0, block.get(1, 1), 0.0);
+    }
+
+    @Test public void testStridedArithmetic() {
+        DenseMatrix matrix = create(5, 6);
+        DenseMatrix block  = (DenseMatrix) matrix.viewSubmatrix(1, 1, 3, 4);
+        JamMatrix   copy   = new JamMatrix(block.toNumeric());
+
+        assertTrue(copy.equalsMatrix(block.copy()));
+        assertTrue(copy.transpose().equalsMatrix(block.transpose()));
+        assertTrue(copy.times(2.0).equalsMatrix(block.times(2.0)));
+        assertTrue(copy.plus(1.0).equalsMatrix(block.plus(1.0)));
+        assertTrue(copy.plus(copy).equalsMatrix(block.daxpy(1.0, block)));
+        assertTrue(copy.times(copy.transpose()).equalsMatrix(block.timesTranspose(block)));
+        assertTrue(copy.transpose().times(copy).equalsMatrix(block.transposeTimes(block)));
+
+        MatrixImpl transposed = block.transpose();
+        assertTrue(copy.transpose().times(copy).equalsMatrix(transposed.times(block)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetInvalid() {
+        create(2, 3).get(2, 0);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testSubmatrixInvalid() {
+        create(2, 3).viewSubmatrix(1, 1, 2, 2);
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("jam.matrix.DenseMatrixTest");
+    }
+}
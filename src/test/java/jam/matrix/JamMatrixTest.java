@@ -612,6 +612,75 @@ public class JamMatrixTest extends NumericTestBase {
         assertEquals(expected, actual);
     }
 
+    private static JamMatrix naiveProduct(MatrixView A, MatrixView B) {
+        JamMatrix C = new JamMatrix(A.nrow(), B.ncol());
+
+        for (int i = 0; i < A.nrow(); ++i)
+            for (int j = 0; j < B.ncol(); ++j)
+                for (int k = 0; k < A.ncol(); ++k)
+                    C.add(i, j, A.get(i, k) * B.get(k, j));
+
+        return C;
+    }
+
+    @Test public void testTimesLarge() {
+        //
+        // Dimensions that are not multiples of the block size or the
+        // 2 x 2 inner kernel, and large enough to run in parallel...
+        //
+        JamMatrix A = JamMatrix.random(131, 97, uniform());
+        JamMatrix B = JamMatrix.random(97, 151, uniform());
+        JamVector x = JamVector.copyOf(JamMatrix.random(1, 97, uniform()).getRow(0));
+
+        JamMatrix expected = naiveProduct(A, B);
+
+        assertTrue(expected.equalsMatrix(A.times(B), 1.0E-12));
+        assertTrue(expected.equalsMatrix(A.timesTranspose(B.transpose()), 1.0E-12));
+        assertTrue(expected.equalsMatrix(A.transpose().transposeTimes(B), 1.0E-12));
+
+        JamVector Ax = A.times(x);
+        JamVector xB = JamMatrix.times(x, B);
+
+        for (int i = 0; i < A.nrow(); ++i)
+            assertEquals(JamVector.dot(A.viewRow(i), x), Ax.get(i), 1.0E-12);
+
+        for (int j = 0; j < B.ncol(); ++j)
+            assertEquals(JamVector.dot(x, B.viewColumn(j)), xB.get(j), 1.0E-12);
+    }
+
+    @Test public void testTimesTranspose() {
+        JamMatrix expected = FIXED1.times(FIXED2.transpose());
+
+        assertEquals(expected, FIXED1.timesTranspose(FIXED2));
+        assertEquals(expected, JamMatrix.diagonal(1.0, 1.0, 1.0, 1.0).times(FIXED1).timesTranspose(FIXED2));
+        assertEquals(FIXED1.transpose().times(FIXED2), FIXED1.transposeTimes(FIXED2));
+        assertEquals(JamMatrix.diagonal(2.0, 3.0).times(FIXED3.transpose()),
+                     JamMatrix.diagonal(2.0, 3.0).timesTranspose(FIXED3));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTimesTransposeInvalid() {
+        FIXED1.timesTranspose(FIXED3);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTransposeTimesInvalid() {
+        FIXED1.transposeTimes(FIXED3);
+    }
+
+    @Test public void testViewSubmatrix() {
+        MatrixView block = FIXED1.viewSubmatrix(1, 1, 2, 2);
+
+        assertEquals(2, block.nrow());
+        assertEquals(2, block.ncol());
+        assertEquals(JamMatrix.byrow(2, 2, 1.1, 1.2, 2.1, 2.2), new JamMatrix(block));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testViewSubmatrixInvalid() {
+        FIXED1.viewSubmatrix(3, 0, 2, 1);
+    }
+
     @Test public void testTranspose() {
         JamMatrix m1 = JamMatrix.byrow(2, 3, 
                                        1.0, 2.0, 3.0, 
@@ -0,0 +1,131 @@
+
+package jam.matrix;
+
+import jam.junit.NumericTestBase;
+import jam.vector.JamVector;
+import jam.vector.VectorView;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class LanczosEigenTest extends NumericTestBase {
+    private static void assertEigenpairs(JamEigen expected, LanczosEigen actual, double tolerance) {
+        for (int k = 0; k < actual.count(); ++k) {
+            assertEquals(expected.getValue(k), actual.getValue(k), tolerance);
+
+            // Eigenvectors are unique only up to sign...
+            double dot = JamVector.dot(expected.viewVector(k), actual.viewVector(k));
+            assertEquals(1.0, Math.abs(dot), tolerance);
+        }
+    }
+
+    private JamMatrix randomSymmetric(int N) {
+        JamMatrix matrix = new JamMatrix(N, N);
+
+        for (int i = 0; i < N; ++i) {
+            for (int j = 0; j <= i; ++j) {
+                double value = random().nextDouble() - 0.5;
+
+                matrix.set(i, j, value);
+                matrix.set(j, i, value);
+            }
+        }
+
+        return matrix;
+    }
+
+    @Test public void testDense() {
+        int N = 100;
+        JamMatrix matrix = JamMatrix.randomPositiveDefinite(N, uniform());
+
+        JamEigen     expected = new JamEigen(matrix);
+        LanczosEigen actual   = LanczosEigen.compute(LinearOperator.of(matrix), 5);
+
+        assertEquals(5, actual.count());
+        assertEquals(N, actual.viewVectors().nrow());
+        assertEquals(5, actual.viewVectors().ncol());
+        assertEigenpairs(expected, actual, 1.0E-08);
+    }
+
+    @Test public void testFullDimension() {
+        int N = 8;
+        JamMatrix matrix = randomSymmetric(N);
+
+        JamEigen     expected = new JamEigen(matrix);
+        LanczosEigen actual   = LanczosEigen.compute(LinearOperator.of(matrix), N);
+
+        assertEquals(N, actual.getSubspaceDimension());
+        assertEigenpairs(expected, actual, 1.0E-08);
+    }
+
+    @Test public void testSparse() {
+        //
+        // The one-dimensional discrete Laplacian with Dirichlet
+        // boundaries has eigenvalues 2 - 2 cos(k pi / (N + 1))...
+        //
+        int N = 400;
+        SparseMatrixBuilder builder = SparseMatrixBuilder.create(N, N);
+
+        for (int i = 0; i < N; ++i) {
+            builder.add(i, i, 2.0);
+
+            if (i > 0)
+                builder.add(i, i - 1, -1.0);
+
+            if (i < N - 1)
+                builder.add(i, i + 1, -1.0);
+        }
+
+        LanczosEigen eigen = LanczosEigen.compute(LinearOperator.of(builder.buildCSR()), 3);
+
+        for (int k = 0; k < 3; ++k)
+            assertEquals(2.0 - 2.0 * Math.cos((N - k) * Math.PI / (N + 1)), eigen.getValue(k), 1.0E-08);
+    }
+
+    @Test public void testImplicitCovariance() {
+        //
+        // Principal components of a data matrix X from the implicit
+        // covariance operator X'X, which is never formed...
+        //
+        int nobs = 500;
+        int nvar = 30;
+
+        JamMatrix data = new JamMatrix(nobs, nvar);
+
+        for (int i = 0; i < nobs; ++i)
+            for (int j = 0; j < nvar; ++j)
+                data.set(i, j, (j + 1) * (random().nextDouble() - 0.5));
+
+        LinearOperator X  = LinearOperator.of(data);
+        LinearOperator Xt = LinearOperator.transposeOf(data);
+        LinearOperator XtX = LinearOperator.create(nvar, nvar, x -> Xt.apply(X.apply(x)));
+
+        JamEigen     expected = new JamEigen(data.transposeTimes(data));
+        LanczosEigen actual   = LanczosEigen.compute(XtX, 4);
+
+        assertEigenpairs(expected, actual, 1.0E-06);
+    }
+
+    @Test public void testNormalized() {
+        LanczosEigen eigen = LanczosEigen.compute(LinearOperator.of(randomSymmetric(50)), 3);
+
+        for (int k = 0; k < eigen.count(); ++k) {
+            VectorView vector = eigen.viewVector(k);
+            assertEquals(1.0, Math.sqrt(JamVector.dot(vector, vector)), 1.0E-12);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidCount() {
+        LanczosEigen.compute(LinearOperator.of(randomSymmetric(5)), 6);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testNonSquare() {
+        LanczosEigen.compute(LinearOperator.of(new JamMatrix(3, 4)), 1);
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("jam.matrix.LanczosEigenTest");
+    }
+}
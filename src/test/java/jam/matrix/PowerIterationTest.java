@@ -0,0 +1,86 @@
+
+package jam.matrix;
+
+import jam.junit.NumericTestBase;
+import jam.vector.JamVector;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class PowerIterationTest extends NumericTestBase {
+    @Test public void testStationary() {
+        //
+        // The transition matrix from Section 6.C.1 of L. E. Reichl,
+        // "A Modern Course in Statistical Physics": the stationary
+        // distribution is the dominant eigenvector of the transpose...
+        //
+        double[][] x = new double[][] {{ 0.0, 6.0, 0.0 },
+                                       { 1.0, 3.0, 2.0 },
+                                       { 0.0, 4.0, 2.0 }};
+
+        JamMatrix matrix = new JamMatrix(x);
+        matrix.divide(6.0);
+
+        PowerIteration power = PowerIteration.compute(LinearOperator.transposeOf(matrix));
+        assertEquals(1.0, power.getValue(), 1.0E-10);
+
+        JamVector pdf = JamVector.copyOf(power.viewVector());
+        pdf.divide(pdf.sum());
+
+        assertEquals(0.1, pdf.get(0), 1.0E-08);
+        assertEquals(0.6, pdf.get(1), 1.0E-08);
+        assertEquals(0.3, pdf.get(2), 1.0E-08);
+    }
+
+    @Test public void testSparse() {
+        SparseMatrixBuilder builder = SparseMatrixBuilder.create(3, 3);
+
+        builder.add(0, 1, 1.0);
+        builder.add(1, 0, 1.0 / 6.0);
+        builder.add(1, 1, 0.5);
+        builder.add(1, 2, 1.0 / 3.0);
+        builder.add(2, 1, 2.0 / 3.0);
+        builder.add(2, 2, 1.0 / 3.0);
+
+        PowerIteration power = PowerIteration.compute(LinearOperator.transposeOf(builder.buildCSR()));
+        JamVector pdf = JamVector.copyOf(power.viewVector());
+        pdf.divide(pdf.sum());
+
+        assertEquals(0.1, pdf.get(0), 1.0E-08);
+        assertEquals(0.6, pdf.get(1), 1.0E-08);
+        assertEquals(0.3, pdf.get(2), 1.0E-08);
+    }
+
+    @Test public void testSymmetric() {
+        int N = 20;
+
+        JamMatrix matrix = JamMatrix.randomPositiveDefinite(N, uniform());
+        JamEigen  eigen  = new JamEigen(matrix);
+
+        PowerIteration power = PowerIteration.compute(LinearOperator.of(matrix));
+
+        assertEquals(eigen.getValue(0), power.getValue(), 1.0E-08);
+        assertEquals(1.0, Math.abs(JamVector.dot(eigen.viewVector(0), power.viewVector())), 1.0E-08);
+        assertTrue(power.countIterations() > 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroStart() {
+        PowerIteration.compute(LinearOperator.of(JamMatrix.identity(3)), new JamVector(3), 1.0E-10, 100);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testNoConvergence() {
+        //
+        // A rotation has no dominant real eigenvalue...
+        //
+        double[][] x = new double[][] {{ 0.0, -1.0 },
+                                       { 1.0,  0.0 }};
+
+        PowerIteration.compute(LinearOperator.of(new JamMatrix(x)), JamVector.ones(2), 1.0E-10, 100);
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("jam.matrix.PowerIterationTest");
+    }
+}
@@ -0,0 +1,145 @@
+
+package jam.matrix;
+
+import jam.junit.NumericTestBase;
+import jam.vector.JamVector;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class SparseMatrixTest extends NumericTestBase {
+    private JamMatrix randomSparse(int nrow, int ncol, double density) {
+        JamMatrix matrix = new JamMatrix(nrow, ncol);
+
+        for (int row = 0; row < nrow; ++row)
+            for (int col = 0; col < ncol; ++col)
+                if (random().nextDouble() < density)
+                    matrix.set(row, col, random().nextDouble() - 0.5);
+
+        return matrix;
+    }
+
+    private JamMatrix randomDense(int nrow, int ncol) {
+        JamMatrix matrix = new JamMatrix(nrow, ncol);
+
+        for (int row = 0; row < nrow; ++row)
+            for (int col = 0; col < ncol; ++col)
+                matrix.set(row, col, random().nextDouble());
+
+        return matrix;
+    }
+
+    private JamVector randomVector(int length) {
+        JamVector vector = JamVector.zeros(length);
+
+        for (int index = 0; index < length; ++index)
+            vector.set(index, random().nextDouble());
+
+        return vector;
+    }
+
+    @Test public void testBuilder() {
+        SparseMatrixBuilder builder = SparseMatrixBuilder.create(3, 4);
+
+        builder.add(2, 1, 1.0);
+        builder.add(0, 3, 2.0);
+        builder.add(2, 1, 3.0);
+        builder.add(1, 0, 5.0);
+        builder.add(1, 0, -5.0);
+        builder.add(0, 0, 0.0);
+        builder.add(0, 2, 6.0);
+
+        assertEquals(6, builder.size());
+
+        JamMatrix expected = JamMatrix.byrow(3, 4,
+                                             0.0, 0.0, 6.0, 2.0,
+                                             0.0, 0.0, 0.0, 0.0,
+                                             0.0, 4.0, 0.0, 0.0);
+
+        CSRMatrix csr = builder.buildCSR();
+        CSCMatrix csc = builder.buildCSC();
+
+        assertEquals(3, csr.countNonZero());
+        assertEquals(3, csc.countNonZero());
+        assertEquals(2, csr.countNonZero(0));
+        assertEquals(0, csr.countNonZero(1));
+        assertEquals(1, csc.countNonZero(1));
+        assertDouble(0.25, csr.density());
+
+        assertTrue(csr.equalsMatrix(expected));
+        assertTrue(csc.equalsMatrix(expected));
+        assertTrue(csr.toDense().equalsMatrix(expected));
+        assertTrue(csc.toDense().equalsMatrix(expected));
+        assertTrue(csr.toCSC().equalsMatrix(expected));
+        assertTrue(csc.toCSR().equalsMatrix(expected));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testBuilderInvalid() {
+        SparseMatrixBuilder.create(3, 4).add(3, 0, 1.0);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetInvalid() {
+        SparseMatrixBuilder.create(3, 4).buildCSR().get(0, 4);
+    }
+
+    @Test public void testCopyOf() {
+        JamMatrix dense = randomSparse(20, 30, 0.1);
+
+        CSRMatrix csr = CSRMatrix.copyOf(dense);
+        CSCMatrix csc = CSCMatrix.copyOf(dense);
+
+        assertTrue(csr.equalsMatrix(dense));
+        assertTrue(csc.equalsMatrix(dense));
+        assertEquals(csr.countNonZero(), csc.countNonZero());
+
+        assertSame(csr, CSRMatrix.copyOf(csr));
+        assertTrue(CSRMatrix.copyOf(csc).equalsMatrix(dense));
+        assertTrue(CSCMatrix.copyOf(csr).equalsMatrix(dense));
+    }
+
+    @Test public void testTranspose() {
+        JamMatrix dense = randomSparse(20, 30, 0.1);
+
+        CSCMatrix csrT = CSRMatrix.copyOf(dense).transpose();
+        CSRMatrix cscT = CSCMatrix.copyOf(dense).transpose();
+
+        assertEquals(30, csrT.nrow());
+        assertEquals(20, csrT.ncol());
+        assertTrue(csrT.equalsMatrix(dense.transpose()));
+        assertTrue(cscT.equalsMatrix(dense.transpose()));
+    }
+
+    @Test public void testProducts() {
+        runProducts(7, 11, 5, 0.3);
+        runProducts(1000, 800, 20, 0.5);
+    }
+
+    private void runProducts(int nrow, int ncol, int nfactor, double density) {
+        JamMatrix dense = randomSparse(nrow, ncol, density);
+        JamMatrix other = randomDense(ncol, nfactor);
+        JamVector right = randomVector(ncol);
+        JamVector left  = randomVector(nrow);
+
+        JamVector rightProduct = dense.times(right);
+        JamVector leftProduct  = JamMatrix.times(left, dense);
+        JamMatrix denseProduct = dense.times(other);
+
+        for (SparseMatrix sparse : new SparseMatrix[] { CSRMatrix.copyOf(dense), CSCMatrix.copyOf(dense) }) {
+            assertTrue(sparse.times(right).equalsVector(rightProduct));
+            assertTrue(sparse.transposeTimes(left).equalsVector(leftProduct));
+            assertTrue(sparse.times(other).equalsMatrix(denseProduct));
+            assertTrue(sparse.transpose().times(left).equalsVector(leftProduct));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTimesInvalid() {
+        CSRMatrix.copyOf(randomSparse(3, 4, 0.5)).times(JamVector.zeros(3));
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("jam.matrix.SparseMatrixTest");
+    }
+}
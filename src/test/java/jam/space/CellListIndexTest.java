@@ -0,0 +1,141 @@
+
+package jam.space;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import jam.junit.NumericTestBase;
+import jam.math.Point;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class CellListIndexTest extends NumericTestBase {
+    private static final double LX = 10.0;
+    private static final double LY = 8.0;
+    private static final double LZ = 6.0;
+
+    private Point randomPoint() {
+        //
+        // Include points outside the primary box to exercise the
+        // periodic image calculations...
+        //
+        return Point.at(3.0 * LX * (random().nextDouble() - 0.5),
+                        3.0 * LY * (random().nextDouble() - 0.5),
+                        3.0 * LZ * (random().nextDouble() - 0.5));
+    }
+
+    private static double minimumImage(double delta, double length) {
+        return delta - length * Math.rint(delta / length);
+    }
+
+    private static double periodicDistance(Point p1, Point p2) {
+        double dx = minimumImage(p1.x() - p2.x(), LX);
+        double dy = minimumImage(p1.y() - p2.y(), LY);
+        double dz = minimumImage(p1.z() - p2.z(), LZ);
+
+        return Math.sqrt(dx * dx + dy * dy + dz * dz);
+    }
+
+    @Test public void testDistance() {
+        CellListIndex<String> index = CellListIndex.create(1.0, LX, LY, LZ);
+
+        assertDouble(1.0, index.distance(Point.at(0.5, 0.0, 0.0), Point.at(9.5, 0.0, 0.0)));
+        assertDouble(1.0, index.distance(Point.at(0.5, 0.0, 0.0), Point.at(-0.5, 0.0, 0.0)));
+        assertDouble(Math.sqrt(2.0), index.distance(Point.at(0.5, 7.5, 0.0), Point.at(29.5, 0.5, 6.0)));
+    }
+
+    @Test public void testQueries() {
+        runQueries(1.0);
+        runQueries(2.5);
+        runQueries(20.0);
+    }
+
+    private void runQueries(double cellSize) {
+        CellListIndex<Integer> index = CellListIndex.create(cellSize, LX, LY, LZ);
+        Map<Integer, Point> points = new LinkedHashMap<Integer, Point>();
+
+        for (int k = 0; k < 1000; ++k) {
+            Point point = randomPoint();
+
+            index.add(k, point);
+            points.put(k, point);
+        }
+
+        for (int k = 0; k < 1000; k += 4) {
+            assertTrue(index.remove(k));
+            points.remove(k);
+        }
+
+        for (int k = 1; k < 1000; k += 5) {
+            Point point = randomPoint();
+
+            index.add(k, point);
+            points.put(k, point);
+        }
+
+        assertEquals(points.size(), index.size());
+
+        for (int trial = 0; trial < 100; ++trial) {
+            Point  center = randomPoint();
+            double radius = 3.0 * random().nextDouble();
+
+            Set<Integer> expected = new HashSet<Integer>();
+
+            for (Map.Entry<Integer, Point> entry : points.entrySet())
+                if (periodicDistance(entry.getValue(), center) <= radius)
+                    expected.add(entry.getKey());
+
+            List<Integer> actual = index.findWithin(center, radius);
+
+            assertEquals(expected.size(), actual.size());
+            assertEquals(expected, new HashSet<Integer>(actual));
+
+            List<Integer> nearest = index.findNearest(center, 8);
+            assertEquals(8, nearest.size());
+
+            double kthDist = periodicDistance(points.get(nearest.get(7)), center);
+
+            for (int k = 1; k < nearest.size(); ++k)
+                assertTrue(periodicDistance(points.get(nearest.get(k - 1)), center)
+                           <= periodicDistance(points.get(nearest.get(k)), center));
+
+            for (Map.Entry<Integer, Point> entry : points.entrySet())
+                if (!nearest.contains(entry.getKey()))
+                    assertTrue(periodicDistance(entry.getValue(), center) >= kthDist);
+        }
+    }
+
+    @Test public void testCellCount() {
+        CellListIndex<Integer> index = CellListIndex.create(3.0, LX, LY);
+
+        assertEquals(2, index.dimensionality());
+        assertEquals(3, index.cellCount(0));
+        assertEquals(2, index.cellCount(1));
+        assertDouble(LX, index.boxLength(0));
+        assertDouble(LY, index.boxLength(1));
+    }
+
+    @Test public void testNearestAll() {
+        CellListIndex<String> index = CellListIndex.create(1.0, LX);
+
+        index.add("A", Point.at(1.0));
+        index.add("B", Point.at(4.0));
+        index.add("C", Point.at(9.0));
+
+        assertEquals(List.of("A", "C", "B"), index.findNearest(Point.at(0.2), 10));
+        assertEquals("C", index.findNearest(Point.at(-1.5)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBox() {
+        CellListIndex.create(1.0, LX, 0.0);
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("jam.space.CellListIndexTest");
+    }
+}
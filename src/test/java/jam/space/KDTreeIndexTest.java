@@ -0,0 +1,150 @@
+
+package jam.space;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import jam.junit.NumericTestBase;
+import jam.math.Point;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class KDTreeIndexTest extends NumericTestBase {
+    private Point randomPoint(int dim) {
+        switch (dim) {
+        case 1:
+            return Point.at(10.0 * random().nextDouble());
+
+        case 2:
+            return Point.at(10.0 * random().nextDouble(), 10.0 * random().nextDouble());
+
+        default:
+            return Point.at(10.0 * random().nextDouble(), 10.0 * random().nextDouble(), 10.0 * random().nextDouble());
+        }
+    }
+
+    private static Set<Integer> bruteWithin(Map<Integer, Point> points, Point center, double radius) {
+        Set<Integer> within = new HashSet<Integer>();
+
+        for (Map.Entry<Integer, Point> entry : points.entrySet())
+            if (entry.getValue().distance(center) <= radius)
+                within.add(entry.getKey());
+
+        return within;
+    }
+
+    private void assertNearest(Map<Integer, Point> points, Point center, List<Integer> nearest, int count) {
+        assertEquals(Math.min(count, points.size()), nearest.size());
+
+        for (int k = 1; k < nearest.size(); ++k)
+            assertTrue(points.get(nearest.get(k - 1)).distance(center) <= points.get(nearest.get(k)).distance(center));
+
+        if (nearest.isEmpty())
+            return;
+
+        double kthDist = points.get(nearest.get(nearest.size() - 1)).distance(center);
+        Set<Integer> nearestSet = new HashSet<Integer>(nearest);
+
+        for (Map.Entry<Integer, Point> entry : points.entrySet())
+            if (!nearestSet.contains(entry.getKey()))
+                assertTrue(entry.getValue().distance(center) >= kthDist);
+    }
+
+    @Test public void testIncremental() {
+        for (int dim = 1; dim <= 3; ++dim)
+            runIncremental(dim);
+    }
+
+    private void runIncremental(int dim) {
+        KDTreeIndex<Integer> index = KDTreeIndex.create(dim);
+        Map<Integer, Point> points = new LinkedHashMap<Integer, Point>();
+
+        for (int k = 0; k < 2000; ++k) {
+            Point point = randomPoint(dim);
+
+            index.add(k, point);
+            points.put(k, point);
+        }
+
+        // Remove some objects and move others...
+        for (int k = 0; k < 2000; k += 3) {
+            assertTrue(index.remove(k));
+            points.remove(k);
+        }
+
+        for (int k = 1; k < 2000; k += 7) {
+            Point point = randomPoint(dim);
+
+            index.add(k, point);
+            points.put(k, point);
+        }
+
+        assertFalse(index.remove(0));
+        assertEquals(points.size(), index.size());
+
+        for (int trial = 0; trial < 100; ++trial) {
+            Point center = randomPoint(dim);
+
+            assertEquals(bruteWithin(points, center, 1.5), new HashSet<Integer>(index.findWithin(center, 1.5)));
+            assertNearest(points, center, index.findNearest(center, 10), 10);
+        }
+
+        for (Map.Entry<Integer, Point> entry : points.entrySet()) {
+            assertTrue(index.contains(entry.getKey()));
+            assertEquals(entry.getValue(), index.locate(entry.getKey()));
+        }
+    }
+
+    @Test public void testSortedInsertion() {
+        //
+        // Points added in sorted order would produce a degenerate
+        // (linked-list) tree without rebalancing...
+        //
+        KDTreeIndex<Integer> index = KDTreeIndex.create(1);
+
+        for (int k = 0; k < 100000; ++k)
+            index.add(k, Point.at(k));
+
+        assertEquals(Integer.valueOf(5000), index.findNearest(Point.at(5000.2)));
+        assertEquals(List.of(99999, 99998, 99997), index.findNearest(Point.at(200000.0), 3));
+        assertEquals(Set.of(9, 10, 11), new HashSet<Integer>(index.findWithin(Point.at(10.0), 1.0)));
+    }
+
+    @Test public void testBalanced() {
+        Map<Integer, Point> points = new LinkedHashMap<Integer, Point>();
+
+        for (int k = 0; k < 1000; ++k)
+            points.put(k, randomPoint(3));
+
+        KDTreeIndex<Integer> index = KDTreeIndex.create(3, points);
+        assertEquals(1000, index.size());
+
+        for (int trial = 0; trial < 100; ++trial) {
+            Point center = randomPoint(3);
+
+            assertEquals(bruteWithin(points, center, 2.0), new HashSet<Integer>(index.findWithin(center, 2.0)));
+            assertNearest(points, center, index.findNearest(center, 5), 5);
+        }
+    }
+
+    @Test public void testEmpty() {
+        KDTreeIndex<String> index = KDTreeIndex.create(2);
+
+        assertNull(index.findNearest(Point.at(0.0, 0.0)));
+        assertTrue(index.findWithin(Point.at(0.0, 0.0), 10.0).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDimensionality() {
+        KDTreeIndex<String> index = KDTreeIndex.create(2);
+        index.add("A", Point.at(1.0, 2.0, 3.0));
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("jam.space.KDTreeIndexTest");
+    }
+}
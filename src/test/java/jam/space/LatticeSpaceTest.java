@@ -0,0 +1,37 @@
+
+package jam.space;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import jam.bravais.Lattice;
+import jam.math.Point;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class LatticeSpaceTest {
+    @Test public void testSitesWithin() {
+        LatticeSpace space = LatticeSpace.create(Lattice.parse("SQUARE; 2.0; 5, 4"));
+
+        Set<Site> expected = new HashSet<Site>();
+
+        for (Site site : space.viewSites())
+            if (site.getPoint().distance(Point.at(3.0, 3.0)) <= 2.5)
+                expected.add(site);
+
+        assertEquals(4, expected.size());
+        assertEquals(expected, new HashSet<Site>(space.sitesWithin(Point.at(3.0, 3.0), 2.5)));
+    }
+
+    @Test public void testNearestSite() {
+        LatticeSpace space = LatticeSpace.create(Lattice.parse("SQUARE; 2.0; 5, 4"));
+
+        assertEquals(Point.at(4.0, 2.0), space.nearestSite(Point.at(4.2, 2.9)).getPoint());
+        assertEquals(Point.at(8.0, 6.0), space.nearestSite(Point.at(100.0, 100.0)).getPoint());
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("jam.space.LatticeSpaceTest");
+    }
+}
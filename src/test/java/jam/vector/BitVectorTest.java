@@ -193,6 +193,56 @@ public class BitVectorTest extends NumericTestBase {
         assertEquals(v3.hamming(v4), v4.hamming(v3));
     }
 
+    @Test public void testCounts() {
+        for (int length : new int[] { 0, 1, 63, 64, 65, 130 }) {
+            BitVector v1 = BitVector.random(length, random());
+            BitVector v2 = BitVector.random(length, random());
+
+            assertEquals(v1.and(v2).cardinality(), v1.andCount(v2));
+            assertEquals(v1.or(v2).cardinality(),  v1.orCount(v2));
+            assertEquals(v1.xor(v2).cardinality(), v1.xorCount(v2));
+            assertEquals(v1.xorCount(v2), v1.hamming(v2));
+
+            int expected = 0;
+
+            for (int index = 0; index < length; ++index)
+                if (v1.get(index) != v2.get(index))
+                    ++expected;
+
+            assertEquals(expected, v1.hamming(v2));
+        }
+    }
+
+    @Test public void testWordBoundary() {
+        BitVector v1 = new BitVector(70, true);
+        assertEquals(70, v1.cardinality());
+
+        v1.flip();
+        assertEquals(0, v1.cardinality());
+        assertEquals(new BitVector(70), v1);
+
+        BitVector v2 = new BitVector(70).not();
+        assertEquals(70, v2.cardinality());
+        assertEquals(new BitVector(70, true), v2);
+
+        v2.set(64, false);
+        assertFalse(v2.get(64));
+        assertTrue(v2.get(63));
+        assertTrue(v2.get(65));
+        assertEquals(69, v2.cardinality());
+    }
+
+    @Test public void testToBitSet() {
+        BitVector vector = BitVector.random(150, random());
+        BitSet bits = vector.toBitSet();
+
+        for (int index = 0; index < vector.length(); ++index)
+            assertEquals(vector.get(index), bits.get(index));
+
+        assertEquals(vector, new BitVector(150, bits));
+        assertEquals(bits.hashCode(), vector.hashCode());
+    }
+
     @Test public void testNot() {
         BitVector v1 = BitVector.parse("0101");
         BitVector v2 = v1.not();
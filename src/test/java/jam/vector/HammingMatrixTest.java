@@ -0,0 +1,79 @@
+
+package jam.vector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jam.junit.NumericTestBase;
+
+import org.junit.*;
+import static org.junit.Assert.*;
+
+public class HammingMatrixTest extends NumericTestBase {
+    private List<BitVector> randomVectors(int count, int length) {
+        List<BitVector> vectors = new ArrayList<BitVector>(count);
+
+        for (int index = 0; index < count; ++index)
+            vectors.add(BitVector.random(length, random()));
+
+        return vectors;
+    }
+
+    private static void assertDistances(List<BitVector> vectors, HammingMatrix matrix) {
+        assertEquals(vectors.size(), matrix.size());
+
+        for (int i = 0; i < vectors.size(); ++i)
+            for (int j = 0; j < vectors.size(); ++j)
+                assertEquals(vectors.get(i).hamming(vectors.get(j)), matrix.get(i, j));
+    }
+
+    @Test public void testSmall() {
+        BitVector v0 = BitVector.parse("0000011111");
+        BitVector v1 = BitVector.parse("0101010101");
+        BitVector v2 = BitVector.parse("1111111111");
+
+        HammingMatrix matrix = HammingMatrix.compute(v0, v1, v2);
+
+        assertEquals(3, matrix.size());
+        assertEquals(0, matrix.get(1, 1));
+        assertEquals(4, matrix.get(0, 1));
+        assertEquals(4, matrix.get(1, 0));
+        assertEquals(5, matrix.get(0, 2));
+        assertEquals(5, matrix.get(1, 2));
+
+        assertArrayEquals(new int[] { 4, 5, 5 }, matrix.toPacked());
+
+        assertEquals(0, matrix.countWithin(3));
+        assertEquals(1, matrix.countWithin(4));
+        assertEquals(3, matrix.countWithin(5));
+    }
+
+    @Test public void testSerial() {
+        List<BitVector> vectors = randomVectors(20, 37);
+        assertDistances(vectors, HammingMatrix.compute(vectors));
+    }
+
+    @Test public void testParallel() {
+        List<BitVector> vectors = randomVectors(500, 200);
+        assertDistances(vectors, HammingMatrix.compute(vectors));
+    }
+
+    @Test public void testEmpty() {
+        assertEquals(0, HammingMatrix.compute(new ArrayList<BitVector>()).size());
+        assertEquals(1, HammingMatrix.compute(BitVector.parse("0101")).size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testLengthMismatch() {
+        HammingMatrix.compute(new BitVector(10), new BitVector(11));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testInvalidIndex() {
+        HammingMatrix.compute(new BitVector(10), new BitVector(10)).get(0, 2);
+    }
+
+    public static void main(String[] args) {
+        org.junit.runner.JUnitCore.main("jam.vector.HammingMatrixTest");
+    }
+}
@@ -179,6 +179,16 @@ public class JamVectorTest extends NumericTestBase {
 	DENSE4.cross(DENSE4);
     }
 
+    @Test public void testDistance() {
+	assertDouble(5.0, JamVector.valueOf(1.0, 2.0, 3.0).distance(JamVector.valueOf(4.0, 6.0, 3.0)));
+	assertDouble(5.0, JamVector.distance(VectorView.wrap(new double[] { 1.0, 2.0 }), JamVector.valueOf(4.0, 6.0)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDistanceInvalid() {
+	DENSE3.distance(DENSE4);
+    }
+
     @Test public void testDot() {
 	assertDouble(15.4, DENSE3.dot(JamVector.valueOf(1.1, 2.2,  3.3)));
 	assertDouble(-5.0, DENSE3.dot(JamVector.valueOf(1.0, 0.0, -2.0)));
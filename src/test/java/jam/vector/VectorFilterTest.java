@@ -62,6 +62,62 @@ public class VectorFilterTest extends NumericTestBase {
         runFilterTest(VectorFilter.ZSCORE, initial, expected);
     }
 
+    @Test public void testPipeline() {
+        FilterPipeline pipeline =
+            FilterPipeline.of(VectorFilter.ABS, VectorFilter.LOG, VectorFilter.ZSCORE, VectorFilter.local(x -> 2.0 * x), VectorFilter.DEMEAN);
+
+        assertEquals(3, pipeline.countPasses());
+        assertEquals(5, pipeline.filters().size());
+        assertFalse(pipeline.isLocal());
+
+        double[][] arrays = new double[100][];
+
+        for (int k = 0; k < arrays.length; ++k) {
+            arrays[k] = new double[50 + k];
+
+            for (int j = 0; j < arrays[k].length; ++j)
+                arrays[k][j] = 1000.0 * (random().nextDouble() - 0.5);
+        }
+
+        JamVector[] expected = new JamVector[arrays.length];
+
+        for (int k = 0; k < arrays.length; ++k) {
+            expected[k] = JamVector.copyOf(arrays[k]);
+
+            for (VectorFilter filter : pipeline.filters())
+                filter.apply(expected[k]);
+        }
+
+        pipeline.applyAll(arrays);
+
+        for (int k = 0; k < arrays.length; ++k)
+            assertTrue(expected[k].equalsVector(arrays[k]));
+    }
+
+    @Test public void testPipelineNonLocal() {
+        VectorFilter reverse = new NonLocalFilter() {
+                @Override protected void filter(JamVector vector) {
+                    JamVector copy = vector.copy();
+
+                    for (int index = 0; index < vector.length(); ++index)
+                        vector.set(index, copy.get(vector.length() - index - 1));
+                }
+            };
+
+        FilterPipeline pipeline = FilterPipeline.of(VectorFilter.DEMEAN).then(reverse).then(VectorFilter.ABS);
+
+        assertEquals(3, pipeline.countPasses());
+        runFilterTest(pipeline, JamVector.valueOf(1.0, 2.0, 6.0), JamVector.valueOf(3.0, 1.0, 2.0));
+    }
+
+    @Test public void testMissing() {
+        JamVector initial  = JamVector.valueOf(1.0, Double.NaN, 3.0);
+        JamVector expected = JamVector.valueOf(-1.0, Double.NaN, 1.0);
+
+        runFilterTest(VectorFilter.DEMEAN, initial.copy(), expected);
+        runFilterTest(FilterPipeline.of(VectorFilter.DEMEAN), initial.copy(), expected);
+    }
+
     public static void main(String[] args) {
         org.junit.runner.JUnitCore.main("jam.vector.VectorFilterTest");
     }
@@ -14,6 +14,19 @@ import static org.junit.Assert.*;
 public class VectorUtilTest extends NumericTestBase {
     private final double TOLERANCE = 1.0e-12;
 
+    @Test public void testAxpy() {
+        double[] x = new double[] { 1.0, 2.0, 3.0 };
+        double[] y = new double[] { 4.0, 5.0, 6.0 };
+
+        VectorUtil.axpy(2.0, x, y);
+        assertTrue(VectorUtil.equals(new double[] { 6.0, 9.0, 12.0 }, y, TOLERANCE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testAxpyInvalid() {
+        VectorUtil.axpy(2.0, new double[2], new double[3]);
+    }
+
     @Test public void testBracket() {
         double[] array = new double[] { 0.0, 1.0, 2.0, 3.0 };
 
@@ -65,6 +78,16 @@ public class VectorUtilTest extends NumericTestBase {
 	VectorUtil.create(-1, -1.1);
     }
 
+    @Test public void testDistance() {
+        assertDouble(5.0, VectorUtil.distance(new double[] { 1.0, 2.0, 3.0 }, new double[] { 4.0, 6.0, 3.0 }));
+        assertDouble(5.0, VectorUtil.distance(new double[] { 1.0, 2.0, Double.NaN }, new double[] { 4.0, 6.0, 3.0 }));
+    }
+
+    @Test public void testDot() {
+        assertDouble(0.0, VectorUtil.dot(new double[0], new double[0]));
+        assertDouble(32.0, VectorUtil.dot(new double[] { 1.0, 2.0, 3.0 }, new double[] { 4.0, 5.0, 6.0 }));
+    }
+
     @Test public void testEquals() {
         double[] x1 = new double[] { 1.0, 2.0, 3.0 };
         double[] x2 = new double[] { 1.0, 2.0, 3.0 };
@@ -84,6 +107,52 @@ public class VectorUtilTest extends NumericTestBase {
         assertDouble(2.5, VectorUtil.mean(new double [] { 1.0, 2.0, 3.0, 4.0 }));
     }
 
+    @Test public void testNorms() {
+        double[] values = new double[] { -3.0, Double.NaN, 4.0 };
+
+        assertDouble(7.0, VectorUtil.norm1(values));
+        assertDouble(5.0, VectorUtil.norm2(values));
+        assertDouble(4.0, VectorUtil.normInf(values));
+        assertEquals(Double.NEGATIVE_INFINITY, VectorUtil.normInf(new double[0]), 0.0);
+    }
+
+    @Test public void testKernels() {
+        for (int length = 0; length < 40; ++length) {
+            double[] x = new double[length];
+            double[] y = new double[length];
+
+            for (int k = 0; k < length; ++k) {
+                x[k] = random().nextDouble() - 0.5;
+                y[k] = random().nextDouble() - 0.5;
+            }
+
+            if (length > 10)
+                y[7] = Double.NaN;
+
+            assertKernels(x, y);
+        }
+    }
+
+    private void assertKernels(double[] x, double[] y) {
+        VectorKernel scalar = VectorKernel.SCALAR;
+        VectorKernel unrolled = VectorKernel.UNROLLED;
+
+        assertEquals(scalar.sum(x), unrolled.sum(x), TOLERANCE);
+        assertEquals(scalar.dot(x, x), unrolled.dot(x, x), TOLERANCE);
+        assertEquals(scalar.sumAbs(y), unrolled.sumAbs(y), TOLERANCE);
+        assertEquals(scalar.sumSquares(y), unrolled.sumSquares(y), TOLERANCE);
+        assertEquals(scalar.maxAbs(y), unrolled.maxAbs(y), 0.0);
+        assertEquals(scalar.sumSquaredDiff(x, y), unrolled.sumSquaredDiff(x, y), TOLERANCE);
+
+        double[] z1 = VectorUtil.copy(x);
+        double[] z2 = VectorUtil.copy(x);
+
+        scalar.axpy(0.5, x, z1);
+        unrolled.axpy(0.5, x, z2);
+
+        assertArrayEquals(z1, z2, 0.0);
+    }
+
     @Test public void testNormalize() {
         double[] values = new double[] { 1.0, -2.0, 5.0 };
 